@@ -16,7 +16,8 @@
  */
 package handlers.targethandlers.affectscope;
 
-import java.util.concurrent.atomic.AtomicInteger;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.function.Consumer;
 import java.util.function.Predicate;
 
@@ -50,13 +51,8 @@ public class Fan implements IAffectScopeHandler
 		final int affectLimit = skill.getAffectLimit();
 		// Target checks.
 		final TargetType targetType = skill.getTargetType();
-		final AtomicInteger affected = new AtomicInteger(0);
 		final Predicate<Creature> filter = c ->
 		{
-			if ((affectLimit > 0) && (affected.get() >= affectLimit))
-			{
-				return false;
-			}
 			if (c.isDead() && (targetType != TargetType.NPC_BODY) && (targetType != TargetType.PC_BODY))
 			{
 				return false;
@@ -69,19 +65,15 @@ public class Fan implements IAffectScopeHandler
 			{
 				return false;
 			}
-			if (!GeoEngine.getInstance().canSeeTarget(creature, c))
-			{
-				return false;
-			}
-			
-			affected.incrementAndGet();
 			return true;
 		};
 		
+		final List<Creature> candidates = new ArrayList<>();
+		
 		// Add object of origin since its skipped in the forEachVisibleObjectInRange method.
 		if (filter.test(creature))
 		{
-			action.accept(creature);
+			candidates.add(creature);
 		}
 		
 		// Check and add targets.
@@ -89,9 +81,12 @@ public class Fan implements IAffectScopeHandler
 		{
 			if (filter.test(c))
 			{
-				action.accept(c);
+				candidates.add(c);
 			}
 		});
+		
+		// Line of sight is checked last, from a single origin cell for all candidates.
+		GeoEngine.getInstance().canSeeTargets(creature, candidates, affectLimit).forEach(action);
 	}
 	
 	@Override
@@ -16,7 +16,8 @@
  */
 package handlers.targethandlers.affectscope;
 
-import java.util.concurrent.atomic.AtomicInteger;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.function.Consumer;
 import java.util.function.Predicate;
 
@@ -49,13 +50,8 @@ public class FanPB implements IAffectScopeHandler
 		final int affectLimit = skill.getAffectLimit();
 		
 		// Target checks.
-		final AtomicInteger affected = new AtomicInteger(0);
 		final Predicate<Creature> filter = c ->
 		{
-			if ((affectLimit > 0) && (affected.get() >= affectLimit))
-			{
-				return false;
-			}
 			if (c.isDead())
 			{
 				return false;
@@ -68,23 +64,22 @@ public class FanPB implements IAffectScopeHandler
 			{
 				return false;
 			}
-			if (!GeoEngine.getInstance().canSeeTarget(creature, c))
-			{
-				return false;
-			}
-			
-			affected.incrementAndGet();
 			return true;
 		};
 		
+		final List<Creature> candidates = new ArrayList<>();
+		
 		// Check and add targets.
 		World.getInstance().forEachVisibleObjectInRange(creature, Creature.class, fanRadius, c ->
 		{
 			if (filter.test(c))
 			{
-				action.accept(c);
+				candidates.add(c);
 			}
 		});
+		
+		// Line of sight is checked last, from a single origin cell for all candidates.
+		GeoEngine.getInstance().canSeeTargets(creature, candidates, affectLimit).forEach(action);
 	}
 	
 	@Override
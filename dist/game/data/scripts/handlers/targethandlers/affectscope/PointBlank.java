@@ -16,7 +16,8 @@
  */
 package handlers.targethandlers.affectscope;
 
-import java.util.concurrent.atomic.AtomicInteger;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.function.Consumer;
 import java.util.function.Predicate;
 
@@ -47,13 +48,8 @@ public class PointBlank implements IAffectScopeHandler
 		final int affectLimit = skill.getAffectLimit();
 		
 		// Target checks.
-		final AtomicInteger affected = new AtomicInteger(0);
 		final Predicate<Creature> filter = c ->
 		{
-			if ((affectLimit > 0) && (affected.get() >= affectLimit))
-			{
-				return false;
-			}
 			if (affectObject != null)
 			{
 				if (c.isDead() && (skill.getAffectObject() != AffectObject.OBJECT_DEAD_NPC_BODY))
@@ -65,15 +61,11 @@ public class PointBlank implements IAffectScopeHandler
 					return false;
 				}
 			}
-			if (!GeoEngine.getInstance().canSeeTarget(target, c))
-			{
-				return false;
-			}
-			
-			affected.incrementAndGet();
 			return true;
 		};
 		
+		final List<Creature> candidates = new ArrayList<>();
+		
 		// Check and add targets.
 		if (skill.getTargetType() == TargetType.GROUND)
 		{
@@ -90,7 +82,7 @@ public class PointBlank implements IAffectScopeHandler
 						}
 						if (filter.test(c))
 						{
-							action.accept(c);
+							candidates.add(c);
 						}
 					});
 				}
@@ -102,10 +94,13 @@ public class PointBlank implements IAffectScopeHandler
 			{
 				if (filter.test(c))
 				{
-					action.accept(c);
+					candidates.add(c);
 				}
 			});
 		}
+		
+		// Line of sight is checked last, from a single origin cell for all candidates.
+		GeoEngine.getInstance().canSeeTargets(target, candidates, affectLimit).forEach(action);
 	}
 	
 	@Override
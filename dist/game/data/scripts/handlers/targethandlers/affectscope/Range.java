@@ -16,7 +16,8 @@
  */
 package handlers.targethandlers.affectscope;
 
-import java.util.concurrent.atomic.AtomicInteger;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.function.Consumer;
 import java.util.function.Predicate;
 
@@ -47,13 +48,8 @@ public class Range implements IAffectScopeHandler
 		
 		// Target checks.
 		final TargetType targetType = skill.getTargetType();
-		final AtomicInteger affected = new AtomicInteger(0);
 		final Predicate<Creature> filter = c ->
 		{
-			if ((affectLimit > 0) && (affected.get() >= affectLimit))
-			{
-				return false;
-			}
 			if (c.isDead() && (targetType != TargetType.NPC_BODY) && (targetType != TargetType.PC_BODY))
 			{
 				return false;
@@ -66,15 +62,11 @@ public class Range implements IAffectScopeHandler
 			{
 				return false;
 			}
-			if (!GeoEngine.getInstance().canSeeTarget(target, c))
-			{
-				return false;
-			}
-			
-			affected.incrementAndGet();
 			return true;
 		};
 		
+		final List<Creature> candidates = new ArrayList<>();
+		
 		// Check and add targets.
 		if (targetType == TargetType.GROUND)
 		{
@@ -91,7 +83,7 @@ public class Range implements IAffectScopeHandler
 						}
 						if (filter.test(c))
 						{
-							action.accept(c);
+							candidates.add(c);
 						}
 					});
 				}
@@ -102,17 +94,20 @@ public class Range implements IAffectScopeHandler
 			// Add object of origin since its skipped in the forEachVisibleObjectInRange method.
 			if (target.isCreature() && filter.test((Creature) target))
 			{
-				action.accept(target);
+				candidates.add((Creature) target);
 			}
 			
 			World.getInstance().forEachVisibleObjectInRange(target, Creature.class, affectRange, c ->
 			{
 				if (filter.test(c))
 				{
-					action.accept(c);
+					candidates.add(c);
 				}
 			});
 		}
+		
+		// Line of sight is checked last, from a single origin cell for all candidates.
+		GeoEngine.getInstance().canSeeTargets(target, candidates, affectLimit).forEach(action);
 	}
 	
 	@Override
@@ -16,7 +16,8 @@
  */
 package handlers.targethandlers.affectscope;
 
-import java.util.concurrent.atomic.AtomicInteger;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.function.Consumer;
 import java.util.function.Predicate;
 
@@ -45,14 +46,8 @@ public class RingRange implements IAffectScopeHandler
 		final int startRange = skill.getFanRange()[2];
 		
 		// Target checks.
-		final AtomicInteger affected = new AtomicInteger(0);
 		final Predicate<Creature> filter = c ->
 		{
-			if ((affectLimit > 0) && (affected.get() >= affectLimit))
-			{
-				return false;
-			}
-			
 			if (c.isDead())
 			{
 				return false;
@@ -69,23 +64,22 @@ public class RingRange implements IAffectScopeHandler
 				return false;
 			}
 			
-			if (!GeoEngine.getInstance().canSeeTarget(target, c))
-			{
-				return false;
-			}
-			
-			affected.incrementAndGet();
 			return true;
 		};
 		
+		final List<Creature> candidates = new ArrayList<>();
+		
 		// Check and add targets.
 		World.getInstance().forEachVisibleObjectInRange(target, Creature.class, affectRange, c ->
 		{
 			if (filter.test(c))
 			{
-				action.accept(c);
+				candidates.add(c);
 			}
 		});
+		
+		// Line of sight is checked last, from a single origin cell for all candidates.
+		GeoEngine.getInstance().canSeeTargets(target, candidates, affectLimit).forEach(action);
 	}
 	
 	@Override
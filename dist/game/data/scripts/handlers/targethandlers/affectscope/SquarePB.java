@@ -16,7 +16,8 @@
  */
 package handlers.targethandlers.affectscope;
 
-import java.util.concurrent.atomic.AtomicInteger;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.function.Consumer;
 import java.util.function.Predicate;
 
@@ -54,13 +55,8 @@ public class SquarePB implements IAffectScopeHandler
 		final double sin = Math.sin(-heading);
 		
 		// Target checks.
-		final AtomicInteger affected = new AtomicInteger(0);
 		final Predicate<Creature> filter = c ->
 		{
-			if ((affectLimit > 0) && (affected.get() >= affectLimit))
-			{
-				return false;
-			}
 			if (c.isDead())
 			{
 				return false;
@@ -77,26 +73,25 @@ public class SquarePB implements IAffectScopeHandler
 				{
 					return false;
 				}
-				if (!GeoEngine.getInstance().canSeeTarget(creature, c))
-				{
-					return false;
-				}
-				
-				affected.incrementAndGet();
 				return true;
 			}
 			
 			return false;
 		};
 		
+		final List<Creature> candidates = new ArrayList<>();
+		
 		// Check and add targets.
 		World.getInstance().forEachVisibleObjectInRange(creature, Creature.class, radius, c ->
 		{
 			if (filter.test(c))
 			{
-				action.accept(c);
+				candidates.add(c);
 			}
 		});
+		
+		// Line of sight is checked last, from a single origin cell for all candidates.
+		GeoEngine.getInstance().canSeeTargets(creature, candidates, affectLimit).forEach(action);
 	}
 	
 	@Override
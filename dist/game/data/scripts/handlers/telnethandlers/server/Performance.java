@@ -17,8 +17,17 @@
 package handlers.telnethandlers.server;
 
 import org.l2jmobius.Config;
+import org.l2jmobius.commons.network.FlushBatchingHandler;
 import org.l2jmobius.commons.threads.ThreadPool;
+import org.l2jmobius.gameserver.ai.PerceptionManager;
+import org.l2jmobius.gameserver.geoengine.GeoEngine;
+import org.l2jmobius.gameserver.geoengine.pathfinding.PathFinding;
+import org.l2jmobius.gameserver.instancemanager.InstanceManager;
+import org.l2jmobius.gameserver.network.PacketExecutor;
 import org.l2jmobius.gameserver.network.telnet.ITelnetCommand;
+import org.l2jmobius.gameserver.taskmanager.AttackableThinkTaskManager;
+import org.l2jmobius.gameserver.taskmanager.MovementTaskManager;
+import org.l2jmobius.gameserver.taskmanager.PersistenceTaskManager;
 
 import io.netty.channel.ChannelHandlerContext;
 
@@ -48,6 +57,48 @@ public class Performance implements ITelnetCommand
 		{
 			sb.append(line + Config.EOL);
 		}
+		for (String line : FlushBatchingHandler.getStats())
+		{
+			sb.append(line + Config.EOL);
+		}
+		for (String line : PacketExecutor.getInstance().getStats())
+		{
+			sb.append(line + Config.EOL);
+		}
+		for (String line : AttackableThinkTaskManager.getInstance().getStats())
+		{
+			sb.append(line + Config.EOL);
+		}
+		for (String line : MovementTaskManager.getInstance().getStats())
+		{
+			sb.append(line + Config.EOL);
+		}
+		for (String line : PerceptionManager.getInstance().getStats())
+		{
+			sb.append(line + Config.EOL);
+		}
+		for (String line : GeoEngine.getInstance().getStats())
+		{
+			sb.append(line + Config.EOL);
+		}
+		for (String line : InstanceManager.getInstance().getStats())
+		{
+			sb.append(line + Config.EOL);
+		}
+		if (Config.PATHFINDING == 2)
+		{
+			for (String line : PathFinding.getInstance().getStat())
+			{
+				sb.append(line + Config.EOL);
+			}
+		}
+		if (Config.CHAR_STORE_WRITE_BEHIND)
+		{
+			for (String line : PersistenceTaskManager.getInstance().getStats())
+			{
+				sb.append(line + Config.EOL);
+			}
+		}
 		return sb.toString();
 	}
 }
@@ -456,7 +456,10 @@ public class Config
 	public static int INSTANT_THREAD_POOL_COUNT;
 	public static int THREADS_PER_INSTANT_THREAD_POOL;
 	public static int IO_PACKET_THREAD_CORE_SIZE;
+	public static int CLIENT_PACKET_THREAD_POOL_SIZE;
 	public static boolean THREADS_FOR_LOADING;
+	public static boolean XML_SNAPSHOTS;
+	public static boolean XML_STREAM_VALIDATION;
 	public static boolean DEADLOCK_DETECTOR;
 	public static int DEADLOCK_CHECK_INTERVAL;
 	public static boolean RESTART_ON_DEADLOCK;
@@ -469,6 +472,10 @@ public class Config
 	public static int CLAN_VARIABLES_STORE_INTERVAL;
 	public static boolean LAZY_ITEMS_UPDATE;
 	public static boolean UPDATE_ITEMS_ON_CHAR_STORE;
+	public static boolean CHAR_STORE_WRITE_BEHIND;
+	public static int CHAR_STORE_THREADS;
+	public static int CHAR_STORE_QUEUE_SIZE;
+	public static int CHAR_STORE_BATCH_SIZE;
 	public static boolean DESTROY_DROPPED_PLAYER_ITEM;
 	public static boolean DESTROY_EQUIPABLE_PLAYER_ITEM;
 	public static boolean DESTROY_ALL_ITEMS;
@@ -508,6 +515,8 @@ public class Config
 	public static int WEAR_PRICE;
 	public static int INSTANCE_FINISH_TIME;
 	public static boolean RESTORE_PLAYER_INSTANCE;
+	public static Set<Integer> INSTANCE_POOL_TEMPLATES = new HashSet<>();
+	public static int INSTANCE_POOL_SIZE;
 	public static int EJECT_DEAD_PLAYER_TIME;
 	public static boolean ALLOW_RACE;
 	public static boolean ALLOW_WATER;
@@ -764,6 +773,10 @@ public class Config
 	public static int LOGIN_TRY_BEFORE_BAN;
 	public static int LOGIN_BLOCK_AFTER_BAN;
 	public static String GAMESERVER_HOSTNAME;
+	public static boolean SHARED_BROADCAST_ENCODING;
+	public static boolean PACKET_FLUSH_BATCHING;
+	public static int PACKET_FLUSH_MAX_BYTES;
+	public static int PACKET_FLUSH_DELAY;
 	public static String DATABASE_DRIVER;
 	public static String DATABASE_URL;
 	public static String DATABASE_LOGIN;
@@ -891,6 +904,9 @@ public class Config
 	public static int MAX_CONNECTION_PER_IP;
 	public static boolean ENABLE_CMD_LINE_LOGIN;
 	public static boolean ONLY_CMD_LINE_LOGIN;
+	public static int LOGIN_AUTH_DECRYPT_THREADS;
+	public static int LOGIN_AUTH_DATABASE_THREADS;
+	public static int LOGIN_AUTH_QUEUE_SIZE;
 	
 	// GrandBoss Settings
 	
@@ -1005,6 +1021,7 @@ public class Config
 	public static boolean ADVANCED_DIAGONAL_STRATEGY;
 	public static float DIAGONAL_WEIGHT;
 	public static int MAX_POSTFILTER_PASSES;
+	public static int PATH_CACHE_SIZE;
 	public static boolean DEBUG_PATH;
 	
 	/** Attribute System */
@@ -1394,6 +1411,10 @@ public class Config
 			final PropertiesParser serverConfig = new PropertiesParser(SERVER_CONFIG_FILE);
 			GAMESERVER_HOSTNAME = serverConfig.getString("GameserverHostname", "0.0.0.0");
 			PORT_GAME = serverConfig.getInt("GameserverPort", 7777);
+			SHARED_BROADCAST_ENCODING = serverConfig.getBoolean("SharedBroadcastEncoding", true);
+			PACKET_FLUSH_BATCHING = serverConfig.getBoolean("PacketFlushBatching", true);
+			PACKET_FLUSH_MAX_BYTES = serverConfig.getInt("PacketFlushMaxBytes", 8192);
+			PACKET_FLUSH_DELAY = serverConfig.getInt("PacketFlushDelay", 0);
 			GAME_SERVER_LOGIN_PORT = serverConfig.getInt("LoginPort", 9014);
 			GAME_SERVER_LOGIN_HOST = serverConfig.getString("LoginHost", "127.0.0.1");
 			REQUEST_ID = serverConfig.getInt("RequestServerID", 0);
@@ -1480,7 +1501,14 @@ public class Config
 			{
 				IO_PACKET_THREAD_CORE_SIZE = Runtime.getRuntime().availableProcessors();
 			}
+			CLIENT_PACKET_THREAD_POOL_SIZE = serverConfig.getInt("ClientPacketThreadPoolSize", -1);
+			if (CLIENT_PACKET_THREAD_POOL_SIZE == -1)
+			{
+				CLIENT_PACKET_THREAD_POOL_SIZE = Runtime.getRuntime().availableProcessors();
+			}
 			THREADS_FOR_LOADING = serverConfig.getBoolean("ThreadsForLoading", false);
+			XML_SNAPSHOTS = serverConfig.getBoolean("XmlSnapshots", false);
+			XML_STREAM_VALIDATION = serverConfig.getBoolean("XmlStreamValidation", true);
 			DEADLOCK_DETECTOR = serverConfig.getBoolean("DeadLockDetector", true);
 			DEADLOCK_CHECK_INTERVAL = serverConfig.getInt("DeadLockCheckInterval", 20);
 			RESTART_ON_DEADLOCK = serverConfig.getBoolean("RestartOnDeadlock", false);
@@ -2100,6 +2128,10 @@ public class Config
 			CLAN_VARIABLES_STORE_INTERVAL = generalConfig.getInt("ClanVariablesStoreInterval", 15) * 60 * 1000;
 			LAZY_ITEMS_UPDATE = generalConfig.getBoolean("LazyItemsUpdate", false);
 			UPDATE_ITEMS_ON_CHAR_STORE = generalConfig.getBoolean("UpdateItemsOnCharStore", false);
+			CHAR_STORE_WRITE_BEHIND = generalConfig.getBoolean("CharacterStoreWriteBehind", true);
+			CHAR_STORE_THREADS = Math.max(1, generalConfig.getInt("CharacterStoreThreads", 2));
+			CHAR_STORE_QUEUE_SIZE = Math.max(1, generalConfig.getInt("CharacterStoreQueueSize", 5000));
+			CHAR_STORE_BATCH_SIZE = Math.max(1, generalConfig.getInt("CharacterStoreBatchSize", 50));
 			DESTROY_DROPPED_PLAYER_ITEM = generalConfig.getBoolean("DestroyPlayerDroppedItem", false);
 			DESTROY_EQUIPABLE_PLAYER_ITEM = generalConfig.getBoolean("DestroyEquipableItem", false);
 			DESTROY_ALL_ITEMS = generalConfig.getBoolean("DestroyAllItems", false);
@@ -2139,6 +2171,21 @@ public class Config
 			WEAR_PRICE = generalConfig.getInt("WearPrice", 10);
 			INSTANCE_FINISH_TIME = generalConfig.getInt("DefaultFinishTime", 5);
 			RESTORE_PLAYER_INSTANCE = generalConfig.getBoolean("RestorePlayerInstance", false);
+			final String instancePoolTemplates = generalConfig.getString("InstancePoolTemplates", "").trim();
+			if (!instancePoolTemplates.isEmpty())
+			{
+				final String[] instancePoolTemplatesSplit = instancePoolTemplates.split(",");
+				INSTANCE_POOL_TEMPLATES = new HashSet<>(instancePoolTemplatesSplit.length);
+				for (String id : instancePoolTemplatesSplit)
+				{
+					INSTANCE_POOL_TEMPLATES.add(Integer.parseInt(id.trim()));
+				}
+			}
+			else // In case of reload with removal of all template ids.
+			{
+				INSTANCE_POOL_TEMPLATES.clear();
+			}
+			INSTANCE_POOL_SIZE = generalConfig.getInt("InstancePoolSize", 2);
 			EJECT_DEAD_PLAYER_TIME = generalConfig.getInt("EjectDeadPlayerTime", 1);
 			ALLOW_RACE = generalConfig.getBoolean("AllowRace", true);
 			ALLOW_WATER = generalConfig.getBoolean("AllowWater", true);
@@ -2639,6 +2686,7 @@ public class Config
 			ADVANCED_DIAGONAL_STRATEGY = geoEngineConfig.getBoolean("AdvancedDiagonalStrategy", true);
 			DIAGONAL_WEIGHT = geoEngineConfig.getFloat("DiagonalWeight", 0.707f);
 			MAX_POSTFILTER_PASSES = geoEngineConfig.getInt("MaxPostfilterPasses", 3);
+			PATH_CACHE_SIZE = geoEngineConfig.getInt("PathCacheSize", 2000);
 			DEBUG_PATH = geoEngineConfig.getBoolean("DebugPath", false);
 			
 			// Load AllowedPlayerRaces config file (if exists)
@@ -3663,6 +3711,9 @@ public class Config
 			MAX_CONNECTION_PER_IP = loginConfig.getInt("MaxConnectionPerIP", 50);
 			ENABLE_CMD_LINE_LOGIN = loginConfig.getBoolean("EnableCmdLineLogin", false);
 			ONLY_CMD_LINE_LOGIN = loginConfig.getBoolean("OnlyCmdLineLogin", false);
+			LOGIN_AUTH_DECRYPT_THREADS = loginConfig.getInt("AuthDecryptThreads", 0);
+			LOGIN_AUTH_DATABASE_THREADS = Math.max(1, loginConfig.getInt("AuthDatabaseThreads", 4));
+			LOGIN_AUTH_QUEUE_SIZE = Math.max(1, loginConfig.getInt("AuthQueueSize", 1000));
 		}
 		else
 		{
@@ -0,0 +1,139 @@
+/*
+ * This file is part of the L2J Mobius project.
+ * 
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.l2jmobius.commons.database;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+
+/**
+ * Collects the parameter rows of several statements and writes them as one JDBC batch per statement.<br>
+ * Statements are executed in the order they were first added, so a DELETE added before an INSERT on the same table is always executed first, even after merging several batches.
+ */
+public class DatabaseBatch
+{
+	private final Map<String, List<Object[]>> _statements = new LinkedHashMap<>();
+	private final List<Runnable> _successActions = new ArrayList<>();
+	private int _rows = 0;
+	
+	/**
+	 * @param query the statement
+	 * @param parameters the parameters of a single row
+	 */
+	public void add(String query, Object... parameters)
+	{
+		_statements.computeIfAbsent(query, k -> new ArrayList<>()).add(parameters);
+		_rows++;
+	}
+	
+	/**
+	 * Appends the rows of another batch to this batch.
+	 * @param batch the batch to merge
+	 */
+	public void addAll(DatabaseBatch batch)
+	{
+		for (Entry<String, List<Object[]>> entry : batch._statements.entrySet())
+		{
+			_statements.computeIfAbsent(entry.getKey(), k -> new ArrayList<>()).addAll(entry.getValue());
+		}
+		_successActions.addAll(batch._successActions);
+		_rows += batch._rows;
+	}
+	
+	/**
+	 * Registers an action to run once this batch is committed, so callers only mark their data stored when it really is.
+	 * @param action the action
+	 */
+	public void onSuccess(Runnable action)
+	{
+		_successActions.add(action);
+	}
+	
+	/**
+	 * Runs the success actions, called by the writer once the batch is committed.
+	 */
+	public void committed()
+	{
+		for (Runnable action : _successActions)
+		{
+			action.run();
+		}
+	}
+	
+	public boolean isEmpty()
+	{
+		return _rows == 0;
+	}
+	
+	/**
+	 * @return the number of rows of all statements
+	 */
+	public int getRowCount()
+	{
+		return _rows;
+	}
+	
+	/**
+	 * @return the number of distinct statements, which is the number of round-trips needed to write this batch
+	 */
+	public int getStatementCount()
+	{
+		return _statements.size();
+	}
+	
+	/**
+	 * Writes the batch on a pooled connection.
+	 * @throws SQLException
+	 */
+	public void execute() throws SQLException
+	{
+		try (Connection con = DatabaseFactory.getConnection())
+		{
+			execute(con);
+		}
+		committed();
+	}
+	
+	/**
+	 * Writes the batch on the given connection, the caller is responsible for the transaction and for calling {@link #committed()} on commit.
+	 * @param con the connection
+	 * @throws SQLException
+	 */
+	public void execute(Connection con) throws SQLException
+	{
+		for (Entry<String, List<Object[]>> entry : _statements.entrySet())
+		{
+			try (PreparedStatement ps = con.prepareStatement(entry.getKey()))
+			{
+				for (Object[] parameters : entry.getValue())
+				{
+					for (int i = 0; i < parameters.length; i++)
+					{
+						ps.setObject(i + 1, parameters[i]);
+					}
+					ps.addBatch();
+				}
+				ps.executeBatch();
+			}
+		}
+	}
+}
@@ -0,0 +1,129 @@
+/*
+ * This file is part of the L2J Mobius project.
+ * 
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.l2jmobius.commons.network;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.channel.ChannelOutboundHandlerAdapter;
+import io.netty.channel.ChannelPromise;
+
+/**
+ * Coalesces the writes of a channel into as few flushes as possible.<br>
+ * Written packets are flushed once at the end of the current event loop iteration (or after the configured delay), or immediately when the bytes written since the last flush reach the configured limit.<br>
+ * An explicit flush, such as {@code writeAndFlush}, is always sent through immediately.<br>
+ * The handler must be placed below the packet encoder, so it sees the encoded packet bodies.
+ */
+public class FlushBatchingHandler extends ChannelOutboundHandlerAdapter
+{
+	private static final LongAdder FLUSH_COUNT = new LongAdder();
+	private static final LongAdder PACKET_COUNT = new LongAdder();
+	private static final LongAdder BYTE_COUNT = new LongAdder();
+	
+	private final int _maxPendingBytes;
+	private final long _delayMicros;
+	private final Runnable _flushTask = this::flushPending;
+	private ChannelHandlerContext _ctx;
+	private int _pendingPackets;
+	private long _pendingBytes;
+	private boolean _flushScheduled;
+	
+	/**
+	 * @param maxPendingBytes the amount of pending bytes that triggers an immediate flush, 0 to disable
+	 * @param delayMicros the maximum delay of a flush in microseconds, 0 to flush at the end of the current event loop iteration
+	 */
+	public FlushBatchingHandler(int maxPendingBytes, long delayMicros)
+	{
+		_maxPendingBytes = maxPendingBytes;
+		_delayMicros = delayMicros;
+	}
+	
+	@Override
+	public void handlerAdded(ChannelHandlerContext ctx)
+	{
+		_ctx = ctx;
+	}
+	
+	@Override
+	public void write(ChannelHandlerContext ctx, Object msg, ChannelPromise promise)
+	{
+		if (msg instanceof ByteBuf)
+		{
+			_pendingBytes += ((ByteBuf) msg).readableBytes();
+		}
+		ctx.write(msg, promise);
+		_pendingPackets++;
+		
+		if ((_maxPendingBytes > 0) && (_pendingBytes >= _maxPendingBytes))
+		{
+			flush(ctx);
+		}
+		else if (!_flushScheduled)
+		{
+			_flushScheduled = true;
+			if (_delayMicros > 0)
+			{
+				ctx.executor().schedule(_flushTask, _delayMicros, TimeUnit.MICROSECONDS);
+			}
+			else
+			{
+				ctx.executor().execute(_flushTask);
+			}
+		}
+	}
+	
+	@Override
+	public void flush(ChannelHandlerContext ctx)
+	{
+		if (_pendingPackets > 0)
+		{
+			FLUSH_COUNT.increment();
+			PACKET_COUNT.add(_pendingPackets);
+			BYTE_COUNT.add(_pendingBytes);
+			_pendingPackets = 0;
+			_pendingBytes = 0;
+		}
+		
+		ctx.flush();
+	}
+	
+	private void flushPending()
+	{
+		_flushScheduled = false;
+		if (_pendingPackets > 0)
+		{
+			flush(_ctx);
+		}
+	}
+	
+	public static String[] getStats()
+	{
+		final long flushes = FLUSH_COUNT.sum();
+		final long packets = PACKET_COUNT.sum();
+		final long bytes = BYTE_COUNT.sum();
+		final String[] stats = new String[6];
+		stats[0] = "Flush batching:";
+		stats[1] = " |- Flushes: ......... " + flushes;
+		stats[2] = " |- Packets: ......... " + packets;
+		stats[3] = " |- Bytes: ........... " + bytes;
+		stats[4] = " |- PacketsPerFlush: . " + (flushes == 0 ? 0 : String.format("%.2f", (double) packets / flushes));
+		stats[5] = " |- BytesPerFlush: ... " + (flushes == 0 ? 0 : bytes / flushes);
+		return stats;
+	}
+}
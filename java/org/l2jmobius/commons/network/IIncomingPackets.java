@@ -29,4 +29,12 @@ public interface IIncomingPackets<T>extends IConnectionState
 	IIncomingPacket<T> newIncomingPacket();
 	
 	Set<IConnectionState> getConnectionStates();
+	
+	/**
+	 * @return {@code true} if packets of this type may block (database access, file access) and must not run on the network thread.
+	 */
+	default boolean isBlocking()
+	{
+		return false;
+	}
 }
@@ -0,0 +1,78 @@
+/*
+ * This file is part of the L2J Mobius project.
+ * 
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.l2jmobius.commons.network;
+
+import org.l2jmobius.commons.network.codecs.PacketEncoder;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.PooledByteBufAllocator;
+
+/**
+ * An outgoing packet whose body is written only once and shared by all the channels it is sent to.<br>
+ * Each channel receives a retained slice of the same pooled buffer and only applies its own encryption.<br>
+ * Instances are meant to live for a single broadcast and are not thread-safe.
+ */
+public class SharedPacket
+{
+	private final IOutgoingPacket _packet;
+	private final PacketEncoder _encoder;
+	private ByteBuf _buffer;
+	private boolean _written;
+	
+	public SharedPacket(IOutgoingPacket packet, PacketEncoder encoder)
+	{
+		_packet = packet;
+		_encoder = encoder;
+	}
+	
+	public IOutgoingPacket getPacket()
+	{
+		return _packet;
+	}
+	
+	/**
+	 * Writes the packet body on first use.
+	 * @return a retained slice of the packet body that must be released by the receiver, or {@code null} if the packet should not be sent.
+	 */
+	public ByteBuf retainedSlice()
+	{
+		if (!_written)
+		{
+			_written = true;
+			_buffer = PooledByteBufAllocator.DEFAULT.buffer();
+			if (!_encoder.writePacket(_packet, _buffer))
+			{
+				_buffer.release();
+				_buffer = null;
+			}
+		}
+		
+		return _buffer == null ? null : _buffer.retainedSlice();
+	}
+	
+	/**
+	 * Releases the reference held by this broadcast. The buffer is returned to the pool once every channel has written its slice.
+	 */
+	public void release()
+	{
+		if (_buffer != null)
+		{
+			_buffer.release();
+			_buffer = null;
+		}
+	}
+}
@@ -50,10 +50,10 @@ public class CryptCodec extends ByteToMessageCodec<ByteBuf>
 			return;
 		}
 		
-		msg.resetReaderIndex();
-		_crypt.encrypt(msg);
-		msg.resetReaderIndex();
+		// Encrypt a copy, so shared broadcast buffers are never modified.
 		out.writeBytes(msg);
+		_crypt.encrypt(out);
+		out.resetReaderIndex();
 	}
 	
 	/*
@@ -45,6 +45,17 @@ public class PacketEncoder extends MessageToByteEncoder<IOutgoingPacket>
 	
 	@Override
 	protected void encode(ChannelHandlerContext ctx, IOutgoingPacket packet, ByteBuf out)
+	{
+		writePacket(packet, out);
+	}
+	
+	/**
+	 * Writes the packet body into the given buffer, leaving it empty if the packet should not be sent.
+	 * @param packet the packet to write
+	 * @param out the destination buffer
+	 * @return {@code true} if the packet body was written, {@code false} otherwise.
+	 */
+	public boolean writePacket(IOutgoingPacket packet, ByteBuf out)
 	{
 		try
 		{
@@ -54,12 +65,11 @@ public class PacketEncoder extends MessageToByteEncoder<IOutgoingPacket>
 				{
 					throw new IllegalStateException("Packet (" + packet + ") size (" + out.writerIndex() + ") is bigger than the expected client limit (" + _maxPacketSize + ")");
 				}
+				return true;
 			}
-			else
-			{
-				// Avoid sending the packet
-				out.clear();
-			}
+			
+			// Avoid sending the packet
+			out.clear();
 		}
 		catch (Throwable e)
 		{
@@ -67,5 +77,6 @@ public class PacketEncoder extends MessageToByteEncoder<IOutgoingPacket>
 			// Avoid sending the packet if some exception happened
 			out.clear();
 		}
+		return false;
 	}
-}
\ No newline at end of file
+}
@@ -0,0 +1,57 @@
+/*
+ * This file is part of the L2J Mobius project.
+ * 
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.l2jmobius.commons.threads;
+
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Creates numbered daemon threads for the dedicated pools of the managers, so they can be told apart in thread dumps and never keep the server alive.
+ */
+public class NamedThreadFactory implements ThreadFactory
+{
+	private final String _name;
+	private final int _priority;
+	private final AtomicInteger _count = new AtomicInteger();
+	
+	/**
+	 * @param name the prefix of the thread names
+	 */
+	public NamedThreadFactory(String name)
+	{
+		this(name, Thread.NORM_PRIORITY);
+	}
+	
+	/**
+	 * @param name the prefix of the thread names
+	 * @param priority the priority of the threads
+	 */
+	public NamedThreadFactory(String name, int priority)
+	{
+		_name = name;
+		_priority = priority;
+	}
+	
+	@Override
+	public Thread newThread(Runnable runnable)
+	{
+		final Thread thread = new Thread(runnable, _name + "-" + _count.incrementAndGet());
+		thread.setDaemon(true);
+		thread.setPriority(_priority);
+		return thread;
+	}
+}
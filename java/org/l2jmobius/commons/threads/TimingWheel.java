@@ -0,0 +1,247 @@
+/*
+ * This file is part of the L2J Mobius project.
+ * 
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.l2jmobius.commons.threads;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Hashed timing wheel that expires keys at their deadline.<br>
+ * Scheduling, rescheduling and cancelling a key are O(1) and every tick only visits the keys of a single slot, instead of scanning all pending deadlines.<br>
+ * Keys that expire during a tick are passed to the expiry consumer after the wheel lock is released, so the consumer may schedule keys again.
+ * @param <K> the key type
+ */
+public class TimingWheel<K>
+{
+	private static final Logger LOGGER = Logger.getLogger(TimingWheel.class.getName());
+	
+	private final long _tickDuration;
+	private final int _mask;
+	private final Node<K>[] _slots;
+	private final Map<K, Node<K>> _nodes = new HashMap<>();
+	private final Consumer<K> _onExpire;
+	private final long _startTime;
+	private long _currentTick;
+	
+	private static class Node<K>
+	{
+		final K key;
+		long deadline;
+		long deadlineTick;
+		int slot;
+		Node<K> prev;
+		Node<K> next;
+		
+		Node(K key)
+		{
+			this.key = key;
+		}
+	}
+	
+	/**
+	 * @param tickDuration the duration of a tick in milliseconds
+	 * @param wheelSize the number of slots, rounded up to a power of two
+	 * @param onExpire the consumer of expired keys
+	 */
+	public TimingWheel(long tickDuration, int wheelSize, Consumer<K> onExpire)
+	{
+		_tickDuration = tickDuration;
+		final int size = Integer.highestOneBit(Math.max(1, wheelSize - 1)) << 1;
+		_mask = size - 1;
+		@SuppressWarnings("unchecked")
+		final Node<K>[] slots = (Node<K>[]) new Node<?>[size];
+		_slots = slots;
+		_onExpire = onExpire;
+		_startTime = System.currentTimeMillis();
+	}
+	
+	/**
+	 * Starts advancing the wheel on the scheduled thread pool.
+	 */
+	public void start()
+	{
+		ThreadPool.scheduleAtFixedRate(this::advance, _tickDuration, _tickDuration);
+	}
+	
+	/**
+	 * Schedules the key to expire at the given time, replacing any previous deadline.
+	 * @param key the key
+	 * @param deadline the expiry time in milliseconds
+	 */
+	public synchronized void schedule(K key, long deadline)
+	{
+		Node<K> node = _nodes.get(key);
+		if (node == null)
+		{
+			node = new Node<>(key);
+			_nodes.put(key, node);
+		}
+		else
+		{
+			unlink(node);
+		}
+		link(node, deadline);
+	}
+	
+	/**
+	 * Schedules the key to expire at the given time, unless it is already scheduled.
+	 * @param key the key
+	 * @param deadline the expiry time in milliseconds
+	 * @return {@code true} if the key was scheduled, {@code false} if it was already pending
+	 */
+	public synchronized boolean scheduleIfAbsent(K key, long deadline)
+	{
+		if (_nodes.containsKey(key))
+		{
+			return false;
+		}
+		
+		final Node<K> node = new Node<>(key);
+		_nodes.put(key, node);
+		link(node, deadline);
+		return true;
+	}
+	
+	/**
+	 * @param key the key
+	 * @return {@code true} if the key was pending and has been cancelled, {@code false} otherwise
+	 */
+	public synchronized boolean cancel(K key)
+	{
+		final Node<K> node = _nodes.remove(key);
+		if (node == null)
+		{
+			return false;
+		}
+		unlink(node);
+		return true;
+	}
+	
+	/**
+	 * @param key the key
+	 * @return the expiry time of the key in milliseconds, or {@code -1} if it is not pending
+	 */
+	public synchronized long getDeadline(K key)
+	{
+		final Node<K> node = _nodes.get(key);
+		return node == null ? -1 : node.deadline;
+	}
+	
+	public synchronized boolean contains(K key)
+	{
+		return _nodes.containsKey(key);
+	}
+	
+	public synchronized int size()
+	{
+		return _nodes.size();
+	}
+	
+	/**
+	 * @param action the action to perform on every pending key and its expiry time
+	 */
+	public synchronized void forEach(BiConsumer<K, Long> action)
+	{
+		for (Node<K> node : _nodes.values())
+		{
+			action.accept(node.key, node.deadline);
+		}
+	}
+	
+	/**
+	 * Processes every tick elapsed since the last call and expires the keys that are due.
+	 */
+	public void advance()
+	{
+		final List<K> expired = new ArrayList<>();
+		synchronized (this)
+		{
+			final long targetTick = (System.currentTimeMillis() - _startTime) / _tickDuration;
+			
+			// A full rotation visits every slot, so there is no need to process more ticks than slots.
+			long tick = Math.max(_currentTick + 1, (targetTick - _mask));
+			for (; tick <= targetTick; tick++)
+			{
+				Node<K> node = _slots[(int) (tick & _mask)];
+				while (node != null)
+				{
+					final Node<K> next = node.next;
+					if (node.deadlineTick <= targetTick)
+					{
+						unlink(node);
+						_nodes.remove(node.key);
+						expired.add(node.key);
+					}
+					node = next;
+				}
+			}
+			_currentTick = Math.max(_currentTick, targetTick);
+		}
+		
+		for (K key : expired)
+		{
+			try
+			{
+				_onExpire.accept(key);
+			}
+			catch (Exception e)
+			{
+				LOGGER.log(Level.WARNING, getClass().getSimpleName() + ": Failed to expire " + key, e);
+			}
+		}
+	}
+	
+	private void link(Node<K> node, long deadline)
+	{
+		// Round up, so a key never expires before its deadline. Deadlines in the past expire on the next tick.
+		final long deadlineTick = Math.max(_currentTick + 1, ((deadline - _startTime) + _tickDuration - 1) / _tickDuration);
+		node.deadline = deadline;
+		node.deadlineTick = deadlineTick;
+		node.slot = (int) (deadlineTick & _mask);
+		node.prev = null;
+		node.next = _slots[node.slot];
+		if (node.next != null)
+		{
+			node.next.prev = node;
+		}
+		_slots[node.slot] = node;
+	}
+	
+	private void unlink(Node<K> node)
+	{
+		if (node.prev != null)
+		{
+			node.prev.next = node.next;
+		}
+		else
+		{
+			_slots[node.slot] = node.next;
+		}
+		if (node.next != null)
+		{
+			node.next.prev = node.prev;
+		}
+		node.prev = null;
+		node.next = null;
+	}
+}
@@ -0,0 +1,168 @@
+/*
+ * This file is part of the L2J Mobius project.
+ * 
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.l2jmobius.commons.util;
+
+import java.io.File;
+import java.io.FileFilter;
+import java.util.Collection;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ScheduledFuture;
+import java.util.logging.Logger;
+
+import org.l2jmobius.Config;
+import org.l2jmobius.commons.threads.ThreadPool;
+import org.l2jmobius.commons.util.file.filter.XMLFilter;
+
+/**
+ * Loading path shared by XML parsers, the files of a directory are handed one by one to {@link #parseFile(File)}.<br>
+ * {@link IXmlReader} parses them into documents, {@link IXmlStreamReader} reads them as a stream of events.
+ */
+public interface IXmlLoader
+{
+	Logger LOGGER = Logger.getLogger(IXmlLoader.class.getName());
+	
+	/** The default file filter, ".xml" files only. */
+	XMLFilter XML_FILTER = new XMLFilter();
+	
+	/**
+	 * This method can be used to load/reload the data.<br>
+	 * It's highly recommended to clear the data storage, either the list or map.
+	 */
+	void load();
+	
+	/**
+	 * Wrapper for {@link #parseFile(File)} method.
+	 * @param path the relative path to the datapack root of the XML file to parse.
+	 */
+	default void parseDatapackFile(String path)
+	{
+		parseFile(new File(Config.DATAPACK_ROOT, path));
+	}
+	
+	/**
+	 * Parses a single XML file.
+	 * @param f the XML file to parse.
+	 */
+	void parseFile(File f);
+	
+	/**
+	 * Checks if XML validation is enabled.
+	 * @return {@code true} if its enabled, {@code false} otherwise
+	 */
+	default boolean isValidating()
+	{
+		return true;
+	}
+	
+	/**
+	 * Checks if XML comments are ignored.
+	 * @return {@code true} if its comments are ignored, {@code false} otherwise
+	 */
+	default boolean isIgnoringComments()
+	{
+		return true;
+	}
+	
+	/**
+	 * Wrapper for {@link #parseDirectory(File, boolean)}.
+	 * @param file the path to the directory where the XML files are.
+	 * @return {@code false} if it fails to find the directory, {@code true} otherwise.
+	 */
+	default boolean parseDirectory(File file)
+	{
+		return parseDirectory(file, false);
+	}
+	
+	/**
+	 * Wrapper for {@link #parseDirectory(File, boolean)}.
+	 * @param path the path to the directory where the XML files are
+	 * @param recursive parses all sub folders if there is
+	 * @return {@code false} if it fails to find the directory, {@code true} otherwise
+	 */
+	default boolean parseDatapackDirectory(String path, boolean recursive)
+	{
+		return parseDirectory(new File(Config.DATAPACK_ROOT, path), recursive);
+	}
+	
+	/**
+	 * Loads all XML files from {@code path} and calls {@link #parseFile(File)} for each one of them.
+	 * @param dir the directory object to scan.
+	 * @param recursive parses all sub folders if there is.
+	 * @return {@code false} if it fails to find the directory, {@code true} otherwise.
+	 */
+	default boolean parseDirectory(File dir, boolean recursive)
+	{
+		if (!dir.exists())
+		{
+			LOGGER.warning("Folder " + dir.getAbsolutePath() + " doesn't exist!");
+			return false;
+		}
+		
+		if (Config.THREADS_FOR_LOADING)
+		{
+			final Collection<ScheduledFuture<?>> jobs = ConcurrentHashMap.newKeySet();
+			final File[] listOfFiles = dir.listFiles();
+			for (File file : listOfFiles)
+			{
+				if (recursive && file.isDirectory())
+				{
+					parseDirectory(file, recursive);
+				}
+				else if (getCurrentFileFilter().accept(file))
+				{
+					jobs.add(ThreadPool.schedule(() -> parseFile(file), 0));
+				}
+			}
+			while (!jobs.isEmpty())
+			{
+				for (ScheduledFuture<?> job : jobs)
+				{
+					if ((job == null) || job.isDone() || job.isCancelled())
+					{
+						jobs.remove(job);
+					}
+				}
+			}
+		}
+		else
+		{
+			final File[] listOfFiles = dir.listFiles();
+			for (File file : listOfFiles)
+			{
+				if (recursive && file.isDirectory())
+				{
+					parseDirectory(file, recursive);
+				}
+				else if (getCurrentFileFilter().accept(file))
+				{
+					parseFile(file);
+				}
+			}
+		}
+		
+		return true;
+	}
+	
+	/**
+	 * Gets the current file filter.
+	 * @return the current file filter
+	 */
+	default FileFilter getCurrentFileFilter()
+	{
+		return XML_FILTER;
+	}
+}
@@ -17,19 +17,14 @@
 package org.l2jmobius.commons.util;
 
 import java.io.File;
-import java.io.FileFilter;
 import java.util.ArrayList;
-import java.util.Collection;
 import java.util.HashMap;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.ScheduledFuture;
 import java.util.function.Consumer;
 import java.util.function.Predicate;
 import java.util.logging.Level;
-import java.util.logging.Logger;
 
 import javax.xml.parsers.DocumentBuilder;
 import javax.xml.parsers.DocumentBuilderFactory;
@@ -41,40 +36,18 @@ import org.w3c.dom.NodeList;
 import org.xml.sax.ErrorHandler;
 import org.xml.sax.SAXParseException;
 
-import org.l2jmobius.Config;
-import org.l2jmobius.commons.threads.ThreadPool;
-import org.l2jmobius.commons.util.file.filter.XMLFilter;
 import org.l2jmobius.gameserver.model.Location;
 import org.l2jmobius.gameserver.model.holders.MinionHolder;
 import org.l2jmobius.gameserver.model.holders.SkillHolder;
 
 /**
- * Interface for XML parsers.
+ * Interface for XML parsers that read their files into documents.
  * @author Zoey76
  */
-public interface IXmlReader
+public interface IXmlReader extends IXmlLoader
 {
-	Logger LOGGER = Logger.getLogger(IXmlReader.class.getName());
-	
 	String JAXP_SCHEMA_LANGUAGE = "http://java.sun.com/xml/jaxp/properties/schemaLanguage";
 	String W3C_XML_SCHEMA = "http://www.w3.org/2001/XMLSchema";
-	/** The default file filter, ".xml" files only. */
-	XMLFilter XML_FILTER = new XMLFilter();
-	
-	/**
-	 * This method can be used to load/reload the data.<br>
-	 * It's highly recommended to clear the data storage, either the list or map.
-	 */
-	void load();
-	
-	/**
-	 * Wrapper for {@link #parseFile(File)} method.
-	 * @param path the relative path to the datapack root of the XML file to parse.
-	 */
-	default void parseDatapackFile(String path)
-	{
-		parseFile(new File(Config.DATAPACK_ROOT, path));
-	}
 	
 	/**
 	 * Parses a single XML file.<br>
@@ -82,6 +55,7 @@ public interface IXmlReader
 	 * <b>Validation is enforced.</b>
 	 * @param f the XML file to parse.
 	 */
+	@Override
 	default void parseFile(File f)
 	{
 		if (!getCurrentFileFilter().accept(f))
@@ -90,16 +64,10 @@ public interface IXmlReader
 			return;
 		}
 		
-		final DocumentBuilderFactory dbf = DocumentBuilderFactory.newInstance();
-		dbf.setNamespaceAware(true);
-		dbf.setValidating(isValidating());
-		dbf.setIgnoringComments(isIgnoringComments());
 		try
 		{
-			dbf.setAttribute(JAXP_SCHEMA_LANGUAGE, W3C_XML_SCHEMA);
-			final DocumentBuilder db = dbf.newDocumentBuilder();
-			db.setErrorHandler(new XMLErrorHandler());
-			parseDocument(db.parse(f), f);
+			final XmlSnapshot snapshot = getSnapshot();
+			parseDocument(snapshot == null ? readDocument(f) : snapshot.getDocument(f, this::readDocument), f);
 		}
 		catch (SAXParseException e)
 		{
@@ -112,101 +80,31 @@ public interface IXmlReader
 	}
 	
 	/**
-	 * Checks if XML validation is enabled.
-	 * @return {@code true} if its enabled, {@code false} otherwise
-	 */
-	default boolean isValidating()
-	{
-		return true;
-	}
-	
-	/**
-	 * Checks if XML comments are ignored.
-	 * @return {@code true} if its comments are ignored, {@code false} otherwise
-	 */
-	default boolean isIgnoringComments()
-	{
-		return true;
-	}
-	
-	/**
-	 * Wrapper for {@link #parseDirectory(File, boolean)}.
-	 * @param file the path to the directory where the XML files are.
-	 * @return {@code false} if it fails to find the directory, {@code true} otherwise.
-	 */
-	default boolean parseDirectory(File file)
-	{
-		return parseDirectory(file, false);
-	}
-	
-	/**
-	 * Wrapper for {@link #parseDirectory(File, boolean)}.
-	 * @param path the path to the directory where the XML files are
-	 * @param recursive parses all sub folders if there is
-	 * @return {@code false} if it fails to find the directory, {@code true} otherwise
+	 * Parses the XML file into a document.<br>
+	 * <b>Validation is enforced.</b>
+	 * @param f the XML file to parse.
+	 * @return the parsed document.
+	 * @throws Exception if the file could not be parsed.
 	 */
-	default boolean parseDatapackDirectory(String path, boolean recursive)
+	default Document readDocument(File f) throws Exception
 	{
-		return parseDirectory(new File(Config.DATAPACK_ROOT, path), recursive);
+		final DocumentBuilderFactory dbf = DocumentBuilderFactory.newInstance();
+		dbf.setNamespaceAware(true);
+		dbf.setValidating(isValidating());
+		dbf.setIgnoringComments(isIgnoringComments());
+		dbf.setAttribute(JAXP_SCHEMA_LANGUAGE, W3C_XML_SCHEMA);
+		final DocumentBuilder db = dbf.newDocumentBuilder();
+		db.setErrorHandler(new XMLErrorHandler());
+		return db.parse(f);
 	}
 	
 	/**
-	 * Loads all XML files from {@code path} and calls {@link #parseFile(File)} for each one of them.
-	 * @param dir the directory object to scan.
-	 * @param recursive parses all sub folders if there is.
-	 * @return {@code false} if it fails to find the directory, {@code true} otherwise.
+	 * Gets the snapshot used while loading, readers that keep a snapshot of their data set override this.
+	 * @return the snapshot, or {@code null} to always parse the XML files
 	 */
-	default boolean parseDirectory(File dir, boolean recursive)
+	default XmlSnapshot getSnapshot()
 	{
-		if (!dir.exists())
-		{
-			LOGGER.warning("Folder " + dir.getAbsolutePath() + " doesn't exist!");
-			return false;
-		}
-		
-		if (Config.THREADS_FOR_LOADING)
-		{
-			final Collection<ScheduledFuture<?>> jobs = ConcurrentHashMap.newKeySet();
-			final File[] listOfFiles = dir.listFiles();
-			for (File file : listOfFiles)
-			{
-				if (recursive && file.isDirectory())
-				{
-					parseDirectory(file, recursive);
-				}
-				else if (getCurrentFileFilter().accept(file))
-				{
-					jobs.add(ThreadPool.schedule(() -> parseFile(file), 0));
-				}
-			}
-			while (!jobs.isEmpty())
-			{
-				for (ScheduledFuture<?> job : jobs)
-				{
-					if ((job == null) || job.isDone() || job.isCancelled())
-					{
-						jobs.remove(job);
-					}
-				}
-			}
-		}
-		else
-		{
-			final File[] listOfFiles = dir.listFiles();
-			for (File file : listOfFiles)
-			{
-				if (recursive && file.isDirectory())
-				{
-					parseDirectory(file, recursive);
-				}
-				else if (getCurrentFileFilter().accept(file))
-				{
-					parseFile(file);
-				}
-			}
-		}
-		
-		return true;
+		return null;
 	}
 	
 	/**
@@ -789,15 +687,6 @@ public interface IXmlReader
 		return node.getNodeType() == Node.TEXT_NODE;
 	}
 	
-	/**
-	 * Gets the current file filter.
-	 * @return the current file filter
-	 */
-	default FileFilter getCurrentFileFilter()
-	{
-		return XML_FILTER;
-	}
-	
 	/**
 	 * Simple XML error handler.
 	 * @author Zoey76
@@ -0,0 +1,459 @@
+/*
+ * This file is part of the L2J Mobius project.
+ * 
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.l2jmobius.commons.util;
+
+import java.io.BufferedInputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.InputStream;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.logging.Level;
+
+import javax.xml.XMLConstants;
+import javax.xml.parsers.DocumentBuilderFactory;
+import javax.xml.parsers.ParserConfigurationException;
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import javax.xml.transform.stream.StreamSource;
+import javax.xml.validation.Schema;
+import javax.xml.validation.SchemaFactory;
+import javax.xml.validation.Validator;
+
+import org.w3c.dom.Document;
+import org.w3c.dom.Element;
+import org.w3c.dom.Node;
+import org.w3c.dom.Text;
+import org.xml.sax.SAXException;
+import org.xml.sax.SAXParseException;
+
+import org.l2jmobius.Config;
+
+/**
+ * Interface for XML parsers that read their files as a stream of events instead of a document.<br>
+ * Only the element being read is held in memory, so large files no longer need a document several times their size.<br>
+ * Readers that keep a {@link XmlSnapshot} also implement {@link IXmlReader} and parse documents while snapshots are enabled, {@link #readElement(XMLStreamReader)} lets both modes share the same record parser.
+ */
+public interface IXmlStreamReader extends IXmlLoader
+{
+	/**
+	 * Parses the events of a file, the stream is positioned on the root element.<br>
+	 * Elements can be read with {@link #forEach(XMLStreamReader, StreamAction)}, anything left unread is skipped.
+	 * @param reader the stream of the file
+	 * @param f the file
+	 * @throws Exception
+	 */
+	void parseStream(XMLStreamReader reader, File f) throws Exception;
+	
+	/**
+	 * Parses a single XML file as a stream.<br>
+	 * A StAX stream cannot be validated while it is read, so schema validation is a second pass over the file, it can be turned off with {@link Config#XML_STREAM_VALIDATION}.<br>
+	 * A validated file with errors is skipped as a whole, malformed XML always stops the parsing of the file.
+	 * @param f the XML file to parse.
+	 */
+	@Override
+	default void parseFile(File f)
+	{
+		if (!getCurrentFileFilter().accept(f))
+		{
+			LOGGER.warning("Could not parse " + f.getName() + " is not a file or it doesn't exist!");
+			return;
+		}
+		
+		try
+		{
+			if (Config.XML_STREAM_VALIDATION && isValidating())
+			{
+				final Validator validator = StreamFactory.SCHEMA.newValidator();
+				validator.setErrorHandler(new IXmlReader.XMLErrorHandler());
+				validator.validate(new StreamSource(f));
+			}
+			
+			try (InputStream is = new BufferedInputStream(new FileInputStream(f)))
+			{
+				final XMLStreamReader reader = StreamFactory.INPUT.get().createXMLStreamReader(is);
+				try
+				{
+					reader.nextTag();
+					parseStream(reader, f);
+				}
+				finally
+				{
+					reader.close();
+				}
+			}
+		}
+		catch (SAXParseException e)
+		{
+			LOGGER.log(Level.WARNING, "Could not parse file: " + f.getName() + " at line: " + e.getLineNumber() + ", column: " + e.getColumnNumber() + " :", e);
+		}
+		catch (XMLStreamException e)
+		{
+			LOGGER.log(Level.WARNING, "Could not parse file: " + f.getName() + " at line: " + (e.getLocation() != null ? e.getLocation().getLineNumber() : -1) + " :", e);
+		}
+		catch (Exception e)
+		{
+			LOGGER.log(Level.WARNING, "Could not parse file: " + f.getName(), e);
+		}
+	}
+	
+	/**
+	 * Executes action for each child element of the current element.<br>
+	 * The action is called with the stream positioned on the child, it may read the child attributes, text or children, whatever is left unread is skipped.
+	 * @param reader the stream, positioned on an element
+	 * @param action the action
+	 * @throws XMLStreamException
+	 */
+	default void forEach(XMLStreamReader reader, StreamAction action) throws XMLStreamException
+	{
+		while (reader.nextTag() == XMLStreamConstants.START_ELEMENT)
+		{
+			action.accept(reader);
+			if (reader.getEventType() == XMLStreamConstants.START_ELEMENT)
+			{
+				skipElement(reader);
+			}
+		}
+	}
+	
+	/**
+	 * Executes action for each child element of the current element that matches elementName.
+	 * @param reader the stream, positioned on an element
+	 * @param elementName the element name
+	 * @param action the action
+	 * @throws XMLStreamException
+	 */
+	default void forEach(XMLStreamReader reader, String elementName, StreamAction action) throws XMLStreamException
+	{
+		forEach(reader, child ->
+		{
+			if (elementName.equalsIgnoreCase(child.getLocalName()))
+			{
+				action.accept(child);
+			}
+		});
+	}
+	
+	/**
+	 * Moves the stream to the end of the current element.
+	 * @param reader the stream, positioned on an element
+	 * @throws XMLStreamException
+	 */
+	static void skipElement(XMLStreamReader reader) throws XMLStreamException
+	{
+		int depth = 1;
+		while (depth > 0)
+		{
+			switch (reader.next())
+			{
+				case XMLStreamConstants.START_ELEMENT:
+				{
+					depth++;
+					break;
+				}
+				case XMLStreamConstants.END_ELEMENT:
+				{
+					depth--;
+					break;
+				}
+			}
+		}
+	}
+	
+	/**
+	 * Reads the current element with its attributes, text and children into a detached node, the stream ends on the end of the element.<br>
+	 * Used to hand a single record to a parser written for documents.
+	 * @param reader the stream, positioned on an element
+	 * @return the element
+	 * @throws XMLStreamException
+	 */
+	default Node readElement(XMLStreamReader reader) throws XMLStreamException
+	{
+		final Document document = StreamFactory.DOCUMENT.get();
+		final Element root = StreamFactory.createElement(document, reader);
+		Node parent = root;
+		while (parent != null)
+		{
+			switch (reader.next())
+			{
+				case XMLStreamConstants.START_ELEMENT:
+				{
+					final Element element = StreamFactory.createElement(document, reader);
+					parent.appendChild(element);
+					parent = element;
+					break;
+				}
+				case XMLStreamConstants.END_ELEMENT:
+				{
+					parent = parent == root ? null : parent.getParentNode();
+					break;
+				}
+				case XMLStreamConstants.CHARACTERS:
+				case XMLStreamConstants.SPACE:
+				{
+					// Text around a skipped comment is a single node in a parsed document.
+					final Node last = parent.getLastChild();
+					if ((last != null) && (last.getNodeType() == Node.TEXT_NODE))
+					{
+						((Text) last).appendData(reader.getText());
+					}
+					else
+					{
+						parent.appendChild(document.createTextNode(reader.getText()));
+					}
+					break;
+				}
+				case XMLStreamConstants.CDATA:
+				{
+					parent.appendChild(document.createCDATASection(reader.getText()));
+					break;
+				}
+				case XMLStreamConstants.COMMENT:
+				{
+					if (!isIgnoringComments())
+					{
+						parent.appendChild(document.createComment(reader.getText()));
+					}
+					break;
+				}
+			}
+		}
+		return root;
+	}
+	
+	/**
+	 * @param reader the stream, positioned on an element
+	 * @return parses all attributes of the current element to a Map
+	 */
+	default Map<String, Object> parseAttributes(XMLStreamReader reader)
+	{
+		final Map<String, Object> map = new LinkedHashMap<>();
+		for (int i = 0; i < reader.getAttributeCount(); i++)
+		{
+			map.put(StreamFactory.getQualifiedName(reader.getAttributePrefix(i), reader.getAttributeLocalName(i)), reader.getAttributeValue(i));
+		}
+		return map;
+	}
+	
+	/**
+	 * Parses a boolean value.
+	 * @param reader the stream, positioned on an element
+	 * @param name the name of the attribute to parse
+	 * @param defaultValue the default value
+	 * @return if the attribute is present, the parsed value, otherwise the default value
+	 */
+	default Boolean parseBoolean(XMLStreamReader reader, String name, Boolean defaultValue)
+	{
+		final String value = reader.getAttributeValue(null, name);
+		return value != null ? Boolean.valueOf(value) : defaultValue;
+	}
+	
+	/**
+	 * Parses a boolean value.
+	 * @param reader the stream, positioned on an element
+	 * @param name the name of the attribute to parse
+	 * @return if the attribute is present, the parsed value, otherwise null
+	 */
+	default Boolean parseBoolean(XMLStreamReader reader, String name)
+	{
+		return parseBoolean(reader, name, null);
+	}
+	
+	/**
+	 * Parses a byte value.
+	 * @param reader the stream, positioned on an element
+	 * @param name the name of the attribute to parse
+	 * @param defaultValue the default value
+	 * @return if the attribute is present, the parsed value, otherwise the default value
+	 */
+	default Byte parseByte(XMLStreamReader reader, String name, Byte defaultValue)
+	{
+		final String value = reader.getAttributeValue(null, name);
+		return value != null ? Byte.decode(value) : defaultValue;
+	}
+	
+	/**
+	 * Parses a byte value.
+	 * @param reader the stream, positioned on an element
+	 * @param name the name of the attribute to parse
+	 * @return if the attribute is present, the parsed value, otherwise null
+	 */
+	default Byte parseByte(XMLStreamReader reader, String name)
+	{
+		return parseByte(reader, name, null);
+	}
+	
+	/**
+	 * Parses an integer value.
+	 * @param reader the stream, positioned on an element
+	 * @param name the name of the attribute to parse
+	 * @param defaultValue the default value
+	 * @return if the attribute is present, the parsed value, otherwise the default value
+	 */
+	default Integer parseInteger(XMLStreamReader reader, String name, Integer defaultValue)
+	{
+		final String value = reader.getAttributeValue(null, name);
+		return value != null ? Integer.decode(value) : defaultValue;
+	}
+	
+	/**
+	 * Parses an integer value.
+	 * @param reader the stream, positioned on an element
+	 * @param name the name of the attribute to parse
+	 * @return if the attribute is present, the parsed value, otherwise null
+	 */
+	default Integer parseInteger(XMLStreamReader reader, String name)
+	{
+		return parseInteger(reader, name, null);
+	}
+	
+	/**
+	 * Parses a long value.
+	 * @param reader the stream, positioned on an element
+	 * @param name the name of the attribute to parse
+	 * @param defaultValue the default value
+	 * @return if the attribute is present, the parsed value, otherwise the default value
+	 */
+	default Long parseLong(XMLStreamReader reader, String name, Long defaultValue)
+	{
+		final String value = reader.getAttributeValue(null, name);
+		return value != null ? Long.decode(value) : defaultValue;
+	}
+	
+	/**
+	 * Parses a long value.
+	 * @param reader the stream, positioned on an element
+	 * @param name the name of the attribute to parse
+	 * @return if the attribute is present, the parsed value, otherwise null
+	 */
+	default Long parseLong(XMLStreamReader reader, String name)
+	{
+		return parseLong(reader, name, null);
+	}
+	
+	/**
+	 * Parses a double value.
+	 * @param reader the stream, positioned on an element
+	 * @param name the name of the attribute to parse
+	 * @param defaultValue the default value
+	 * @return if the attribute is present, the parsed value, otherwise the default value
+	 */
+	default Double parseDouble(XMLStreamReader reader, String name, Double defaultValue)
+	{
+		final String value = reader.getAttributeValue(null, name);
+		return value != null ? Double.valueOf(value) : defaultValue;
+	}
+	
+	/**
+	 * Parses a double value.
+	 * @param reader the stream, positioned on an element
+	 * @param name the name of the attribute to parse
+	 * @return if the attribute is present, the parsed value, otherwise null
+	 */
+	default Double parseDouble(XMLStreamReader reader, String name)
+	{
+		return parseDouble(reader, name, null);
+	}
+	
+	/**
+	 * Parses a string value.
+	 * @param reader the stream, positioned on an element
+	 * @param name the name of the attribute to parse
+	 * @param defaultValue the default value
+	 * @return if the attribute is present, its value, otherwise the default value
+	 */
+	default String parseString(XMLStreamReader reader, String name, String defaultValue)
+	{
+		final String value = reader.getAttributeValue(null, name);
+		return value != null ? value : defaultValue;
+	}
+	
+	/**
+	 * Parses a string value.
+	 * @param reader the stream, positioned on an element
+	 * @param name the name of the attribute to parse
+	 * @return if the attribute is present, its value, otherwise null
+	 */
+	default String parseString(XMLStreamReader reader, String name)
+	{
+		return parseString(reader, name, null);
+	}
+	
+	/**
+	 * Action on the stream positioned on an element.
+	 */
+	@FunctionalInterface
+	interface StreamAction
+	{
+		void accept(XMLStreamReader reader) throws XMLStreamException;
+	}
+	
+	/**
+	 * Factories shared by all stream readers, the schema keeps the grammars it has loaded so each schema file is only read once.
+	 */
+	class StreamFactory
+	{
+		static final Schema SCHEMA;
+		static final ThreadLocal<XMLInputFactory> INPUT = ThreadLocal.withInitial(() ->
+		{
+			final XMLInputFactory factory = XMLInputFactory.newInstance();
+			factory.setProperty(XMLInputFactory.IS_COALESCING, true);
+			factory.setProperty(XMLInputFactory.SUPPORT_DTD, false);
+			return factory;
+		});
+		static final ThreadLocal<Document> DOCUMENT = ThreadLocal.withInitial(() ->
+		{
+			try
+			{
+				return DocumentBuilderFactory.newInstance().newDocumentBuilder().newDocument();
+			}
+			catch (ParserConfigurationException e)
+			{
+				throw new IllegalStateException(e);
+			}
+		});
+		
+		static
+		{
+			try
+			{
+				SCHEMA = SchemaFactory.newInstance(XMLConstants.W3C_XML_SCHEMA_NS_URI).newSchema();
+			}
+			catch (SAXException e)
+			{
+				throw new IllegalStateException(e);
+			}
+		}
+		
+		static Element createElement(Document document, XMLStreamReader reader)
+		{
+			final Element element = document.createElementNS(reader.getNamespaceURI(), getQualifiedName(reader.getPrefix(), reader.getLocalName()));
+			for (int i = 0; i < reader.getAttributeCount(); i++)
+			{
+				element.setAttributeNS(reader.getAttributeNamespace(i), getQualifiedName(reader.getAttributePrefix(i), reader.getAttributeLocalName(i)), reader.getAttributeValue(i));
+			}
+			return element;
+		}
+		
+		static String getQualifiedName(String prefix, String localName)
+		{
+			return (prefix == null) || prefix.isEmpty() ? localName : prefix + ":" + localName;
+		}
+	}
+}
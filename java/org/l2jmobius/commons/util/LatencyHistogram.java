@@ -0,0 +1,123 @@
+/*
+ * This file is part of the L2J Mobius project.
+ * 
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.l2jmobius.commons.util;
+
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Lock-free latency histogram with power of two microsecond buckets.<br>
+ * Bucket 0 holds samples below 1us and bucket i holds samples from 2^(i-1) up to 2^i microseconds.
+ */
+public class LatencyHistogram
+{
+	private static final int BUCKET_COUNT = 24; // The last bucket holds everything above 4 seconds.
+	
+	private final LongAdder[] _buckets = new LongAdder[BUCKET_COUNT];
+	private final LongAdder _count = new LongAdder();
+	private final LongAdder _totalNanos = new LongAdder();
+	private final LongAccumulator _maxNanos = new LongAccumulator(Math::max, 0);
+	
+	public LatencyHistogram()
+	{
+		for (int i = 0; i < BUCKET_COUNT; i++)
+		{
+			_buckets[i] = new LongAdder();
+		}
+	}
+	
+	/**
+	 * @param nanos the duration to record in nanoseconds
+	 */
+	public void record(long nanos)
+	{
+		final long micros = nanos / 1000;
+		_buckets[Math.min(BUCKET_COUNT - 1, 64 - Long.numberOfLeadingZeros(micros))].increment();
+		_count.increment();
+		_totalNanos.add(nanos);
+		_maxNanos.accumulate(nanos);
+	}
+	
+	public long getCount()
+	{
+		return _count.sum();
+	}
+	
+	public long getTotalNanos()
+	{
+		return _totalNanos.sum();
+	}
+	
+	public long getMaxMicros()
+	{
+		return _maxNanos.get() / 1000;
+	}
+	
+	public long getMeanMicros()
+	{
+		final long count = _count.sum();
+		return count == 0 ? 0 : (_totalNanos.sum() / count) / 1000;
+	}
+	
+	/**
+	 * @param percentile the percentile, from 0 to 100
+	 * @return the upper bound in microseconds of the bucket that contains the given percentile
+	 */
+	public long getPercentileMicros(double percentile)
+	{
+		final long[] counts = new long[BUCKET_COUNT];
+		long total = 0;
+		for (int i = 0; i < BUCKET_COUNT; i++)
+		{
+			counts[i] = _buckets[i].sum();
+			total += counts[i];
+		}
+		if (total == 0)
+		{
+			return 0;
+		}
+		
+		final long rank = (long) Math.ceil((percentile / 100) * total);
+		long seen = 0;
+		for (int i = 0; i < (BUCKET_COUNT - 1); i++)
+		{
+			seen += counts[i];
+			if (seen >= rank)
+			{
+				return 1L << i;
+			}
+		}
+		return getMaxMicros();
+	}
+	
+	public void reset()
+	{
+		for (LongAdder bucket : _buckets)
+		{
+			bucket.reset();
+		}
+		_count.reset();
+		_totalNanos.reset();
+		_maxNanos.reset();
+	}
+	
+	@Override
+	public String toString()
+	{
+		return "count " + getCount() + ", mean " + getMeanMicros() + "us, p50 " + getPercentileMicros(50) + "us, p99 " + getPercentileMicros(99) + "us, max " + getMaxMicros() + "us";
+	}
+}
@@ -0,0 +1,282 @@
+/*
+ * This file is part of the L2J Mobius project.
+ * 
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.l2jmobius.commons.util;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.Consumer;
+import java.util.logging.Logger;
+
+/**
+ * Startup sequence where each loader declares the loaders it depends on.<br>
+ * Loaders added with {@link #add(String, Runnable, String...)} form the main chain and run in the order they were added, loaders added with {@link #parallel(String, Runnable, String...)} only wait for their own dependencies.<br>
+ * Everything runs on a fork-join pool and a timing report per section and per loader, including the critical path, is logged at the end.
+ */
+public class StartupGraph
+{
+	private static final Logger LOGGER = Logger.getLogger(StartupGraph.class.getName());
+	
+	private final Map<String, Loader> _loaders = new LinkedHashMap<>();
+	private final Set<String> _startedSections = new HashSet<>();
+	private final Consumer<String> _sectionPrinter;
+	private String _section = "";
+	private Loader _last = null;
+	private boolean _barrier = false;
+	private long _start;
+	
+	private static class Loader
+	{
+		final String _name;
+		final String _section;
+		final Runnable _runnable;
+		final Loader[] _dependencies;
+		CompletableFuture<Void> _future;
+		volatile long _startTime;
+		volatile long _endTime;
+		
+		Loader(String name, String section, Runnable runnable, Loader[] dependencies)
+		{
+			_name = name;
+			_section = section;
+			_runnable = runnable;
+			_dependencies = dependencies;
+		}
+		
+		long getTime()
+		{
+			return (_endTime - _startTime) / 1000000;
+		}
+	}
+	
+	/**
+	 * @param sectionPrinter prints the header of a section when its first loader starts
+	 */
+	public StartupGraph(Consumer<String> sectionPrinter)
+	{
+		_sectionPrinter = sectionPrinter;
+	}
+	
+	/**
+	 * Sets the section of the loaders added next.
+	 * @param section the section name
+	 */
+	public void section(String section)
+	{
+		_section = section;
+	}
+	
+	/**
+	 * Adds a loader to the main chain, it runs after the previous loader of the chain and after the given dependencies.
+	 * @param name the loader name, used by other loaders to depend on it
+	 * @param runnable the loader
+	 * @param dependencies the names of additional loaders it depends on
+	 */
+	public void add(String name, Runnable runnable, String... dependencies)
+	{
+		final List<Loader> loaders = resolve(dependencies);
+		if (_barrier)
+		{
+			loaders.addAll(_loaders.values());
+			_barrier = false;
+		}
+		else if (_last != null)
+		{
+			loaders.add(_last);
+		}
+		_last = register(name, runnable, loaders);
+	}
+	
+	/**
+	 * Adds a loader outside of the main chain, it runs as soon as the given dependencies are done.
+	 * @param name the loader name, used by other loaders to depend on it
+	 * @param runnable the loader
+	 * @param dependencies the names of the loaders it depends on
+	 */
+	public void parallel(String name, Runnable runnable, String... dependencies)
+	{
+		register(name, runnable, resolve(dependencies));
+	}
+	
+	/**
+	 * Makes the next loader of the main chain wait for every loader added so far.
+	 */
+	public void barrier()
+	{
+		_barrier = true;
+	}
+	
+	private List<Loader> resolve(String... dependencies)
+	{
+		final List<Loader> loaders = new ArrayList<>(dependencies.length + 1);
+		for (String dependency : dependencies)
+		{
+			final Loader loader = _loaders.get(dependency);
+			if (loader == null)
+			{
+				// Dependencies must be added first, which also keeps the graph free of cycles.
+				throw new IllegalArgumentException("Unknown startup dependency " + dependency + ".");
+			}
+			loaders.add(loader);
+		}
+		return loaders;
+	}
+	
+	private Loader register(String name, Runnable runnable, List<Loader> dependencies)
+	{
+		if (_loaders.containsKey(name))
+		{
+			throw new IllegalArgumentException("Duplicate startup loader " + name + ".");
+		}
+		
+		final Loader loader = new Loader(name, _section, runnable, dependencies.toArray(new Loader[dependencies.size()]));
+		_loaders.put(name, loader);
+		return loader;
+	}
+	
+	/**
+	 * Runs all loaders, waits for them and logs the timing report.
+	 * @param threads the number of loaders that may run at the same time
+	 * @throws Exception the first failure of a loader
+	 */
+	public void run(int threads) throws Exception
+	{
+		final ForkJoinPool pool = new ForkJoinPool(Math.max(threads, 1));
+		_start = System.nanoTime();
+		try
+		{
+			for (Loader loader : _loaders.values())
+			{
+				final CompletableFuture<?>[] dependencies = new CompletableFuture<?>[loader._dependencies.length];
+				for (int i = 0; i < dependencies.length; i++)
+				{
+					dependencies[i] = loader._dependencies[i]._future;
+				}
+				loader._future = CompletableFuture.allOf(dependencies).thenRunAsync(() -> execute(loader), pool);
+			}
+			
+			try
+			{
+				CompletableFuture.allOf(_loaders.values().stream().map(loader -> loader._future).toArray(CompletableFuture<?>[]::new)).join();
+			}
+			catch (CompletionException e)
+			{
+				final Throwable cause = e.getCause() instanceof CompletionException ? e.getCause().getCause() : e.getCause();
+				if (cause instanceof Exception)
+				{
+					throw (Exception) cause;
+				}
+				if (cause instanceof Error)
+				{
+					throw (Error) cause;
+				}
+				throw e;
+			}
+		}
+		finally
+		{
+			pool.shutdown();
+		}
+		
+		report();
+	}
+	
+	private void execute(Loader loader)
+	{
+		synchronized (_startedSections)
+		{
+			if (_startedSections.add(loader._section))
+			{
+				_sectionPrinter.accept(loader._section);
+			}
+		}
+		
+		loader._startTime = System.nanoTime();
+		try
+		{
+			loader._runnable.run();
+		}
+		finally
+		{
+			loader._endTime = System.nanoTime();
+		}
+	}
+	
+	private void report()
+	{
+		_sectionPrinter.accept("Startup Report");
+		
+		// Loaders per section, sections in the order they were declared.
+		final Map<String, List<Loader>> sections = new LinkedHashMap<>();
+		Loader last = null;
+		long busyTime = 0;
+		for (Loader loader : _loaders.values())
+		{
+			sections.computeIfAbsent(loader._section, k -> new ArrayList<>()).add(loader);
+			busyTime += loader.getTime();
+			if ((last == null) || (loader._endTime > last._endTime))
+			{
+				last = loader;
+			}
+		}
+		
+		for (Map.Entry<String, List<Loader>> entry : sections.entrySet())
+		{
+			long sectionStart = Long.MAX_VALUE;
+			long sectionEnd = 0;
+			long sectionTime = 0;
+			for (Loader loader : entry.getValue())
+			{
+				sectionStart = Math.min(sectionStart, loader._startTime);
+				sectionEnd = Math.max(sectionEnd, loader._endTime);
+				sectionTime += loader.getTime();
+			}
+			LOGGER.info(entry.getKey() + ": " + ((sectionEnd - sectionStart) / 1000000) + " ms wall, " + sectionTime + " ms loading, from +" + ((sectionStart - _start) / 1000000) + " ms.");
+			for (Loader loader : entry.getValue())
+			{
+				LOGGER.info(" |- " + loader._name + ": " + loader.getTime() + " ms, from +" + ((loader._startTime - _start) / 1000000) + " ms.");
+			}
+		}
+		
+		// Walk back from the loader that finished last through the dependency that finished last.
+		final List<String> criticalPath = new ArrayList<>();
+		Loader loader = last;
+		while (loader != null)
+		{
+			criticalPath.add(0, loader._name + " (" + loader.getTime() + " ms)");
+			Loader previous = null;
+			for (Loader dependency : loader._dependencies)
+			{
+				if ((previous == null) || (dependency._endTime > previous._endTime))
+				{
+					previous = dependency;
+				}
+			}
+			loader = previous;
+		}
+		
+		final long totalTime = last == null ? 0 : (last._endTime - _start) / 1000000;
+		LOGGER.info("Critical path: " + String.join(" > ", criticalPath));
+		LOGGER.info(_loaders.size() + " loaders done in " + totalTime + " ms, " + busyTime + " ms of loading.");
+	}
+}
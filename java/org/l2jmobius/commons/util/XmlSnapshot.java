@@ -0,0 +1,447 @@
+/*
+ * This file is part of the L2J Mobius project.
+ * 
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.l2jmobius.commons.util;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import java.util.zip.CRC32C;
+
+import javax.xml.parsers.DocumentBuilder;
+import javax.xml.parsers.DocumentBuilderFactory;
+import javax.xml.parsers.ParserConfigurationException;
+
+import org.w3c.dom.Attr;
+import org.w3c.dom.Document;
+import org.w3c.dom.Element;
+import org.w3c.dom.NamedNodeMap;
+import org.w3c.dom.Node;
+
+import org.l2jmobius.Config;
+
+/**
+ * Binary snapshot of the parsed XML documents of a data set.<br>
+ * Every document is stored as a compact tree of variable length indexes into its own string table, keyed by the size and checksum of its source file.<br>
+ * A document whose source file is unchanged is rebuilt from the snapshot, skipping parsing and schema validation, any other document is parsed from XML and the snapshot is rewritten by {@link #save()}.
+ */
+public class XmlSnapshot
+{
+	private static final Logger LOGGER = Logger.getLogger(XmlSnapshot.class.getName());
+	
+	private static final File DIRECTORY = new File("snapshots");
+	private static final int MAGIC = 0x4C325853;
+	private static final int VERSION = 1;
+	
+	private static final byte ELEMENT = 1;
+	private static final byte TEXT = 2;
+	private static final byte CDATA = 3;
+	private static final byte COMMENT = 4;
+	
+	// Namespace indexes, the strings of the table start after these.
+	private static final int NO_NAMESPACE_SUPPORT = 0;
+	private static final int NULL_NAMESPACE = 1;
+	private static final int NAMESPACE_OFFSET = 2;
+	
+	private static final ThreadLocal<DocumentBuilder> BUILDER = ThreadLocal.withInitial(() ->
+	{
+		try
+		{
+			return DocumentBuilderFactory.newInstance().newDocumentBuilder();
+		}
+		catch (ParserConfigurationException e)
+		{
+			throw new IllegalStateException(e);
+		}
+	});
+	
+	private final String _name;
+	private final File _file;
+	private final Map<String, Entry> _previous;
+	private final Map<String, Entry> _entries = new ConcurrentHashMap<>();
+	private final AtomicInteger _hits = new AtomicInteger();
+	private final AtomicInteger _misses = new AtomicInteger();
+	
+	@FunctionalInterface
+	public interface DocumentParser
+	{
+		Document parse(File file) throws Exception;
+	}
+	
+	private static class Entry
+	{
+		final long _key;
+		final byte[] _data;
+		
+		Entry(long key, byte[] data)
+		{
+			_key = key;
+			_data = data;
+		}
+	}
+	
+	/**
+	 * Opens the snapshot of a data set, nothing is read when snapshots are disabled.
+	 * @param name the data set name, also the snapshot file name
+	 */
+	public XmlSnapshot(String name)
+	{
+		_name = name;
+		_file = new File(DIRECTORY, name + ".bin");
+		_previous = Config.XML_SNAPSHOTS ? read() : Collections.emptyMap();
+	}
+	
+	private Map<String, Entry> read()
+	{
+		if (!_file.isFile())
+		{
+			return Collections.emptyMap();
+		}
+		
+		try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(_file))))
+		{
+			if ((in.readInt() != MAGIC) || (in.readInt() != VERSION))
+			{
+				return Collections.emptyMap();
+			}
+			
+			final int count = in.readInt();
+			final Map<String, Entry> entries = new HashMap<>(count * 2);
+			for (int i = 0; i < count; i++)
+			{
+				final String path = in.readUTF();
+				final long key = in.readLong();
+				final byte[] data = new byte[in.readInt()];
+				in.readFully(data);
+				entries.put(path, new Entry(key, data));
+			}
+			return entries;
+		}
+		catch (IOException e)
+		{
+			LOGGER.log(Level.WARNING, getClass().getSimpleName() + ": Could not read " + _file + ", parsing " + _name + " from XML.", e);
+			return Collections.emptyMap();
+		}
+	}
+	
+	/**
+	 * Returns the document of the file, from the snapshot if the file is unchanged, otherwise from the parser.<br>
+	 * Safe to call from several threads.
+	 * @param file the XML file
+	 * @param parser the parser used when the file is not in the snapshot
+	 * @return the document
+	 * @throws Exception when the parser fails
+	 */
+	public Document getDocument(File file, DocumentParser parser) throws Exception
+	{
+		if (!Config.XML_SNAPSHOTS)
+		{
+			return parser.parse(file);
+		}
+		
+		final String path = file.getPath();
+		final long key = getKey(file);
+		final Entry entry = _previous.get(path);
+		if ((entry != null) && (entry._key == key))
+		{
+			try
+			{
+				final Document document = decode(entry._data);
+				_entries.put(path, entry);
+				_hits.incrementAndGet();
+				return document;
+			}
+			catch (Exception e)
+			{
+				LOGGER.log(Level.WARNING, getClass().getSimpleName() + ": Could not rebuild " + path + ", parsing it from XML.", e);
+			}
+		}
+		
+		final Document document = parser.parse(file);
+		_entries.put(path, new Entry(key, encode(document)));
+		_misses.incrementAndGet();
+		return document;
+	}
+	
+	/**
+	 * Rewrites the snapshot if a file was added, changed or removed since it was written.
+	 */
+	public void save()
+	{
+		if (!Config.XML_SNAPSHOTS)
+		{
+			return;
+		}
+		
+		LOGGER.info(getClass().getSimpleName() + ": " + _name + " loaded " + _hits.get() + " documents from snapshot, parsed " + _misses.get() + ".");
+		if ((_misses.get() == 0) && (_entries.size() == _previous.size()))
+		{
+			return;
+		}
+		
+		DIRECTORY.mkdirs();
+		final File temp = new File(DIRECTORY, _name + ".tmp");
+		try
+		{
+			try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(temp))))
+			{
+				out.writeInt(MAGIC);
+				out.writeInt(VERSION);
+				out.writeInt(_entries.size());
+				for (Map.Entry<String, Entry> entry : _entries.entrySet())
+				{
+					out.writeUTF(entry.getKey());
+					out.writeLong(entry.getValue()._key);
+					out.writeInt(entry.getValue()._data.length);
+					out.write(entry.getValue()._data);
+				}
+			}
+			Files.move(temp.toPath(), _file.toPath(), StandardCopyOption.REPLACE_EXISTING);
+		}
+		catch (IOException e)
+		{
+			LOGGER.log(Level.WARNING, getClass().getSimpleName() + ": Could not write " + _file + ".", e);
+		}
+	}
+	
+	/**
+	 * @param file the file
+	 * @return the file size in the high bits and the CRC32C of its content in the low bits
+	 * @throws IOException
+	 */
+	private static long getKey(File file) throws IOException
+	{
+		final byte[] content = Files.readAllBytes(file.toPath());
+		final CRC32C crc = new CRC32C();
+		crc.update(content);
+		return ((long) content.length << 32) | crc.getValue();
+	}
+	
+	private static byte[] encode(Document document) throws IOException
+	{
+		final Map<String, Integer> indexes = new HashMap<>();
+		final List<String> strings = new ArrayList<>();
+		final ByteArrayOutputStream nodes = new ByteArrayOutputStream();
+		writeChildren(new DataOutputStream(nodes), document, indexes, strings);
+		
+		final ByteArrayOutputStream bytes = new ByteArrayOutputStream(nodes.size() + (strings.size() * 16));
+		final DataOutputStream out = new DataOutputStream(bytes);
+		writeVarInt(out, strings.size());
+		for (String string : strings)
+		{
+			final byte[] utf = string.getBytes(StandardCharsets.UTF_8);
+			writeVarInt(out, utf.length);
+			out.write(utf);
+		}
+		nodes.writeTo(out);
+		return bytes.toByteArray();
+	}
+	
+	private static void writeChildren(DataOutputStream out, Node parent, Map<String, Integer> indexes, List<String> strings) throws IOException
+	{
+		int count = 0;
+		for (Node node = parent.getFirstChild(); node != null; node = node.getNextSibling())
+		{
+			count++;
+		}
+		writeVarInt(out, count);
+		
+		for (Node node = parent.getFirstChild(); node != null; node = node.getNextSibling())
+		{
+			switch (node.getNodeType())
+			{
+				case Node.ELEMENT_NODE:
+				{
+					out.writeByte(ELEMENT);
+					writeName(out, node, indexes, strings);
+					final NamedNodeMap attributes = node.getAttributes();
+					writeVarInt(out, attributes.getLength());
+					for (int i = 0; i < attributes.getLength(); i++)
+					{
+						final Node attribute = attributes.item(i);
+						writeName(out, attribute, indexes, strings);
+						writeVarInt(out, index(attribute.getNodeValue(), indexes, strings));
+					}
+					writeChildren(out, node, indexes, strings);
+					break;
+				}
+				case Node.TEXT_NODE:
+				{
+					out.writeByte(TEXT);
+					writeVarInt(out, index(node.getNodeValue(), indexes, strings));
+					break;
+				}
+				case Node.CDATA_SECTION_NODE:
+				{
+					out.writeByte(CDATA);
+					writeVarInt(out, index(node.getNodeValue(), indexes, strings));
+					break;
+				}
+				case Node.COMMENT_NODE:
+				{
+					out.writeByte(COMMENT);
+					writeVarInt(out, index(node.getNodeValue(), indexes, strings));
+					break;
+				}
+				default:
+				{
+					throw new IOException("Unsupported node type " + node.getNodeType() + ".");
+				}
+			}
+		}
+	}
+	
+	private static void writeName(DataOutputStream out, Node node, Map<String, Integer> indexes, List<String> strings) throws IOException
+	{
+		if (node.getLocalName() == null)
+		{
+			writeVarInt(out, NO_NAMESPACE_SUPPORT);
+		}
+		else if (node.getNamespaceURI() == null)
+		{
+			writeVarInt(out, NULL_NAMESPACE);
+		}
+		else
+		{
+			writeVarInt(out, index(node.getNamespaceURI(), indexes, strings) + NAMESPACE_OFFSET);
+		}
+		writeVarInt(out, index(node.getNodeName(), indexes, strings));
+	}
+	
+	private static int index(String string, Map<String, Integer> indexes, List<String> strings)
+	{
+		return indexes.computeIfAbsent(string, k ->
+		{
+			strings.add(k);
+			return strings.size() - 1;
+		});
+	}
+	
+	private static Document decode(byte[] data) throws IOException
+	{
+		final DataInputStream in = new DataInputStream(new ByteArrayInputStream(data));
+		final String[] strings = new String[readVarInt(in)];
+		for (int i = 0; i < strings.length; i++)
+		{
+			final byte[] utf = new byte[readVarInt(in)];
+			in.readFully(utf);
+			strings[i] = new String(utf, StandardCharsets.UTF_8);
+		}
+		
+		final Document document = BUILDER.get().newDocument();
+		readChildren(in, document, document, strings);
+		return document;
+	}
+	
+	private static void readChildren(DataInputStream in, Document document, Node parent, String[] strings) throws IOException
+	{
+		final int count = readVarInt(in);
+		for (int i = 0; i < count; i++)
+		{
+			switch (in.readByte())
+			{
+				case ELEMENT:
+				{
+					final int namespace = readVarInt(in);
+					final String name = strings[readVarInt(in)];
+					final Element element = namespace == NO_NAMESPACE_SUPPORT ? document.createElement(name) : document.createElementNS(getNamespace(namespace, strings), name);
+					final int attributes = readVarInt(in);
+					for (int j = 0; j < attributes; j++)
+					{
+						final int attributeNamespace = readVarInt(in);
+						final String attributeName = strings[readVarInt(in)];
+						final String value = strings[readVarInt(in)];
+						final Attr attribute = attributeNamespace == NO_NAMESPACE_SUPPORT ? document.createAttribute(attributeName) : document.createAttributeNS(getNamespace(attributeNamespace, strings), attributeName);
+						attribute.setValue(value);
+						element.setAttributeNode(attribute);
+					}
+					readChildren(in, document, element, strings);
+					parent.appendChild(element);
+					break;
+				}
+				case TEXT:
+				{
+					parent.appendChild(document.createTextNode(strings[readVarInt(in)]));
+					break;
+				}
+				case CDATA:
+				{
+					parent.appendChild(document.createCDATASection(strings[readVarInt(in)]));
+					break;
+				}
+				case COMMENT:
+				{
+					parent.appendChild(document.createComment(strings[readVarInt(in)]));
+					break;
+				}
+				default:
+				{
+					throw new IOException("Corrupted snapshot.");
+				}
+			}
+		}
+	}
+	
+	private static void writeVarInt(DataOutputStream out, int value) throws IOException
+	{
+		int remaining = value;
+		while ((remaining & ~0x7F) != 0)
+		{
+			out.writeByte((remaining & 0x7F) | 0x80);
+			remaining >>>= 7;
+		}
+		out.writeByte(remaining);
+	}
+	
+	private static int readVarInt(DataInputStream in) throws IOException
+	{
+		int value = 0;
+		for (int shift = 0; shift < 32; shift += 7)
+		{
+			final int b = in.readUnsignedByte();
+			value |= (b & 0x7F) << shift;
+			if ((b & 0x80) == 0)
+			{
+				return value;
+			}
+		}
+		throw new IOException("Corrupted snapshot.");
+	}
+	
+	private static String getNamespace(int index, String[] strings)
+	{
+		return index == NULL_NAMESPACE ? null : strings[index - NAMESPACE_OFFSET];
+	}
+}
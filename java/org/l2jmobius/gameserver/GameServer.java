@@ -34,6 +34,7 @@ import org.l2jmobius.commons.enums.ServerMode;
 import org.l2jmobius.commons.threads.ThreadPool;
 import org.l2jmobius.commons.util.DeadLockDetector;
 import org.l2jmobius.commons.util.PropertiesParser;
+import org.l2jmobius.commons.util.StartupGraph;
 import org.l2jmobius.gameserver.cache.HtmCache;
 import org.l2jmobius.gameserver.data.BotReportTable;
 import org.l2jmobius.gameserver.data.ItemTable;
@@ -235,214 +236,244 @@ public class GameServer
 			throw new Exception("Could not initialize the ID factory!");
 		}
 		
-		printSection("Scripting Engine");
-		EventDispatcher.getInstance();
-		ScriptEngineManager.getInstance();
-		
-		printSection("Telnet");
-		TelnetServer.getInstance();
-		
-		printSection("World");
-		World.getInstance();
-		MapRegionManager.getInstance();
-		ZoneManager.getInstance();
-		DoorData.getInstance();
-		FenceData.getInstance();
-		AnnouncementsTable.getInstance();
-		GlobalVariablesManager.getInstance();
-		
-		printSection("Data");
-		ActionData.getInstance();
-		CategoryData.getInstance();
-		SecondaryAuthData.getInstance();
-		CombinationItemsData.getInstance();
-		SayuneData.getInstance();
-		DailyMissionHandler.getInstance().executeScript();
-		DailyMissionData.getInstance();
-		
-		printSection("Skills");
-		SkillConditionHandler.getInstance().executeScript();
-		EffectHandler.getInstance().executeScript();
-		EnchantSkillGroupsData.getInstance();
-		SkillTreeData.getInstance();
-		SkillData.getInstance();
-		PetSkillData.getInstance();
-		
-		printSection("Items");
-		ConditionHandler.getInstance().executeScript();
-		ItemTable.getInstance();
-		EnchantItemGroupsData.getInstance();
-		EnchantItemData.getInstance();
-		EnchantItemOptionsData.getInstance();
-		ElementalAttributeData.getInstance();
-		ItemCrystallizationData.getInstance();
-		OptionData.getInstance();
-		VariationData.getInstance();
-		EnsoulData.getInstance();
-		EnchantItemHPBonusData.getInstance();
-		BuyListData.getInstance();
-		MultisellData.getInstance();
-		EquipmentUpgradeData.getInstance();
-		EquipmentUpgradeNormalData.getInstance();
-		AgathionData.getInstance();
-		RecipeData.getInstance();
-		ArmorSetData.getInstance();
-		FishingData.getInstance();
-		HennaData.getInstance();
-		PrimeShopData.getInstance();
-		LimitShopData.getInstance();
-		LimitShopCraftData.getInstance();
-		CollectionData.getInstance();
-		PcCafePointsManager.getInstance();
-		AppearanceItemData.getInstance();
-		AlchemyData.getInstance();
-		ItemCommissionManager.getInstance();
-		LuckyGameData.getInstance();
-		AttendanceRewardData.getInstance();
-		
-		printSection("Characters");
-		ClassListData.getInstance();
-		InitialEquipmentData.getInstance();
-		InitialShortcutData.getInstance();
-		ExperienceData.getInstance();
-		PlayerXpPercentLostData.getInstance();
-		KarmaData.getInstance();
-		HitConditionBonusData.getInstance();
-		PlayerTemplateData.getInstance();
-		CharNameTable.getInstance();
-		AdminData.getInstance();
-		PetDataTable.getInstance();
-		CubicData.getInstance();
-		CharSummonTable.getInstance().init();
-		BeautyShopData.getInstance();
-		MentorManager.getInstance();
-		
-		if (Config.PREMIUM_SYSTEM_ENABLED)
+		final StartupGraph startup = new StartupGraph(this::printSection);
+		
+		startup.section("Scripting Engine");
+		startup.add("EventDispatcher", EventDispatcher::getInstance);
+		startup.add("ScriptEngineManager", ScriptEngineManager::getInstance);
+		startup.add("DailyMissionHandler", () -> DailyMissionHandler.getInstance().executeScript());
+		startup.add("SkillConditionHandler", () -> SkillConditionHandler.getInstance().executeScript());
+		startup.add("EffectHandler", () -> EffectHandler.getInstance().executeScript());
+		startup.add("ConditionHandler", () -> ConditionHandler.getInstance().executeScript());
+		
+		startup.section("Telnet");
+		startup.add("TelnetServer", TelnetServer::getInstance);
+		
+		startup.section("World");
+		startup.add("World", World::getInstance);
+		startup.add("MapRegionManager", MapRegionManager::getInstance);
+		startup.add("ZoneManager", ZoneManager::getInstance);
+		startup.add("DoorData", DoorData::getInstance);
+		startup.add("FenceData", FenceData::getInstance);
+		startup.add("AnnouncementsTable", AnnouncementsTable::getInstance);
+		startup.add("GlobalVariablesManager", GlobalVariablesManager::getInstance);
+		
+		// Skills and items only need the handler scripts, so they load next to the main chain.
+		startup.section("Skills");
+		startup.parallel("EnchantSkillGroupsData", EnchantSkillGroupsData::getInstance, "SkillConditionHandler", "EffectHandler");
+		startup.parallel("SkillTreeData", SkillTreeData::getInstance, "EnchantSkillGroupsData");
+		startup.parallel("SkillData", SkillData::getInstance, "SkillTreeData");
+		startup.parallel("PetSkillData", PetSkillData::getInstance, "SkillData");
+		
+		startup.section("Items");
+		startup.parallel("EnchantItemHPBonusData", EnchantItemHPBonusData::getInstance);
+		startup.parallel("ItemTable", ItemTable::getInstance, "ConditionHandler", "EnchantItemHPBonusData");
+		startup.parallel("EnchantItemGroupsData", EnchantItemGroupsData::getInstance);
+		startup.parallel("BuyListData", BuyListData::getInstance, "ItemTable");
+		startup.parallel("MultisellData", MultisellData::getInstance, "ItemTable", "EnchantItemGroupsData");
+		
+		startup.section("Data");
+		startup.add("ActionData", ActionData::getInstance);
+		startup.add("CategoryData", CategoryData::getInstance);
+		startup.add("SecondaryAuthData", SecondaryAuthData::getInstance);
+		startup.parallel("CombinationItemsData", CombinationItemsData::getInstance, "ItemTable");
+		startup.add("SayuneData", SayuneData::getInstance);
+		startup.add("DailyMissionData", DailyMissionData::getInstance);
+		
+		startup.section("Items");
+		startup.add("EnchantItemData", EnchantItemData::getInstance, "ItemTable", "PetSkillData");
+		startup.add("EnchantItemOptionsData", EnchantItemOptionsData::getInstance);
+		startup.add("ElementalAttributeData", ElementalAttributeData::getInstance);
+		startup.add("ItemCrystallizationData", ItemCrystallizationData::getInstance);
+		startup.add("OptionData", OptionData::getInstance);
+		startup.add("VariationData", VariationData::getInstance);
+		startup.add("EnsoulData", EnsoulData::getInstance);
+		startup.add("EquipmentUpgradeData", EquipmentUpgradeData::getInstance);
+		startup.add("EquipmentUpgradeNormalData", EquipmentUpgradeNormalData::getInstance);
+		startup.add("AgathionData", AgathionData::getInstance);
+		startup.add("RecipeData", RecipeData::getInstance);
+		startup.add("ArmorSetData", ArmorSetData::getInstance);
+		startup.add("FishingData", FishingData::getInstance);
+		startup.add("HennaData", HennaData::getInstance);
+		startup.add("PrimeShopData", PrimeShopData::getInstance);
+		startup.add("LimitShopData", LimitShopData::getInstance);
+		startup.add("LimitShopCraftData", LimitShopCraftData::getInstance);
+		startup.add("CollectionData", CollectionData::getInstance);
+		startup.add("PcCafePointsManager", PcCafePointsManager::getInstance);
+		startup.add("AppearanceItemData", AppearanceItemData::getInstance);
+		startup.add("AlchemyData", AlchemyData::getInstance);
+		startup.add("ItemCommissionManager", ItemCommissionManager::getInstance);
+		startup.add("LuckyGameData", LuckyGameData::getInstance);
+		startup.add("AttendanceRewardData", AttendanceRewardData::getInstance);
+		
+		// Geodata and the npc templates are the largest loaders, they run beside the character and clan data.
+		// They keep the order of the sequential startup, geodata is loaded before any npc or spawn.
+		startup.section("Geodata");
+		startup.parallel("GeoEngine", GeoEngine::getInstance);
+		
+		startup.section("NPCs");
+		startup.parallel("NpcData", NpcData::getInstance, "SkillData", "ItemTable", "GeoEngine");
+		startup.parallel("SpawnData", SpawnData::getInstance, "NpcData", "ZoneManager", "GeoEngine");
+		
+		startup.section("Characters");
+		startup.add("ClassListData", ClassListData::getInstance);
+		startup.add("InitialEquipmentData", InitialEquipmentData::getInstance);
+		startup.add("InitialShortcutData", InitialShortcutData::getInstance);
+		startup.add("ExperienceData", ExperienceData::getInstance);
+		startup.add("PlayerXpPercentLostData", PlayerXpPercentLostData::getInstance);
+		startup.add("KarmaData", KarmaData::getInstance);
+		startup.add("HitConditionBonusData", HitConditionBonusData::getInstance);
+		startup.add("PlayerTemplateData", PlayerTemplateData::getInstance);
+		startup.add("CharNameTable", CharNameTable::getInstance);
+		startup.add("AdminData", AdminData::getInstance);
+		startup.add("PetDataTable", PetDataTable::getInstance);
+		startup.add("CubicData", CubicData::getInstance);
+		startup.add("CharSummonTable.init", () -> CharSummonTable.getInstance().init(), "NpcData");
+		startup.add("BeautyShopData", BeautyShopData::getInstance);
+		startup.add("MentorManager", MentorManager::getInstance);
+		startup.add("PremiumManager", () ->
 		{
-			LOGGER.info("PremiumManager: Premium system is enabled.");
-			PremiumManager.getInstance();
-		}
-		
-		printSection("Clans");
-		ClanTable.getInstance();
-		ResidenceFunctionsData.getInstance();
-		ClanHallData.getInstance();
-		ClanHallAuctionManager.getInstance();
-		ClanEntryManager.getInstance();
-		ClanMasteryData.getInstance();
-		ClanShopData.getInstance();
-		
-		printSection("Geodata");
-		GeoEngine.getInstance();
-		
-		printSection("NPCs");
-		NpcData.getInstance();
-		FakePlayerData.getInstance();
-		FakePlayerChatManager.getInstance();
-		SpawnData.getInstance();
-		WalkingManager.getInstance();
-		StaticObjectData.getInstance();
-		ItemAuctionManager.getInstance();
-		CastleManager.getInstance().loadInstances();
-		GrandBossManager.getInstance();
-		EventDropManager.getInstance();
-		HomunculusData.getInstance();
-		HomunculusSlotData.getInstance();
-		HomunculusCreationData.getInstance();
-		
-		printSection("Instance");
-		InstanceManager.getInstance();
-		
-		printSection("Olympiad");
-		Olympiad.getInstance();
-		Hero.getInstance();
+			if (Config.PREMIUM_SYSTEM_ENABLED)
+			{
+				LOGGER.info("PremiumManager: Premium system is enabled.");
+				PremiumManager.getInstance();
+			}
+		});
+		
+		startup.section("Clans");
+		startup.add("ClanTable", ClanTable::getInstance);
+		startup.add("ResidenceFunctionsData", ResidenceFunctionsData::getInstance);
+		startup.add("ClanHallData", ClanHallData::getInstance);
+		startup.add("ClanHallAuctionManager", ClanHallAuctionManager::getInstance);
+		startup.add("ClanEntryManager", ClanEntryManager::getInstance);
+		startup.add("ClanMasteryData", ClanMasteryData::getInstance);
+		startup.add("ClanShopData", ClanShopData::getInstance);
+		
+		// The rest of the chain, castles and grand bosses included, runs after the npcs and spawns as it did sequentially.
+		startup.section("NPCs");
+		startup.add("FakePlayerData", FakePlayerData::getInstance, "GeoEngine", "NpcData", "SpawnData");
+		startup.add("FakePlayerChatManager", FakePlayerChatManager::getInstance);
+		startup.add("WalkingManager", WalkingManager::getInstance);
+		startup.add("StaticObjectData", StaticObjectData::getInstance);
+		startup.add("ItemAuctionManager", ItemAuctionManager::getInstance);
+		startup.add("CastleManager.loadInstances", () -> CastleManager.getInstance().loadInstances());
+		startup.add("GrandBossManager", GrandBossManager::getInstance);
+		startup.add("EventDropManager", EventDropManager::getInstance);
+		startup.add("HomunculusData", HomunculusData::getInstance);
+		startup.add("HomunculusSlotData", HomunculusSlotData::getInstance);
+		startup.add("HomunculusCreationData", HomunculusCreationData::getInstance);
+		
+		startup.section("Cache");
+		startup.parallel("HtmCache", HtmCache::getInstance);
+		
+		startup.section("Instance");
+		startup.add("InstanceManager", InstanceManager::getInstance, "SpawnData");
+		
+		startup.section("Olympiad");
+		startup.add("Olympiad", Olympiad::getInstance);
+		startup.add("Hero", Hero::getInstance, "HtmCache");
 		
 		// Call to load caches
-		printSection("Cache");
-		HtmCache.getInstance();
-		CrestTable.getInstance();
-		TeleportListData.getInstance();
-		TeleporterData.getInstance();
-		TimedHuntingZoneData.getInstance();
-		MatchingRoomManager.getInstance();
-		PetitionManager.getInstance();
-		CursedWeaponsManager.getInstance();
-		TransformData.getInstance();
-		BotReportTable.getInstance();
-		RankManager.getInstance();
-		if (Config.SELLBUFF_ENABLED)
-		{
-			SellBuffsManager.getInstance();
-		}
-		if (Config.MULTILANG_ENABLE)
+		startup.section("Cache");
+		startup.add("CrestTable", CrestTable::getInstance);
+		startup.add("TeleportListData", TeleportListData::getInstance);
+		startup.add("TeleporterData", TeleporterData::getInstance);
+		startup.add("TimedHuntingZoneData", TimedHuntingZoneData::getInstance);
+		startup.add("MatchingRoomManager", MatchingRoomManager::getInstance);
+		startup.add("PetitionManager", PetitionManager::getInstance);
+		startup.add("CursedWeaponsManager", CursedWeaponsManager::getInstance);
+		startup.add("TransformData", TransformData::getInstance);
+		startup.add("BotReportTable", BotReportTable::getInstance);
+		startup.add("RankManager", RankManager::getInstance);
+		startup.add("SellBuffsManager", () ->
 		{
-			SystemMessageId.loadLocalisations();
-			NpcStringId.loadLocalisations();
-			SendMessageLocalisationData.getInstance();
-			NpcNameLocalisationData.getInstance();
-		}
-		
-		printSection("Scripts");
-		QuestManager.getInstance();
-		BoatManager.getInstance();
-		AirShipManager.getInstance();
-		ShuttleData.getInstance();
-		GraciaSeedsManager.getInstance();
-		
-		try
+			if (Config.SELLBUFF_ENABLED)
+			{
+				SellBuffsManager.getInstance();
+			}
+		});
+		startup.add("Localisations", () ->
 		{
-			LOGGER.info(getClass().getSimpleName() + ": Loading server scripts:");
-			ScriptEngineManager.getInstance().executeScript(ScriptEngineManager.MASTER_HANDLER_FILE);
-			ScriptEngineManager.getInstance().executeScriptList();
-		}
-		catch (Exception e)
+			if (Config.MULTILANG_ENABLE)
+			{
+				SystemMessageId.loadLocalisations();
+				NpcStringId.loadLocalisations();
+				SendMessageLocalisationData.getInstance();
+				NpcNameLocalisationData.getInstance();
+			}
+		});
+		
+		// Scripts may use any of the data above.
+		startup.barrier();
+		
+		startup.section("Scripts");
+		startup.add("QuestManager", QuestManager::getInstance);
+		startup.add("BoatManager", BoatManager::getInstance);
+		startup.add("AirShipManager", AirShipManager::getInstance);
+		startup.add("ShuttleData", ShuttleData::getInstance);
+		startup.add("GraciaSeedsManager", GraciaSeedsManager::getInstance);
+		startup.add("ScriptEngineManager.executeScriptList", () ->
 		{
-			LOGGER.log(Level.WARNING, getClass().getSimpleName() + ": Failed to execute script list!", e);
-		}
-		
-		SpawnData.getInstance().init();
-		DBSpawnManager.getInstance();
-		
-		printSection("Siege");
-		SiegeManager.getInstance().getSieges();
-		CastleManager.getInstance().activateInstances();
-		FortManager.getInstance().loadInstances();
-		FortManager.getInstance().activateInstances();
-		FortSiegeManager.getInstance();
-		SiegeScheduleData.getInstance();
-		
-		CastleManorManager.getInstance();
-		SiegeGuardManager.getInstance();
-		QuestManager.getInstance().report();
-		
-		if (Config.SAVE_DROPPED_ITEM)
+			try
+			{
+				LOGGER.info(getClass().getSimpleName() + ": Loading server scripts:");
+				ScriptEngineManager.getInstance().executeScript(ScriptEngineManager.MASTER_HANDLER_FILE);
+				ScriptEngineManager.getInstance().executeScriptList();
+			}
+			catch (Exception e)
+			{
+				LOGGER.log(Level.WARNING, getClass().getSimpleName() + ": Failed to execute script list!", e);
+			}
+		});
+		startup.add("SpawnData.init", () -> SpawnData.getInstance().init());
+		startup.add("DBSpawnManager", DBSpawnManager::getInstance);
+		startup.add("InstanceManager.fillPools", () -> InstanceManager.getInstance().fillPools());
+		
+		startup.section("Siege");
+		startup.add("Sieges", () ->
 		{
-			ItemsOnGroundManager.getInstance();
-		}
-		
-		if ((Config.AUTODESTROY_ITEM_AFTER > 0) || (Config.HERB_AUTO_DESTROY_TIME > 0))
+			SiegeManager.getInstance().getSieges();
+			CastleManager.getInstance().activateInstances();
+			FortManager.getInstance().loadInstances();
+			FortManager.getInstance().activateInstances();
+			FortSiegeManager.getInstance();
+			SiegeScheduleData.getInstance();
+		});
+		startup.add("CastleManorManager", CastleManorManager::getInstance);
+		startup.add("SiegeGuardManager", SiegeGuardManager::getInstance);
+		startup.add("QuestManager.report", () -> QuestManager.getInstance().report());
+		startup.add("ItemsOnGroundManager", () ->
 		{
-			ItemsAutoDestroyTaskManager.getInstance();
-		}
-		
-		MonsterRace.getInstance();
-		
-		TaskManager.getInstance();
-		
-		DailyTaskManager.getInstance();
-		
-		AntiFeedManager.getInstance().registerEvent(AntiFeedManager.GAME_ID);
-		
-		if (Config.ALLOW_MAIL)
+			if (Config.SAVE_DROPPED_ITEM)
+			{
+				ItemsOnGroundManager.getInstance();
+			}
+		});
+		startup.add("ItemsAutoDestroyTaskManager", () ->
 		{
-			MailManager.getInstance();
-		}
-		if (Config.CUSTOM_MAIL_MANAGER_ENABLED)
+			if ((Config.AUTODESTROY_ITEM_AFTER > 0) || (Config.HERB_AUTO_DESTROY_TIME > 0))
+			{
+				ItemsAutoDestroyTaskManager.getInstance();
+			}
+		});
+		startup.add("MonsterRace", MonsterRace::getInstance);
+		startup.add("TaskManager", TaskManager::getInstance);
+		startup.add("DailyTaskManager", DailyTaskManager::getInstance);
+		startup.add("AntiFeedManager", () -> AntiFeedManager.getInstance().registerEvent(AntiFeedManager.GAME_ID));
+		startup.add("MailManager", () ->
 		{
-			CustomMailManager.getInstance();
-		}
+			if (Config.ALLOW_MAIL)
+			{
+				MailManager.getInstance();
+			}
+			if (Config.CUSTOM_MAIL_MANAGER_ENABLED)
+			{
+				CustomMailManager.getInstance();
+			}
+		});
+		startup.add("PunishmentManager", PunishmentManager::getInstance);
 		
-		PunishmentManager.getInstance();
+		startup.run(Runtime.getRuntime().availableProcessors());
 		
 		Runtime.getRuntime().addShutdownHook(Shutdown.getInstance());
 		
@@ -42,13 +42,16 @@ import org.l2jmobius.gameserver.model.olympiad.Olympiad;
 import org.l2jmobius.gameserver.network.ClientNetworkManager;
 import org.l2jmobius.gameserver.network.Disconnection;
 import org.l2jmobius.gameserver.network.EventLoopGroupManager;
+import org.l2jmobius.gameserver.network.PacketExecutor;
 import org.l2jmobius.gameserver.network.SystemMessageId;
 import org.l2jmobius.gameserver.network.loginserverpackets.game.ServerStatus;
 import org.l2jmobius.gameserver.network.serverpackets.ServerClose;
 import org.l2jmobius.gameserver.network.serverpackets.SystemMessage;
 import org.l2jmobius.gameserver.network.telnet.TelnetServer;
+import org.l2jmobius.gameserver.taskmanager.AttackableThinkTaskManager;
 import org.l2jmobius.gameserver.taskmanager.GameTimeTaskManager;
 import org.l2jmobius.gameserver.taskmanager.MovementTaskManager;
+import org.l2jmobius.gameserver.taskmanager.PersistenceTaskManager;
 import org.l2jmobius.gameserver.util.Broadcast;
 
 /**
@@ -148,8 +151,18 @@ public class Shutdown extends Thread
 			
 			try
 			{
-				MovementTaskManager.getInstance().interrupt();
-				LOGGER.info("Movement Task Manager: Thread interruped(" + tc.getEstimatedTimeAndRestartCounter() + "ms).");
+				MovementTaskManager.getInstance().shutdown();
+				LOGGER.info("Movement Task Manager: Manager has been shut down(" + tc.getEstimatedTimeAndRestartCounter() + "ms).");
+			}
+			catch (Throwable t)
+			{
+				// ignore
+			}
+			
+			try
+			{
+				AttackableThinkTaskManager.getInstance().shutdown();
+				LOGGER.info("Attackable Think Task Manager: Manager has been shut down(" + tc.getEstimatedTimeAndRestartCounter() + "ms).");
 			}
 			catch (Throwable t)
 			{
@@ -206,6 +219,7 @@ public class Shutdown extends Thread
 			{
 				ClientNetworkManager.getInstance().stop();
 				EventLoopGroupManager.getInstance().shutdown();
+				PacketExecutor.getInstance().shutdown();
 				LOGGER.info("Game Server: Selector thread has been shut down(" + tc.getEstimatedTimeAndRestartCounter() + "ms).");
 			}
 			catch (Throwable t)
@@ -213,6 +227,13 @@ public class Shutdown extends Thread
 				// ignore
 			}
 			
+			// write the queued periodic saves
+			if (Config.CHAR_STORE_WRITE_BEHIND)
+			{
+				PersistenceTaskManager.getInstance().shutdown();
+				LOGGER.info("Persistence Task Manager: Queued saves have been written(" + tc.getEstimatedTimeAndRestartCounter() + "ms).");
+			}
+			
 			// commit data, last chance
 			try
 			{
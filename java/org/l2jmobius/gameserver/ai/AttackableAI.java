@@ -180,7 +180,7 @@ public class AttackableAI extends CreatureAI
 			return false;
 		}
 		
-		return target.isAutoAttackable(me) && GeoEngine.getInstance().canSeeTarget(me, target);
+		return target.isAutoAttackable(me) && GeoEngine.getInstance().canSeeTargetCached(me, target);
 	}
 	
 	public void startAITask()
@@ -326,7 +326,7 @@ public class AttackableAI extends CreatureAI
 				{
 					Creature nearestTarget = null;
 					double closestDistance = Double.MAX_VALUE;
-					for (Creature t : World.getInstance().getVisibleObjectsInRange(npc, Creature.class, npc.getAggroRange()))
+					for (Creature t : PerceptionManager.getInstance().getCreaturesInRange(npc, npc.getAggroRange()))
 					{
 						if ((t == _actor) || (t == null) || t.isDead())
 						{
@@ -388,7 +388,7 @@ public class AttackableAI extends CreatureAI
 			else if (npc.isAggressive() || (npc instanceof Guard))
 			{
 				final int range = npc instanceof Guard ? 500 : npc.getAggroRange(); // TODO Make sure how guards behave towards players.
-				World.getInstance().forEachVisibleObjectInRange(npc, Creature.class, range, t ->
+				PerceptionManager.getInstance().forEachCreatureInRange(npc, range, t ->
 				{
 					// For each Creature check if the target is autoattackable
 					if (isAggressiveTowards(t)) // check aggression
@@ -1124,7 +1124,7 @@ public class AttackableAI extends CreatureAI
 					return false;
 				}
 				
-				if (!GeoEngine.getInstance().canSeeTarget(npc, target))
+				if (!GeoEngine.getInstance().canSeeTargetCached(npc, target))
 				{
 					return false;
 				}
@@ -1168,7 +1168,7 @@ public class AttackableAI extends CreatureAI
 		}
 		else
 		{
-			for (Creature creature : World.getInstance().getVisibleObjectsInRange(npc, Creature.class, range))
+			for (Creature creature : PerceptionManager.getInstance().getCreaturesInRange(npc, range))
 			{
 				if (checkSkillTarget(skill, creature))
 				{
@@ -1231,7 +1231,7 @@ public class AttackableAI extends CreatureAI
 			// If npc is aggressive, add characters within aggro range too.
 			if (npc.isAggressive())
 			{
-				for (Creature creature : World.getInstance().getVisibleObjectsInRange(npc, Creature.class, npc.getAggroRange()))
+				for (Creature creature : PerceptionManager.getInstance().getCreaturesInRange(npc, npc.getAggroRange()))
 				{
 					if (checkTarget(creature))
 					{
@@ -1259,7 +1259,7 @@ public class AttackableAI extends CreatureAI
 		
 		if ((creature == null) && npc.isAggressive())
 		{
-			for (Creature nearby : World.getInstance().getVisibleObjectsInRange(npc, Creature.class, npc.getAggroRange()))
+			for (Creature nearby : PerceptionManager.getInstance().getCreaturesInRange(npc, npc.getAggroRange()))
 			{
 				if (checkTarget(nearby))
 				{
@@ -0,0 +1,187 @@
+/*
+ * This file is part of the L2J Mobius project.
+ * 
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.l2jmobius.gameserver.ai;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+
+import org.l2jmobius.commons.threads.ThreadPool;
+import org.l2jmobius.gameserver.model.World;
+import org.l2jmobius.gameserver.model.WorldObject;
+import org.l2jmobius.gameserver.model.WorldRegion;
+import org.l2jmobius.gameserver.model.actor.Creature;
+import org.l2jmobius.gameserver.model.instancezone.Instance;
+
+/**
+ * Shared perception of attackable AI.<br>
+ * The creatures around a world region are collected once per think interval and reused by every attackable of the region, ranges are checked against live positions.
+ */
+public class PerceptionManager
+{
+	private static final long TTL = TimeUnit.MILLISECONDS.toNanos(250);
+	private static final int CREATURE_BUCKETS = WorldRegion.getBucketMask(Creature.class);
+	
+	private final Map<WorldRegion, Snapshot> _snapshots = new ConcurrentHashMap<>();
+	private final LongAdder _snapshotBuilds = new LongAdder();
+	private final LongAdder _snapshotQueries = new LongAdder();
+	
+	protected PerceptionManager()
+	{
+		// Snapshots of regions that are no longer queried are dropped, regions stay active forever with grids always on.
+		ThreadPool.scheduleAtFixedRate(this::removeExpiredSnapshots, 60000, 60000);
+	}
+	
+	/**
+	 * Same objects as {@link World#forEachVisibleObjectInRange(WorldObject, Class, int, java.util.function.Consumer)} for creatures, read from the region snapshot.
+	 * @param object the object whose surroundings are visited
+	 * @param range the 3D range
+	 * @param action the action
+	 */
+	public void forEachCreatureInRange(WorldObject object, int range, Consumer<Creature> action)
+	{
+		if ((object == null) || (range < 0))
+		{
+			return;
+		}
+		
+		final WorldRegion region = World.getInstance().getRegion(object);
+		if (region == null)
+		{
+			return;
+		}
+		
+		final int x = object.getX();
+		final int y = object.getY();
+		final int z = object.getZ();
+		final long rangeSq = (long) range * range;
+		final Instance instance = object.getInstanceWorld();
+		for (Creature creature : getSnapshot(region)._creatures)
+		{
+			// The snapshot may outlive a despawn, only creatures still in the world are visited.
+			if ((creature == object) || !creature.isSpawned() || (creature.getInstanceWorld() != instance))
+			{
+				continue;
+			}
+			
+			final long dx = creature.getX() - x;
+			final long dy = creature.getY() - y;
+			final long dz = creature.getZ() - z;
+			if (((dx * dx) + (dy * dy) + (dz * dz)) <= rangeSq)
+			{
+				action.accept(creature);
+			}
+		}
+	}
+	
+	/**
+	 * @param object the object whose surroundings are visited
+	 * @param range the 3D range
+	 * @return the creatures around the object within range
+	 */
+	public List<Creature> getCreaturesInRange(WorldObject object, int range)
+	{
+		final List<Creature> result = new ArrayList<>();
+		forEachCreatureInRange(object, range, result::add);
+		return result;
+	}
+	
+	private Snapshot getSnapshot(WorldRegion region)
+	{
+		_snapshotQueries.increment();
+		final long now = System.nanoTime();
+		Snapshot snapshot = _snapshots.get(region);
+		if ((snapshot == null) || ((now - snapshot._created) > TTL))
+		{
+			// Concurrent builders of the same region produce equivalent snapshots, the last one is kept.
+			final List<Creature> creatures = new ArrayList<>();
+			for (WorldRegion surrounding : region.getSurroundingRegions())
+			{
+				for (int bucket = 0; bucket < WorldRegion.BUCKET_COUNT; bucket++)
+				{
+					if ((CREATURE_BUCKETS & (1 << bucket)) == 0)
+					{
+						continue;
+					}
+					
+					for (WorldObject wo : surrounding.getVisibleObjects(bucket))
+					{
+						if (wo.isCreature())
+						{
+							creatures.add((Creature) wo);
+						}
+					}
+				}
+			}
+			snapshot = new Snapshot(now, creatures.toArray(new Creature[creatures.size()]));
+			_snapshots.put(region, snapshot);
+			_snapshotBuilds.increment();
+		}
+		return snapshot;
+	}
+	
+	/**
+	 * Drops the snapshot of a region, called when the region is deactivated.
+	 * @param region the region
+	 */
+	public void removeSnapshot(WorldRegion region)
+	{
+		_snapshots.remove(region);
+	}
+	
+	private void removeExpiredSnapshots()
+	{
+		final long now = System.nanoTime();
+		_snapshots.values().removeIf(snapshot -> (now - snapshot._created) > TTL);
+	}
+	
+	public String[] getStats()
+	{
+		final String[] stats = new String[4];
+		stats[0] = "Perception:";
+		stats[1] = " |- Snapshots: ....... " + _snapshots.size();
+		stats[2] = " |- SnapshotBuilds: .. " + _snapshotBuilds.sum();
+		stats[3] = " |- SnapshotQueries: . " + _snapshotQueries.sum();
+		return stats;
+	}
+	
+	private static class Snapshot
+	{
+		final long _created;
+		final Creature[] _creatures;
+		
+		Snapshot(long created, Creature[] creatures)
+		{
+			_created = created;
+			_creatures = creatures;
+		}
+	}
+	
+	public static PerceptionManager getInstance()
+	{
+		return SingletonHolder.INSTANCE;
+	}
+	
+	private static class SingletonHolder
+	{
+		protected static final PerceptionManager INSTANCE = new PerceptionManager();
+	}
+}
@@ -0,0 +1,217 @@
+/*
+ * This file is part of the L2J Mobius project.
+ * 
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.l2jmobius.gameserver.cache;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Html page split at its %name% placeholders.<br>
+ * Only placeholders that stand alone, not directly preceded or followed by a '%' or a name character, get a slot, and only when the placeholder text appears nowhere else in the page.<br>
+ * This way filling a slot with a value without '%' always gives the same page as replacing the placeholder text, so pages can be filled in any order and rendered in a single pass.
+ */
+public class HtmlTemplate
+{
+	private static final int[] EMPTY = new int[0];
+	private static final int MAX_BUILDER_CAPACITY = 65536;
+	private static final ThreadLocal<StringBuilder> BUILDER = ThreadLocal.withInitial(() -> new StringBuilder(8192));
+	
+	private final String _content;
+	private final int[] _starts;
+	private final int[] _ends;
+	private final int[] _slots;
+	private final Map<String, Integer> _slotIndexes;
+	
+	public HtmlTemplate(String content)
+	{
+		_content = content;
+		
+		// Find the stand-alone placeholders.
+		final Map<String, List<int[]>> tokens = new HashMap<>();
+		final int length = content.length();
+		int start = content.indexOf('%');
+		while (start >= 0)
+		{
+			int end = start + 1;
+			while ((end < length) && isNameChar(content.charAt(end)))
+			{
+				end++;
+			}
+			
+			if ((end > (start + 1)) && (end < length) && (content.charAt(end) == '%'))
+			{
+				end++;
+				if (((start == 0) || isSeparator(content.charAt(start - 1))) && ((end == length) || isSeparator(content.charAt(end))))
+				{
+					tokens.computeIfAbsent(content.substring(start, end), k -> new ArrayList<>()).add(new int[]
+					{
+						start,
+						end
+					});
+				}
+			}
+			start = content.indexOf('%', end);
+		}
+		
+		if (tokens.isEmpty())
+		{
+			_starts = EMPTY;
+			_ends = EMPTY;
+			_slots = EMPTY;
+			_slotIndexes = Collections.emptyMap();
+			return;
+		}
+		
+		// Keep the names that have no other occurrence in the page.
+		final List<int[]> kept = new ArrayList<>();
+		_slotIndexes = new HashMap<>();
+		for (Map.Entry<String, List<int[]>> entry : tokens.entrySet())
+		{
+			final String placeholder = entry.getKey();
+			int occurrences = 0;
+			int index = content.indexOf(placeholder);
+			while (index >= 0)
+			{
+				occurrences++;
+				index = content.indexOf(placeholder, index + placeholder.length());
+			}
+			
+			if (occurrences == entry.getValue().size())
+			{
+				final int slot = _slotIndexes.size();
+				_slotIndexes.put(placeholder, slot);
+				for (int[] token : entry.getValue())
+				{
+					kept.add(new int[]
+					{
+						token[0],
+						token[1],
+						slot
+					});
+				}
+			}
+		}
+		kept.sort((a, b) -> Integer.compare(a[0], b[0]));
+		
+		_starts = new int[kept.size()];
+		_ends = new int[kept.size()];
+		_slots = new int[kept.size()];
+		for (int i = 0; i < kept.size(); i++)
+		{
+			final int[] token = kept.get(i);
+			_starts[i] = token[0];
+			_ends[i] = token[1];
+			_slots[i] = token[2];
+		}
+	}
+	
+	private static boolean isNameChar(char c)
+	{
+		return ((c >= 'a') && (c <= 'z')) || ((c >= 'A') && (c <= 'Z')) || ((c >= '0') && (c <= '9')) || (c == '_');
+	}
+	
+	private static boolean isSeparator(char c)
+	{
+		return (c != '%') && !isNameChar(c);
+	}
+	
+	/**
+	 * @param text the text
+	 * @return {@code true} if the text has the form of a placeholder, a name between two '%' characters
+	 */
+	public static boolean isPlaceholder(String text)
+	{
+		final int length = text.length();
+		if ((length < 3) || (text.charAt(0) != '%') || (text.charAt(length - 1) != '%'))
+		{
+			return false;
+		}
+		
+		for (int i = 1; i < (length - 1); i++)
+		{
+			if (!isNameChar(text.charAt(i)))
+			{
+				return false;
+			}
+		}
+		return true;
+	}
+	
+	/**
+	 * @return the page text
+	 */
+	public String getContent()
+	{
+		return _content;
+	}
+	
+	/**
+	 * @param placeholder the placeholder including its '%' characters
+	 * @return the slot of the placeholder, or -1 if it has no slot
+	 */
+	public int getSlot(String placeholder)
+	{
+		final Integer slot = _slotIndexes.get(placeholder);
+		return slot == null ? -1 : slot.intValue();
+	}
+	
+	/**
+	 * @return the number of slots
+	 */
+	public int getSlotCount()
+	{
+		return _slotIndexes.size();
+	}
+	
+	/**
+	 * Renders the page in one pass, slots without a value keep their placeholder text.
+	 * @param values the slot values
+	 * @return the rendered page
+	 */
+	public String render(String[] values)
+	{
+		if (_starts.length == 0)
+		{
+			return _content;
+		}
+		
+		final StringBuilder sb = BUILDER.get();
+		int position = 0;
+		for (int i = 0; i < _starts.length; i++)
+		{
+			final String value = values[_slots[i]];
+			if (value != null)
+			{
+				sb.append(_content, position, _starts[i]);
+				sb.append(value);
+				position = _ends[i];
+			}
+		}
+		sb.append(_content, position, _content.length());
+		
+		final String result = sb.toString();
+		sb.setLength(0);
+		if (sb.capacity() > MAX_BUILDER_CAPACITY)
+		{
+			BUILDER.remove();
+		}
+		return result;
+	}
+}
@@ -35,6 +35,7 @@ import java.util.logging.Logger;
 import org.l2jmobius.Config;
 import org.l2jmobius.commons.database.DatabaseFactory;
 import org.l2jmobius.commons.threads.ThreadPool;
+import org.l2jmobius.commons.util.XmlSnapshot;
 import org.l2jmobius.commons.util.file.filter.XMLFilter;
 import org.l2jmobius.gameserver.data.xml.EnchantItemHPBonusData;
 import org.l2jmobius.gameserver.enums.ItemLocation;
@@ -148,6 +149,7 @@ public class ItemTable
 	private Collection<ItemTemplate> loadItems()
 	{
 		final Collection<ItemTemplate> list = ConcurrentHashMap.newKeySet();
+		final XmlSnapshot snapshot = new XmlSnapshot(getClass().getSimpleName());
 		if (Config.THREADS_FOR_LOADING)
 		{
 			final Collection<ScheduledFuture<?>> jobs = ConcurrentHashMap.newKeySet();
@@ -156,7 +158,7 @@ public class ItemTable
 				jobs.add(ThreadPool.schedule(() ->
 				{
 					final DocumentItem document = new DocumentItem(file);
-					document.parse();
+					document.parse(snapshot);
 					list.addAll(document.getItemList());
 				}, 0));
 			}
@@ -176,10 +178,11 @@ public class ItemTable
 			for (File file : _itemFiles)
 			{
 				final DocumentItem document = new DocumentItem(file);
-				document.parse();
+				document.parse(snapshot);
 				list.addAll(document.getItemList());
 			}
 		}
+		snapshot.save();
 		return list;
 	}
 	
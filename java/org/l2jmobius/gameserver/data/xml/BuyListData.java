@@ -26,12 +26,11 @@ import java.util.concurrent.ConcurrentHashMap;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
-import org.w3c.dom.Document;
-import org.w3c.dom.NamedNodeMap;
+import javax.xml.stream.XMLStreamReader;
 
 import org.l2jmobius.Config;
 import org.l2jmobius.commons.database.DatabaseFactory;
-import org.l2jmobius.commons.util.IXmlReader;
+import org.l2jmobius.commons.util.IXmlStreamReader;
 import org.l2jmobius.commons.util.file.filter.NumericNameFilter;
 import org.l2jmobius.gameserver.data.ItemTable;
 import org.l2jmobius.gameserver.model.buylist.Product;
@@ -42,7 +41,7 @@ import org.l2jmobius.gameserver.model.item.ItemTemplate;
  * Loads buy lists for NPCs.
  * @author NosBit
  */
-public class BuyListData implements IXmlReader
+public class BuyListData implements IXmlStreamReader
 {
 	private static final Logger LOGGER = Logger.getLogger(BuyListData.class.getName());
 	
@@ -102,30 +101,29 @@ public class BuyListData implements IXmlReader
 	}
 	
 	@Override
-	public void parseDocument(Document doc, File f)
+	public void parseStream(XMLStreamReader reader, File f)
 	{
 		try
 		{
 			final int buyListId = Integer.parseInt(f.getName().replaceAll(".xml", ""));
-			forEach(doc, "list", list ->
+			if ("list".equalsIgnoreCase(reader.getLocalName()))
 			{
-				final int defaultBaseTax = parseInteger(list.getAttributes(), "baseTax", 0);
+				final int defaultBaseTax = parseInteger(reader, "baseTax", 0);
 				final ProductList buyList = new ProductList(buyListId);
-				forEach(list, node ->
+				forEach(reader, node ->
 				{
-					switch (node.getNodeName())
+					switch (node.getLocalName())
 					{
 						case "item":
 						{
-							final NamedNodeMap attrs = node.getAttributes();
-							final int itemId = parseInteger(attrs, "id");
+							final int itemId = parseInteger(node, "id");
 							final ItemTemplate item = ItemTable.getInstance().getTemplate(itemId);
 							if (item != null)
 							{
-								final long price = parseLong(attrs, "price", -1L);
-								final long restockDelay = parseLong(attrs, "restock_delay", -1L);
-								final long count = parseLong(attrs, "count", -1L);
-								final int baseTax = parseInteger(attrs, "baseTax", defaultBaseTax);
+								final long price = parseLong(node, "price", -1L);
+								final long restockDelay = parseLong(node, "restock_delay", -1L);
+								final long count = parseLong(node, "count", -1L);
+								final int baseTax = parseInteger(node, "baseTax", defaultBaseTax);
 								final long sellPrice = item.getReferencePrice() / 2;
 								if (Config.CORRECT_PRICES && (price > -1) && (sellPrice > price) && (buyList.getNpcsAllowed() != null))
 								{
@@ -145,13 +143,13 @@ public class BuyListData implements IXmlReader
 						}
 						case "npcs":
 						{
-							forEach(node, "npc", npcNode -> buyList.addAllowedNpc(Integer.parseInt(npcNode.getTextContent())));
+							forEach(node, "npc", npcNode -> buyList.addAllowedNpc(Integer.parseInt(npcNode.getElementText())));
 							break;
 						}
 					}
 				});
 				_buyLists.put(buyListId, buyList);
-			});
+			}
 		}
 		catch (Exception e)
 		{
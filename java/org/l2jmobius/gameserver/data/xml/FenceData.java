@@ -25,8 +25,10 @@ import java.util.logging.Logger;
 import org.w3c.dom.Document;
 import org.w3c.dom.Node;
 
+import org.l2jmobius.Config;
 import org.l2jmobius.commons.util.IXmlReader;
 import org.l2jmobius.gameserver.enums.FenceState;
+import org.l2jmobius.gameserver.geoengine.pathfinding.PathFinding;
 import org.l2jmobius.gameserver.model.StatSet;
 import org.l2jmobius.gameserver.model.World;
 import org.l2jmobius.gameserver.model.WorldRegion;
@@ -100,11 +102,19 @@ public class FenceData implements IXmlReader
 	private void addFence(Fence fence)
 	{
 		_fences.put(fence.getObjectId(), fence);
+		if (Config.PATHFINDING > 0)
+		{
+			PathFinding.getInstance().invalidatePathCache(fence.getInstanceId(), fence.getXMin(), fence.getYMin(), fence.getXMax(), fence.getYMax());
+		}
 	}
 	
 	public void removeFence(Fence fence)
 	{
 		_fences.remove(fence.getObjectId());
+		if (Config.PATHFINDING > 0)
+		{
+			PathFinding.getInstance().invalidatePathCache(fence.getInstanceId(), fence.getXMin(), fence.getYMin(), fence.getXMax(), fence.getYMax());
+		}
 	}
 	
 	public Map<Integer, Fence> getFences()
@@ -28,11 +28,11 @@ import java.util.concurrent.atomic.AtomicInteger;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
-import org.w3c.dom.Document;
-import org.w3c.dom.Node;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamReader;
 
 import org.l2jmobius.Config;
-import org.l2jmobius.commons.util.IXmlReader;
+import org.l2jmobius.commons.util.IXmlStreamReader;
 import org.l2jmobius.commons.util.file.filter.NumericNameFilter;
 import org.l2jmobius.gameserver.data.ItemTable;
 import org.l2jmobius.gameserver.enums.SpecialItemType;
@@ -48,7 +48,7 @@ import org.l2jmobius.gameserver.model.item.ItemTemplate;
 import org.l2jmobius.gameserver.model.item.enchant.EnchantItemGroup;
 import org.l2jmobius.gameserver.network.serverpackets.MultiSellList;
 
-public class MultisellData implements IXmlReader
+public class MultisellData implements IXmlStreamReader
 {
 	private static final Logger LOGGER = Logger.getLogger(MultisellData.class.getName());
 	
@@ -76,7 +76,7 @@ public class MultisellData implements IXmlReader
 	}
 	
 	@Override
-	public void parseDocument(Document doc, File f)
+	public void parseStream(XMLStreamReader reader, File f)
 	{
 		final EnchantItemGroup magicWeaponGroup = EnchantItemGroupsData.getInstance().getItemGroup("MAGE_WEAPON_GROUP");
 		final int magicWeaponGroupMax = magicWeaponGroup != null ? magicWeaponGroup.getMaximumEnchant() : -2;
@@ -89,16 +89,16 @@ public class MultisellData implements IXmlReader
 		
 		try
 		{
-			forEach(doc, "list", listNode ->
+			if ("list".equalsIgnoreCase(reader.getLocalName()))
 			{
-				final StatSet set = new StatSet(parseAttributes(listNode));
+				final StatSet set = new StatSet(parseAttributes(reader));
 				final int listId = Integer.parseInt(f.getName().substring(0, f.getName().length() - 4));
-				final List<MultisellEntryHolder> entries = new ArrayList<>(listNode.getChildNodes().getLength());
+				final List<MultisellEntryHolder> entries = new ArrayList<>();
 				final AtomicInteger entryCounter = new AtomicInteger();
 				
-				forEach(listNode, itemNode ->
+				forEach(reader, itemNode ->
 				{
-					if ("item".equalsIgnoreCase(itemNode.getNodeName()))
+					if ("item".equalsIgnoreCase(itemNode.getLocalName()))
 					{
 						long totalPrice = 0;
 						int lastIngredientId = 0;
@@ -108,14 +108,14 @@ public class MultisellData implements IXmlReader
 						final List<ItemChanceHolder> ingredients = new ArrayList<>(1);
 						final List<ItemChanceHolder> products = new ArrayList<>(1);
 						final MultisellEntryHolder entry = new MultisellEntryHolder(ingredients, products);
-						for (Node d = itemNode.getFirstChild(); d != null; d = d.getNextSibling())
+						while (itemNode.nextTag() == XMLStreamConstants.START_ELEMENT)
 						{
-							if ("ingredient".equalsIgnoreCase(d.getNodeName()))
+							if ("ingredient".equalsIgnoreCase(itemNode.getLocalName()))
 							{
-								final int id = parseInteger(d.getAttributes(), "id");
-								final long count = parseLong(d.getAttributes(), "count");
-								final byte enchantmentLevel = parseByte(d.getAttributes(), "enchantmentLevel", (byte) 0);
-								final Boolean maintainIngredient = parseBoolean(d.getAttributes(), "maintainIngredient", false);
+								final int id = parseInteger(itemNode, "id");
+								final long count = parseLong(itemNode, "count");
+								final byte enchantmentLevel = parseByte(itemNode, "enchantmentLevel", (byte) 0);
+								final Boolean maintainIngredient = parseBoolean(itemNode, "maintainIngredient", false);
 								final ItemChanceHolder ingredient = new ItemChanceHolder(id, 0, count, enchantmentLevel, maintainIngredient);
 								if (itemExists(ingredient))
 								{
@@ -127,15 +127,14 @@ public class MultisellData implements IXmlReader
 								else
 								{
 									LOGGER.warning("Invalid ingredient id or count for itemId: " + ingredient.getId() + ", count: " + ingredient.getCount() + " in list: " + listId);
-									continue;
 								}
 							}
-							else if ("production".equalsIgnoreCase(d.getNodeName()))
+							else if ("production".equalsIgnoreCase(itemNode.getLocalName()))
 							{
-								final int id = parseInteger(d.getAttributes(), "id");
-								final long count = parseLong(d.getAttributes(), "count");
-								final double chance = parseDouble(d.getAttributes(), "chance", Double.NaN);
-								byte enchantmentLevel = parseByte(d.getAttributes(), "enchantmentLevel", (byte) 0);
+								final int id = parseInteger(itemNode, "id");
+								final long count = parseLong(itemNode, "count");
+								final double chance = parseDouble(itemNode, "chance", Double.NaN);
+								byte enchantmentLevel = parseByte(itemNode, "enchantmentLevel", (byte) 0);
 								if (enchantmentLevel > 0)
 								{
 									final ItemTemplate item = ItemTable.getInstance().getTemplate(id);
@@ -159,30 +158,31 @@ public class MultisellData implements IXmlReader
 									if ((!Double.isNaN(chance) && (chance < 0)) || (chance > 100))
 									{
 										LOGGER.warning("Invalid chance for itemId: " + product.getId() + ", count: " + product.getCount() + ", chance: " + chance + " in list: " + listId);
-										continue;
 									}
-									
-									products.add(product);
-									
-									final ItemTemplate item = ItemTable.getInstance().getTemplate(id);
-									if (item != null)
+									else
 									{
-										if (chance > 0)
+										products.add(product);
+										
+										final ItemTemplate item = ItemTable.getInstance().getTemplate(id);
+										if (item != null)
 										{
-											totalPrice += ((item.getReferencePrice() / 2) * count) * (chance / 100);
-										}
-										else
-										{
-											totalPrice += ((item.getReferencePrice() / 2) * count);
+											if (chance > 0)
+											{
+												totalPrice += ((item.getReferencePrice() / 2) * count) * (chance / 100);
+											}
+											else
+											{
+												totalPrice += ((item.getReferencePrice() / 2) * count);
+											}
 										}
 									}
 								}
 								else
 								{
 									LOGGER.warning("Invalid product id or count for itemId: " + product.getId() + ", count: " + product.getCount() + " in list: " + listId);
-									continue;
 								}
 							}
+							IXmlStreamReader.skipElement(itemNode);
 						}
 						
 						final double totalChance = products.stream().filter(i -> !Double.isNaN(i.getChance())).mapToDouble(ItemChanceHolder::getChance).sum();
@@ -204,11 +204,10 @@ public class MultisellData implements IXmlReader
 						
 						entries.add(entry);
 					}
-					else if ("npcs".equalsIgnoreCase(itemNode.getNodeName()))
+					else if ("npcs".equalsIgnoreCase(itemNode.getLocalName()))
 					{
-						// Initialize NPCs with the size of child nodes.
-						final Set<Integer> allowNpc = new HashSet<>(itemNode.getChildNodes().getLength());
-						forEach(itemNode, n -> "npc".equalsIgnoreCase(n.getNodeName()), n -> allowNpc.add(Integer.parseInt(n.getTextContent())));
+						final Set<Integer> allowNpc = new HashSet<>();
+						forEach(itemNode, "npc", n -> allowNpc.add(Integer.parseInt(n.getElementText())));
 						
 						// Add npcs to stats set.
 						set.set("allowNpc", allowNpc);
@@ -218,7 +217,7 @@ public class MultisellData implements IXmlReader
 				set.set("listId", listId);
 				set.set("entries", entries);
 				_multisells.put(listId, new MultisellListHolder(set));
-			});
+			}
 		}
 		catch (Exception e)
 		{
@@ -39,6 +39,7 @@ import org.w3c.dom.Node;
 
 import org.l2jmobius.Config;
 import org.l2jmobius.commons.util.IXmlReader;
+import org.l2jmobius.commons.util.XmlSnapshot;
 import org.l2jmobius.gameserver.handler.EffectHandler;
 import org.l2jmobius.gameserver.handler.SkillConditionHandler;
 import org.l2jmobius.gameserver.model.StatSet;
@@ -61,6 +62,7 @@ public class SkillData implements IXmlReader
 	
 	private final Map<Long, Skill> _skills = new ConcurrentHashMap<>();
 	private final Map<Integer, Integer> _skillsMaxLevel = new ConcurrentHashMap<>();
+	private XmlSnapshot _snapshot;
 	
 	private class NamedParamInfo
 	{
@@ -213,14 +215,23 @@ public class SkillData implements IXmlReader
 	{
 		_skills.clear();
 		_skillsMaxLevel.clear();
+		_snapshot = new XmlSnapshot(getClass().getSimpleName());
 		parseDatapackDirectory("data/stats/skills/", false);
 		if (Config.CUSTOM_SKILLS_LOAD)
 		{
 			parseDatapackDirectory("data/stats/skills/custom", false);
 		}
+		_snapshot.save();
+		_snapshot = null;
 		LOGGER.info(getClass().getSimpleName() + ": Loaded " + _skills.size() + " Skills.");
 	}
 	
+	@Override
+	public XmlSnapshot getSnapshot()
+	{
+		return _snapshot;
+	}
+	
 	public void reload()
 	{
 		load();
@@ -29,12 +29,17 @@ import java.util.logging.Level;
 import java.util.logging.Logger;
 import java.util.stream.Collectors;
 
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+
 import org.w3c.dom.Document;
 import org.w3c.dom.Node;
 
 import org.l2jmobius.Config;
 import org.l2jmobius.commons.threads.ThreadPool;
 import org.l2jmobius.commons.util.IXmlReader;
+import org.l2jmobius.commons.util.IXmlStreamReader;
+import org.l2jmobius.commons.util.XmlSnapshot;
 import org.l2jmobius.gameserver.model.ChanceLocation;
 import org.l2jmobius.gameserver.model.StatSet;
 import org.l2jmobius.gameserver.model.actor.templates.NpcTemplate;
@@ -54,11 +59,12 @@ import org.l2jmobius.gameserver.model.zone.type.SpawnTerritory;
 /**
  * @author UnAfraid
  */
-public class SpawnData implements IXmlReader
+public class SpawnData implements IXmlReader, IXmlStreamReader
 {
 	protected static final Logger LOGGER = Logger.getLogger(SpawnData.class.getName());
 	
 	private final Collection<SpawnTemplate> _spawns = ConcurrentHashMap.newKeySet();
+	private XmlSnapshot _snapshot;
 	
 	protected SpawnData()
 	{
@@ -68,10 +74,33 @@ public class SpawnData implements IXmlReader
 	@Override
 	public void load()
 	{
+		_snapshot = new XmlSnapshot(getClass().getSimpleName());
 		parseDatapackDirectory("data/spawns", true);
+		_snapshot.save();
+		_snapshot = null;
 		LOGGER.info(getClass().getSimpleName() + ": Loaded " + _spawns.stream().flatMap(c -> c.getGroups().stream()).flatMap(c -> c.getSpawns().stream()).count() + " spawns");
 	}
 	
+	@Override
+	public XmlSnapshot getSnapshot()
+	{
+		return _snapshot;
+	}
+	
+	@Override
+	public void parseFile(File f)
+	{
+		// Snapshots keep documents, so the document parser is used while they are enabled.
+		if ((getSnapshot() != null) && Config.XML_SNAPSHOTS)
+		{
+			IXmlReader.super.parseFile(f);
+		}
+		else
+		{
+			IXmlStreamReader.super.parseFile(f);
+		}
+	}
+	
 	@Override
 	public void parseDocument(Document doc, File f)
 	{
@@ -88,6 +117,26 @@ public class SpawnData implements IXmlReader
 		}));
 	}
 	
+	@Override
+	public void parseStream(XMLStreamReader reader, File f) throws XMLStreamException
+	{
+		if ("list".equalsIgnoreCase(reader.getLocalName()))
+		{
+			forEach(reader, "spawn", spawnReader ->
+			{
+				final Node spawnNode = readElement(spawnReader);
+				try
+				{
+					parseSpawn(spawnNode, f, _spawns);
+				}
+				catch (Exception e)
+				{
+					LOGGER.log(Level.WARNING, getClass().getSimpleName() + ": Error while processing spawn in file: " + f.getAbsolutePath(), e);
+				}
+			});
+		}
+	}
+	
 	/**
 	 * Initializing all spawns
 	 */
@@ -18,6 +18,13 @@ package org.l2jmobius.gameserver.geoengine;
 
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
@@ -47,8 +54,13 @@ public class GeoEngine
 	private static final int ELEVATED_SEE_OVER_DISTANCE = 2;
 	private static final int MAX_SEE_OVER_HEIGHT = 48;
 	private static final int SPAWN_Z_DELTA_LIMIT = 100;
+	private static final long LOS_MEMO_TTL = TimeUnit.MILLISECONDS.toNanos(250);
+	private static final int LOS_MEMO_LIMIT = 65536;
 	
 	private final GeoData _geodata = new GeoData();
+	private volatile LosMemo _losMemo = new LosMemo();
+	private final LongAdder _losHits = new LongAdder();
+	private final LongAdder _losMisses = new LongAdder();
 	
 	protected GeoEngine()
 	{
@@ -270,6 +282,130 @@ public class GeoEngine
 		return canSeeTarget(x, y, z, tx, ty, tz);
 	}
 	
+	/**
+	 * Same result as {@link #canSeeTarget(WorldObject, WorldObject)}, with the geodata trace memoized for a short time.<br>
+	 * Door and fence checks are done on every call, so opening or closing them is seen immediately.
+	 * @param cha the character
+	 * @param target the target
+	 * @return {@code true} if the character can see the target
+	 */
+	public boolean canSeeTargetCached(WorldObject cha, WorldObject target)
+	{
+		final int x = cha.getX();
+		final int y = cha.getY();
+		final int z = cha.getZ();
+		final int geoX = getGeoX(x);
+		final int geoY = getGeoY(y);
+		return canSeeTargetCached(x, y, z, cha.getInstanceWorld(), packLosCell(geoX, geoY, getNearestZ(geoX, geoY, z)), target, getLosMemo());
+	}
+	
+	/**
+	 * Checks the line of sight from an origin to several targets, in the order of the collection.<br>
+	 * The origin cell is resolved once and geodata traces are memoized for a short time, door and fence checks are done for every target.
+	 * @param <T> the type of the targets
+	 * @param origin the origin
+	 * @param targets the targets
+	 * @param limit the maximum number of visible targets to return, 0 for no limit
+	 * @return the visible targets
+	 */
+	public <T extends WorldObject> List<T> canSeeTargets(WorldObject origin, Collection<T> targets, int limit)
+	{
+		final List<T> result = new ArrayList<>();
+		if (targets.isEmpty())
+		{
+			return result;
+		}
+		
+		final int x = origin.getX();
+		final int y = origin.getY();
+		final int z = origin.getZ();
+		final int geoX = getGeoX(x);
+		final int geoY = getGeoY(y);
+		final long from = packLosCell(geoX, geoY, getNearestZ(geoX, geoY, z));
+		final Instance instance = origin.getInstanceWorld();
+		final LosMemo memo = getLosMemo();
+		for (T target : targets)
+		{
+			if (canSeeTargetCached(x, y, z, instance, from, target, memo))
+			{
+				result.add(target);
+				if (result.size() == limit)
+				{
+					break;
+				}
+			}
+		}
+		return result;
+	}
+	
+	private boolean canSeeTargetCached(int x, int y, int z, Instance instance, long from, WorldObject target, LosMemo memo)
+	{
+		if (target == null)
+		{
+			return false;
+		}
+		if (target.isDoor())
+		{
+			return true;
+		}
+		if (instance != target.getInstanceWorld())
+		{
+			return false;
+		}
+		
+		final int tx = target.getX();
+		final int ty = target.getY();
+		final int tz = target.getZ();
+		if (DoorData.getInstance().checkIfDoorsBetween(x, y, z, tx, ty, tz, instance, true) || FenceData.getInstance().checkIfFenceBetween(x, y, z, tx, ty, tz, instance))
+		{
+			return false;
+		}
+		
+		// The trace only depends on the two cells and their nearest layers.
+		final int tGeoX = getGeoX(tx);
+		final int tGeoY = getGeoY(ty);
+		final LosKey key = new LosKey(from, packLosCell(tGeoX, tGeoY, getNearestZ(tGeoX, tGeoY, tz)));
+		final Boolean cached = memo._results.get(key);
+		if (cached != null)
+		{
+			_losHits.increment();
+			return cached;
+		}
+		
+		_losMisses.increment();
+		final boolean result = canSeeTarget(x, y, z, tx, ty, tz);
+		if (memo._results.size() < LOS_MEMO_LIMIT)
+		{
+			memo._results.put(key, result);
+		}
+		return result;
+	}
+	
+	private LosMemo getLosMemo()
+	{
+		LosMemo memo = _losMemo;
+		if ((System.nanoTime() - memo._created) > LOS_MEMO_TTL)
+		{
+			memo = new LosMemo();
+			_losMemo = memo;
+		}
+		return memo;
+	}
+	
+	private static long packLosCell(int geoX, int geoY, int geoZ)
+	{
+		return ((long) geoX << 44) | ((long) (geoY & 0xFFFFF) << 24) | ((geoZ + 0x800000) & 0xFFFFFF);
+	}
+	
+	public String[] getStats()
+	{
+		final String[] stats = new String[3];
+		stats[0] = "Line of sight memo:";
+		stats[1] = " |- Hits: ............ " + _losHits.sum();
+		stats[2] = " |- Misses: .......... " + _losMisses.sum();
+		return stats;
+	}
+	
 	private int getLosGeoZ(int prevX, int prevY, int prevGeoZ, int curX, int curY, int nswe)
 	{
 		if ((((nswe & Cell.NSWE_NORTH) != 0) && ((nswe & Cell.NSWE_SOUTH) != 0)) || (((nswe & Cell.NSWE_WEST) != 0) && ((nswe & Cell.NSWE_EAST) != 0)))
@@ -585,6 +721,36 @@ public class GeoEngine
 		return hasGeoPos(getGeoX(x), getGeoY(y));
 	}
 	
+	private static class LosMemo
+	{
+		final long _created = System.nanoTime();
+		final Map<LosKey, Boolean> _results = new ConcurrentHashMap<>();
+	}
+	
+	private static class LosKey
+	{
+		private final long _from;
+		private final long _to;
+		
+		LosKey(long from, long to)
+		{
+			_from = from;
+			_to = to;
+		}
+		
+		@Override
+		public int hashCode()
+		{
+			return Long.hashCode((_from * 31) + _to);
+		}
+		
+		@Override
+		public boolean equals(Object obj)
+		{
+			return (obj instanceof LosKey) && (((LosKey) obj)._from == _from) && (((LosKey) obj)._to == _to);
+		}
+	}
+	
 	public static GeoEngine getInstance()
 	{
 		return SingletonHolder._instance;
@@ -26,6 +26,8 @@ import org.l2jmobius.gameserver.geoengine.geodata.IBlock;
 public class MultilayerBlock implements IBlock
 {
 	private final byte[] _data;
+	/** Offset of every cell in {@link #_data}, the data of a block never exceeds 64 * (1 + 125 * 2) bytes. */
+	private final short[] _cellOffsets = new short[IBlock.BLOCK_CELLS];
 	
 	/**
 	 * Initializes a new instance of this block reading the specified buffer.
@@ -37,6 +39,7 @@ public class MultilayerBlock implements IBlock
 		
 		for (int blockCellOffset = 0; blockCellOffset < IBlock.BLOCK_CELLS; blockCellOffset++)
 		{
+			_cellOffsets[blockCellOffset] = (short) (bb.position() - start);
 			final byte nLayers = bb.get();
 			if ((nLayers <= 0) || (nLayers > 125))
 			{
@@ -83,16 +86,7 @@ public class MultilayerBlock implements IBlock
 	
 	private int getCellDataOffset(int geoX, int geoY)
 	{
-		final int cellLocalOffset = ((geoX % IBlock.BLOCK_CELLS_X) * IBlock.BLOCK_CELLS_Y) + (geoY % IBlock.BLOCK_CELLS_Y);
-		int cellDataOffset = 0;
-		// Move index to cell, we need to parse on each request, OR we parse on creation and save indexes.
-		for (int i = 0; i < cellLocalOffset; i++)
-		{
-			cellDataOffset += 1 + (_data[cellDataOffset] * 2);
-		}
-		// Now the index points to the cell we need.
-		
-		return cellDataOffset;
+		return _cellOffsets[((geoX % IBlock.BLOCK_CELLS_X) * IBlock.BLOCK_CELLS_Y) + (geoY % IBlock.BLOCK_CELLS_Y)];
 	}
 	
 	private short extractLayerData(int dataOffset)
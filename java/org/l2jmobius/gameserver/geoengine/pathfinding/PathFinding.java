@@ -97,4 +97,16 @@ public abstract class PathFinding
 	{
 		return null;
 	}
+	
+	/**
+	 * Called when a door or a fence changes state, paths found before through its area may no longer be valid.
+	 * @param instanceId the instance of the door or the fence
+	 * @param minX the minimum X of its area
+	 * @param minY the minimum Y of its area
+	 * @param maxX the maximum X of its area
+	 * @param maxY the maximum Y of its area
+	 */
+	public void invalidatePathCache(int instanceId, int minX, int minY, int maxX, int maxY)
+	{
+	}
 }
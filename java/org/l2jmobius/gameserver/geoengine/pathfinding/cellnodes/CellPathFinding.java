@@ -17,9 +17,15 @@
 package org.l2jmobius.gameserver.geoengine.pathfinding.cellnodes;
 
 import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.ListIterator;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
@@ -30,6 +36,7 @@ import org.l2jmobius.gameserver.geoengine.pathfinding.AbstractNode;
 import org.l2jmobius.gameserver.geoengine.pathfinding.AbstractNodeLoc;
 import org.l2jmobius.gameserver.geoengine.pathfinding.PathFinding;
 import org.l2jmobius.gameserver.instancemanager.IdManager;
+import org.l2jmobius.gameserver.model.World;
 import org.l2jmobius.gameserver.model.instancezone.Instance;
 import org.l2jmobius.gameserver.model.item.instance.Item;
 
@@ -41,8 +48,9 @@ public class CellPathFinding extends PathFinding
 	private static final Logger LOGGER = Logger.getLogger(CellPathFinding.class.getName());
 	
 	private BufferInfo[] _allBuffers;
-	private int _findSuccess = 0;
-	private int _findFails = 0;
+	private final LongAdder _findSuccess = new LongAdder();
+	private final LongAdder _findFails = new LongAdder();
+	private final LongAdder _findTooLong = new LongAdder();
 	private int _postFilterUses = 0;
 	private int _postFilterPlayableUses = 0;
 	private int _postFilterPasses = 0;
@@ -50,6 +58,21 @@ public class CellPathFinding extends PathFinding
 	
 	private List<Item> _debugItems = null;
 	
+	/** Recently found paths, tagged with the world regions they cross and dropped when a door or a fence in those regions changes state. */
+	private final Map<PathKey, CachedPath> _pathCache = new LinkedHashMap<>(16, 0.75f, true)
+	{
+		private static final long serialVersionUID = 1L;
+		
+		@Override
+		protected boolean removeEldestEntry(Map.Entry<PathKey, CachedPath> eldest)
+		{
+			return size() > Config.PATH_CACHE_SIZE;
+		}
+	};
+	private final AtomicInteger _pathCacheEpoch = new AtomicInteger();
+	private final LongAdder _cacheHits = new LongAdder();
+	private final LongAdder _cacheMisses = new LongAdder();
+	
 	protected CellPathFinding()
 	{
 		try
@@ -102,13 +125,36 @@ public class CellPathFinding extends PathFinding
 			return null;
 		}
 		final int gtz = GeoEngine.getInstance().getHeight(tx, ty, tz);
-		final CellNodeBuffer buffer = alloc(64 + (2 * Math.max(Math.abs(gx - gtx), Math.abs(gy - gty))), playable);
-		if (buffer == null)
+		
+		final boolean debug = Config.DEBUG_PATH && playable;
+		
+		// Reuse a recent path between the same cells.
+		final PathKey key = (Config.PATH_CACHE_SIZE > 0) && !debug ? new PathKey(instance != null ? instance.getId() : 0, gx, gy, gz, gtx, gty, gtz, playable) : null;
+		if (key != null)
+		{
+			final CachedPath cached;
+			synchronized (_pathCache)
+			{
+				cached = _pathCache.get(key);
+			}
+			if (cached != null)
+			{
+				_cacheHits.increment();
+				_findSuccess.increment();
+				return new ArrayList<>(cached.path);
+			}
+			_cacheMisses.increment();
+		}
+		
+		final BufferInfo bufferInfo = getBufferInfo(64 + (2 * Math.max(Math.abs(gx - gtx), Math.abs(gy - gty))));
+		if (bufferInfo == null)
 		{
+			_findTooLong.increment();
 			return null;
 		}
 		
-		final boolean debug = Config.DEBUG_PATH && playable;
+		final int epoch = _pathCacheEpoch.get();
+		final CellNodeBuffer buffer = bufferInfo.alloc(playable);
 		
 		if (debug)
 		{
@@ -150,7 +196,7 @@ public class CellPathFinding extends PathFinding
 			
 			if (result == null)
 			{
-				_findFails++;
+				_findFails.increment();
 				return null;
 			}
 			
@@ -163,12 +209,13 @@ public class CellPathFinding extends PathFinding
 		}
 		finally
 		{
-			buffer.free();
+			bufferInfo.release(buffer);
 		}
 		
 		if ((path.size() < 3) || (Config.MAX_POSTFILTER_PASSES <= 0))
 		{
-			_findSuccess++;
+			_findSuccess.increment();
+			cachePath(key, path, epoch);
 			return path;
 		}
 		
@@ -230,11 +277,61 @@ public class CellPathFinding extends PathFinding
 			path.forEach(n -> dropDebugItem(1061, 1, n));
 		}
 		
-		_findSuccess++;
+		_findSuccess.increment();
 		_postFilterElapsed += System.currentTimeMillis() - timeStamp;
+		cachePath(key, path, epoch);
 		return path;
 	}
 	
+	private void cachePath(PathKey key, List<AbstractNodeLoc> path, int epoch)
+	{
+		if (key == null)
+		{
+			return;
+		}
+		
+		// The path lies within the bounding box of its ends and nodes.
+		final GeoEngine geoEngine = GeoEngine.getInstance();
+		int minX = Math.min(geoEngine.getWorldX(key.gx), geoEngine.getWorldX(key.gtx));
+		int maxX = Math.max(geoEngine.getWorldX(key.gx), geoEngine.getWorldX(key.gtx));
+		int minY = Math.min(geoEngine.getWorldY(key.gy), geoEngine.getWorldY(key.gty));
+		int maxY = Math.max(geoEngine.getWorldY(key.gy), geoEngine.getWorldY(key.gty));
+		for (AbstractNodeLoc node : path)
+		{
+			minX = Math.min(minX, node.getX());
+			maxX = Math.max(maxX, node.getX());
+			minY = Math.min(minY, node.getY());
+			maxY = Math.max(maxY, node.getY());
+		}
+		
+		synchronized (_pathCache)
+		{
+			// A door or a fence changed while the path was searched, it may already be outdated.
+			if (epoch == _pathCacheEpoch.get())
+			{
+				_pathCache.put(key, new CachedPath(new ArrayList<>(path), minX >> World.SHIFT_BY, minY >> World.SHIFT_BY, maxX >> World.SHIFT_BY, maxY >> World.SHIFT_BY));
+			}
+		}
+	}
+	
+	@Override
+	public void invalidatePathCache(int instanceId, int minX, int minY, int maxX, int maxY)
+	{
+		final int minRegionX = minX >> World.SHIFT_BY;
+		final int minRegionY = minY >> World.SHIFT_BY;
+		final int maxRegionX = maxX >> World.SHIFT_BY;
+		final int maxRegionY = maxY >> World.SHIFT_BY;
+		synchronized (_pathCache)
+		{
+			_pathCacheEpoch.incrementAndGet();
+			_pathCache.entrySet().removeIf(entry ->
+			{
+				final CachedPath cached = entry.getValue();
+				return (entry.getKey().instanceId == instanceId) && (cached.minRegionX <= maxRegionX) && (cached.maxRegionX >= minRegionX) && (cached.minRegionY <= maxRegionY) && (cached.maxRegionY >= minRegionY);
+			});
+		}
+	}
+	
 	private List<AbstractNodeLoc> constructPath(AbstractNode<NodeLoc> node)
 	{
 		final LinkedList<AbstractNodeLoc> path = new LinkedList<>();
@@ -283,56 +380,16 @@ public class CellPathFinding extends PathFinding
 		return path;
 	}
 	
-	private CellNodeBuffer alloc(int size, boolean playable)
+	private BufferInfo getBufferInfo(int size)
 	{
-		CellNodeBuffer current = null;
-		for (BufferInfo i : _allBuffers)
+		for (BufferInfo info : _allBuffers)
 		{
-			if (i.mapSize >= size)
+			if (info.mapSize >= size)
 			{
-				for (CellNodeBuffer buf : i.bufs)
-				{
-					if (buf.lock())
-					{
-						i.uses++;
-						if (playable)
-						{
-							i.playableUses++;
-						}
-						i.elapsed += buf.getElapsedTime();
-						current = buf;
-						break;
-					}
-				}
-				if (current != null)
-				{
-					break;
-				}
-				
-				// Not found, allocate temporary buffer.
-				current = new CellNodeBuffer(i.mapSize);
-				current.lock();
-				if (i.bufs.size() < i.count)
-				{
-					i.bufs.add(current);
-					i.uses++;
-					if (playable)
-					{
-						i.playableUses++;
-					}
-					break;
-				}
-				
-				i.overflows++;
-				if (playable)
-				{
-					i.playableOverflows++;
-					// System.err.println("Overflow, size requested: " + size + " playable:"+playable);
-				}
+				return info;
 			}
 		}
-		
-		return current;
+		return null;
 	}
 	
 	private void dropDebugItem(int itemId, int num, AbstractNodeLoc loc)
@@ -343,35 +400,149 @@ public class CellPathFinding extends PathFinding
 		_debugItems.add(item);
 	}
 	
+	private static class PathKey
+	{
+		final int instanceId;
+		final int gx;
+		final int gy;
+		final int gz;
+		final int gtx;
+		final int gty;
+		final int gtz;
+		final boolean playable;
+		
+		public PathKey(int instanceId, int gx, int gy, int gz, int gtx, int gty, int gtz, boolean playable)
+		{
+			this.instanceId = instanceId;
+			this.gx = gx;
+			this.gy = gy;
+			this.gz = gz;
+			this.gtx = gtx;
+			this.gty = gty;
+			this.gtz = gtz;
+			this.playable = playable;
+		}
+		
+		@Override
+		public int hashCode()
+		{
+			int result = instanceId;
+			result = (31 * result) + gx;
+			result = (31 * result) + gy;
+			result = (31 * result) + gz;
+			result = (31 * result) + gtx;
+			result = (31 * result) + gty;
+			result = (31 * result) + gtz;
+			return (31 * result) + (playable ? 1 : 0);
+		}
+		
+		@Override
+		public boolean equals(Object obj)
+		{
+			if (!(obj instanceof PathKey))
+			{
+				return false;
+			}
+			
+			final PathKey key = (PathKey) obj;
+			return (instanceId == key.instanceId) && (gx == key.gx) && (gy == key.gy) && (gz == key.gz) && (gtx == key.gtx) && (gty == key.gty) && (gtz == key.gtz) && (playable == key.playable);
+		}
+	}
+	
+	private static class CachedPath
+	{
+		final List<AbstractNodeLoc> path;
+		final int minRegionX;
+		final int minRegionY;
+		final int maxRegionX;
+		final int maxRegionY;
+		
+		public CachedPath(List<AbstractNodeLoc> path, int minRegionX, int minRegionY, int maxRegionX, int maxRegionY)
+		{
+			this.path = path;
+			this.minRegionX = minRegionX;
+			this.minRegionY = minRegionY;
+			this.maxRegionX = maxRegionX;
+			this.maxRegionY = maxRegionY;
+		}
+	}
+	
+	/**
+	 * Pool of node buffers of one size.<br>
+	 * When every pooled buffer is busy a new one is allocated, so a request never fails for lack of a buffer. At most {@link #count} idle buffers are kept.
+	 */
 	private static class BufferInfo
 	{
 		final int mapSize;
 		final int count;
-		List<CellNodeBuffer> bufs;
-		int uses = 0;
-		int playableUses = 0;
-		int overflows = 0;
-		int playableOverflows = 0;
-		long elapsed = 0;
+		final Queue<CellNodeBuffer> bufs = new ConcurrentLinkedQueue<>();
+		final AtomicInteger pooled = new AtomicInteger();
+		final LongAdder uses = new LongAdder();
+		final LongAdder playableUses = new LongAdder();
+		final LongAdder overflows = new LongAdder();
+		final LongAdder playableOverflows = new LongAdder();
+		final LongAdder elapsed = new LongAdder();
 		
 		public BufferInfo(int size, int cnt)
 		{
 			mapSize = size;
 			count = cnt;
-			bufs = new ArrayList<>(count);
+		}
+		
+		public CellNodeBuffer alloc(boolean playable)
+		{
+			uses.increment();
+			if (playable)
+			{
+				playableUses.increment();
+			}
+			
+			CellNodeBuffer buffer = bufs.poll();
+			if (buffer != null)
+			{
+				pooled.decrementAndGet();
+			}
+			else
+			{
+				// Every buffer is busy, allocate a new one.
+				buffer = new CellNodeBuffer(mapSize);
+				overflows.increment();
+				if (playable)
+				{
+					playableOverflows.increment();
+				}
+			}
+			buffer.lock();
+			return buffer;
+		}
+		
+		public void release(CellNodeBuffer buffer)
+		{
+			buffer.free();
+			elapsed.add(buffer.getElapsedTime());
+			if (pooled.incrementAndGet() <= count)
+			{
+				bufs.offer(buffer);
+			}
+			else
+			{
+				pooled.decrementAndGet();
+			}
 		}
 		
 		@Override
 		public String toString()
 		{
+			final long totalUses = uses.sum();
+			final long totalElapsed = elapsed.sum();
 			final StringBuilder stat = new StringBuilder(100);
-			StringUtil.append(stat, String.valueOf(mapSize), "x", String.valueOf(mapSize), " num:", String.valueOf(bufs.size()), "/", String.valueOf(count), " uses:", String.valueOf(uses), "/", String.valueOf(playableUses));
-			if (uses > 0)
+			StringUtil.append(stat, String.valueOf(mapSize), "x", String.valueOf(mapSize), " num:", String.valueOf(pooled.get()), "/", String.valueOf(count), " uses:", String.valueOf(totalUses), "/", String.valueOf(playableUses.sum()));
+			if (totalUses > 0)
 			{
-				StringUtil.append(stat, " total/avg(ms):", String.valueOf(elapsed), "/", String.format("%1.2f", (double) elapsed / uses));
+				StringUtil.append(stat, " total/avg(ms):", String.valueOf(totalElapsed), "/", String.format("%1.2f", (double) totalElapsed / totalUses));
 			}
 			
-			StringUtil.append(stat, " ovf:", String.valueOf(overflows), "/", String.valueOf(playableOverflows));
+			StringUtil.append(stat, " ovf:", String.valueOf(overflows.sum()), "/", String.valueOf(playableOverflows.sum()));
 			
 			return stat.toString();
 		}
@@ -392,7 +563,13 @@ public class CellPathFinding extends PathFinding
 		{
 			StringUtil.append(stat, " total/avg(ms):", String.valueOf(_postFilterElapsed), "/", String.format("%1.2f", (double) _postFilterElapsed / _postFilterUses), " passes total/avg:", String.valueOf(_postFilterPasses), "/", String.format("%1.1f", (double) _postFilterPasses / _postFilterUses), Config.EOL);
 		}
-		StringUtil.append(stat, "Pathfind success/fail:", String.valueOf(_findSuccess), "/", String.valueOf(_findFails));
+		StringUtil.append(stat, "Pathfind success/fail/too long:", String.valueOf(_findSuccess.sum()), "/", String.valueOf(_findFails.sum()), "/", String.valueOf(_findTooLong.sum()), Config.EOL);
+		final int cacheSize;
+		synchronized (_pathCache)
+		{
+			cacheSize = _pathCache.size();
+		}
+		StringUtil.append(stat, "Path cache size/hits/misses:", String.valueOf(cacheSize), "/", String.valueOf(_cacheHits.sum()), "/", String.valueOf(_cacheMisses.sum()));
 		result[result.length - 1] = stat.toString();
 		
 		return result;
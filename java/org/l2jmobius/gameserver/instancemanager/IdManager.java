@@ -21,16 +21,16 @@ import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.Statement;
 import java.util.ArrayList;
-import java.util.BitSet;
 import java.util.Collections;
 import java.util.List;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
 import java.util.logging.Logger;
 
 import org.l2jmobius.Config;
 import org.l2jmobius.commons.database.DatabaseFactory;
-import org.l2jmobius.commons.threads.ThreadPool;
-import org.l2jmobius.gameserver.util.PrimeFinder;
 
 /**
  * @author Mobius (reworked from L2J IdFactory)
@@ -60,9 +60,20 @@ public class IdManager
 	private static final int LAST_OID = 0x7FFFFFFF;
 	private static final int FREE_OBJECT_ID_SIZE = LAST_OID - FIRST_OID;
 	
-	private static BitSet _freeIds;
-	private static AtomicInteger _freeIdCount;
-	private static AtomicInteger _nextFreeId;
+	// The used id bitmap is split in lazily created pages of 65536 ids, each page in chunks of 4096 ids that are handed to the allocation stripes.
+	private static final int PAGE_SHIFT = 16;
+	private static final int PAGE_WORDS = (1 << PAGE_SHIFT) >> 6;
+	private static final int PAGE_COUNT = ((FREE_OBJECT_ID_SIZE - 1) >> PAGE_SHIFT) + 1;
+	private static final int CHUNK_SHIFT = 12;
+	private static final int CHUNK_WORDS = (1 << CHUNK_SHIFT) >> 6;
+	private static final int CHUNKS_PER_PAGE_SHIFT = PAGE_SHIFT - CHUNK_SHIFT;
+	private static final int CHUNK_COUNT = ((FREE_OBJECT_ID_SIZE - 1) >> CHUNK_SHIFT) + 1;
+	private static final int STRIPE_COUNT = Integer.highestOneBit((Runtime.getRuntime().availableProcessors() * 2) - 1) << 1;
+	
+	private static final AtomicReferenceArray<AtomicLongArray> _usedIds = new AtomicReferenceArray<>(PAGE_COUNT);
+	private static final AtomicIntegerArray _stripeChunks = new AtomicIntegerArray(STRIPE_COUNT);
+	private static final AtomicInteger _nextChunk = new AtomicInteger();
+	private static final AtomicInteger _freeIdCount = new AtomicInteger(FREE_OBJECT_ID_SIZE);
 	private static boolean _initialized;
 	
 	public IdManager()
@@ -187,10 +198,6 @@ public class IdManager
 		// Initialize.
 		try
 		{
-			_freeIds = new BitSet(PrimeFinder.nextPrime(100000));
-			_freeIds.clear();
-			_freeIdCount = new AtomicInteger(FREE_OBJECT_ID_SIZE);
-			
 			// Collect already used ids.
 			final List<Integer> usedIds = new ArrayList<>();
 			try (Connection con = DatabaseFactory.getConnection();
@@ -221,11 +228,18 @@ public class IdManager
 					LOGGER.warning("IdManager: Object ID " + usedObjectId + " in DB is less than minimum ID of " + FIRST_OID);
 					continue;
 				}
-				_freeIds.set(usedObjectId - FIRST_OID);
-				_freeIdCount.decrementAndGet();
+				if (setUsed(objectId))
+				{
+					_freeIdCount.decrementAndGet();
+				}
 			}
 			
-			_nextFreeId = new AtomicInteger(_freeIds.nextClearBit(0));
+			// Start allocating from the first chunk that has a free id, each stripe claims its own chunk on first use.
+			_nextChunk.set(firstFreeId() >> CHUNK_SHIFT);
+			for (int stripe = 0; stripe < STRIPE_COUNT; stripe++)
+			{
+				_stripeChunks.set(stripe, -1);
+			}
 			_initialized = true;
 		}
 		catch (Exception e)
@@ -234,70 +248,156 @@ public class IdManager
 			LOGGER.severe("IdManager: Could not be initialized properly: " + e.getMessage());
 		}
 		
-		// Schedule increase capacity task.
-		ThreadPool.scheduleAtFixedRate(() ->
-		{
-			synchronized (_nextFreeId)
-			{
-				if (PrimeFinder.nextPrime((usedIdCount() * 11) / 10) > _freeIds.size())
-				{
-					increaseBitSetCapacity();
-				}
-			}
-		}, 30000, 30000);
-		
-		LOGGER.info("IdManager: " + _freeIds.size() + " id's available.");
+		LOGGER.info("IdManager: " + _freeIdCount.get() + " id's available.");
 	}
 	
 	public void releaseId(int objectId)
 	{
-		synchronized (_nextFreeId)
+		final int index = objectId - FIRST_OID;
+		if ((index < 0) || (index >= FREE_OBJECT_ID_SIZE))
 		{
-			if ((objectId - FIRST_OID) > -1)
-			{
-				_freeIds.clear(objectId - FIRST_OID);
-				_freeIdCount.incrementAndGet();
-			}
-			else
+			LOGGER.warning("IdManager: Release objectID " + objectId + " failed (< " + FIRST_OID + ")");
+			return;
+		}
+		
+		final AtomicLongArray page = _usedIds.get(index >> PAGE_SHIFT);
+		if (page == null)
+		{
+			return;
+		}
+		
+		final int word = (index >> 6) & (PAGE_WORDS - 1);
+		final long mask = 1L << index;
+		long value;
+		do
+		{
+			value = page.get(word);
+			if ((value & mask) == 0)
 			{
-				LOGGER.warning("IdManager: Release objectID " + objectId + " failed (< " + FIRST_OID + ")");
+				return; // Not in use.
 			}
 		}
+		while (!page.compareAndSet(word, value, value & ~mask));
+		_freeIdCount.incrementAndGet();
 	}
 	
 	public int getNextId()
 	{
-		synchronized (_nextFreeId)
+		final int stripe = (int) Thread.currentThread().getId() & (STRIPE_COUNT - 1);
+		while (true)
 		{
-			final int newId = _nextFreeId.get();
-			_freeIds.set(newId);
-			_freeIdCount.decrementAndGet();
-			
-			final int nextFree = _freeIds.nextClearBit(newId) < 0 ? _freeIds.nextClearBit(0) : _freeIds.nextClearBit(newId);
-			if (nextFree < 0)
+			final int chunk = _stripeChunks.get(stripe);
+			if (chunk >= 0)
 			{
-				if (_freeIds.size() >= FREE_OBJECT_ID_SIZE)
+				final int index = allocate(chunk);
+				if (index >= 0)
 				{
-					throw new NullPointerException("IdManager: Ran out of valid ids.");
+					_freeIdCount.decrementAndGet();
+					return index + FIRST_OID;
 				}
-				increaseBitSetCapacity();
 			}
-			_nextFreeId.set(nextFree);
 			
-			return newId + FIRST_OID;
+			// Current chunk is exhausted, move the stripe to the next chunk. Losing the race means another thread already did it.
+			_stripeChunks.compareAndSet(stripe, chunk, claimChunk());
 		}
 	}
 	
-	private void increaseBitSetCapacity()
+	/**
+	 * Marks the first free id of a chunk as used.
+	 * @param chunk the chunk index
+	 * @return the id index, or -1 if the chunk has no free id
+	 */
+	private int allocate(int chunk)
 	{
-		final BitSet newBitSet = new BitSet(PrimeFinder.nextPrime((usedIdCount() * 11) / 10));
-		newBitSet.or(_freeIds);
-		_freeIds = newBitSet;
+		final AtomicLongArray page = getPage(chunk >> CHUNKS_PER_PAGE_SHIFT);
+		final int firstWord = (chunk & ((1 << CHUNKS_PER_PAGE_SHIFT) - 1)) * CHUNK_WORDS;
+		final int base = (chunk >> CHUNKS_PER_PAGE_SHIFT) << PAGE_SHIFT;
+		for (int word = firstWord; word < (firstWord + CHUNK_WORDS); word++)
+		{
+			long value = page.get(word);
+			while (value != -1L)
+			{
+				final int bit = Long.numberOfTrailingZeros(~value);
+				final int index = base + (word << 6) + bit;
+				if (index >= FREE_OBJECT_ID_SIZE)
+				{
+					return -1;
+				}
+				if (page.compareAndSet(word, value, value | (1L << bit)))
+				{
+					return index;
+				}
+				value = page.get(word);
+			}
+		}
+		return -1;
+	}
+	
+	/**
+	 * Hands out chunks in ascending order and wraps around at the end of the id range, released ids are reused once the allocation comes back to their chunk.
+	 * @return the next chunk index
+	 */
+	private int claimChunk()
+	{
+		if (_freeIdCount.get() <= 0)
+		{
+			throw new NullPointerException("IdManager: Ran out of valid ids.");
+		}
+		return Math.floorMod(_nextChunk.getAndIncrement(), CHUNK_COUNT);
+	}
+	
+	private static AtomicLongArray getPage(int pageIndex)
+	{
+		AtomicLongArray page = _usedIds.get(pageIndex);
+		if (page == null)
+		{
+			page = new AtomicLongArray(PAGE_WORDS);
+			if (!_usedIds.compareAndSet(pageIndex, null, page))
+			{
+				page = _usedIds.get(pageIndex);
+			}
+		}
+		return page;
 	}
 	
-	private int usedIdCount()
+	/**
+	 * Marks an id as used during startup.
+	 * @param index the id index
+	 * @return {@code true} if the id was free
+	 */
+	private static boolean setUsed(int index)
 	{
-		return _freeIdCount.get() - FIRST_OID;
+		if (index >= FREE_OBJECT_ID_SIZE)
+		{
+			return false;
+		}
+		
+		final AtomicLongArray page = getPage(index >> PAGE_SHIFT);
+		final int word = (index >> 6) & (PAGE_WORDS - 1);
+		final long value = page.get(word);
+		page.set(word, value | (1L << index));
+		return (value & (1L << index)) == 0;
+	}
+	
+	private static int firstFreeId()
+	{
+		for (int pageIndex = 0; pageIndex < PAGE_COUNT; pageIndex++)
+		{
+			final AtomicLongArray page = _usedIds.get(pageIndex);
+			if (page == null)
+			{
+				return pageIndex << PAGE_SHIFT;
+			}
+			for (int word = 0; word < PAGE_WORDS; word++)
+			{
+				final long value = page.get(word);
+				if (value != -1L)
+				{
+					return (pageIndex << PAGE_SHIFT) + (word << 6) + Long.numberOfTrailingZeros(~value);
+				}
+			}
+		}
+		return 0;
 	}
 	
 	public static int size()
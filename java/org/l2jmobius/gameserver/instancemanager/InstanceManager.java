@@ -27,10 +27,17 @@ import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
+import java.util.Queue;
+import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
@@ -40,6 +47,7 @@ import org.w3c.dom.Node;
 
 import org.l2jmobius.Config;
 import org.l2jmobius.commons.database.DatabaseFactory;
+import org.l2jmobius.commons.threads.ThreadPool;
 import org.l2jmobius.commons.util.IXmlReader;
 import org.l2jmobius.gameserver.data.xml.DoorData;
 import org.l2jmobius.gameserver.data.xml.SpawnData;
@@ -71,8 +79,18 @@ public class InstanceManager implements IXmlReader
 	// Instance templates holder
 	private final Map<Integer, InstanceTemplate> _instanceTemplates = new ConcurrentHashMap<>();
 	// Created instance worlds
-	private int _currentInstanceId = 0;
+	private final AtomicInteger _currentInstanceId = new AtomicInteger();
 	private final Map<Integer, Instance> _instanceWorlds = new ConcurrentHashMap<>();
+	private final Map<Integer, AtomicInteger> _worldCounts = new ConcurrentHashMap<>();
+	// Player indexes of created instance worlds
+	private final Map<Integer, Instance> _playerWorlds = new ConcurrentHashMap<>();
+	private final Map<Integer, List<Instance>> _allowedWorlds = new ConcurrentHashMap<>();
+	// Prepared instance worlds of pooled templates
+	private final Map<Integer, Instance> _pooledWorlds = new ConcurrentHashMap<>();
+	private final Map<Integer, Queue<Instance>> _pools = new ConcurrentHashMap<>();
+	private final Set<Integer> _pendingFills = ConcurrentHashMap.newKeySet();
+	private final LongAdder _poolHits = new LongAdder();
+	private final LongAdder _poolMisses = new LongAdder();
 	// Player reenter times
 	private final Map<Integer, Map<Integer, Long>> _PlayerTimes = new ConcurrentHashMap<>();
 	
@@ -91,6 +109,17 @@ public class InstanceManager implements IXmlReader
 		_instanceNames.clear();
 		parseDatapackFile("data/InstanceNames.xml");
 		LOGGER.info(getClass().getSimpleName() + ": Loaded " + _instanceNames.size() + " instance names.");
+		// Prepared worlds belong to the previous templates
+		final boolean refill = !_pools.isEmpty();
+		for (Queue<Instance> pool : _pools.values())
+		{
+			Instance instance;
+			while ((instance = pool.poll()) != null)
+			{
+				instance.destroy();
+			}
+		}
+		
 		// Load instance templates
 		_instanceTemplates.clear();
 		parseDatapackDirectory("data/instances", true);
@@ -99,6 +128,11 @@ public class InstanceManager implements IXmlReader
 		_PlayerTimes.clear();
 		restoreInstanceTimes();
 		LOGGER.info(getClass().getSimpleName() + ": Loaded instance reenter times for " + _PlayerTimes.size() + " players.");
+		// On reload, prepare the worlds again from the new templates
+		if (refill)
+		{
+			fillPools();
+		}
 	}
 	
 	@Override
@@ -391,7 +425,13 @@ public class InstanceManager implements IXmlReader
 	 */
 	public Instance createInstance(InstanceTemplate template, Player player)
 	{
-		return (template != null) ? new Instance(getNewInstanceId(), template, player) : null;
+		if (template == null)
+		{
+			return null;
+		}
+		
+		final Instance pooled = takePooled(template, player);
+		return (pooled != null) ? pooled : new Instance(getNewInstanceId(), template, player);
 	}
 	
 	/**
@@ -407,7 +447,78 @@ public class InstanceManager implements IXmlReader
 			LOGGER.warning(getClass().getSimpleName() + ": Missing template for instance with id " + id + "!");
 			return null;
 		}
-		return new Instance(getNewInstanceId(), _instanceTemplates.get(id), player);
+		return createInstance(_instanceTemplates.get(id), player);
+	}
+	
+	/**
+	 * Take a prepared world of the template from the pool and start it, a replacement is prepared in background.
+	 * @param template template used for instance creation
+	 * @param player player who create instance
+	 * @return started instance, {@code null} if template is not pooled or the pool is empty
+	 */
+	private Instance takePooled(InstanceTemplate template, Player player)
+	{
+		final int templateId = template.getId();
+		if (!Config.INSTANCE_POOL_TEMPLATES.contains(templateId) || (_instanceTemplates.get(templateId) != template))
+		{
+			return null;
+		}
+		
+		final Queue<Instance> pool = _pools.computeIfAbsent(templateId, k -> new ConcurrentLinkedQueue<>());
+		final Instance instance = pool.poll();
+		if ((pool.size() < Config.INSTANCE_POOL_SIZE) && _pendingFills.add(templateId))
+		{
+			ThreadPool.execute(() ->
+			{
+				// Cleared first, so a world taken while filling schedules another fill.
+				_pendingFills.remove(templateId);
+				fillPool(templateId);
+			});
+		}
+		if (instance == null)
+		{
+			_poolMisses.increment();
+			return null;
+		}
+		
+		_poolHits.increment();
+		instance.start(player);
+		return instance;
+	}
+	
+	/**
+	 * Prepare the worlds of pooled templates, must be called once scripts are loaded so spawned NPCs get their AI.
+	 */
+	public void fillPools()
+	{
+		for (int templateId : Config.INSTANCE_POOL_TEMPLATES)
+		{
+			fillPool(templateId);
+		}
+		
+		if (!_pooledWorlds.isEmpty())
+		{
+			LOGGER.info(getClass().getSimpleName() + ": Prepared " + _pooledWorlds.size() + " pooled instance worlds.");
+		}
+	}
+	
+	private void fillPool(int templateId)
+	{
+		final InstanceTemplate template = _instanceTemplates.get(templateId);
+		if (template == null)
+		{
+			LOGGER.warning(getClass().getSimpleName() + ": Missing template for pooled instance with id " + templateId + "!");
+			return;
+		}
+		
+		final Queue<Instance> pool = _pools.computeIfAbsent(templateId, k -> new ConcurrentLinkedQueue<>());
+		synchronized (pool)
+		{
+			while (pool.size() < Config.INSTANCE_POOL_SIZE)
+			{
+				pool.add(new Instance(getNewInstanceId(), template, null, true));
+			}
+		}
 	}
 	
 	/**
@@ -417,7 +528,8 @@ public class InstanceManager implements IXmlReader
 	 */
 	public Instance getInstance(int instanceId)
 	{
-		return _instanceWorlds.get(instanceId);
+		final Instance instance = _instanceWorlds.get(instanceId);
+		return (instance != null) ? instance : _pooledWorlds.get(instanceId);
 	}
 	
 	/**
@@ -437,42 +549,35 @@ public class InstanceManager implements IXmlReader
 	 */
 	public Instance getPlayerInstance(Player player, boolean isInside)
 	{
-		for (Instance instance : _instanceWorlds.values())
+		if (isInside)
 		{
-			if (isInside)
-			{
-				if (instance.containsPlayer(player))
-				{
-					return instance;
-				}
-			}
-			else
-			{
-				if (instance.isAllowed(player))
-				{
-					return instance;
-				}
-			}
+			return _playerWorlds.get(player.getObjectId());
 		}
-		return null;
+		
+		// Worlds are kept in the order player was allowed, the oldest one is returned.
+		final List<Instance> worlds = _allowedWorlds.get(player.getObjectId());
+		if (worlds == null)
+		{
+			return null;
+		}
+		
+		final Iterator<Instance> iterator = worlds.iterator();
+		return iterator.hasNext() ? iterator.next() : null;
 	}
 	
 	/**
 	 * Get ID for newly created instance.
 	 * @return instance id
 	 */
-	private synchronized int getNewInstanceId()
+	private int getNewInstanceId()
 	{
+		int instanceId;
 		do
 		{
-			if (_currentInstanceId == Integer.MAX_VALUE)
-			{
-				_currentInstanceId = 0;
-			}
-			_currentInstanceId++;
+			instanceId = _currentInstanceId.updateAndGet(id -> id == Integer.MAX_VALUE ? 1 : id + 1);
 		}
-		while (_instanceWorlds.containsKey(_currentInstanceId));
-		return _currentInstanceId;
+		while (_instanceWorlds.containsKey(instanceId) || _pooledWorlds.containsKey(instanceId));
+		return instanceId;
 	}
 	
 	/**
@@ -482,12 +587,22 @@ public class InstanceManager implements IXmlReader
 	public void register(Instance instance)
 	{
 		final int instanceId = instance.getId();
-		if (!_instanceWorlds.containsKey(instanceId))
+		if (_instanceWorlds.putIfAbsent(instanceId, instance) == null)
 		{
-			_instanceWorlds.put(instanceId, instance);
+			_worldCounts.computeIfAbsent(instance.getTemplateId(), k -> new AtomicInteger()).incrementAndGet();
+			_pooledWorlds.remove(instanceId);
 		}
 	}
 	
+	/**
+	 * Register instance world prepared for the pool, it can be found by ID but is not counted as created world until it is started.
+	 * @param instance instance which should be registered
+	 */
+	public void registerPooled(Instance instance)
+	{
+		_pooledWorlds.put(instance.getId(), instance);
+	}
+	
 	/**
 	 * Unregister instance world.<br>
 	 * <b><font color=red>To remove instance world properly use {@link Instance#destroy()}.</font></b>
@@ -495,10 +610,61 @@ public class InstanceManager implements IXmlReader
 	 */
 	public void unregister(int instanceId)
 	{
-		if (_instanceWorlds.containsKey(instanceId))
+		final Instance instance = _instanceWorlds.remove(instanceId);
+		if (instance != null)
 		{
-			_instanceWorlds.remove(instanceId);
+			_worldCounts.get(instance.getTemplateId()).decrementAndGet();
 		}
+		_pooledWorlds.remove(instanceId);
+	}
+	
+	/**
+	 * Index the instance world where player is located.
+	 * @param player player who entered instance
+	 * @param instance instance world
+	 */
+	public void registerPlayer(Player player, Instance instance)
+	{
+		_playerWorlds.put(player.getObjectId(), instance);
+	}
+	
+	/**
+	 * Remove the instance world where player was located from index.
+	 * @param player player who left instance
+	 * @param instance instance world
+	 */
+	public void unregisterPlayer(Player player, Instance instance)
+	{
+		_playerWorlds.remove(player.getObjectId(), instance);
+	}
+	
+	/**
+	 * Index instance world which player can enter.
+	 * @param playerId object ID of player
+	 * @param instance instance world
+	 */
+	public void registerAllowed(int playerId, Instance instance)
+	{
+		_allowedWorlds.compute(playerId, (k, worlds) ->
+		{
+			final List<Instance> result = (worlds != null) ? worlds : new CopyOnWriteArrayList<>();
+			result.add(instance);
+			return result;
+		});
+	}
+	
+	/**
+	 * Remove instance world which player could enter from index.
+	 * @param playerId object ID of player
+	 * @param instance instance world
+	 */
+	public void unregisterAllowed(int playerId, Instance instance)
+	{
+		_allowedWorlds.computeIfPresent(playerId, (k, worlds) ->
+		{
+			worlds.remove(instance);
+			return worlds.isEmpty() ? null : worlds;
+		});
 	}
 	
 	/**
@@ -676,15 +842,20 @@ public class InstanceManager implements IXmlReader
 	 */
 	public long getWorldCount(int templateId)
 	{
-		long count = 0;
-		for (Instance i : _instanceWorlds.values())
-		{
-			if (i.getTemplateId() == templateId)
-			{
-				count++;
-			}
-		}
-		return count;
+		final AtomicInteger count = _worldCounts.get(templateId);
+		return (count != null) ? count.get() : 0;
+	}
+	
+	public String[] getStats()
+	{
+		final String[] stats = new String[6];
+		stats[0] = "Instances:";
+		stats[1] = " |- Worlds: .......... " + _instanceWorlds.size();
+		stats[2] = " |- PlayersInside: ... " + _playerWorlds.size();
+		stats[3] = " |- PooledWorlds: .... " + _pooledWorlds.size();
+		stats[4] = " |- PoolHits: ........ " + _poolHits.sum();
+		stats[5] = " |- PoolMisses: ...... " + _poolMisses.sum();
+		return stats;
 	}
 	
 	/**
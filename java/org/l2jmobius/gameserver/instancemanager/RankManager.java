@@ -19,8 +19,12 @@ package org.l2jmobius.gameserver.instancemanager;
 import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
-import java.util.Map.Entry;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.logging.Level;
 import java.util.logging.Logger;
@@ -30,10 +34,16 @@ import org.l2jmobius.commons.threads.ThreadPool;
 import org.l2jmobius.gameserver.data.sql.ClanTable;
 import org.l2jmobius.gameserver.enums.CategoryType;
 import org.l2jmobius.gameserver.model.StatSet;
+import org.l2jmobius.gameserver.model.World;
 import org.l2jmobius.gameserver.model.actor.Player;
+import org.l2jmobius.gameserver.model.clan.Clan;
 import org.l2jmobius.gameserver.model.olympiad.Hero;
+import org.l2jmobius.gameserver.model.olympiad.Olympiad;
 
 /**
+ * Keeps the level, PvP and olympiad leaderboards in memory.<br>
+ * Characters are reloaded with a single query every 30 minutes and kept up to date in between from exp, PvP and olympiad changes.<br>
+ * Changes are only recorded by the players that make them, a periodic update applies them in one pass and publishes immutable rankings that are replaced atomically.
  * @author NviX
  */
 public class RankManager
@@ -41,321 +51,417 @@ public class RankManager
 	private static final Logger LOGGER = Logger.getLogger(RankManager.class.getName());
 	
 	public static final Long TIME_LIMIT = 2592000000L; // 30 days in milliseconds
-	public static final long CURRENT_TIME = System.currentTimeMillis();
 	public static final int PLAYER_LIMIT = 500;
 	
-	private static final String SELECT_CHARACTERS = "SELECT charId,char_name,level,race,base_class, clanid FROM characters WHERE (" + CURRENT_TIME + " - cast(lastAccess as signed) < " + TIME_LIMIT + ") AND accesslevel = 0 AND level > 84 ORDER BY exp DESC, onlinetime DESC LIMIT " + PLAYER_LIMIT;
-	private static final String SELECT_CHARACTERS_PVP = "SELECT charId,char_name,level,race,base_class, clanid, deaths, kills, pvpkills FROM characters WHERE (" + CURRENT_TIME + " - cast(lastAccess as signed) < " + TIME_LIMIT + ") AND accesslevel = 0 AND level > 84 ORDER BY kills DESC, onlinetime DESC LIMIT " + PLAYER_LIMIT;
-	private static final String SELECT_CHARACTERS_BY_RACE = "SELECT charId FROM characters WHERE (" + CURRENT_TIME + " - cast(lastAccess as signed) < " + TIME_LIMIT + ") AND accesslevel = 0 AND level > 84 AND race = ? ORDER BY exp DESC, onlinetime DESC LIMIT " + PLAYER_LIMIT;
+	private static final int MIN_LEVEL = 85;
+	private static final long RELOAD_DELAY = 1800000;
+	private static final long PUBLISH_DELAY = 10000;
 	
-	private static final String GET_CURRENT_CYCLE_DATA = "SELECT characters.char_name, characters.level, characters.base_class, characters.clanid, olympiad_nobles.charId, olympiad_nobles.olympiad_points, olympiad_nobles.competitions_won, olympiad_nobles.competitions_lost FROM characters, olympiad_nobles WHERE characters.charId = olympiad_nobles.charId ORDER BY olympiad_nobles.olympiad_points DESC LIMIT " + PLAYER_LIMIT;
-	private static final String GET_CHARACTERS_BY_CLASS = "SELECT charId FROM characters WHERE (" + CURRENT_TIME + " - cast(lastAccess as signed) < " + TIME_LIMIT + ") AND accesslevel = 0 AND level > 84 AND characters.base_class = ? ORDER BY exp DESC, onlinetime DESC LIMIT " + PLAYER_LIMIT;
+	private static final String SELECT_CHARACTERS = "SELECT characters.charId, char_name, level, race, base_class, clanid, exp, onlinetime, kills, deaths, pvpkills, accesslevel, lastAccess, olympiad_nobles.charId AS nobleId, olympiad_points, competitions_won, competitions_lost FROM characters LEFT JOIN olympiad_nobles ON olympiad_nobles.charId = characters.charId WHERE olympiad_nobles.charId IS NOT NULL OR (accesslevel = 0 AND level >= " + MIN_LEVEL + " AND lastAccess > ?)";
 	
-	private final Map<Integer, StatSet> _mainList = new ConcurrentHashMap<>();
-	private Map<Integer, StatSet> _snapshotList = new ConcurrentHashMap<>();
-	private final Map<Integer, StatSet> _mainOlyList = new ConcurrentHashMap<>();
-	private Map<Integer, StatSet> _snapshotOlyList = new ConcurrentHashMap<>();
-	private final Map<Integer, StatSet> _mainPvpList = new ConcurrentHashMap<>();
-	private Map<Integer, StatSet> _snapshotPvpList = new ConcurrentHashMap<>();
+	private static final Comparator<RankEntry> EXP_ORDER = Comparator.comparingLong((RankEntry entry) -> -entry._exp).thenComparingLong(entry -> -entry._onlineTime).thenComparingInt(entry -> entry._charId);
+	private static final Comparator<RankEntry> PVP_ORDER = Comparator.comparingInt((RankEntry entry) -> -entry._kills).thenComparingLong(entry -> -entry._onlineTime).thenComparingInt(entry -> entry._charId);
+	private static final Comparator<RankEntry> OLYMPIAD_ORDER = Comparator.comparingInt((RankEntry entry) -> -entry._olympiadPoints).thenComparingInt(entry -> entry._charId);
+	
+	// Changes waiting for the next update, the exp, PvP and olympiad paths only record them.
+	private final Map<Integer, Player> _pendingPlayers = new ConcurrentHashMap<>();
+	private final Map<Integer, int[]> _pendingOlympiad = new ConcurrentHashMap<>();
+	
+	// Live leaderboards, guarded by this.
+	private final Map<Integer, RankEntry> _entries = new HashMap<>();
+	private final List<RankEntry> _expList = new ArrayList<>();
+	private final List<RankEntry> _pvpList = new ArrayList<>();
+	private final List<RankEntry> _olympiadList = new ArrayList<>();
+	
+	// Published rankings.
+	private volatile Rankings _rankings = new Rankings();
 	
 	protected RankManager()
 	{
-		ThreadPool.scheduleAtFixedRate(this::update, 0, 1800000);
+		ThreadPool.scheduleAtFixedRate(this::reload, 0, RELOAD_DELAY);
+		ThreadPool.scheduleAtFixedRate(this::update, PUBLISH_DELAY, PUBLISH_DELAY);
 	}
 	
-	private synchronized void update()
+	private synchronized void reload()
 	{
-		// Load charIds All
-		_snapshotList = _mainList;
-		_mainList.clear();
-		_snapshotOlyList = _mainOlyList;
-		_mainOlyList.clear();
-		_snapshotPvpList = _mainPvpList;
-		_mainPvpList.clear();
-		
+		final Map<Integer, RankEntry> entries = new HashMap<>();
 		try (Connection con = DatabaseFactory.getConnection();
 			PreparedStatement statement = con.prepareStatement(SELECT_CHARACTERS))
 		{
+			final long lastAccessLimit = System.currentTimeMillis() - TIME_LIMIT;
+			statement.setLong(1, lastAccessLimit);
 			try (ResultSet rset = statement.executeQuery())
 			{
-				int i = 1;
 				while (rset.next())
 				{
-					final StatSet player = new StatSet();
-					final int charId = rset.getInt("charId");
-					final int classId = rset.getInt("base_class");
-					player.set("charId", charId);
-					player.set("name", rset.getString("char_name"));
-					player.set("level", rset.getInt("level"));
-					player.set("classId", rset.getInt("base_class"));
-					final int race = rset.getInt("race");
-					player.set("race", race);
-					
-					loadRaceRank(charId, race, player);
-					loadClassRank(charId, classId, player);
-					final int clanId = rset.getInt("clanid");
-					if (clanId > 0)
-					{
-						player.set("clanName", ClanTable.getInstance().getClan(clanId).getName());
-					}
-					else
-					{
-						player.set("clanName", "");
-					}
-					
-					_mainList.put(i, player);
-					i++;
+					final RankEntry entry = new RankEntry(rset.getInt("charId"));
+					entry._name = rset.getString("char_name");
+					entry._level = rset.getInt("level");
+					entry._race = rset.getInt("race");
+					entry._classId = rset.getInt("base_class");
+					entry._clanId = rset.getInt("clanid");
+					entry._exp = rset.getLong("exp");
+					entry._onlineTime = rset.getLong("onlinetime");
+					entry._kills = rset.getInt("kills");
+					entry._deaths = rset.getInt("deaths");
+					entry._pvpKills = rset.getInt("pvpkills");
+					entry._ranked = (rset.getInt("accesslevel") == 0) && (entry._level >= MIN_LEVEL) && (rset.getLong("lastAccess") > lastAccessLimit);
+					entry._noble = rset.getInt("nobleId") > 0;
+					entry._olympiadPoints = rset.getInt("olympiad_points");
+					entry._competitionsWon = rset.getInt("competitions_won");
+					entry._competitionsLost = rset.getInt("competitions_lost");
+					entries.put(entry._charId, entry);
 				}
 			}
 		}
 		catch (Exception e)
 		{
-			LOGGER.log(Level.WARNING, "Could not load chars total rank data: " + this + " - " + e.getMessage(), e);
+			LOGGER.log(Level.WARNING, "Could not load rank data: " + this + " - " + e.getMessage(), e);
+			return;
 		}
 		
-		// load olympiad data.
-		try (Connection con = DatabaseFactory.getConnection();
-			PreparedStatement statement = con.prepareStatement(GET_CURRENT_CYCLE_DATA))
+		// Olympiad stats are stored periodically, nobles keep the values of their last match.
+		for (RankEntry live : _entries.values())
 		{
-			try (ResultSet rset = statement.executeQuery())
+			final RankEntry entry = entries.get(live._charId);
+			if (live._noble && (entry != null) && (World.getInstance().getPlayer(live._charId) != null))
 			{
-				int i = 1;
-				while (rset.next())
-				{
-					final StatSet player = new StatSet();
-					final int charId = rset.getInt("charId");
-					player.set("charId", charId);
-					player.set("name", rset.getString("char_name"));
-					final int clanId = rset.getInt("clanid");
-					if (clanId > 0)
-					{
-						player.set("clanName", ClanTable.getInstance().getClan(clanId).getName());
-					}
-					else
-					{
-						player.set("clanName", "");
-					}
-					player.set("level", rset.getInt("level"));
-					final int classId = rset.getInt("base_class");
-					player.set("classId", classId);
-					if (clanId > 0)
-					{
-						player.set("clanLevel", ClanTable.getInstance().getClan(clanId).getLevel());
-					}
-					else
-					{
-						player.set("clanLevel", 0);
-					}
-					player.set("competitions_won", rset.getInt("competitions_won"));
-					player.set("competitions_lost", rset.getInt("competitions_lost"));
-					player.set("olympiad_points", rset.getInt("olympiad_points"));
-					
-					if (Hero.getInstance().getCompleteHeroes().containsKey(charId))
-					{
-						final StatSet hero = Hero.getInstance().getCompleteHeroes().get(charId);
-						player.set("count", hero.getInt("count", 0));
-						player.set("legend_count", hero.getInt("legend_count", 0));
-					}
-					else
-					{
-						player.set("count", 0);
-						player.set("legend_count", 0);
-					}
-					
-					loadClassRank(charId, classId, player);
-					
-					_mainOlyList.put(i, player);
-					i++;
-				}
+				entry._noble = true;
+				entry._olympiadPoints = live._olympiadPoints;
+				entry._competitionsWon = live._competitionsWon;
+				entry._competitionsLost = live._competitionsLost;
 			}
 		}
-		catch (Exception e)
+		
+		_entries.clear();
+		_entries.putAll(entries);
+		
+		// Characters that are online right now are refreshed from their live values.
+		for (Player player : World.getInstance().getPlayers())
 		{
-			LOGGER.log(Level.WARNING, "Could not load olympiad total rank data: " + this + " - " + e.getMessage(), e);
+			_pendingPlayers.put(player.getObjectId(), player);
 		}
 		
-		try (Connection con = DatabaseFactory.getConnection();
-			PreparedStatement statement = con.prepareStatement(SELECT_CHARACTERS_PVP))
+		applyPending();
+		publish();
+	}
+	
+	/**
+	 * Applies the recorded changes and publishes the rankings if there were any.
+	 */
+	private synchronized void update()
+	{
+		if (applyPending())
 		{
-			try (ResultSet rset = statement.executeQuery())
-			{
-				int i = 1;
-				while (rset.next())
-				{
-					final StatSet player = new StatSet();
-					final int charId = rset.getInt("charId");
-					player.set("charId", charId);
-					player.set("name", rset.getString("char_name"));
-					player.set("level", rset.getInt("level"));
-					player.set("classId", rset.getInt("base_class"));
-					final int race = rset.getInt("race");
-					player.set("race", race);
-					player.set("kills", rset.getInt("kills"));
-					player.set("deaths", rset.getInt("deaths"));
-					player.set("points", rset.getInt("pvpkills"));
-					loadRaceRank(charId, race, player);
-					final int clanId = rset.getInt("clanid");
-					if (clanId > 0)
-					{
-						player.set("clanName", ClanTable.getInstance().getClan(clanId).getName());
-					}
-					else
-					{
-						player.set("clanName", "");
-					}
-					
-					_mainPvpList.put(i, player);
-					i++;
-				}
-			}
+			publish();
 		}
-		catch (Exception e)
+	}
+	
+	/**
+	 * Records that the exp of a player changed, the level leaderboard is updated on the next update.
+	 * @param player the player
+	 */
+	public void updateExp(Player player)
+	{
+		if (!player.isSubClassActive())
 		{
-			LOGGER.log(Level.WARNING, "Could not load pvp total rank data: " + this + " - " + e.getMessage(), e);
+			_pendingPlayers.put(player.getObjectId(), player);
 		}
 	}
 	
-	private void loadClassRank(int charId, int classId, StatSet player)
+	/**
+	 * Records that the kills or deaths of a player changed, the PvP leaderboard is updated on the next update.
+	 * @param player the player
+	 */
+	public void updatePvp(Player player)
 	{
-		try (Connection con = DatabaseFactory.getConnection();
-			PreparedStatement ps = con.prepareStatement(GET_CHARACTERS_BY_CLASS))
+		_pendingPlayers.put(player.getObjectId(), player);
+	}
+	
+	/**
+	 * Records that the stats of a noble changed, the olympiad leaderboard is updated on the next update.
+	 * @param charId the noble object id
+	 * @param stats the olympiad stats of the noble
+	 */
+	public void updateOlympiad(int charId, StatSet stats)
+	{
+		_pendingOlympiad.put(charId, new int[]
 		{
-			ps.setInt(1, classId);
-			try (ResultSet rset = ps.executeQuery())
+			stats.getInt(Olympiad.POINTS, 0),
+			stats.getInt(Olympiad.COMP_WON, 0),
+			stats.getInt(Olympiad.COMP_LOST, 0)
+		});
+	}
+	
+	/**
+	 * Applies the recorded changes to the entries and sorts the leaderboards again. Must be called while holding the lock.
+	 * @return {@code true} if there was any change
+	 */
+	private boolean applyPending()
+	{
+		if (_pendingPlayers.isEmpty() && _pendingOlympiad.isEmpty())
+		{
+			return false;
+		}
+		
+		for (Integer charId : _pendingPlayers.keySet())
+		{
+			final Player player = _pendingPlayers.remove(charId);
+			final boolean eligible = isEligible(player);
+			RankEntry entry = _entries.get(charId);
+			if (entry == null)
 			{
-				int i = 0;
-				while (rset.next())
+				if (!eligible)
 				{
-					if (rset.getInt("charId") == charId)
-					{
-						player.set("classRank", i + 1);
-					}
-					i++;
+					continue;
 				}
-				if (i == 0)
+				entry = new RankEntry(charId);
+				_entries.put(charId, entry);
+			}
+			
+			entry._name = player.getName();
+			entry._race = player.getRace().ordinal();
+			entry._classId = player.getBaseClass();
+			entry._clanId = player.getClanId();
+			entry._kills = player.getTotalKills();
+			entry._deaths = player.getTotalDeaths();
+			entry._pvpKills = player.getPvpKills();
+			
+			// While a subclass is active the stats hold the subclass exp, the base class values are kept.
+			if (!player.isSubClassActive())
+			{
+				entry._exp = player.getStat().getBaseExp();
+				entry._level = player.getStat().getBaseLevel();
+				entry._ranked = eligible;
+			}
+		}
+		
+		for (Integer charId : _pendingOlympiad.keySet())
+		{
+			final int[] stats = _pendingOlympiad.remove(charId);
+			RankEntry entry = _entries.get(charId);
+			if (entry == null)
+			{
+				// Nobles that are not known yet are added while they are online, the others on the next reload.
+				final Player player = World.getInstance().getPlayer(charId);
+				if (player == null)
 				{
-					player.set("classRank", 0);
+					continue;
 				}
+				entry = new RankEntry(charId);
+				entry._name = player.getName();
+				entry._level = player.getStat().getBaseLevel();
+				entry._race = player.getRace().ordinal();
+				entry._classId = player.getBaseClass();
+				entry._clanId = player.getClanId();
+				entry._ranked = isEligible(player);
+				_entries.put(charId, entry);
 			}
+			entry._olympiadPoints = stats[0];
+			entry._competitionsWon = stats[1];
+			entry._competitionsLost = stats[2];
+			entry._noble = true;
 		}
-		catch (Exception e)
+		
+		_expList.clear();
+		_pvpList.clear();
+		_olympiadList.clear();
+		for (RankEntry entry : _entries.values())
 		{
-			LOGGER.log(Level.WARNING, "Could not load chars classId olympiad rank data: " + this + " - " + e.getMessage(), e);
+			if (entry._ranked)
+			{
+				_expList.add(entry);
+				_pvpList.add(entry);
+			}
+			if (entry._noble)
+			{
+				_olympiadList.add(entry);
+			}
 		}
+		_expList.sort(EXP_ORDER);
+		_pvpList.sort(PVP_ORDER);
+		_olympiadList.sort(OLYMPIAD_ORDER);
+		return true;
 	}
 	
-	private void loadRaceRank(int charId, int race, StatSet player)
+	private static boolean isEligible(Player player)
 	{
-		try (Connection con = DatabaseFactory.getConnection();
-			PreparedStatement ps = con.prepareStatement(SELECT_CHARACTERS_BY_RACE))
+		return (player.getStat().getBaseLevel() >= MIN_LEVEL) && (player.getAccessLevel() != null) && (player.getAccessLevel().getLevel() == 0);
+	}
+	
+	/**
+	 * Builds the rankings from the live leaderboards and publishes them. Must be called while holding the lock.
+	 */
+	private void publish()
+	{
+		final Rankings rankings = new Rankings();
+		
+		// Race and class ranks are counted in a single pass over the level leaderboard.
+		final Map<Integer, Integer> raceCounts = new HashMap<>();
+		final Map<Integer, Integer> classCounts = new HashMap<>();
+		for (int i = 0; i < _expList.size(); i++)
 		{
-			ps.setInt(1, race);
-			try (ResultSet rset = ps.executeQuery())
+			final RankEntry entry = _expList.get(i);
+			final int raceRank = raceCounts.merge(entry._race, 1, Integer::sum);
+			final int classRank = classCounts.merge(entry._classId, 1, Integer::sum);
+			rankings._ranks.put(entry._charId, new int[]
 			{
-				int i = 0;
-				while (rset.next())
-				{
-					if (rset.getInt("charId") == charId)
-					{
-						player.set("raceRank", i + 1);
-					}
-					i++;
-				}
-				if (i == 0)
-				{
-					player.set("raceRank", 0);
-				}
-			}
+				i + 1,
+				raceRank <= PLAYER_LIMIT ? raceRank : 0,
+				classRank <= PLAYER_LIMIT ? classRank : 0
+			});
 		}
-		catch (Exception e)
+		
+		for (int i = 0; i < Math.min(_expList.size(), PLAYER_LIMIT); i++)
 		{
-			LOGGER.log(Level.WARNING, "Could not load chars race rank data: " + this + " - " + e.getMessage(), e);
+			rankings._list.put(i + 1, createStatSet(_expList.get(i), rankings));
 		}
+		
+		for (int i = 0; i < Math.min(_pvpList.size(), PLAYER_LIMIT); i++)
+		{
+			final RankEntry entry = _pvpList.get(i);
+			final StatSet player = createStatSet(entry, rankings);
+			player.set("kills", entry._kills);
+			player.set("deaths", entry._deaths);
+			player.set("points", entry._pvpKills);
+			rankings._pvpList.put(i + 1, player);
+		}
+		
+		for (int i = 0; i < Math.min(_olympiadList.size(), PLAYER_LIMIT); i++)
+		{
+			final RankEntry entry = _olympiadList.get(i);
+			final StatSet player = createStatSet(entry, rankings);
+			final Clan clan = entry._clanId > 0 ? ClanTable.getInstance().getClan(entry._clanId) : null;
+			player.set("clanLevel", clan != null ? clan.getLevel() : 0);
+			player.set("competitions_won", entry._competitionsWon);
+			player.set("competitions_lost", entry._competitionsLost);
+			player.set("olympiad_points", entry._olympiadPoints);
+			final StatSet hero = Hero.getInstance().getCompleteHeroes().get(entry._charId);
+			player.set("count", hero != null ? hero.getInt("count", 0) : 0);
+			player.set("legend_count", hero != null ? hero.getInt("legend_count", 0) : 0);
+			rankings._olympiadList.put(i + 1, player);
+		}
+		
+		_rankings = rankings;
+	}
+	
+	private static StatSet createStatSet(RankEntry entry, Rankings rankings)
+	{
+		final StatSet player = new StatSet();
+		player.set("charId", entry._charId);
+		player.set("name", entry._name);
+		player.set("level", entry._level);
+		player.set("classId", entry._classId);
+		player.set("race", entry._race);
+		final int[] ranks = rankings._ranks.get(entry._charId);
+		player.set("raceRank", ranks != null ? ranks[1] : 0);
+		player.set("classRank", ranks != null ? ranks[2] : 0);
+		final Clan clan = entry._clanId > 0 ? ClanTable.getInstance().getClan(entry._clanId) : null;
+		player.set("clanName", clan != null ? clan.getName() : "");
+		return player;
 	}
 	
 	public Map<Integer, StatSet> getRankList()
 	{
-		return _mainList;
+		return _rankings._list;
 	}
 	
+	/**
+	 * Ranking packets expect every ranked player in both the current and the snapshot lists, so snapshots are the published rankings.
+	 * @return the level ranking snapshot
+	 */
 	public Map<Integer, StatSet> getSnapshotList()
 	{
-		return _snapshotList;
+		return _rankings._list;
 	}
 	
 	public Map<Integer, StatSet> getOlyRankList()
 	{
-		return _mainOlyList;
+		return _rankings._olympiadList;
 	}
 	
 	public Map<Integer, StatSet> getSnapshotOlyList()
 	{
-		return _snapshotOlyList;
+		return _rankings._olympiadList;
 	}
 	
 	public Map<Integer, StatSet> getPvpRankList()
 	{
-		return _mainPvpList;
+		return _rankings._pvpList;
 	}
 	
 	public Map<Integer, StatSet> getSnapshotPvpRankList()
 	{
-		return _snapshotPvpList;
+		return _rankings._pvpList;
 	}
 	
 	public int getPlayerGlobalRank(Player player)
 	{
-		if (!player.isInCategory(CategoryType.SIXTH_CLASS_GROUP))
-		{
-			return 0;
-		}
-		final int playerOid = player.getObjectId();
-		for (Entry<Integer, StatSet> entry : _mainList.entrySet())
-		{
-			final StatSet stats = entry.getValue();
-			if (stats.getInt("charId") != playerOid)
-			{
-				continue;
-			}
-			return entry.getKey();
-		}
-		return 0;
+		return getPlayerRank(player, 0);
 	}
 	
 	public int getPlayerRaceRank(Player player)
+	{
+		return getPlayerRank(player, 1);
+	}
+	
+	public int getPlayerClassRank(Player player)
+	{
+		return getPlayerRank(player, 2);
+	}
+	
+	private int getPlayerRank(Player player, int index)
 	{
 		if (!player.isInCategory(CategoryType.SIXTH_CLASS_GROUP))
 		{
 			return 0;
 		}
-		final int playerOid = player.getObjectId();
-		for (StatSet stats : _mainList.values())
+		
+		final int[] ranks = _rankings._ranks.get(player.getObjectId());
+		if ((ranks == null) || (ranks[0] > PLAYER_LIMIT))
 		{
-			if (stats.getInt("charId") != playerOid)
-			{
-				continue;
-			}
-			return stats.getInt("raceRank");
+			return 0;
 		}
-		return 0;
+		return ranks[index];
 	}
 	
-	public int getPlayerClassRank(Player player)
+	/**
+	 * The leaderboard values of one character.
+	 */
+	private static class RankEntry
 	{
-		if (!player.isInCategory(CategoryType.SIXTH_CLASS_GROUP))
-		{
-			return 0;
-		}
-		final int playerOid = player.getObjectId();
-		for (StatSet stats : _mainList.values())
+		final int _charId;
+		String _name;
+		int _level;
+		int _race;
+		int _classId;
+		int _clanId;
+		long _exp;
+		long _onlineTime;
+		int _kills;
+		int _deaths;
+		int _pvpKills;
+		boolean _ranked;
+		boolean _noble;
+		int _olympiadPoints;
+		int _competitionsWon;
+		int _competitionsLost;
+		
+		RankEntry(int charId)
 		{
-			if (stats.getInt("charId") != playerOid)
-			{
-				continue;
-			}
-			return stats.getInt("classRank");
+			_charId = charId;
 		}
-		return 0;
+	}
+	
+	/**
+	 * Published rankings, never modified after publication.
+	 */
+	private static class Rankings
+	{
+		final Map<Integer, StatSet> _list = new LinkedHashMap<>();
+		final Map<Integer, StatSet> _pvpList = new LinkedHashMap<>();
+		final Map<Integer, StatSet> _olympiadList = new LinkedHashMap<>();
+		final Map<Integer, int[]> _ranks = new HashMap<>();
 	}
 	
 	public static RankManager getInstance()
@@ -367,4 +473,4 @@ public class RankManager
 	{
 		protected static final RankManager INSTANCE = new RankManager();
 	}
-}
\ No newline at end of file
+}
@@ -93,7 +93,7 @@ public class ZoneManager implements IXmlReader
 	
 	private static final Map<String, AbstractZoneSettings> SETTINGS = new HashMap<>();
 	
-	private static final int SHIFT_BY = 15;
+	public static final int SHIFT_BY = 15;
 	private static final int OFFSET_X = Math.abs(World.WORLD_X_MIN >> SHIFT_BY);
 	private static final int OFFSET_Y = Math.abs(World.WORLD_Y_MIN >> SHIFT_BY);
 	
@@ -165,7 +165,7 @@ public class ZoneManager implements IXmlReader
 		{
 			for (ZoneRegion zoneRegion : zoneRegions)
 			{
-				zoneRegion.getZones().clear();
+				zoneRegion.clearZones();
 				count++;
 			}
 		}
@@ -414,7 +414,7 @@ public class ZoneManager implements IXmlReader
 								final int by = ((y + 1) - OFFSET_Y) << SHIFT_BY;
 								if (temp.getZone().intersectsRectangle(ax, bx, ay, by))
 								{
-									_zoneRegions[x][y].getZones().put(temp.getId(), temp);
+									_zoneRegions[x][y].addZone(temp);
 								}
 							}
 						}
@@ -638,7 +638,7 @@ public class ZoneManager implements IXmlReader
 	public List<ZoneType> getZones(int x, int y)
 	{
 		final List<ZoneType> temp = new ArrayList<>();
-		for (ZoneType zone : getRegion(x, y).getZones().values())
+		for (ZoneType zone : getRegion(x, y).getZones(x, y))
 		{
 			if (zone.isInsideZone(x, y))
 			{
@@ -658,7 +658,7 @@ public class ZoneManager implements IXmlReader
 	public List<ZoneType> getZones(int x, int y, int z)
 	{
 		final List<ZoneType> temp = new ArrayList<>();
-		for (ZoneType zone : getRegion(x, y).getZones().values())
+		for (ZoneType zone : getRegion(x, y).getZones(x, y))
 		{
 			if (zone.isInsideZone(x, y, z))
 			{
@@ -680,7 +680,7 @@ public class ZoneManager implements IXmlReader
 	@SuppressWarnings("unchecked")
 	public <T extends ZoneType> T getZone(int x, int y, int z, Class<T> type)
 	{
-		for (ZoneType zone : getRegion(x, y).getZones().values())
+		for (ZoneType zone : getRegion(x, y).getZones(x, y))
 		{
 			if (zone.isInsideZone(x, y, z) && type.isInstance(zone))
 			{
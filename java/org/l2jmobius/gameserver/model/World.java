@@ -18,12 +18,12 @@ package org.l2jmobius.gameserver.model;
 
 import java.util.ArrayList;
 import java.util.Collection;
-import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BiConsumer;
 import java.util.function.Consumer;
 import java.util.function.Predicate;
 import java.util.logging.Logger;
@@ -39,6 +39,7 @@ import org.l2jmobius.gameserver.model.actor.Npc;
 import org.l2jmobius.gameserver.model.actor.Player;
 import org.l2jmobius.gameserver.model.actor.Summon;
 import org.l2jmobius.gameserver.model.actor.instance.Pet;
+import org.l2jmobius.gameserver.model.instancezone.Instance;
 import org.l2jmobius.gameserver.network.Disconnection;
 import org.l2jmobius.gameserver.network.serverpackets.DeleteObject;
 import org.l2jmobius.gameserver.network.serverpackets.LeaveWorld;
@@ -403,56 +404,58 @@ public class World
 		final WorldRegion[] surroundingRegions = oldRegion.getSurroundingRegions();
 		for (int i = 0; i < surroundingRegions.length; i++)
 		{
-			final Collection<WorldObject> visibleObjects = surroundingRegions[i].getVisibleObjects();
-			if (visibleObjects.isEmpty())
+			for (Set<WorldObject> visibleObjects : surroundingRegions[i].getVisibleObjects())
 			{
-				continue;
-			}
-			
-			for (WorldObject wo : visibleObjects)
-			{
-				if (wo == object)
+				if (visibleObjects.isEmpty())
 				{
 					continue;
 				}
 				
-				if (object.isCreature())
-				{
-					final Creature objectCreature = (Creature) object;
-					final CreatureAI ai = objectCreature.getAI();
-					if (ai != null)
-					{
-						ai.notifyEvent(CtrlEvent.EVT_FORGET_OBJECT, wo);
-					}
-					
-					if (objectCreature.getTarget() == wo)
-					{
-						objectCreature.setTarget(null);
-					}
-					
-					if (object.isPlayer())
-					{
-						object.sendPacket(new DeleteObject(wo));
-					}
-				}
-				
-				if (wo.isCreature())
+				for (WorldObject wo : visibleObjects)
 				{
-					final Creature woCreature = (Creature) wo;
-					final CreatureAI ai = woCreature.getAI();
-					if (ai != null)
+					if (wo == object)
 					{
-						ai.notifyEvent(CtrlEvent.EVT_FORGET_OBJECT, object);
+						continue;
 					}
 					
-					if (woCreature.getTarget() == object)
+					if (object.isCreature())
 					{
-						woCreature.setTarget(null);
+						final Creature objectCreature = (Creature) object;
+						final CreatureAI ai = objectCreature.getAI();
+						if (ai != null)
+						{
+							ai.notifyEvent(CtrlEvent.EVT_FORGET_OBJECT, wo);
+						}
+						
+						if (objectCreature.getTarget() == wo)
+						{
+							objectCreature.setTarget(null);
+						}
+						
+						if (object.isPlayer())
+						{
+							object.sendPacket(new DeleteObject(wo));
+						}
 					}
 					
-					if (wo.isPlayer())
+					if (wo.isCreature())
 					{
-						wo.sendPacket(new DeleteObject(object));
+						final Creature woCreature = (Creature) wo;
+						final CreatureAI ai = woCreature.getAI();
+						if (ai != null)
+						{
+							ai.notifyEvent(CtrlEvent.EVT_FORGET_OBJECT, object);
+						}
+						
+						if (woCreature.getTarget() == object)
+						{
+							woCreature.setTarget(null);
+						}
+						
+						if (wo.isPlayer())
+						{
+							wo.sendPacket(new DeleteObject(object));
+						}
 					}
 				}
 			}
@@ -476,56 +479,58 @@ public class World
 				continue;
 			}
 			
-			final Collection<WorldObject> visibleObjects = worldRegion.getVisibleObjects();
-			if (visibleObjects.isEmpty())
+			for (Set<WorldObject> visibleObjects : worldRegion.getVisibleObjects())
 			{
-				continue;
-			}
-			
-			for (WorldObject wo : visibleObjects)
-			{
-				if (wo == object)
+				if (visibleObjects.isEmpty())
 				{
 					continue;
 				}
 				
-				if (object.isCreature())
-				{
-					final Creature objectCreature = (Creature) object;
-					final CreatureAI ai = objectCreature.getAI();
-					if (ai != null)
-					{
-						ai.notifyEvent(CtrlEvent.EVT_FORGET_OBJECT, wo);
-					}
-					
-					if (objectCreature.getTarget() == wo)
-					{
-						objectCreature.setTarget(null);
-					}
-					
-					if (object.isPlayer())
-					{
-						object.sendPacket(new DeleteObject(wo));
-					}
-				}
-				
-				if (wo.isCreature())
+				for (WorldObject wo : visibleObjects)
 				{
-					final Creature woCreature = (Creature) wo;
-					final CreatureAI ai = woCreature.getAI();
-					if (ai != null)
+					if (wo == object)
 					{
-						ai.notifyEvent(CtrlEvent.EVT_FORGET_OBJECT, object);
+						continue;
 					}
 					
-					if (woCreature.getTarget() == object)
+					if (object.isCreature())
 					{
-						woCreature.setTarget(null);
+						final Creature objectCreature = (Creature) object;
+						final CreatureAI ai = objectCreature.getAI();
+						if (ai != null)
+						{
+							ai.notifyEvent(CtrlEvent.EVT_FORGET_OBJECT, wo);
+						}
+						
+						if (objectCreature.getTarget() == wo)
+						{
+							objectCreature.setTarget(null);
+						}
+						
+						if (object.isPlayer())
+						{
+							object.sendPacket(new DeleteObject(wo));
+						}
 					}
 					
-					if (wo.isPlayer())
+					if (wo.isCreature())
 					{
-						wo.sendPacket(new DeleteObject(object));
+						final Creature woCreature = (Creature) wo;
+						final CreatureAI ai = woCreature.getAI();
+						if (ai != null)
+						{
+							ai.notifyEvent(CtrlEvent.EVT_FORGET_OBJECT, object);
+						}
+						
+						if (woCreature.getTarget() == object)
+						{
+							woCreature.setTarget(null);
+						}
+						
+						if (wo.isPlayer())
+						{
+							wo.sendPacket(new DeleteObject(object));
+						}
 					}
 				}
 			}
@@ -540,48 +545,50 @@ public class World
 				continue;
 			}
 			
-			final Collection<WorldObject> visibleObjects = worldRegion.getVisibleObjects();
-			if (visibleObjects.isEmpty())
-			{
-				continue;
-			}
-			
-			for (WorldObject wo : visibleObjects)
+			for (Set<WorldObject> visibleObjects : worldRegion.getVisibleObjects())
 			{
-				if ((wo == object) || (wo.getInstanceWorld() != object.getInstanceWorld()))
+				if (visibleObjects.isEmpty())
 				{
 					continue;
 				}
 				
-				if (object.isPlayer() && wo.isVisibleFor((Player) object))
+				for (WorldObject wo : visibleObjects)
 				{
-					wo.sendInfo((Player) object);
-					if (wo.isCreature())
+					if ((wo == object) || (wo.getInstanceWorld() != object.getInstanceWorld()))
 					{
-						final CreatureAI ai = ((Creature) wo).getAI();
-						if (ai != null)
+						continue;
+					}
+					
+					if (object.isPlayer() && wo.isVisibleFor((Player) object))
+					{
+						wo.sendInfo((Player) object);
+						if (wo.isCreature())
 						{
-							ai.describeStateToPlayer((Player) object);
-							if (wo.isMonster() && (ai.getIntention() == CtrlIntention.AI_INTENTION_IDLE))
+							final CreatureAI ai = ((Creature) wo).getAI();
+							if (ai != null)
 							{
-								ai.setIntention(CtrlIntention.AI_INTENTION_ACTIVE);
+								ai.describeStateToPlayer((Player) object);
+								if (wo.isMonster() && (ai.getIntention() == CtrlIntention.AI_INTENTION_IDLE))
+								{
+									ai.setIntention(CtrlIntention.AI_INTENTION_ACTIVE);
+								}
 							}
 						}
 					}
-				}
-				
-				if (wo.isPlayer() && object.isVisibleFor((Player) wo))
-				{
-					object.sendInfo((Player) wo);
-					if (object.isCreature())
+					
+					if (wo.isPlayer() && object.isVisibleFor((Player) wo))
 					{
-						final CreatureAI ai = ((Creature) object).getAI();
-						if (ai != null)
+						object.sendInfo((Player) wo);
+						if (object.isCreature())
 						{
-							ai.describeStateToPlayer((Player) wo);
-							if (object.isMonster() && (ai.getIntention() == CtrlIntention.AI_INTENTION_IDLE))
+							final CreatureAI ai = ((Creature) object).getAI();
+							if (ai != null)
 							{
-								ai.setIntention(CtrlIntention.AI_INTENTION_ACTIVE);
+								ai.describeStateToPlayer((Player) wo);
+								if (object.isMonster() && (ai.getIntention() == CtrlIntention.AI_INTENTION_IDLE))
+								{
+									ai.setIntention(CtrlIntention.AI_INTENTION_ACTIVE);
+								}
 							}
 						}
 					}
@@ -592,14 +599,14 @@ public class World
 	
 	public <T extends WorldObject> List<T> getVisibleObjects(WorldObject object, Class<T> clazz)
 	{
-		final List<T> result = new LinkedList<>();
-		forEachVisibleObject(object, clazz, result::add);
+		final List<T> result = new ArrayList<>();
+		forEachVisibleObject(object, clazz, -1, result, (o, list) -> list.add(o));
 		return result;
 	}
 	
 	public <T extends WorldObject> List<T> getVisibleObjects(WorldObject object, Class<T> clazz, Predicate<T> predicate)
 	{
-		final List<T> result = new LinkedList<>();
+		final List<T> result = new ArrayList<>();
 		forEachVisibleObject(object, clazz, o ->
 		{
 			if (predicate.test(o))
@@ -612,53 +619,33 @@ public class World
 	
 	public <T extends WorldObject> void forEachVisibleObject(WorldObject object, Class<T> clazz, Consumer<T> c)
 	{
-		if (object == null)
-		{
-			return;
-		}
-		
-		final WorldRegion worldRegion = getRegion(object);
-		if (worldRegion == null)
-		{
-			return;
-		}
-		
-		final WorldRegion[] surroundingRegions = worldRegion.getSurroundingRegions();
-		for (int i = 0; i < surroundingRegions.length; i++)
-		{
-			final Collection<WorldObject> visibleObjects = surroundingRegions[i].getVisibleObjects();
-			if (visibleObjects.isEmpty())
-			{
-				continue;
-			}
-			
-			for (WorldObject wo : visibleObjects)
-			{
-				if ((wo == object) || !clazz.isInstance(wo))
-				{
-					continue;
-				}
-				
-				if (wo.getInstanceWorld() != object.getInstanceWorld())
-				{
-					continue;
-				}
-				
-				c.accept(clazz.cast(wo));
-			}
-		}
+		forEachVisibleObject(object, clazz, -1, c, (o, consumer) -> consumer.accept(o));
+	}
+	
+	/**
+	 * Variant of {@link #forEachVisibleObject(WorldObject, Class, Consumer)} that hands an argument to the action, so callers can use a non capturing lambda that is not allocated on every call.
+	 * @param <T> the type of the visible objects
+	 * @param <A> the type of the argument
+	 * @param object the object whose surroundings are visited
+	 * @param clazz the type of the visible objects
+	 * @param argument the argument passed to the action
+	 * @param action the action
+	 */
+	public <T extends WorldObject, A> void forEachVisibleObject(WorldObject object, Class<T> clazz, A argument, BiConsumer<T, A> action)
+	{
+		forEachVisibleObject(object, clazz, -1, argument, action);
 	}
 	
 	public <T extends WorldObject> List<T> getVisibleObjectsInRange(WorldObject object, Class<T> clazz, int range)
 	{
-		final List<T> result = new LinkedList<>();
-		forEachVisibleObjectInRange(object, clazz, range, result::add);
+		final List<T> result = new ArrayList<>();
+		forEachVisibleObjectInRange(object, clazz, range, result, (o, list) -> list.add(o));
 		return result;
 	}
 	
 	public <T extends WorldObject> List<T> getVisibleObjectsInRange(WorldObject object, Class<T> clazz, int range, Predicate<T> predicate)
 	{
-		final List<T> result = new LinkedList<>();
+		final List<T> result = new ArrayList<>();
 		forEachVisibleObjectInRange(object, clazz, range, o ->
 		{
 			if (predicate.test(o))
@@ -670,6 +657,40 @@ public class World
 	}
 	
 	public <T extends WorldObject> void forEachVisibleObjectInRange(WorldObject object, Class<T> clazz, int range, Consumer<T> c)
+	{
+		forEachVisibleObjectInRange(object, clazz, range, c, (o, consumer) -> consumer.accept(o));
+	}
+	
+	/**
+	 * Variant of {@link #forEachVisibleObjectInRange(WorldObject, Class, int, Consumer)} that hands an argument to the action, so callers can use a non capturing lambda that is not allocated on every call.
+	 * @param <T> the type of the visible objects
+	 * @param <A> the type of the argument
+	 * @param object the object whose surroundings are visited
+	 * @param clazz the type of the visible objects
+	 * @param range the 3D range
+	 * @param argument the argument passed to the action
+	 * @param action the action
+	 */
+	public <T extends WorldObject, A> void forEachVisibleObjectInRange(WorldObject object, Class<T> clazz, int range, A argument, BiConsumer<T, A> action)
+	{
+		if (range >= 0)
+		{
+			forEachVisibleObject(object, clazz, range, argument, action);
+		}
+	}
+	
+	/**
+	 * Visits the objects of the surrounding regions of an object.<br>
+	 * Only the region buckets that can hold the requested type are walked, and with a range the regions that lie completely outside of it are skipped.
+	 * @param <T> the type of the visible objects
+	 * @param <A> the type of the argument
+	 * @param object the object whose surroundings are visited
+	 * @param clazz the type of the visible objects
+	 * @param range the 3D range, or -1 for the whole surrounding regions
+	 * @param argument the argument passed to the action
+	 * @param action the action
+	 */
+	private <T extends WorldObject, A> void forEachVisibleObject(WorldObject object, Class<T> clazz, int range, A argument, BiConsumer<T, A> action)
 	{
 		if (object == null)
 		{
@@ -682,30 +703,58 @@ public class World
 			return;
 		}
 		
+		final int x = object.getX();
+		final int y = object.getY();
+		final int z = object.getZ();
+		final long rangeSq = (long) range * range;
+		final int bucketMask = WorldRegion.getBucketMask(clazz);
+		final Instance instance = object.getInstanceWorld();
 		final WorldRegion[] surroundingRegions = worldRegion.getSurroundingRegions();
 		for (int i = 0; i < surroundingRegions.length; i++)
 		{
-			final Collection<WorldObject> visibleObjects = surroundingRegions[i].getVisibleObjects();
-			if (visibleObjects.isEmpty())
+			final WorldRegion region = surroundingRegions[i];
+			if ((range >= 0) && !region.isInRange(x, y, range))
 			{
 				continue;
 			}
 			
-			for (WorldObject wo : visibleObjects)
+			for (int bucket = 0; bucket < WorldRegion.BUCKET_COUNT; bucket++)
 			{
-				if ((wo == object) || !clazz.isInstance(wo))
+				if ((bucketMask & (1 << bucket)) == 0)
 				{
 					continue;
 				}
 				
-				if (wo.getInstanceWorld() != object.getInstanceWorld())
+				final Set<WorldObject> visibleObjects = region.getVisibleObjects(bucket);
+				if (visibleObjects.isEmpty())
 				{
 					continue;
 				}
 				
-				if (wo.calculateDistance3D(object) <= range)
+				for (WorldObject wo : visibleObjects)
 				{
-					c.accept(clazz.cast(wo));
+					if ((wo == object) || !clazz.isInstance(wo))
+					{
+						continue;
+					}
+					
+					if (wo.getInstanceWorld() != instance)
+					{
+						continue;
+					}
+					
+					if (range >= 0)
+					{
+						final long dx = wo.getX() - x;
+						final long dy = wo.getY() - y;
+						final long dz = wo.getZ() - z;
+						if (((dx * dx) + (dy * dy) + (dz * dz)) > rangeSq)
+						{
+							continue;
+						}
+					}
+					
+					action.accept(clazz.cast(wo), argument);
 				}
 			}
 		}
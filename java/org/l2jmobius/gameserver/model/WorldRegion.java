@@ -17,7 +17,6 @@
 package org.l2jmobius.gameserver.model;
 
 import java.util.ArrayList;
-import java.util.Collection;
 import java.util.List;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
@@ -26,16 +25,56 @@ import java.util.concurrent.atomic.AtomicInteger;
 
 import org.l2jmobius.Config;
 import org.l2jmobius.commons.threads.ThreadPool;
+import org.l2jmobius.gameserver.ai.PerceptionManager;
 import org.l2jmobius.gameserver.model.actor.Attackable;
 import org.l2jmobius.gameserver.model.actor.Npc;
+import org.l2jmobius.gameserver.model.actor.Player;
 import org.l2jmobius.gameserver.model.actor.instance.Door;
 import org.l2jmobius.gameserver.model.actor.instance.Fence;
+import org.l2jmobius.gameserver.model.item.instance.Item;
 import org.l2jmobius.gameserver.taskmanager.RandomAnimationTaskManager;
 
 public class WorldRegion
 {
-	/** Set containing visible objects in this world region. */
-	private final Set<WorldObject> _visibleObjects = ConcurrentHashMap.newKeySet();
+	/** Bucket of {@link #getVisibleObjects(int)} holding players. */
+	public static final int PLAYERS = 0;
+	/** Bucket of {@link #getVisibleObjects(int)} holding NPCs. */
+	public static final int NPCS = 1;
+	/** Bucket of {@link #getVisibleObjects(int)} holding items. */
+	public static final int ITEMS = 2;
+	/** Bucket of {@link #getVisibleObjects(int)} holding every other object, such as summons, doors and fences. */
+	public static final int OTHERS = 3;
+	public static final int BUCKET_COUNT = 4;
+	
+	/** Bit mask of the buckets that can hold an instance of a class. */
+	private static final ClassValue<Integer> BUCKET_MASKS = new ClassValue<>()
+	{
+		@Override
+		protected Integer computeValue(Class<?> type)
+		{
+			int mask = 0;
+			if (type.isAssignableFrom(Player.class) || Player.class.isAssignableFrom(type))
+			{
+				mask |= 1 << PLAYERS;
+			}
+			if (type.isAssignableFrom(Npc.class) || Npc.class.isAssignableFrom(type))
+			{
+				mask |= 1 << NPCS;
+			}
+			if (type.isAssignableFrom(Item.class) || Item.class.isAssignableFrom(type))
+			{
+				mask |= 1 << ITEMS;
+			}
+			if (!Player.class.isAssignableFrom(type) && !Npc.class.isAssignableFrom(type) && !Item.class.isAssignableFrom(type))
+			{
+				mask |= 1 << OTHERS;
+			}
+			return mask;
+		}
+	};
+	
+	/** Sets containing visible objects in this world region, split by type so typed queries skip the objects they do not need. */
+	private final List<Set<WorldObject>> _visibleObjects = List.of(ConcurrentHashMap.newKeySet(), ConcurrentHashMap.newKeySet(), ConcurrentHashMap.newKeySet(), ConcurrentHashMap.newKeySet());
 	/** List containing doors in this world region. */
 	private final List<Door> _doors = new ArrayList<>(1);
 	/** List containing fences in this world region. */
@@ -44,6 +83,10 @@ public class WorldRegion
 	private WorldRegion[] _surroundingRegions;
 	private final int _regionX;
 	private final int _regionY;
+	private final int _minX;
+	private final int _minY;
+	private final int _maxX;
+	private final int _maxY;
 	private boolean _active = Config.GRIDS_ALWAYS_ON;
 	private ScheduledFuture<?> _neighborsTask = null;
 	private final AtomicInteger _activeNeighbors = new AtomicInteger();
@@ -52,18 +95,23 @@ public class WorldRegion
 	{
 		_regionX = regionX;
 		_regionY = regionY;
+		_minX = (regionX - World.OFFSET_X) << World.SHIFT_BY;
+		_minY = (regionY - World.OFFSET_Y) << World.SHIFT_BY;
+		_maxX = _minX + (1 << World.SHIFT_BY) - 1;
+		_maxY = _minY + (1 << World.SHIFT_BY) - 1;
 	}
 	
 	private void switchAI(boolean isOn)
 	{
-		if (_visibleObjects.isEmpty())
+		final Set<WorldObject> npcs = _visibleObjects.get(NPCS);
+		if (npcs.isEmpty())
 		{
 			return;
 		}
 		
 		if (!isOn)
 		{
-			for (WorldObject wo : _visibleObjects)
+			for (WorldObject wo : npcs)
 			{
 				if (wo.isAttackable())
 				{
@@ -105,7 +153,7 @@ public class WorldRegion
 		}
 		else
 		{
-			for (WorldObject wo : _visibleObjects)
+			for (WorldObject wo : npcs)
 			{
 				if (wo.isAttackable())
 				{
@@ -148,15 +196,14 @@ public class WorldRegion
 			final WorldRegion worldRegion = _surroundingRegions[i];
 			if (worldRegion.isActive())
 			{
-				final Collection<WorldObject> regionObjects = worldRegion.getVisibleObjects();
-				if (regionObjects.isEmpty())
+				if (!worldRegion.getVisibleObjects(PLAYERS).isEmpty())
 				{
-					continue;
+					return false;
 				}
 				
-				for (WorldObject wo : regionObjects)
+				for (WorldObject wo : worldRegion.getVisibleObjects(OTHERS))
 				{
-					if ((wo != null) && wo.isPlayable())
+					if (wo.isPlayable())
 					{
 						return false;
 					}
@@ -192,6 +239,7 @@ public class WorldRegion
 			{
 				_surroundingRegions[i].decrementActiveNeighbors();
 			}
+			PerceptionManager.getInstance().removeSnapshot(this);
 		}
 		
 		// Turn the AI on or off to match the region's activation.
@@ -268,7 +316,7 @@ public class WorldRegion
 			return;
 		}
 		
-		_visibleObjects.add(object);
+		_visibleObjects.get(getBucket(object)).add(object);
 		
 		if (object.isDoor())
 		{
@@ -303,12 +351,7 @@ public class WorldRegion
 			return;
 		}
 		
-		if (_visibleObjects.isEmpty())
-		{
-			return;
-		}
-		
-		_visibleObjects.remove(object);
+		_visibleObjects.get(getBucket(object)).remove(object);
 		
 		if (object.isDoor())
 		{
@@ -331,11 +374,62 @@ public class WorldRegion
 		}
 	}
 	
-	public Collection<WorldObject> getVisibleObjects()
+	private static int getBucket(WorldObject object)
+	{
+		if (object instanceof Player)
+		{
+			return PLAYERS;
+		}
+		if (object instanceof Npc)
+		{
+			return NPCS;
+		}
+		if (object instanceof Item)
+		{
+			return ITEMS;
+		}
+		return OTHERS;
+	}
+	
+	/**
+	 * @param type the requested type
+	 * @return the bit mask of the buckets that can hold an instance of the type, bit {@code 1 << bucket} is set for each of them
+	 */
+	public static int getBucketMask(Class<?> type)
+	{
+		return BUCKET_MASKS.get(type);
+	}
+	
+	/**
+	 * @param bucket one of {@link #PLAYERS}, {@link #NPCS}, {@link #ITEMS} or {@link #OTHERS}
+	 * @return the visible objects of this region in the bucket
+	 */
+	public Set<WorldObject> getVisibleObjects(int bucket)
+	{
+		return _visibleObjects.get(bucket);
+	}
+	
+	/**
+	 * @return the buckets of visible objects of this region, together they hold every visible object
+	 */
+	public List<Set<WorldObject>> getVisibleObjects()
 	{
 		return _visibleObjects;
 	}
 	
+	/**
+	 * @param x the X coordinate
+	 * @param y the Y coordinate
+	 * @param range the range
+	 * @return {@code true} if any point of this region is within the 2D range of the given coordinates
+	 */
+	public boolean isInRange(int x, int y, int range)
+	{
+		final long dx = Math.max(Math.max(_minX - x, x - _maxX), 0);
+		final long dy = Math.max(Math.max(_minY - y, y - _maxY), 0);
+		return ((dx * dx) + (dy * dy)) <= ((long) range * range);
+	}
+	
 	public synchronized void addDoor(Door door)
 	{
 		if (!_doors.contains(door))
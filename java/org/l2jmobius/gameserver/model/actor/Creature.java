@@ -31,7 +31,6 @@ import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentSkipListMap;
 import java.util.concurrent.CopyOnWriteArrayList;
-import java.util.concurrent.LinkedBlockingDeque;
 import java.util.concurrent.ScheduledFuture;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
@@ -40,6 +39,7 @@ import java.util.function.Predicate;
 import java.util.logging.Logger;
 
 import org.l2jmobius.Config;
+import org.l2jmobius.commons.network.SharedPacket;
 import org.l2jmobius.commons.threads.ThreadPool;
 import org.l2jmobius.commons.util.EmptyQueue;
 import org.l2jmobius.commons.util.Rnd;
@@ -97,6 +97,8 @@ import org.l2jmobius.gameserver.model.effects.EffectFlag;
 import org.l2jmobius.gameserver.model.events.Containers;
 import org.l2jmobius.gameserver.model.events.EventDispatcher;
 import org.l2jmobius.gameserver.model.events.EventType;
+import org.l2jmobius.gameserver.model.events.ListenerQueue;
+import org.l2jmobius.gameserver.model.events.ListenersContainer;
 import org.l2jmobius.gameserver.model.events.impl.creature.OnCreatureAttack;
 import org.l2jmobius.gameserver.model.events.impl.creature.OnCreatureAttackAvoid;
 import org.l2jmobius.gameserver.model.events.impl.creature.OnCreatureAttacked;
@@ -142,7 +144,9 @@ import org.l2jmobius.gameserver.model.stats.MoveType;
 import org.l2jmobius.gameserver.model.stats.Stat;
 import org.l2jmobius.gameserver.model.zone.ZoneId;
 import org.l2jmobius.gameserver.model.zone.ZoneRegion;
+import org.l2jmobius.gameserver.model.zone.ZoneType;
 import org.l2jmobius.gameserver.network.Disconnection;
+import org.l2jmobius.gameserver.network.GameClient;
 import org.l2jmobius.gameserver.network.SystemMessageId;
 import org.l2jmobius.gameserver.network.serverpackets.ActionFailed;
 import org.l2jmobius.gameserver.network.serverpackets.Attack;
@@ -233,6 +237,7 @@ public abstract class Creature extends WorldObject implements ISkillsHolder, IDe
 	
 	private final byte[] _zones = new byte[ZoneId.getZoneCount()];
 	protected final Location _lastZoneValidateLocation = new Location(getX(), getY(), getZ());
+	private ZoneType[] _validatedZones;
 	
 	private final StampedLock _attackLock = new StampedLock();
 	
@@ -681,13 +686,18 @@ public abstract class Creature extends WorldObject implements ISkillsHolder, IDe
 	
 	public void broadcastPacket(IClientOutgoingPacket mov, boolean includeSelf)
 	{
+		final SharedPacket shared = GameClient.share(mov);
 		World.getInstance().forEachVisibleObject(this, Player.class, player ->
 		{
 			if (isVisibleFor(player))
 			{
-				player.sendPacket(mov);
+				player.sendPacket(mov, shared);
 			}
 		});
+		if (shared != null)
+		{
+			shared.release();
+		}
 	}
 	
 	/**
@@ -702,13 +712,18 @@ public abstract class Creature extends WorldObject implements ISkillsHolder, IDe
 	 */
 	public void broadcastPacket(IClientOutgoingPacket mov, int radiusInKnownlist)
 	{
+		final SharedPacket shared = GameClient.share(mov);
 		World.getInstance().forEachVisibleObjectInRange(this, Player.class, radiusInKnownlist, player ->
 		{
 			if (isVisibleFor(player))
 			{
-				player.sendPacket(mov);
+				player.sendPacket(mov, shared);
 			}
 		});
+		if (shared != null)
+		{
+			shared.release();
+		}
 	}
 	
 	public void broadcastMoveToLocation()
@@ -3230,13 +3245,26 @@ public abstract class Creature extends WorldObject implements ISkillsHolder, IDe
 		
 		if (distFraction > 1)
 		{
-			ThreadPool.execute(() -> getAI().notifyEvent(CtrlEvent.EVT_ARRIVED));
+			MovementTaskManager.getInstance().notifyArrived(this);
 			return true;
 		}
 		
 		return false;
 	}
 	
+	/**
+	 * @return the zones of the zone region cell this creature was last validated in
+	 */
+	public ZoneType[] getValidatedZones()
+	{
+		return _validatedZones;
+	}
+	
+	public void setValidatedZones(ZoneType[] zones)
+	{
+		_validatedZones = zones;
+	}
+	
 	public void revalidateZone(boolean force)
 	{
 		// This function is called too often from movement code.
@@ -5488,11 +5516,19 @@ public abstract class Creature extends WorldObject implements ISkillsHolder, IDe
 			return globalListeners;
 		}
 		
-		final Queue<AbstractEventListener> both = new LinkedBlockingDeque<>(objectListenres.size() + templateListeners.size() + globalListeners.size());
-		both.addAll(objectListenres);
-		both.addAll(templateListeners);
-		both.addAll(globalListeners);
-		return both;
+		return new ListenerQueue(objectListenres, templateListeners, globalListeners);
+	}
+	
+	@Override
+	public boolean hasListener(EventType type)
+	{
+		if (super.hasListener(type) || _template.hasListener(type))
+		{
+			return true;
+		}
+		
+		final ListenersContainer globalListeners = isNpc() && !isMonster() ? Containers.Npcs() : isMonster() ? Containers.Monsters() : isPlayer() ? Containers.Players() : null;
+		return (globalListeners != null) && globalListeners.hasListener(type);
 	}
 	
 	public Race getRace()
@@ -5625,17 +5661,19 @@ public abstract class Creature extends WorldObject implements ISkillsHolder, IDe
 			return;
 		}
 		
-		World.getInstance().forEachVisibleObjectInRange(this, Creature.class, _seenCreatureRange, creature ->
+		World.getInstance().forEachVisibleObjectInRange(this, Creature.class, _seenCreatureRange, this, (creature, self) -> self.addSeenCreature(creature));
+	}
+	
+	private void addSeenCreature(Creature creature)
+	{
+		if (!creature.isInvisible())
 		{
-			if (!creature.isInvisible())
+			final WorldRegion worldRegion = getWorldRegion();
+			if ((worldRegion != null) && worldRegion.areNeighborsActive() && _seenCreatures.add(creature) && EventDispatcher.getInstance().hasListener(EventType.ON_CREATURE_SEE, this))
 			{
-				final WorldRegion worldRegion = getWorldRegion();
-				if ((worldRegion != null) && worldRegion.areNeighborsActive() && _seenCreatures.add(creature) && EventDispatcher.getInstance().hasListener(EventType.ON_CREATURE_SEE, this))
-				{
-					EventDispatcher.getInstance().notifyEventAsync(new OnCreatureSee(this, creature), this);
-				}
+				EventDispatcher.getInstance().notifyEventAsync(new OnCreatureSee(this, creature), this);
 			}
-		});
+		}
 	}
 	
 	public void removeSeenCreature(WorldObject worldObject)
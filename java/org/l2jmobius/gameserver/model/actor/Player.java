@@ -44,7 +44,9 @@ import java.util.logging.Level;
 import java.util.stream.Collectors;
 
 import org.l2jmobius.Config;
+import org.l2jmobius.commons.database.DatabaseBatch;
 import org.l2jmobius.commons.database.DatabaseFactory;
+import org.l2jmobius.commons.network.SharedPacket;
 import org.l2jmobius.commons.threads.ThreadPool;
 import org.l2jmobius.commons.util.CommonUtil;
 import org.l2jmobius.commons.util.Rnd;
@@ -133,6 +135,7 @@ import org.l2jmobius.gameserver.instancemanager.MatchingRoomManager;
 import org.l2jmobius.gameserver.instancemanager.MentorManager;
 import org.l2jmobius.gameserver.instancemanager.PunishmentManager;
 import org.l2jmobius.gameserver.instancemanager.QuestManager;
+import org.l2jmobius.gameserver.instancemanager.RankManager;
 import org.l2jmobius.gameserver.instancemanager.SellBuffsManager;
 import org.l2jmobius.gameserver.instancemanager.SiegeManager;
 import org.l2jmobius.gameserver.instancemanager.ZoneManager;
@@ -375,6 +378,7 @@ import org.l2jmobius.gameserver.taskmanager.AutoUseTaskManager;
 import org.l2jmobius.gameserver.taskmanager.DecayTaskManager;
 import org.l2jmobius.gameserver.taskmanager.GameTimeTaskManager;
 import org.l2jmobius.gameserver.taskmanager.ItemsAutoDestroyTaskManager;
+import org.l2jmobius.gameserver.taskmanager.PersistenceTaskManager;
 import org.l2jmobius.gameserver.taskmanager.PlayerAutoSaveTaskManager;
 import org.l2jmobius.gameserver.taskmanager.PvpFlagTaskManager;
 import org.l2jmobius.gameserver.util.Broadcast;
@@ -2017,11 +2021,19 @@ public class Player extends Playable
 	public void setTotalKills(int value)
 	{
 		_totalKills = value;
+		if (_isOnline)
+		{
+			RankManager.getInstance().updatePvp(this);
+		}
 	}
 	
 	public void setTotalDeaths(int value)
 	{
 		_totalDeaths = value;
+		if (_isOnline)
+		{
+			RankManager.getInstance().updatePvp(this);
+		}
 	}
 	
 	/**
@@ -2354,6 +2366,10 @@ public class Player extends Playable
 		}
 		
 		_pvpKills = pvpKills;
+		if (_isOnline)
+		{
+			RankManager.getInstance().updatePvp(this);
+		}
 	}
 	
 	/**
@@ -4269,9 +4285,10 @@ public class Player extends Playable
 			new IllegalArgumentException("CharInfo is being send via broadcastPacket. Do NOT do that! Use broadcastCharInfo() instead.");
 		}
 		
+		final SharedPacket shared = GameClient.share(mov);
 		if (includeSelf)
 		{
-			sendPacket(mov);
+			sendPacket(mov, shared);
 		}
 		
 		World.getInstance().forEachVisibleObject(this, Player.class, player ->
@@ -4281,8 +4298,12 @@ public class Player extends Playable
 				return;
 			}
 			
-			player.sendPacket(mov);
+			player.sendPacket(mov, shared);
 		});
+		if (shared != null)
+		{
+			shared.release();
+		}
 	}
 	
 	@Override
@@ -4293,7 +4314,8 @@ public class Player extends Playable
 			new IllegalArgumentException("CharInfo is being send via broadcastPacket. Do NOT do that! Use broadcastCharInfo() instead.");
 		}
 		
-		sendPacket(mov);
+		final SharedPacket shared = GameClient.share(mov);
+		sendPacket(mov, shared);
 		
 		World.getInstance().forEachVisibleObject(this, Player.class, player ->
 		{
@@ -4301,8 +4323,12 @@ public class Player extends Playable
 			{
 				return;
 			}
-			player.sendPacket(mov);
+			player.sendPacket(mov, shared);
 		});
+		if (shared != null)
+		{
+			shared.release();
+		}
 	}
 	
 	/**
@@ -4328,6 +4354,19 @@ public class Player extends Playable
 		}
 	}
 	
+	/**
+	 * Send a broadcast packet whose body may be shared with the other receivers.
+	 * @param packet
+	 * @param shared the shared encoding of the packet, can be {@code null}
+	 */
+	public void sendPacket(IClientOutgoingPacket packet, SharedPacket shared)
+	{
+		if (_client != null)
+		{
+			_client.sendPacket(packet, shared);
+		}
+	}
+	
 	/**
 	 * Send SystemMessage packet.
 	 * @param id SystemMessageId
@@ -7299,12 +7338,49 @@ public class Player extends Playable
 	 * Update Player stats in the characters table of the database.
 	 * @param storeActiveEffects
 	 */
-	public synchronized void store(boolean storeActiveEffects)
+	public void store(boolean storeActiveEffects)
+	{
+		// A queued periodic save would only write older data.
+		if (Config.CHAR_STORE_WRITE_BEHIND)
+		{
+			PersistenceTaskManager.getInstance().remove(this);
+		}
+		
+		synchronized (this)
+		{
+			storeCharBase();
+			storeCharSub();
+			storeEffect(storeActiveEffects);
+			storeItemReuseDelay();
+			storeMiscData();
+			
+			getInventory().updateDatabase();
+			getWarehouse().updateDatabase();
+			getFreight().updateDatabase();
+		}
+	}
+	
+	/**
+	 * Collects the data of a periodic save into the given batch.<br>
+	 * Called by the {@link PersistenceTaskManager}, data that is not kept in batchable tables is stored directly.
+	 * @param batch the batch
+	 */
+	public synchronized void autoSave(DatabaseBatch batch)
+	{
+		storeCharBase(batch);
+		storeCharSub(batch);
+		storeEffect(batch, true);
+		storeItemReuseDelay(batch);
+		storeMiscData();
+		storeRecommendations();
+		
+		getInventory().updateDatabase(batch);
+		getWarehouse().updateDatabase(batch);
+		getFreight().updateDatabase(batch);
+	}
+	
+	private void storeMiscData()
 	{
-		storeCharBase();
-		storeCharSub();
-		storeEffect(storeActiveEffects);
-		storeItemReuseDelay();
 		if (Config.STORE_RECIPE_SHOPLIST)
 		{
 			storeRecipeShopList();
@@ -7325,10 +7401,6 @@ public class Player extends Playable
 		{
 			aVars.storeMe();
 		}
-		
-		getInventory().updateDatabase();
-		getWarehouse().updateDatabase();
-		getFreight().updateDatabase();
 	}
 	
 	@Override
@@ -7338,110 +7410,61 @@ public class Player extends Playable
 	}
 	
 	private void storeCharBase()
+	{
+		final DatabaseBatch batch = new DatabaseBatch();
+		storeCharBase(batch);
+		try
+		{
+			batch.execute();
+		}
+		catch (Exception e)
+		{
+			LOGGER.log(Level.WARNING, "Could not store char base data: " + this + " - " + e.getMessage(), e);
+		}
+	}
+	
+	private void storeCharBase(DatabaseBatch batch)
 	{
 		// Get the exp, level, and sp of base class to store in base table
 		final long exp = getStat().getBaseExp();
 		final int level = getStat().getBaseLevel();
 		final long sp = getStat().getBaseSp();
-		try (Connection con = DatabaseFactory.getConnection();
-			PreparedStatement statement = con.prepareStatement(UPDATE_CHARACTER))
-		{
-			statement.setInt(1, level);
-			statement.setInt(2, getMaxHp());
-			statement.setDouble(3, getCurrentHp());
-			statement.setInt(4, getMaxCp());
-			statement.setDouble(5, getCurrentCp());
-			statement.setInt(6, getMaxMp());
-			statement.setDouble(7, getCurrentMp());
-			statement.setInt(8, _appearance.getFace());
-			statement.setInt(9, _appearance.getHairStyle());
-			statement.setInt(10, _appearance.getHairColor());
-			statement.setInt(11, _appearance.isFemale() ? 1 : 0);
-			statement.setInt(12, getHeading());
-			statement.setInt(13, _lastLoc != null ? _lastLoc.getX() : getX());
-			statement.setInt(14, _lastLoc != null ? _lastLoc.getY() : getY());
-			statement.setInt(15, _lastLoc != null ? _lastLoc.getZ() : getZ());
-			statement.setLong(16, exp);
-			statement.setLong(17, _expBeforeDeath);
-			statement.setLong(18, sp);
-			statement.setInt(19, getReputation());
-			statement.setInt(20, _fame);
-			statement.setInt(21, _raidbossPoints);
-			statement.setInt(22, _pvpKills);
-			statement.setInt(23, _pkKills);
-			statement.setInt(24, _clanId);
-			statement.setInt(25, getRace().ordinal());
-			statement.setInt(26, getClassId().getId());
-			statement.setLong(27, _deleteTimer);
-			statement.setString(28, getTitle());
-			statement.setInt(29, _appearance.getTitleColor());
-			statement.setInt(30, isOnlineInt());
-			statement.setInt(31, _clanPrivileges.getBitmask());
-			statement.setInt(32, _wantsPeace);
-			statement.setInt(33, _baseClass);
-			long totalOnlineTime = _onlineTime;
-			if (_onlineBeginTime > 0)
-			{
-				totalOnlineTime += (System.currentTimeMillis() - _onlineBeginTime) / 1000;
-			}
-			statement.setLong(34, _offlineShopStart > 0 ? _onlineTime : totalOnlineTime);
-			statement.setInt(35, _nobleLevel);
-			statement.setInt(36, _powerGrade);
-			statement.setInt(37, _pledgeType);
-			statement.setInt(38, _lvlJoinedAcademy);
-			statement.setLong(39, _apprentice);
-			statement.setLong(40, _sponsor);
-			statement.setLong(41, _clanJoinExpiryTime);
-			statement.setLong(42, _clanCreateExpiryTime);
-			statement.setString(43, getName());
-			statement.setInt(44, _bookmarkslot);
-			statement.setInt(45, getStat().getBaseVitalityPoints());
-			statement.setString(46, _lang);
-			int factionId = 0;
-			if (_isGood)
-			{
-				factionId = 1;
-			}
-			if (_isEvil)
-			{
-				factionId = 2;
-			}
-			statement.setInt(47, factionId);
-			statement.setInt(48, _pcCafePoints);
-			statement.setInt(49, getTotalKills());
-			statement.setInt(50, getTotalDeaths());
-			statement.setInt(51, getObjectId());
-			statement.execute();
+		long totalOnlineTime = _onlineTime;
+		if (_onlineBeginTime > 0)
+		{
+			totalOnlineTime += (System.currentTimeMillis() - _onlineBeginTime) / 1000;
 		}
-		catch (Exception e)
+		int factionId = 0;
+		if (_isGood)
 		{
-			LOGGER.log(Level.WARNING, "Could not store char base data: " + this + " - " + e.getMessage(), e);
+			factionId = 1;
+		}
+		if (_isEvil)
+		{
+			factionId = 2;
 		}
+		batch.add(UPDATE_CHARACTER, //
+			level, getMaxHp(), getCurrentHp(), getMaxCp(), getCurrentCp(), getMaxMp(), getCurrentMp(), //
+			_appearance.getFace(), _appearance.getHairStyle(), _appearance.getHairColor(), _appearance.isFemale() ? 1 : 0, getHeading(), //
+			_lastLoc != null ? _lastLoc.getX() : getX(), _lastLoc != null ? _lastLoc.getY() : getY(), _lastLoc != null ? _lastLoc.getZ() : getZ(), //
+			exp, _expBeforeDeath, sp, getReputation(), _fame, _raidbossPoints, _pvpKills, _pkKills, _clanId, getRace().ordinal(), getClassId().getId(), _deleteTimer, //
+			getTitle(), _appearance.getTitleColor(), isOnlineInt(), _clanPrivileges.getBitmask(), _wantsPeace, _baseClass, _offlineShopStart > 0 ? _onlineTime : totalOnlineTime, //
+			_nobleLevel, _powerGrade, _pledgeType, _lvlJoinedAcademy, _apprentice, _sponsor, _clanJoinExpiryTime, _clanCreateExpiryTime, getName(), _bookmarkslot, //
+			getStat().getBaseVitalityPoints(), _lang, factionId, _pcCafePoints, getTotalKills(), getTotalDeaths(), getObjectId());
 	}
 	
 	private void storeCharSub()
 	{
-		if (getTotalSubClasses() <= 0)
+		final DatabaseBatch batch = new DatabaseBatch();
+		storeCharSub(batch);
+		if (batch.isEmpty())
 		{
 			return;
 		}
 		
-		try (Connection con = DatabaseFactory.getConnection();
-			PreparedStatement statement = con.prepareStatement(UPDATE_CHAR_SUBCLASS))
+		try
 		{
-			for (SubClassHolder subClass : getSubClasses().values())
-			{
-				statement.setLong(1, subClass.getExp());
-				statement.setLong(2, subClass.getSp());
-				statement.setInt(3, subClass.getLevel());
-				statement.setInt(4, subClass.getVitalityPoints());
-				statement.setInt(5, subClass.getClassId());
-				statement.setBoolean(6, subClass.isDualClass());
-				statement.setInt(7, getObjectId());
-				statement.setInt(8, subClass.getClassIndex());
-				statement.addBatch();
-			}
-			statement.executeBatch();
+			batch.execute();
 		}
 		catch (Exception e)
 		{
@@ -7449,155 +7472,133 @@ public class Player extends Playable
 		}
 	}
 	
+	private void storeCharSub(DatabaseBatch batch)
+	{
+		if (getTotalSubClasses() <= 0)
+		{
+			return;
+		}
+		
+		for (SubClassHolder subClass : getSubClasses().values())
+		{
+			batch.add(UPDATE_CHAR_SUBCLASS, subClass.getExp(), subClass.getSp(), subClass.getLevel(), subClass.getVitalityPoints(), subClass.getClassId(), subClass.isDualClass(), getObjectId(), subClass.getClassIndex());
+		}
+	}
+	
 	@Override
 	public void storeEffect(boolean storeEffects)
+	{
+		final DatabaseBatch batch = new DatabaseBatch();
+		storeEffect(batch, storeEffects);
+		if (batch.isEmpty())
+		{
+			return;
+		}
+		
+		try
+		{
+			batch.execute();
+		}
+		catch (Exception e)
+		{
+			LOGGER.log(Level.WARNING, "Could not store char effect data: ", e);
+		}
+	}
+	
+	private void storeEffect(DatabaseBatch batch, boolean storeEffects)
 	{
 		if (!Config.STORE_SKILL_COOLTIME)
 		{
 			return;
 		}
 		
-		try (Connection con = DatabaseFactory.getConnection())
+		// Delete all current stored effects for char to avoid dupe
+		batch.add(DELETE_SKILL_SAVE, getObjectId(), _classIndex);
+		
+		int buffIndex = 0;
+		final List<Long> storedSkills = new ArrayList<>();
+		final long currentTime = System.currentTimeMillis();
+		
+		// Store all effect data along with calulated remaining
+		// reuse delays for matching skills. 'restore_type'= 0.
+		if (storeEffects)
 		{
-			// Delete all current stored effects for char to avoid dupe
-			try (PreparedStatement delete = con.prepareStatement(DELETE_SKILL_SAVE))
+			for (BuffInfo info : getEffectList().getEffects())
 			{
-				delete.setInt(1, getObjectId());
-				delete.setInt(2, _classIndex);
-				delete.execute();
-			}
-			
-			int buffIndex = 0;
-			final List<Long> storedSkills = new ArrayList<>();
-			final long currentTime = System.currentTimeMillis();
-			
-			// Store all effect data along with calulated remaining
-			// reuse delays for matching skills. 'restore_type'= 0.
-			try (PreparedStatement statement = con.prepareStatement(ADD_SKILL_SAVE))
-			{
-				if (storeEffects)
+				if (info == null)
 				{
-					for (BuffInfo info : getEffectList().getEffects())
-					{
-						if (info == null)
-						{
-							continue;
-						}
-						
-						final Skill skill = info.getSkill();
-						
-						// Do not store those effects.
-						if (skill.isDeleteAbnormalOnLeave())
-						{
-							continue;
-						}
-						
-						// Do not save heals.
-						if (skill.getAbnormalType() == AbnormalType.LIFE_FORCE_OTHERS)
-						{
-							continue;
-						}
-						
-						// Toggles are skipped, unless they are necessary to be always on.
-						if ((skill.isToggle() && !skill.isNecessaryToggle()))
-						{
-							continue;
-						}
-						
-						if (skill.isMentoring())
-						{
-							continue;
-						}
-						
-						// Dances and songs are not kept in retail.
-						if (skill.isDance() && !Config.ALT_STORE_DANCES)
-						{
-							continue;
-						}
-						
-						if (storedSkills.contains(skill.getReuseHashCode()))
-						{
-							continue;
-						}
-						
-						storedSkills.add(skill.getReuseHashCode());
-						
-						statement.setInt(1, getObjectId());
-						statement.setInt(2, skill.getId());
-						statement.setInt(3, skill.getLevel());
-						statement.setInt(4, skill.getSubLevel());
-						statement.setInt(5, info.getTime());
-						
-						final TimeStamp t = getSkillReuseTimeStamp(skill.getReuseHashCode());
-						statement.setLong(6, (t != null) && (currentTime < t.getStamp()) ? t.getReuse() : 0);
-						statement.setDouble(7, (t != null) && (currentTime < t.getStamp()) ? t.getStamp() : 0);
-						statement.setInt(8, 0); // Store type 0, active buffs/debuffs.
-						statement.setInt(9, _classIndex);
-						statement.setInt(10, ++buffIndex);
-						statement.addBatch();
-					}
+					continue;
 				}
 				
-				// Skills under reuse.
-				for (Entry<Long, TimeStamp> ts : getSkillReuseTimeStamps().entrySet())
+				final Skill skill = info.getSkill();
+				
+				// Do not store those effects.
+				if (skill.isDeleteAbnormalOnLeave())
 				{
-					final long hash = ts.getKey();
-					if (storedSkills.contains(hash))
-					{
-						continue;
-					}
-					
-					final TimeStamp t = ts.getValue();
-					if ((t != null) && (currentTime < t.getStamp()))
-					{
-						storedSkills.add(hash);
-						
-						statement.setInt(1, getObjectId());
-						statement.setInt(2, t.getSkillId());
-						statement.setInt(3, t.getSkillLevel());
-						statement.setInt(4, t.getSkillSubLevel());
-						statement.setInt(5, -1);
-						statement.setLong(6, t.getReuse());
-						statement.setDouble(7, t.getStamp());
-						statement.setInt(8, 1); // Restore type 1, skill reuse.
-						statement.setInt(9, _classIndex);
-						statement.setInt(10, ++buffIndex);
-						statement.addBatch();
-					}
+					continue;
 				}
 				
-				statement.executeBatch();
+				// Do not save heals.
+				if (skill.getAbnormalType() == AbnormalType.LIFE_FORCE_OTHERS)
+				{
+					continue;
+				}
+				
+				// Toggles are skipped, unless they are necessary to be always on.
+				if ((skill.isToggle() && !skill.isNecessaryToggle()))
+				{
+					continue;
+				}
+				
+				if (skill.isMentoring())
+				{
+					continue;
+				}
+				
+				// Dances and songs are not kept in retail.
+				if (skill.isDance() && !Config.ALT_STORE_DANCES)
+				{
+					continue;
+				}
+				
+				if (storedSkills.contains(skill.getReuseHashCode()))
+				{
+					continue;
+				}
+				
+				storedSkills.add(skill.getReuseHashCode());
+				
+				final TimeStamp t = getSkillReuseTimeStamp(skill.getReuseHashCode());
+				final boolean reuse = (t != null) && (currentTime < t.getStamp());
+				batch.add(ADD_SKILL_SAVE, getObjectId(), skill.getId(), skill.getLevel(), skill.getSubLevel(), info.getTime(), reuse ? t.getReuse() : 0L, reuse ? (double) t.getStamp() : 0d, 0, _classIndex, ++buffIndex); // Store type 0, active buffs/debuffs.
 			}
 		}
-		catch (Exception e)
+		
+		// Skills under reuse.
+		for (Entry<Long, TimeStamp> ts : getSkillReuseTimeStamps().entrySet())
 		{
-			LOGGER.log(Level.WARNING, "Could not store char effect data: ", e);
+			final long hash = ts.getKey();
+			if (storedSkills.contains(hash))
+			{
+				continue;
+			}
+			
+			final TimeStamp t = ts.getValue();
+			if ((t != null) && (currentTime < t.getStamp()))
+			{
+				storedSkills.add(hash);
+				batch.add(ADD_SKILL_SAVE, getObjectId(), t.getSkillId(), t.getSkillLevel(), t.getSkillSubLevel(), -1, t.getReuse(), (double) t.getStamp(), 1, _classIndex, ++buffIndex); // Restore type 1, skill reuse.
+			}
 		}
 	}
 	
 	private void storeItemReuseDelay()
 	{
-		try (Connection con = DatabaseFactory.getConnection();
-			PreparedStatement ps1 = con.prepareStatement(DELETE_ITEM_REUSE_SAVE);
-			PreparedStatement ps2 = con.prepareStatement(ADD_ITEM_REUSE_SAVE))
+		final DatabaseBatch batch = new DatabaseBatch();
+		storeItemReuseDelay(batch);
+		try
 		{
-			ps1.setInt(1, getObjectId());
-			ps1.execute();
-			
-			final long currentTime = System.currentTimeMillis();
-			for (TimeStamp ts : getItemReuseTimeStamps().values())
-			{
-				if ((ts != null) && (currentTime < ts.getStamp()))
-				{
-					ps2.setInt(1, getObjectId());
-					ps2.setInt(2, ts.getItemId());
-					ps2.setInt(3, ts.getItemObjectId());
-					ps2.setLong(4, ts.getReuse());
-					ps2.setDouble(5, ts.getStamp());
-					ps2.addBatch();
-				}
-			}
-			ps2.executeBatch();
+			batch.execute();
 		}
 		catch (Exception e)
 		{
@@ -7605,6 +7606,20 @@ public class Player extends Playable
 		}
 	}
 	
+	private void storeItemReuseDelay(DatabaseBatch batch)
+	{
+		batch.add(DELETE_ITEM_REUSE_SAVE, getObjectId());
+		
+		final long currentTime = System.currentTimeMillis();
+		for (TimeStamp ts : getItemReuseTimeStamps().values())
+		{
+			if ((ts != null) && (currentTime < ts.getStamp()))
+			{
+				batch.add(ADD_ITEM_REUSE_SAVE, getObjectId(), ts.getItemId(), ts.getItemObjectId(), ts.getReuse(), (double) ts.getStamp());
+			}
+		}
+	}
+	
 	/**
 	 * @return True if the Player is online.
 	 */
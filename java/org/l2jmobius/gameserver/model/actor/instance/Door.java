@@ -20,6 +20,7 @@ import java.util.Collection;
 import java.util.Set;
 import java.util.concurrent.Future;
 
+import org.l2jmobius.Config;
 import org.l2jmobius.commons.threads.ThreadPool;
 import org.l2jmobius.commons.util.Rnd;
 import org.l2jmobius.gameserver.ai.CreatureAI;
@@ -28,6 +29,7 @@ import org.l2jmobius.gameserver.data.xml.DoorData;
 import org.l2jmobius.gameserver.enums.DoorOpenType;
 import org.l2jmobius.gameserver.enums.InstanceType;
 import org.l2jmobius.gameserver.enums.Race;
+import org.l2jmobius.gameserver.geoengine.pathfinding.PathFinding;
 import org.l2jmobius.gameserver.instancemanager.CastleManager;
 import org.l2jmobius.gameserver.instancemanager.FortManager;
 import org.l2jmobius.gameserver.model.Location;
@@ -211,6 +213,12 @@ public class Door extends Creature
 	public void setOpen(boolean open)
 	{
 		_open = open;
+		if (Config.PATHFINDING > 0)
+		{
+			final int[] nodeX = getTemplate().getNodeX();
+			final int[] nodeY = getTemplate().getNodeY();
+			PathFinding.getInstance().invalidatePathCache(getInstanceId(), Math.min(Math.min(nodeX[0], nodeX[1]), Math.min(nodeX[2], nodeX[3])), Math.min(Math.min(nodeY[0], nodeY[1]), Math.min(nodeY[2], nodeY[3])), Math.max(Math.max(nodeX[0], nodeX[1]), Math.max(nodeX[2], nodeX[3])), Math.max(Math.max(nodeY[0], nodeY[1]), Math.max(nodeY[2], nodeY[3])));
+		}
 		if (getChildId() > 0)
 		{
 			final Door sibling = getSiblingDoor(getChildId());
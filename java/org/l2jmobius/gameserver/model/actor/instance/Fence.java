@@ -16,8 +16,10 @@
  */
 package org.l2jmobius.gameserver.model.actor.instance;
 
+import org.l2jmobius.Config;
 import org.l2jmobius.gameserver.data.xml.FenceData;
 import org.l2jmobius.gameserver.enums.FenceState;
+import org.l2jmobius.gameserver.geoengine.pathfinding.PathFinding;
 import org.l2jmobius.gameserver.instancemanager.IdManager;
 import org.l2jmobius.gameserver.model.World;
 import org.l2jmobius.gameserver.model.WorldObject;
@@ -135,6 +137,10 @@ public class Fence extends WorldObject
 	public void setState(FenceState type)
 	{
 		_state = type;
+		if (Config.PATHFINDING > 0)
+		{
+			PathFinding.getInstance().invalidatePathCache(getInstanceId(), _xMin, _yMin, _xMax, _yMax);
+		}
 		broadcastInfo();
 	}
 	
@@ -16,11 +16,9 @@
  */
 package org.l2jmobius.gameserver.model.actor.stat;
 
-import java.util.Collections;
+import java.util.BitSet;
 import java.util.Deque;
-import java.util.EnumMap;
 import java.util.EnumSet;
-import java.util.HashSet;
 import java.util.Iterator;
 import java.util.LinkedList;
 import java.util.Map;
@@ -33,6 +31,7 @@ import java.util.function.BiFunction;
 import java.util.function.BiPredicate;
 
 import org.l2jmobius.Config;
+import org.l2jmobius.commons.threads.ThreadPool;
 import org.l2jmobius.gameserver.enums.AttributeType;
 import org.l2jmobius.gameserver.enums.Position;
 import org.l2jmobius.gameserver.model.actor.Creature;
@@ -60,8 +59,42 @@ public class CreatureStat
 	private int _maxBuffCount = Config.BUFFS_MAX_AMOUNT;
 	private double _vampiricSum = 0;
 	
-	private final Map<Stat, Double> _statsAdd = new EnumMap<>(Stat.class);
-	private final Map<Stat, Double> _statsMul = new EnumMap<>(Stat.class);
+	private static final Stat[] STATS = Stat.values();
+	private static final double[] RESET_ADD_VALUES = new double[STATS.length];
+	private static final double[] RESET_MUL_VALUES = new double[STATS.length];
+	private static final BitSet RESET_ADD_STATS = new BitSet(STATS.length);
+	private static final BitSet RESET_MUL_STATS = new BitSet(STATS.length);
+	static
+	{
+		for (Stat stat : STATS)
+		{
+			RESET_ADD_VALUES[stat.ordinal()] = stat.getResetAddValue();
+			RESET_MUL_VALUES[stat.ordinal()] = stat.getResetMulValue();
+			if (stat.getResetAddValue() != 0)
+			{
+				RESET_ADD_STATS.set(stat.ordinal());
+			}
+			if (stat.getResetMulValue() != 0)
+			{
+				RESET_MUL_STATS.set(stat.ordinal());
+			}
+		}
+	}
+	
+	/** Delay in milliseconds used to coalesce the broadcasts of the recalculations requested in a burst. */
+	private static final int RECALCULATION_DELAY = 50;
+	
+	/** Add and mul values indexed by stat ordinal, the bit sets hold the stats that have a value. */
+	private final double[] _statsAdd = new double[STATS.length];
+	private final double[] _statsMul = new double[STATS.length];
+	private final BitSet _addStats = new BitSet(STATS.length);
+	private final BitSet _mulStats = new BitSet(STATS.length);
+	
+	/** Values before the first recalculation of a burst, the modified stats are broadcast once by a scheduled task. */
+	private double[] _broadcastAdd;
+	private double[] _broadcastMul;
+	private boolean _broadcastPending = false;
+	private final BitSet _changedStats = new BitSet(STATS.length);
 	private final Map<Stat, Map<MoveType, Double>> _moveTypeStats = new ConcurrentHashMap<>();
 	private final Map<Integer, Double> _reuseStat = new ConcurrentHashMap<>();
 	private final Map<Integer, Double> _mpConsumeStat = new ConcurrentHashMap<>();
@@ -86,6 +119,10 @@ public class CreatureStat
 	public CreatureStat(Creature creature)
 	{
 		_creature = creature;
+		System.arraycopy(RESET_ADD_VALUES, 0, _statsAdd, 0, STATS.length);
+		System.arraycopy(RESET_MUL_VALUES, 0, _statsMul, 0, STATS.length);
+		_addStats.or(RESET_ADD_STATS);
+		_mulStats.or(RESET_MUL_STATS);
 		for (int i = 0; i < TraitType.values().length; i++)
 		{
 			_attackTraitValues[i] = 1;
@@ -782,7 +819,9 @@ public class CreatureStat
 	 */
 	public void mergeAdd(Stat stat, double value)
 	{
-		_statsAdd.merge(stat, value, stat::functionAdd);
+		final int index = stat.ordinal();
+		_statsAdd[index] = _addStats.get(index) ? stat.functionAdd(_statsAdd[index], value) : value;
+		_addStats.set(index);
 	}
 	
 	/**
@@ -792,7 +831,9 @@ public class CreatureStat
 	 */
 	public void mergeMul(Stat stat, double value)
 	{
-		_statsMul.merge(stat, value, stat::functionMul);
+		final int index = stat.ordinal();
+		_statsMul[index] = _mulStats.get(index) ? stat.functionMul(_statsMul[index], value) : value;
+		_mulStats.set(index);
 	}
 	
 	/**
@@ -814,8 +855,8 @@ public class CreatureStat
 		_lock.readLock().lock();
 		try
 		{
-			final Double val = _statsAdd.get(stat);
-			return val != null ? val.doubleValue() : defaultValue;
+			final int index = stat.ordinal();
+			return _addStats.get(index) ? _statsAdd[index] : defaultValue;
 		}
 		finally
 		{
@@ -842,8 +883,8 @@ public class CreatureStat
 		_lock.readLock().lock();
 		try
 		{
-			final Double val = _statsMul.get(stat);
-			return val != null ? val.doubleValue() : defaultValue;
+			final int index = stat.ordinal();
+			return _mulStats.get(index) ? _statsMul[index] : defaultValue;
 		}
 		finally
 		{
@@ -874,37 +915,41 @@ public class CreatureStat
 	
 	protected void resetStats()
 	{
-		_statsAdd.clear();
-		_statsMul.clear();
-		_vampiricSum = 0;
-		
 		// Initialize default values
-		for (Stat stat : Stat.values())
-		{
-			if (stat.getResetAddValue() != 0)
-			{
-				_statsAdd.put(stat, stat.getResetAddValue());
-			}
-			if (stat.getResetMulValue() != 0)
-			{
-				_statsMul.put(stat, stat.getResetMulValue());
-			}
-		}
+		System.arraycopy(RESET_ADD_VALUES, 0, _statsAdd, 0, STATS.length);
+		System.arraycopy(RESET_MUL_VALUES, 0, _statsMul, 0, STATS.length);
+		_addStats.clear();
+		_addStats.or(RESET_ADD_STATS);
+		_mulStats.clear();
+		_mulStats.or(RESET_MUL_STATS);
+		_vampiricSum = 0;
 	}
 	
 	/**
-	 * Locks and resets all stats and recalculates all
+	 * Recalculates all stats.<br>
+	 * The broadcasts of recalculations made in a burst are coalesced into a single broadcast of the modified stats, sent after a short delay.
 	 * @param broadcast
 	 */
 	public void recalculateStats(boolean broadcast)
 	{
-		// Copy old data before wiping it out
-		final Map<Stat, Double> adds = !broadcast ? Collections.emptyMap() : new EnumMap<>(_statsAdd);
-		final Map<Stat, Double> muls = !broadcast ? Collections.emptyMap() : new EnumMap<>(_statsMul);
-		
+		boolean scheduleBroadcast = false;
 		_lock.writeLock().lock();
 		try
 		{
+			// Keep the values from before the burst, to find the stats it modified.
+			if (broadcast && !_broadcastPending)
+			{
+				if (_broadcastAdd == null)
+				{
+					_broadcastAdd = new double[STATS.length];
+					_broadcastMul = new double[STATS.length];
+				}
+				System.arraycopy(_statsAdd, 0, _broadcastAdd, 0, STATS.length);
+				System.arraycopy(_statsMul, 0, _broadcastMul, 0, STATS.length);
+				_broadcastPending = true;
+				scheduleBroadcast = true;
+			}
+			
 			// Wipe all the data
 			resetStats();
 			
@@ -993,21 +1038,49 @@ public class CreatureStat
 		// Notify recalculation to child classes
 		onRecalculateStats(broadcast);
 		
-		if (broadcast)
+		if (scheduleBroadcast)
 		{
+			ThreadPool.schedule(this::broadcastModifiedStats, RECALCULATION_DELAY);
+		}
+	}
+	
+	/**
+	 * Broadcasts the stats modified since the first recalculation of the burst.
+	 */
+	private void broadcastModifiedStats()
+	{
+		Set<Stat> changed = null;
+		_lock.writeLock().lock();
+		try
+		{
+			_broadcastPending = false;
+			
 			// Calculate the difference between old and new stats
-			final Set<Stat> changed = new HashSet<>();
-			for (Stat stat : Stat.values())
+			_changedStats.clear();
+			for (int i = 0; i < STATS.length; i++)
 			{
-				if (_statsAdd.getOrDefault(stat, stat.getResetAddValue()) != adds.getOrDefault(stat, stat.getResetAddValue()))
+				if ((_statsAdd[i] != _broadcastAdd[i]) || (_statsMul[i] != _broadcastMul[i]))
 				{
-					changed.add(stat);
+					_changedStats.set(i);
 				}
-				else if (_statsMul.getOrDefault(stat, stat.getResetMulValue()) != muls.getOrDefault(stat, stat.getResetMulValue()))
+			}
+			
+			if (!_changedStats.isEmpty())
+			{
+				changed = EnumSet.noneOf(Stat.class);
+				for (int i = _changedStats.nextSetBit(0); i >= 0; i = _changedStats.nextSetBit(i + 1))
 				{
-					changed.add(stat);
+					changed.add(STATS[i]);
 				}
 			}
+		}
+		finally
+		{
+			_lock.writeLock().unlock();
+		}
+		
+		if (changed != null)
+		{
 			_creature.broadcastModifiedStats(changed);
 		}
 	}
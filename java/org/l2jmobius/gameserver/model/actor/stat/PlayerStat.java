@@ -23,6 +23,7 @@ import org.l2jmobius.gameserver.data.xml.ExperienceData;
 import org.l2jmobius.gameserver.data.xml.FishingData;
 import org.l2jmobius.gameserver.enums.PartySmallWindowUpdateType;
 import org.l2jmobius.gameserver.enums.UserInfoType;
+import org.l2jmobius.gameserver.instancemanager.RankManager;
 import org.l2jmobius.gameserver.model.Party;
 import org.l2jmobius.gameserver.model.actor.Player;
 import org.l2jmobius.gameserver.model.actor.Summon;
@@ -91,11 +92,25 @@ public class PlayerStat extends PlayableStat
 			}
 		}
 		
+		RankManager.getInstance().updateExp(player);
+		
 		// EXP status update currently not used in retail
 		player.sendPacket(new UserInfo(player));
 		return true;
 	}
 	
+	@Override
+	public boolean removeExp(long amount)
+	{
+		if (!super.removeExp(amount))
+		{
+			return false;
+		}
+		
+		RankManager.getInstance().updateExp(getActiveChar());
+		return true;
+	}
+	
 	public void addExpAndSp(double addToExpValue, double addToSpValue, boolean useBonuses)
 	{
 		final Player player = getActiveChar();
@@ -280,6 +280,21 @@ public class EventDispatcher
 	 * @return
 	 */
 	private <T extends AbstractEventReturn> T notifyToListeners(Queue<AbstractEventListener> listeners, IBaseEvent event, Class<T> returnBackClass, T callbackValue)
+	{
+		if (listeners.isEmpty())
+		{
+			return callbackValue;
+		}
+		
+		// Listener queues hand out their copy-on-write array, iterated without copying.
+		if (listeners instanceof ListenerQueue)
+		{
+			return notifyToListeners(((ListenerQueue) listeners).getSnapshot(), event, returnBackClass, callbackValue);
+		}
+		return notifyToListeners(listeners.toArray(new AbstractEventListener[0]), event, returnBackClass, callbackValue);
+	}
+	
+	private <T extends AbstractEventReturn> T notifyToListeners(AbstractEventListener[] listeners, IBaseEvent event, Class<T> returnBackClass, T callbackValue)
 	{
 		T callback = callbackValue;
 		for (AbstractEventListener listener : listeners)
@@ -0,0 +1,200 @@
+/*
+ * This file is part of the L2J Mobius project.
+ * 
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.l2jmobius.gameserver.model.events;
+
+import java.util.AbstractQueue;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Queue;
+
+import org.l2jmobius.gameserver.model.events.listeners.AbstractEventListener;
+
+/**
+ * Copy-on-write queue of the listeners of one event type, sorted by priority (higher first, registration order among equal priorities).<br>
+ * Adding and removing replace the backing array, so notifications iterate a stable snapshot without copying or locking.
+ */
+public class ListenerQueue extends AbstractQueue<AbstractEventListener>
+{
+	private static final AbstractEventListener[] EMPTY = new AbstractEventListener[0];
+	
+	private volatile AbstractEventListener[] _listeners = EMPTY;
+	
+	public ListenerQueue()
+	{
+	}
+	
+	/**
+	 * Creates a snapshot of several queues, one after another.
+	 * @param queues the queues to merge
+	 */
+	@SafeVarargs
+	public ListenerQueue(Queue<AbstractEventListener>... queues)
+	{
+		int size = 0;
+		for (Queue<AbstractEventListener> queue : queues)
+		{
+			size += queue.size();
+		}
+		
+		AbstractEventListener[] listeners = new AbstractEventListener[size];
+		int index = 0;
+		for (Queue<AbstractEventListener> queue : queues)
+		{
+			for (AbstractEventListener listener : queue)
+			{
+				// Another thread may have registered a listener since the size was taken.
+				if (index == listeners.length)
+				{
+					listeners = Arrays.copyOf(listeners, index + 1);
+				}
+				listeners[index++] = listener;
+			}
+		}
+		_listeners = index == listeners.length ? listeners : Arrays.copyOf(listeners, index);
+	}
+	
+	/**
+	 * @return the current listeners, must not be modified
+	 */
+	AbstractEventListener[] getSnapshot()
+	{
+		return _listeners;
+	}
+	
+	@Override
+	public synchronized boolean offer(AbstractEventListener listener)
+	{
+		if (listener == null)
+		{
+			throw new NullPointerException();
+		}
+		
+		final AbstractEventListener[] listeners = _listeners;
+		int index = listeners.length;
+		while ((index > 0) && (listeners[index - 1].getPriority() < listener.getPriority()))
+		{
+			index--;
+		}
+		
+		final AbstractEventListener[] result = new AbstractEventListener[listeners.length + 1];
+		System.arraycopy(listeners, 0, result, 0, index);
+		result[index] = listener;
+		System.arraycopy(listeners, index, result, index + 1, listeners.length - index);
+		_listeners = result;
+		return true;
+	}
+	
+	@Override
+	public synchronized boolean remove(Object listener)
+	{
+		final AbstractEventListener[] listeners = _listeners;
+		for (int i = 0; i < listeners.length; i++)
+		{
+			if (listeners[i].equals(listener))
+			{
+				removeAt(listeners, i);
+				return true;
+			}
+		}
+		return false;
+	}
+	
+	@Override
+	public synchronized AbstractEventListener poll()
+	{
+		final AbstractEventListener[] listeners = _listeners;
+		if (listeners.length == 0)
+		{
+			return null;
+		}
+		
+		removeAt(listeners, 0);
+		return listeners[0];
+	}
+	
+	private void removeAt(AbstractEventListener[] listeners, int index)
+	{
+		if (listeners.length == 1)
+		{
+			_listeners = EMPTY;
+			return;
+		}
+		
+		final AbstractEventListener[] result = new AbstractEventListener[listeners.length - 1];
+		System.arraycopy(listeners, 0, result, 0, index);
+		System.arraycopy(listeners, index + 1, result, index, listeners.length - index - 1);
+		_listeners = result;
+	}
+	
+	@Override
+	public AbstractEventListener peek()
+	{
+		final AbstractEventListener[] listeners = _listeners;
+		return listeners.length == 0 ? null : listeners[0];
+	}
+	
+	@Override
+	public synchronized void clear()
+	{
+		_listeners = EMPTY;
+	}
+	
+	@Override
+	public int size()
+	{
+		return _listeners.length;
+	}
+	
+	@Override
+	public boolean isEmpty()
+	{
+		return _listeners.length == 0;
+	}
+	
+	@Override
+	public Object[] toArray()
+	{
+		return _listeners.clone();
+	}
+	
+	@Override
+	public Iterator<AbstractEventListener> iterator()
+	{
+		final AbstractEventListener[] listeners = _listeners;
+		return new Iterator<>()
+		{
+			private int _index = 0;
+			
+			@Override
+			public boolean hasNext()
+			{
+				return _index < listeners.length;
+			}
+			
+			@Override
+			public AbstractEventListener next()
+			{
+				if (_index >= listeners.length)
+				{
+					throw new NoSuchElementException();
+				}
+				return listeners[_index++];
+			}
+		};
+	}
+}
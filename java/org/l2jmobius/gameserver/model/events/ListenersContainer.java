@@ -19,7 +19,6 @@ package org.l2jmobius.gameserver.model.events;
 import java.util.Map;
 import java.util.Queue;
 import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.PriorityBlockingQueue;
 import java.util.function.Predicate;
 
 import org.l2jmobius.commons.util.EmptyQueue;
@@ -30,7 +29,7 @@ import org.l2jmobius.gameserver.model.events.listeners.AbstractEventListener;
  */
 public class ListenersContainer
 {
-	private Map<EventType, Queue<AbstractEventListener>> _listeners = null;
+	private Map<EventType, ListenerQueue> _listeners = null;
 	
 	/**
 	 * Registers listener for a callback when specified event is executed.
@@ -43,7 +42,7 @@ public class ListenersContainer
 		{
 			throw new NullPointerException("Listener cannot be null!");
 		}
-		getListeners().computeIfAbsent(listener.getType(), k -> new PriorityBlockingQueue<>()).add(listener);
+		getListeners().computeIfAbsent(listener.getType(), k -> new ListenerQueue()).add(listener);
 		return listener;
 	}
 	
@@ -62,12 +61,14 @@ public class ListenersContainer
 		{
 			throw new NullPointerException("Listeners container is not initialized!");
 		}
-		else if (!_listeners.containsKey(listener.getType()))
+		
+		final ListenerQueue listeners = _listeners.get(listener.getType());
+		if (listeners == null)
 		{
 			throw new IllegalAccessError("Listeners container doesn't had " + listener.getType() + " event type added!");
 		}
 		
-		_listeners.get(listener.getType()).remove(listener);
+		listeners.remove(listener);
 		return listener;
 	}
 	
@@ -94,7 +95,7 @@ public class ListenersContainer
 			return;
 		}
 		
-		for (Queue<AbstractEventListener> queue : getListeners().values())
+		for (ListenerQueue queue : getListeners().values())
 		{
 			for (AbstractEventListener listener : queue)
 			{
@@ -108,8 +109,13 @@ public class ListenersContainer
 	
 	public boolean hasListener(EventType type)
 	{
-		// TODO: return (_listeners != null) && !getListeners(type).isEmpty();
-		return !getListeners(type).isEmpty();
+		if (_listeners == null)
+		{
+			return false;
+		}
+		
+		final ListenerQueue listeners = _listeners.get(type);
+		return (listeners != null) && !listeners.isEmpty();
 	}
 	
 	/**
@@ -118,14 +124,20 @@ public class ListenersContainer
 	 */
 	public Queue<AbstractEventListener> getListeners(EventType type)
 	{
-		return (_listeners != null) && _listeners.containsKey(type) ? _listeners.get(type) : EmptyQueue.emptyQueue();
+		if (_listeners == null)
+		{
+			return EmptyQueue.emptyQueue();
+		}
+		
+		final ListenerQueue listeners = _listeners.get(type);
+		return listeners != null ? listeners : EmptyQueue.emptyQueue();
 	}
 	
 	/**
 	 * Creates the listeners container map if doesn't exists.
 	 * @return the listeners container map.
 	 */
-	private Map<EventType, Queue<AbstractEventListener>> getListeners()
+	private Map<EventType, ListenerQueue> getListeners()
 	{
 		if (_listeners == null)
 		{
@@ -16,7 +16,14 @@
  */
 package org.l2jmobius.gameserver.model.events.listeners;
 
+import java.lang.invoke.LambdaMetafactory;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodHandles.Lookup;
+import java.lang.invoke.MethodType;
 import java.lang.reflect.Method;
+import java.util.function.BiConsumer;
+import java.util.function.BiFunction;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
@@ -24,6 +31,7 @@ import org.l2jmobius.gameserver.model.events.EventType;
 import org.l2jmobius.gameserver.model.events.ListenersContainer;
 import org.l2jmobius.gameserver.model.events.impl.IBaseEvent;
 import org.l2jmobius.gameserver.model.events.returns.AbstractEventReturn;
+import org.l2jmobius.gameserver.scripting.java.ScriptingClassLoader;
 
 /**
  * Annotation event listener provides dynamically attached callback to any method operation with or without any return object.
@@ -33,21 +41,70 @@ public class AnnotationEventListener extends AbstractEventListener
 {
 	private static final Logger LOGGER = Logger.getLogger(AnnotationEventListener.class.getName());
 	private final Method _callback;
+	private final Class<?> _returnType;
+	private final BiFunction<Object, IBaseEvent, Object> _invoker;
 	
 	public AnnotationEventListener(ListenersContainer container, EventType type, Method callback, Object owner, int priority)
 	{
 		super(container, type, owner);
 		_callback = callback;
+		_returnType = callback.getReturnType();
+		_invoker = createInvoker(callback);
 		setPriority(priority);
 	}
 	
+	/**
+	 * Binds the callback to a generated functional interface implementation, which the JIT can inline unlike a reflective call.<br>
+	 * Falls back to reflection when the method cannot be bound that way.
+	 * @param callback the annotated method
+	 * @return the invoker taking the owner and the event
+	 */
+	@SuppressWarnings("unchecked")
+	private static BiFunction<Object, IBaseEvent, Object> createInvoker(Method callback)
+	{
+		try
+		{
+			// Script classes have to be bound from a lookup inside their own class loader.
+			final Class<?> declaringClass = callback.getDeclaringClass();
+			final Lookup caller = declaringClass.getClassLoader() instanceof ScriptingClassLoader ? ((ScriptingClassLoader) declaringClass.getClassLoader()).getLookup() : MethodHandles.lookup();
+			final Lookup lookup = MethodHandles.privateLookupIn(declaringClass, caller);
+			final MethodHandle handle = lookup.unreflect(callback);
+			final MethodType instantiatedType = MethodType.methodType(callback.getReturnType(), declaringClass, callback.getParameterTypes()[0]);
+			if (callback.getReturnType() == void.class)
+			{
+				final BiConsumer<Object, IBaseEvent> consumer = (BiConsumer<Object, IBaseEvent>) LambdaMetafactory.metafactory(lookup, "accept", MethodType.methodType(BiConsumer.class), MethodType.methodType(void.class, Object.class, Object.class), handle, instantiatedType).getTarget().invokeExact();
+				return (owner, event) ->
+				{
+					consumer.accept(owner, event);
+					return null;
+				};
+			}
+			return (BiFunction<Object, IBaseEvent, Object>) LambdaMetafactory.metafactory(lookup, "apply", MethodType.methodType(BiFunction.class), MethodType.methodType(Object.class, Object.class, Object.class), handle, instantiatedType).getTarget().invokeExact();
+		}
+		catch (Throwable e)
+		{
+			LOGGER.log(Level.WARNING, AnnotationEventListener.class.getSimpleName() + ": Could not bind " + callback.getName() + " of " + callback.getDeclaringClass().getSimpleName() + ", using reflection.", e);
+			return (owner, event) ->
+			{
+				try
+				{
+					return callback.invoke(owner, event);
+				}
+				catch (ReflectiveOperationException ex)
+				{
+					throw new RuntimeException(ex);
+				}
+			};
+		}
+	}
+	
 	@Override
 	public <R extends AbstractEventReturn> R executeEvent(IBaseEvent event, Class<R> returnBackClass)
 	{
 		try
 		{
-			final Object result = _callback.invoke(getOwner(), event);
-			if (_callback.getReturnType() == returnBackClass)
+			final Object result = _invoker.apply(getOwner(), event);
+			if (_returnType == returnBackClass)
 			{
 				return returnBackClass.cast(result);
 			}
@@ -83,7 +83,7 @@ public class Instance implements IIdentifiable, INamable
 	// Basic instance parameters
 	private final int _id;
 	private final InstanceTemplate _template;
-	private final long _startTime;
+	private long _startTime;
 	private long _endTime;
 	// Advanced instance parameters
 	private final Set<Integer> _allowed = ConcurrentHashMap.newKeySet(); // Player ids which can enter to instance
@@ -104,22 +104,43 @@ public class Instance implements IIdentifiable, INamable
 	 * @param player player who create instance world.
 	 */
 	public Instance(int id, InstanceTemplate template, Player player)
+	{
+		this(id, template, player, false);
+	}
+	
+	/**
+	 * Create instance world.
+	 * @param id ID of instance world
+	 * @param template template of instance world
+	 * @param player player who create instance world.
+	 * @param pooled when {@code true} only doors and NPCs are spawned, the world is kept by instance manager pool until {@link #start(Player)} is called
+	 */
+	public Instance(int id, InstanceTemplate template, Player player, boolean pooled)
 	{
 		// Set basic instance info
 		_id = id;
 		_template = template;
-		_startTime = System.currentTimeMillis();
 		_spawns = new ArrayList<>(template.getSpawns().size());
 		
 		// Clone and add the spawn templates
 		template.getSpawns().stream().map(SpawnTemplate::clone).forEach(_spawns::add);
 		
 		// Register world to instance manager.
-		InstanceManager.getInstance().register(this);
+		if (pooled)
+		{
+			InstanceManager.getInstance().registerPooled(this);
+		}
+		else
+		{
+			_startTime = System.currentTimeMillis();
+			InstanceManager.getInstance().register(this);
+			
+			// Set duration, status, etc..
+			setDuration(_template.getDuration());
+			setStatus(0);
+		}
 		
-		// Set duration, spawns, status, etc..
-		setDuration(_template.getDuration());
-		setStatus(0);
+		// Spawn doors and NPCs.
 		spawnDoors();
 		
 		// Initialize instance spawns.
@@ -131,6 +152,26 @@ public class Instance implements IIdentifiable, INamable
 			}
 		}
 		
+		// Notify DP scripts
+		if (!pooled && !isDynamic() && EventDispatcher.getInstance().hasListener(EventType.ON_INSTANCE_CREATED, _template))
+		{
+			EventDispatcher.getInstance().notifyEventAsync(new OnInstanceCreated(this, player), _template);
+		}
+	}
+	
+	/**
+	 * Start instance world taken from instance manager pool, its doors and NPCs are already spawned.
+	 * @param player player who create instance world.
+	 */
+	public void start(Player player)
+	{
+		_startTime = System.currentTimeMillis();
+		InstanceManager.getInstance().register(this);
+		
+		// Set duration, status, etc..
+		setDuration(_template.getDuration());
+		setStatus(0);
+		
 		// Notify DP scripts
 		if (!isDynamic() && EventDispatcher.getInstance().hasListener(EventType.ON_INSTANCE_CREATED, _template))
 		{
@@ -245,9 +286,9 @@ public class Instance implements IIdentifiable, INamable
 	 */
 	public void addAllowed(Player player)
 	{
-		if (!_allowed.contains(player.getObjectId()))
+		if (_allowed.add(player.getObjectId()))
 		{
-			_allowed.add(player.getObjectId());
+			InstanceManager.getInstance().registerAllowed(player.getObjectId(), this);
 		}
 	}
 	
@@ -286,6 +327,7 @@ public class Instance implements IIdentifiable, INamable
 	public void addPlayer(Player player)
 	{
 		_players.add(player);
+		InstanceManager.getInstance().registerPlayer(player, this);
 		if (_emptyDestroyTask != null)
 		{
 			_emptyDestroyTask.cancel(false);
@@ -300,6 +342,7 @@ public class Instance implements IIdentifiable, INamable
 	public void removePlayer(Player player)
 	{
 		_players.remove(player);
+		InstanceManager.getInstance().unregisterPlayer(player, this);
 		if (_players.isEmpty())
 		{
 			final long emptyTime = _template.getEmptyDestroyTime();
@@ -749,7 +792,11 @@ public class Instance implements IIdentifiable, INamable
 	 */
 	private void removePlayers()
 	{
-		_players.forEach(this::ejectPlayer);
+		for (Player player : _players)
+		{
+			ejectPlayer(player);
+			InstanceManager.getInstance().unregisterPlayer(player, this);
+		}
 		_players.clear();
 	}
 	
@@ -850,6 +897,10 @@ public class Instance implements IIdentifiable, INamable
 		removeDoors();
 		removeNpcs();
 		
+		for (int playerId : _allowed)
+		{
+			InstanceManager.getInstance().unregisterAllowed(playerId, this);
+		}
 		InstanceManager.getInstance().unregister(getId());
 	}
 	
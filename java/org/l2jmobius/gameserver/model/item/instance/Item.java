@@ -34,6 +34,7 @@ import java.util.logging.Level;
 import java.util.logging.Logger;
 
 import org.l2jmobius.Config;
+import org.l2jmobius.commons.database.DatabaseBatch;
 import org.l2jmobius.commons.database.DatabaseFactory;
 import org.l2jmobius.gameserver.data.ItemTable;
 import org.l2jmobius.gameserver.data.xml.AgathionData;
@@ -109,6 +110,12 @@ public class Item extends WorldObject
 	private static final Logger LOGGER = Logger.getLogger(Item.class.getName());
 	private static final Logger LOG_ITEMS = Logger.getLogger("item");
 	
+	private static final String UPDATE_ITEM = "UPDATE items SET owner_id=?,count=?,loc=?,loc_data=?,enchant_level=?,custom_type1=?,custom_type2=?,mana_left=?,time=? WHERE object_id = ?";
+	private static final String REPLACE_ITEM_VARIATION = "REPLACE INTO item_variations VALUES(?,?,?,?)";
+	private static final String DELETE_ITEM_ELEMENTALS = "DELETE FROM item_elementals WHERE itemId = ?";
+	private static final String INSERT_ITEM_ELEMENTAL = "INSERT INTO item_elementals VALUES(?,?,?)";
+	private static final String INSERT_ITEM_SPECIAL_ABILITY = "INSERT INTO item_special_abilities (`objectId`, `type`, `optionId`, `position`) VALUES (?, ?, ?, ?) ON DUPLICATE KEY UPDATE type = ?, optionId = ?, position = ?";
+	
 	/** Owner */
 	private int _ownerId;
 	private Player _owner;
@@ -171,7 +178,8 @@ public class Item extends WorldObject
 	
 	private int _lastChange = 2; // 1 ??, 2 modified, 3 removed
 	private boolean _existsInDb; // if a record exists in DB.
-	private boolean _storedInDb; // if DB data is up-to-date.
+	private volatile boolean _storedInDb; // if DB data is up-to-date.
+	private volatile int _modifications; // changes since creation, lets a batched write tell whether it is still current.
 	
 	private final ReentrantLock _dbLock = new ReentrantLock();
 	
@@ -385,7 +393,7 @@ public class Item extends WorldObject
 		
 		_owner = null;
 		_ownerId = ownerId;
-		_storedInDb = false;
+		markChanged();
 		
 		// Give any inventory skills to the new owner only if the item is in inventory
 		// else the skills will be given when location is set to inventory.
@@ -428,7 +436,7 @@ public class Item extends WorldObject
 		
 		_loc = loc;
 		_locData = locData;
-		_storedInDb = false;
+		markChanged();
 		
 		// Give any inventory skills to the new owner only if the item is in inventory
 		// else the skills will be given when location is set to inventory.
@@ -452,7 +460,7 @@ public class Item extends WorldObject
 		}
 		
 		_count = count >= -1 ? count : 0;
-		_storedInDb = false;
+		markChanged();
 	}
 	
 	/**
@@ -494,7 +502,7 @@ public class Item extends WorldObject
 			setCount(0);
 		}
 		
-		_storedInDb = false;
+		markChanged();
 		
 		if (Config.LOG_ITEMS && (process != null))
 		{
@@ -988,7 +996,7 @@ public class Item extends WorldObject
 		
 		_enchantLevel = newLevel;
 		applyEnchantStats();
-		_storedInDb = false;
+		markChanged();
 		
 		getActingPlayer().getInventory().getPaperdollCache().clearMaxSetEnchant();
 		
@@ -1134,7 +1142,7 @@ public class Item extends WorldObject
 	
 	private void updateItemOptions(Connection con)
 	{
-		try (PreparedStatement ps = con.prepareStatement("REPLACE INTO item_variations VALUES(?,?,?,?)"))
+		try (PreparedStatement ps = con.prepareStatement(REPLACE_ITEM_VARIATION))
 		{
 			ps.setInt(1, getObjectId());
 			ps.setInt(2, _augmentation != null ? _augmentation.getMineralId() : 0);
@@ -1162,7 +1170,7 @@ public class Item extends WorldObject
 	
 	private void updateItemElements(Connection con)
 	{
-		try (PreparedStatement ps = con.prepareStatement("DELETE FROM item_elementals WHERE itemId = ?"))
+		try (PreparedStatement ps = con.prepareStatement(DELETE_ITEM_ELEMENTALS))
 		{
 			ps.setInt(1, getObjectId());
 			ps.executeUpdate();
@@ -1177,7 +1185,7 @@ public class Item extends WorldObject
 			return;
 		}
 		
-		try (PreparedStatement ps = con.prepareStatement("INSERT INTO item_elementals VALUES(?,?,?)"))
+		try (PreparedStatement ps = con.prepareStatement(INSERT_ITEM_ELEMENTAL))
 		{
 			for (AttributeHolder attribute : _elementals.values())
 			{
@@ -1344,7 +1352,7 @@ public class Item extends WorldObject
 		}
 		
 		try (Connection con = DatabaseFactory.getConnection();
-			PreparedStatement ps = con.prepareStatement("DELETE FROM item_elementals WHERE itemId = ?"))
+			PreparedStatement ps = con.prepareStatement(DELETE_ITEM_ELEMENTALS))
 		{
 			ps.setInt(1, getObjectId());
 			ps.executeUpdate();
@@ -1405,7 +1413,7 @@ public class Item extends WorldObject
 		
 		if (_storedInDb)
 		{
-			_storedInDb = false;
+			markChanged();
 		}
 		if (resetConsumingMana)
 		{
@@ -1555,6 +1563,36 @@ public class Item extends WorldObject
 		}
 	}
 	
+	/**
+	 * Collects the pending update of the item into the given batch.<br>
+	 * Inserts and deletions are rare and still written directly.
+	 * @param batch the batch
+	 */
+	public void updateDatabase(DatabaseBatch batch)
+	{
+		_dbLock.lock();
+		
+		try
+		{
+			if ((_ownerId == 0) || (_loc == ItemLocation.VOID) || (_loc == ItemLocation.REFUND) || ((_count == 0) && (_loc != ItemLocation.LEASE)))
+			{
+				removeFromDb();
+			}
+			else if (_existsInDb)
+			{
+				updateInDb(batch);
+			}
+			else
+			{
+				insertIntoDb();
+			}
+		}
+		finally
+		{
+			_dbLock.unlock();
+		}
+	}
+	
 	/**
 	 * Init a dropped Item and add it in the world as a visible object.<br>
 	 * <br>
@@ -1619,6 +1657,15 @@ public class Item extends WorldObject
 		}
 	}
 	
+	/**
+	 * Marks the database data of the item as outdated, the counter is increased first so a batched write finishing meanwhile notices the change.
+	 */
+	private void markChanged()
+	{
+		_modifications++;
+		_storedInDb = false;
+	}
+	
 	/**
 	 * Update the database with values of the item
 	 */
@@ -1630,7 +1677,7 @@ public class Item extends WorldObject
 		}
 		
 		try (Connection con = DatabaseFactory.getConnection();
-			PreparedStatement ps = con.prepareStatement("UPDATE items SET owner_id=?,count=?,loc=?,loc_data=?,enchant_level=?,custom_type1=?,custom_type2=?,mana_left=?,time=? WHERE object_id = ?"))
+			PreparedStatement ps = con.prepareStatement(UPDATE_ITEM))
 		{
 			ps.setInt(1, _ownerId);
 			ps.setLong(2, _count);
@@ -1664,6 +1711,69 @@ public class Item extends WorldObject
 		}
 	}
 	
+	/**
+	 * Collect the values of the item into the given batch.
+	 * @param batch the batch
+	 */
+	private void updateInDb(DatabaseBatch batch)
+	{
+		if (!_existsInDb || _wear || _storedInDb)
+		{
+			return;
+		}
+		
+		// The item is only stored once the batch commits, and only if it did not change in the meantime.
+		final int modifications = _modifications;
+		batch.add(UPDATE_ITEM, _ownerId, _count, _loc.name(), _locData, _enchantLevel, _type1, _type2, _mana, _time, getObjectId());
+		batch.onSuccess(() ->
+		{
+			if (_modifications == modifications)
+			{
+				_storedInDb = true;
+				
+				// A change racing with the flag update marks the item again.
+				if (_modifications != modifications)
+				{
+					_storedInDb = false;
+				}
+			}
+			else
+			{
+				// A direct write that happened meanwhile was overwritten by these older values.
+				_storedInDb = false;
+			}
+		});
+		
+		if (_augmentation != null)
+		{
+			batch.add(REPLACE_ITEM_VARIATION, getObjectId(), _augmentation.getMineralId(), _augmentation.getOption1Id(), _augmentation.getOption2Id());
+		}
+		
+		if (_elementals != null)
+		{
+			batch.add(DELETE_ITEM_ELEMENTALS, getObjectId());
+			for (AttributeHolder attribute : _elementals.values())
+			{
+				batch.add(INSERT_ITEM_ELEMENTAL, getObjectId(), attribute.getType().getClientId(), attribute.getValue());
+			}
+		}
+		
+		for (int i = 0; i < _ensoulOptions.length; i++)
+		{
+			if (_ensoulOptions[i] != null)
+			{
+				batch.add(INSERT_ITEM_SPECIAL_ABILITY, getObjectId(), 1, _ensoulOptions[i].getId(), i, 1, _ensoulOptions[i].getId(), i); // regular options
+			}
+		}
+		for (int i = 0; i < _ensoulSpecialOptions.length; i++)
+		{
+			if (_ensoulSpecialOptions[i] != null)
+			{
+				batch.add(INSERT_ITEM_SPECIAL_ABILITY, getObjectId(), 2, _ensoulSpecialOptions[i].getId(), i, 2, _ensoulSpecialOptions[i].getId(), i); // special options
+			}
+		}
+	}
+	
 	/**
 	 * Insert the item in database
 	 */
@@ -1735,7 +1845,7 @@ public class Item extends WorldObject
 				ps.executeUpdate();
 			}
 			
-			try (PreparedStatement ps = con.prepareStatement("DELETE FROM item_elementals WHERE itemId = ?"))
+			try (PreparedStatement ps = con.prepareStatement(DELETE_ITEM_ELEMENTALS))
 			{
 				ps.setInt(1, getObjectId());
 				ps.executeUpdate();
@@ -2384,7 +2494,7 @@ public class Item extends WorldObject
 	
 	private void updateSpecialAbilities(Connection con)
 	{
-		try (PreparedStatement ps = con.prepareStatement("INSERT INTO item_special_abilities (`objectId`, `type`, `optionId`, `position`) VALUES (?, ?, ?, ?) ON DUPLICATE KEY UPDATE type = ?, optionId = ?, position = ?"))
+		try (PreparedStatement ps = con.prepareStatement(INSERT_ITEM_SPECIAL_ABILITY))
 		{
 			ps.setInt(1, getObjectId());
 			for (int i = 0; i < _ensoulOptions.length; i++)
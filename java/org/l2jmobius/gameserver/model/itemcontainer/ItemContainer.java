@@ -19,15 +19,18 @@ package org.l2jmobius.gameserver.model.itemcontainer;
 import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
-import java.util.LinkedList;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
 import org.l2jmobius.Config;
+import org.l2jmobius.commons.database.DatabaseBatch;
 import org.l2jmobius.commons.database.DatabaseFactory;
 import org.l2jmobius.gameserver.data.ItemTable;
 import org.l2jmobius.gameserver.enums.ItemLocation;
@@ -45,7 +48,13 @@ public abstract class ItemContainer
 {
 	protected static final Logger LOGGER = Logger.getLogger(ItemContainer.class.getName());
 	
+	private static final Item[] EMPTY_ITEMS = new Item[0];
+	
 	protected final Set<Item> _items = ConcurrentHashMap.newKeySet(1);
+	/** Items by object id, kept in sync with {@link #_items} by {@link #addItem(Item)} and {@link #removeItem(Item)}. */
+	private final Map<Integer, Item> _itemsByObjectId = new ConcurrentHashMap<>(1);
+	/** Items by item id. Most ids are held by a single stack, so each value is a small array that is replaced on change. */
+	private final Map<Integer, Item[]> _itemsByItemId = new ConcurrentHashMap<>(1);
 	
 	protected ItemContainer()
 	{
@@ -91,14 +100,18 @@ public abstract class ItemContainer
 	 */
 	public Item getItemByItemId(int itemId)
 	{
-		for (Item item : _items)
-		{
-			if (item.getId() == itemId)
-			{
-				return item;
-			}
-		}
-		return null;
+		final Item[] items = _itemsByItemId.get(itemId);
+		return items == null ? null : items[0];
+	}
+	
+	/**
+	 * @param itemId the item Id
+	 * @return the items with the item Id, the array must not be modified
+	 */
+	protected Item[] getItemsByItemId(int itemId)
+	{
+		final Item[] items = _itemsByItemId.get(itemId);
+		return items == null ? EMPTY_ITEMS : items;
 	}
 	
 	/**
@@ -107,13 +120,11 @@ public abstract class ItemContainer
 	 */
 	public Collection<Item> getAllItemsByItemId(int itemId)
 	{
-		final List<Item> result = new LinkedList<>();
-		for (Item item : _items)
+		final Item[] items = getItemsByItemId(itemId);
+		final List<Item> result = new ArrayList<>(items.length);
+		for (Item item : items)
 		{
-			if (itemId == item.getId())
-			{
-				result.add(item);
-			}
+			result.add(item);
 		}
 		return result;
 	}
@@ -124,14 +135,7 @@ public abstract class ItemContainer
 	 */
 	public Item getItemByObjectId(int objectId)
 	{
-		for (Item item : _items)
-		{
-			if (objectId == item.getObjectId())
-			{
-				return item;
-			}
-		}
-		return null;
+		return _itemsByObjectId.get(objectId);
 	}
 	
 	/**
@@ -155,9 +159,9 @@ public abstract class ItemContainer
 	public long getInventoryItemCount(int itemId, int enchantLevel, boolean includeEquipped)
 	{
 		long count = 0;
-		for (Item item : _items)
+		for (Item item : getItemsByItemId(itemId))
 		{
-			if ((item.getId() == itemId) && ((item.getEnchantLevel() == enchantLevel) || (enchantLevel < 0)) && (includeEquipped || !item.isEquipped()))
+			if (((item.getEnchantLevel() == enchantLevel) || (enchantLevel < 0)) && (includeEquipped || !item.isEquipped()))
 			{
 				if (item.isStackable())
 				{
@@ -548,26 +552,14 @@ public abstract class ItemContainer
 	 */
 	public long getAdena()
 	{
-		for (Item item : _items)
-		{
-			if (item.getId() == Inventory.ADENA_ID)
-			{
-				return item.getCount();
-			}
-		}
-		return 0;
+		final Item item = getItemByItemId(Inventory.ADENA_ID);
+		return item == null ? 0 : item.getCount();
 	}
 	
 	public long getBeautyTickets()
 	{
-		for (Item item : _items)
-		{
-			if (item.getId() == Inventory.BEAUTY_TICKET_ID)
-			{
-				return item.getCount();
-			}
-		}
-		return 0;
+		final Item item = getItemByItemId(Inventory.BEAUTY_TICKET_ID);
+		return item == null ? 0 : item.getCount();
 	}
 	
 	/**
@@ -576,7 +568,24 @@ public abstract class ItemContainer
 	 */
 	protected void addItem(Item item)
 	{
-		_items.add(item);
+		if (_items.add(item))
+		{
+			_itemsByObjectId.put(item.getObjectId(), item);
+			_itemsByItemId.compute(item.getId(), (id, items) ->
+			{
+				if (items == null)
+				{
+					return new Item[]
+					{
+						item
+					};
+				}
+				
+				final Item[] result = Arrays.copyOf(items, items.length + 1);
+				result[items.length] = item;
+				return result;
+			});
+		}
 	}
 	
 	/**
@@ -586,7 +595,42 @@ public abstract class ItemContainer
 	 */
 	protected boolean removeItem(Item item)
 	{
-		return _items.remove(item);
+		if (!_items.remove(item))
+		{
+			return false;
+		}
+		
+		_itemsByObjectId.remove(item.getObjectId(), item);
+		_itemsByItemId.computeIfPresent(item.getId(), (id, items) ->
+		{
+			for (int i = 0; i < items.length; i++)
+			{
+				if (items[i] == item)
+				{
+					if (items.length == 1)
+					{
+						return null;
+					}
+					
+					final Item[] result = new Item[items.length - 1];
+					System.arraycopy(items, 0, result, 0, i);
+					System.arraycopy(items, i + 1, result, i, items.length - i - 1);
+					return result;
+				}
+			}
+			return items;
+		});
+		return true;
+	}
+	
+	/**
+	 * Removes all items from the container without further adjustments.
+	 */
+	protected void clearItems()
+	{
+		_items.clear();
+		_itemsByObjectId.clear();
+		_itemsByItemId.clear();
 	}
 	
 	/**
@@ -610,7 +654,7 @@ public abstract class ItemContainer
 				World.getInstance().removeObject(item);
 			}
 		}
-		_items.clear();
+		clearItems();
 	}
 	
 	/**
@@ -627,6 +671,21 @@ public abstract class ItemContainer
 		}
 	}
 	
+	/**
+	 * Collect the pending item updates of the inventory into the given batch.
+	 * @param batch the batch
+	 */
+	public void updateDatabase(DatabaseBatch batch)
+	{
+		if (getOwner() != null)
+		{
+			for (Item item : _items)
+			{
+				item.updateDatabase(batch);
+			}
+		}
+	}
+	
 	/**
 	 * Get back items in container from database
 	 */
@@ -153,7 +153,7 @@ public class Mail extends ItemContainer
 			World.getInstance().removeObject(item);
 		}
 		
-		_items.clear();
+		clearItems();
 	}
 	
 	@Override
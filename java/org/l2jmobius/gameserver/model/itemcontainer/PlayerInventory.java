@@ -174,9 +174,9 @@ public class PlayerInventory extends Inventory
 	public Collection<Item> getAllItemsByItemId(int itemId, boolean includeEquipped)
 	{
 		final List<Item> result = new LinkedList<>();
-		for (Item item : _items)
+		for (Item item : getItemsByItemId(itemId))
 		{
-			if ((itemId == item.getId()) && (includeEquipped || !item.isEquipped()))
+			if (includeEquipped || !item.isEquipped())
 			{
 				result.add(item);
 			}
@@ -204,9 +204,9 @@ public class PlayerInventory extends Inventory
 	public Collection<Item> getAllItemsByItemId(int itemId, int enchantment, boolean includeEquipped)
 	{
 		final List<Item> result = new LinkedList<>();
-		for (Item item : _items)
+		for (Item item : getItemsByItemId(itemId))
 		{
-			if ((itemId == item.getId()) && (item.getEnchantLevel() == enchantment) && (includeEquipped || !item.isEquipped()))
+			if ((item.getEnchantLevel() == enchantment) && (includeEquipped || !item.isEquipped()))
 			{
 				result.add(item);
 			}
@@ -62,7 +62,7 @@ public class PlayerRefund extends ItemContainer
 			if (getSize() > 12)
 			{
 				final Item removedItem = _items.stream().findFirst().get();
-				if (_items.remove(removedItem))
+				if (removeItem(removedItem))
 				{
 					ItemTable.getInstance().destroyItem("ClearRefund", removedItem, getOwner(), null);
 					removedItem.updateDatabase(true);
@@ -95,7 +95,7 @@ public class PlayerRefund extends ItemContainer
 		{
 			LOGGER.log(Level.SEVERE, "deleteMe()", e);
 		}
-		_items.clear();
+		clearItems();
 	}
 	
 	@Override
@@ -16,6 +16,7 @@
  */
 package org.l2jmobius.gameserver.model.olympiad;
 
+import org.l2jmobius.gameserver.instancemanager.RankManager;
 import org.l2jmobius.gameserver.model.StatSet;
 import org.l2jmobius.gameserver.model.World;
 import org.l2jmobius.gameserver.model.actor.Player;
@@ -88,6 +89,7 @@ public class Participant
 	public void updateStat(String statName, int increment)
 	{
 		_stats.set(statName, Math.max(_stats.getInt(statName) + increment, 0));
+		RankManager.getInstance().updateOlympiad(_objectId, _stats);
 	}
 	
 	/**
@@ -16,9 +16,13 @@
  */
 package org.l2jmobius.gameserver.model.zone;
 
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
 
+import org.l2jmobius.gameserver.instancemanager.ZoneManager;
+import org.l2jmobius.gameserver.model.World;
 import org.l2jmobius.gameserver.model.actor.Creature;
 import org.l2jmobius.gameserver.model.skill.Skill;
 import org.l2jmobius.gameserver.model.zone.type.PeaceZone;
@@ -28,9 +32,16 @@ import org.l2jmobius.gameserver.model.zone.type.PeaceZone;
  */
 public class ZoneRegion
 {
+	// The region is split into a grid of cells, each listing the zones that reach into it.
+	private static final int CELL_SHIFT = 11;
+	private static final int CELL_BITS = ZoneManager.SHIFT_BY - CELL_SHIFT;
+	private static final int CELL_MASK = (1 << CELL_BITS) - 1;
+	private static final ZoneType[] EMPTY_CELL = new ZoneType[0];
+	
 	private final int _regionX;
 	private final int _regionY;
 	private final Map<Integer, ZoneType> _zones = new ConcurrentHashMap<>();
+	private volatile ZoneType[][] _cells;
 	
 	public ZoneRegion(int regionX, int regionY)
 	{
@@ -38,11 +49,74 @@ public class ZoneRegion
 		_regionY = regionY;
 	}
 	
+	/**
+	 * @return the zones of this region, changes must go through {@link #addZone(ZoneType)} and {@link #clearZones()}
+	 */
 	public Map<Integer, ZoneType> getZones()
 	{
 		return _zones;
 	}
 	
+	public void addZone(ZoneType zone)
+	{
+		_zones.put(zone.getId(), zone);
+		_cells = null;
+	}
+	
+	public void clearZones()
+	{
+		_zones.clear();
+		_cells = null;
+	}
+	
+	/**
+	 * @param x
+	 * @param y
+	 * @return the zones that may contain the given point of this region, the same array for every point of a cell
+	 */
+	public ZoneType[] getZones(int x, int y)
+	{
+		ZoneType[][] cells = _cells;
+		if (cells == null)
+		{
+			cells = createCells();
+		}
+		return cells[(((y >> CELL_SHIFT) & CELL_MASK) << CELL_BITS) | ((x >> CELL_SHIFT) & CELL_MASK)];
+	}
+	
+	private synchronized ZoneType[][] createCells()
+	{
+		if (_cells != null)
+		{
+			return _cells;
+		}
+		
+		final int regionX = getWorldX();
+		final int regionY = getWorldY();
+		final ZoneType[][] cells = new ZoneType[1 << (CELL_BITS * 2)][];
+		final List<ZoneType> zones = new ArrayList<>();
+		for (int cy = 0; cy <= CELL_MASK; cy++)
+		{
+			for (int cx = 0; cx <= CELL_MASK; cx++)
+			{
+				// One unit of margin, a zone touching the border of the cell is still listed.
+				final int ax = regionX + (cx << CELL_SHIFT);
+				final int ay = regionY + (cy << CELL_SHIFT);
+				for (ZoneType zone : _zones.values())
+				{
+					if ((zone.getZone() != null) && zone.getZone().intersectsRectangle(ax - 1, ax + (1 << CELL_SHIFT) + 1, ay - 1, ay + (1 << CELL_SHIFT) + 1))
+					{
+						zones.add(zone);
+					}
+				}
+				cells[(cy << CELL_BITS) | cx] = zones.isEmpty() ? EMPTY_CELL : zones.toArray(new ZoneType[zones.size()]);
+				zones.clear();
+			}
+		}
+		_cells = cells;
+		return cells;
+	}
+	
 	public int getRegionX()
 	{
 		return _regionX;
@@ -53,6 +127,22 @@ public class ZoneRegion
 		return _regionY;
 	}
 	
+	/**
+	 * @return the lowest world X coordinate of this region
+	 */
+	public int getWorldX()
+	{
+		return (_regionX << ZoneManager.SHIFT_BY) + World.WORLD_X_MIN;
+	}
+	
+	/**
+	 * @return the lowest world Y coordinate of this region
+	 */
+	public int getWorldY()
+	{
+		return (_regionY << ZoneManager.SHIFT_BY) + World.WORLD_Y_MIN;
+	}
+	
 	public void revalidateZones(Creature creature)
 	{
 		// do NOT update the world region while the character is still in the process of teleporting
@@ -62,14 +152,57 @@ public class ZoneRegion
 			return;
 		}
 		
-		for (ZoneType z : _zones.values())
+		// Creature#setXYZ validates the new region before the position changes, check every zone as the cells do not apply.
+		final int x = creature.getX();
+		final int y = creature.getY();
+		if (((x >> ZoneManager.SHIFT_BY) != (getWorldX() >> ZoneManager.SHIFT_BY)) || ((y >> ZoneManager.SHIFT_BY) != (getWorldY() >> ZoneManager.SHIFT_BY)))
+		{
+			final ZoneType[] zones = _zones.values().toArray(new ZoneType[0]);
+			creature.setValidatedZones(zones);
+			for (ZoneType z : zones)
+			{
+				z.revalidateInZone(creature);
+			}
+			return;
+		}
+		
+		final ZoneType[] zones = getZones(x, y);
+		
+		// Zones of the previously validated cell that do not reach into this one cannot contain the creature anymore.
+		final ZoneType[] previousZones = creature.getValidatedZones();
+		if ((previousZones != null) && (previousZones != zones))
+		{
+			for (ZoneType previous : previousZones)
+			{
+				if (!contains(zones, previous))
+				{
+					previous.removeCharacter(creature);
+				}
+			}
+		}
+		creature.setValidatedZones(zones);
+		
+		for (ZoneType z : zones)
 		{
 			z.revalidateInZone(creature);
 		}
 	}
 	
+	private static boolean contains(ZoneType[] zones, ZoneType zone)
+	{
+		for (ZoneType z : zones)
+		{
+			if (z == zone)
+			{
+				return true;
+			}
+		}
+		return false;
+	}
+	
 	public void removeFromZones(Creature creature)
 	{
+		creature.setValidatedZones(null);
 		for (ZoneType z : _zones.values())
 		{
 			z.removeCharacter(creature);
@@ -118,7 +251,7 @@ public class ZoneRegion
 	
 	public void onDeath(Creature creature)
 	{
-		for (ZoneType z : _zones.values())
+		for (ZoneType z : getZones(creature.getX(), creature.getY()))
 		{
 			if (z.isInsideZone(creature))
 			{
@@ -129,7 +262,7 @@ public class ZoneRegion
 	
 	public void onRevive(Creature creature)
 	{
-		for (ZoneType z : _zones.values())
+		for (ZoneType z : getZones(creature.getX(), creature.getY()))
 		{
 			if (z.isInsideZone(creature))
 			{
@@ -48,7 +48,14 @@ public class ZoneCylinder extends ZoneForm
 	@Override
 	public boolean isInsideZone(int x, int y, int z)
 	{
-		return ((Math.pow(_x - x, 2) + Math.pow(_y - y, 2)) <= _radS) && (z >= _z1) && (z <= _z2);
+		if ((z < _z1) || (z > _z2))
+		{
+			return false;
+		}
+		
+		final long dx = _x - x;
+		final long dy = _y - y;
+		return ((dx * dx) + (dy * dy)) <= _radS;
 	}
 	
 	@Override
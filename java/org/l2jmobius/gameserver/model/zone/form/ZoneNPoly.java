@@ -17,6 +17,8 @@
 package org.l2jmobius.gameserver.model.zone.form;
 
 import java.awt.Polygon;
+import java.awt.Rectangle;
+import java.awt.geom.Rectangle2D;
 
 import org.l2jmobius.commons.util.Rnd;
 import org.l2jmobius.gameserver.geoengine.GeoEngine;
@@ -30,9 +32,22 @@ import org.l2jmobius.gameserver.model.zone.ZoneForm;
  */
 public class ZoneNPoly extends ZoneForm
 {
+	// Raster of the bounding box, at most RASTER_SIZE cells per side.
+	private static final int RASTER_SIZE = 32;
+	private static final byte OUTSIDE = 0;
+	private static final byte INSIDE = 1;
+	private static final byte EDGE = 2;
+	
 	private final Polygon _p;
 	private final int _z1;
 	private final int _z2;
+	private final int _minX;
+	private final int _minY;
+	private final int _maxX;
+	private final int _maxY;
+	private final int _cellShift;
+	private final int _cellsX;
+	private final byte[] _cells;
 	
 	/**
 	 * @param x
@@ -46,12 +61,96 @@ public class ZoneNPoly extends ZoneForm
 		
 		_z1 = Math.min(z1, z2);
 		_z2 = Math.max(z1, z2);
+		
+		final Rectangle bounds = _p.getBounds();
+		_minX = bounds.x;
+		_minY = bounds.y;
+		_maxX = bounds.x + bounds.width;
+		_maxY = bounds.y + bounds.height;
+		
+		int cellShift = 0;
+		while ((Math.max(bounds.width, bounds.height) >> cellShift) >= RASTER_SIZE)
+		{
+			cellShift++;
+		}
+		_cellShift = cellShift;
+		_cellsX = (bounds.width >> cellShift) + 1;
+		_cells = _p.npoints > 2 ? rasterize((bounds.height >> cellShift) + 1) : null;
+	}
+	
+	/**
+	 * Classifies the cells of the bounding box as inside, outside or crossed by an edge.<br>
+	 * Cells are tested against the edges with a margin of one unit, so every point of an inside or outside cell has the same result as {@link Polygon#contains(int, int)}.
+	 * @param cellsY the number of cell rows
+	 * @return the cells
+	 */
+	private byte[] rasterize(int cellsY)
+	{
+		final int cellSize = 1 << _cellShift;
+		final byte[] cells = new byte[_cellsX * cellsY];
+		for (int i = 0; i < _p.npoints; i++)
+		{
+			final int next = (i + 1) == _p.npoints ? 0 : i + 1;
+			final int x1 = _p.xpoints[i];
+			final int y1 = _p.ypoints[i];
+			final int x2 = _p.xpoints[next];
+			final int y2 = _p.ypoints[next];
+			final int fromX = Math.max(0, (Math.min(x1, x2) - 1 - _minX) >> _cellShift);
+			final int toX = Math.min(_cellsX - 1, (Math.max(x1, x2) + 1 - _minX) >> _cellShift);
+			final int fromY = Math.max(0, (Math.min(y1, y2) - 1 - _minY) >> _cellShift);
+			final int toY = Math.min(cellsY - 1, (Math.max(y1, y2) + 1 - _minY) >> _cellShift);
+			for (int cy = fromY; cy <= toY; cy++)
+			{
+				for (int cx = fromX; cx <= toX; cx++)
+				{
+					final Rectangle2D cell = new Rectangle2D.Double((_minX + (cx << _cellShift)) - 1, (_minY + (cy << _cellShift)) - 1, cellSize + 2, cellSize + 2);
+					if (cell.intersectsLine(x1, y1, x2, y2))
+					{
+						cells[(cy * _cellsX) + cx] = EDGE;
+					}
+				}
+			}
+		}
+		
+		for (int cy = 0; cy < cellsY; cy++)
+		{
+			for (int cx = 0; cx < _cellsX; cx++)
+			{
+				final int index = (cy * _cellsX) + cx;
+				if ((cells[index] != EDGE) && _p.contains(_minX + (cx << _cellShift), _minY + (cy << _cellShift)))
+				{
+					cells[index] = INSIDE;
+				}
+			}
+		}
+		return cells;
+	}
+	
+	/**
+	 * Same result as {@link Polygon#contains(int, int)}, only points in cells crossed by an edge are tested against the edges.
+	 * @param x
+	 * @param y
+	 * @return {@code true} if the point is inside the polygon
+	 */
+	private boolean contains(int x, int y)
+	{
+		if ((_cells == null) || (x < _minX) || (x >= _maxX) || (y < _minY) || (y >= _maxY))
+		{
+			return false;
+		}
+		
+		final byte cell = _cells[(((y - _minY) >> _cellShift) * _cellsX) + ((x - _minX) >> _cellShift)];
+		if (cell != EDGE)
+		{
+			return cell == INSIDE;
+		}
+		return _p.contains(x, y);
 	}
 	
 	@Override
 	public boolean isInsideZone(int x, int y, int z)
 	{
-		return _p.contains(x, y) && (z >= _z1) && (z <= _z2);
+		return (z >= _z1) && (z <= _z2) && contains(x, y);
 	}
 	
 	@Override
@@ -121,7 +220,7 @@ public class ZoneNPoly extends ZoneForm
 		int y = Rnd.get(minY, maxY);
 		
 		int antiBlocker = 0;
-		while (!_p.contains(x, y) && (antiBlocker++ < 1000))
+		while (!contains(x, y) && (antiBlocker++ < 1000))
 		{
 			x = Rnd.get(minX, maxX);
 			y = Rnd.get(minY, maxY);
@@ -101,16 +101,17 @@ public class PeaceZone extends ZoneType
 			{
 				if ((player != null) && isInsideZone(player))
 				{
-					revalidateInZone(player);
+					// Through the zone region, which keeps track of the zones a creature was validated against.
+					player.revalidateZone(true);
 					
 					if (player.getPet() != null)
 					{
-						revalidateInZone(player.getPet());
+						player.getPet().revalidateZone(true);
 					}
 					
 					for (Summon summon : player.getServitors().values())
 					{
-						revalidateInZone(summon);
+						summon.revalidateZone(true);
 					}
 				}
 			}
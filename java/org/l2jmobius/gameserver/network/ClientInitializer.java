@@ -18,6 +18,8 @@ package org.l2jmobius.gameserver.network;
 
 import java.nio.ByteOrder;
 
+import org.l2jmobius.Config;
+import org.l2jmobius.commons.network.FlushBatchingHandler;
 import org.l2jmobius.commons.network.codecs.CryptCodec;
 import org.l2jmobius.commons.network.codecs.LengthFieldBasedFrameEncoder;
 import org.l2jmobius.commons.network.codecs.PacketDecoder;
@@ -33,7 +35,7 @@ import io.netty.handler.codec.LengthFieldBasedFrameDecoder;
 public class ClientInitializer extends ChannelInitializer<SocketChannel>
 {
 	private static final LengthFieldBasedFrameEncoder LENGTH_ENCODER = new LengthFieldBasedFrameEncoder();
-	private static final PacketEncoder PACKET_ENCODER = new PacketEncoder(0x8000 - 2);
+	static final PacketEncoder PACKET_ENCODER = new PacketEncoder(0x8000 - 2);
 	
 	@Override
 	protected void initChannel(SocketChannel ch)
@@ -44,6 +46,11 @@ public class ClientInitializer extends ChannelInitializer<SocketChannel>
 		ch.pipeline().addLast("crypt-codec", new CryptCodec(client.getCrypt()));
 		// ch.pipeline().addLast(new LoggingHandler(LogLevel.INFO));
 		ch.pipeline().addLast("packet-decoder", new PacketDecoder<>(IncomingPackets.PACKET_ARRAY, client));
+		if (Config.PACKET_FLUSH_BATCHING)
+		{
+			// Below the packet encoder, so the batcher sees the encoded packet bodies.
+			ch.pipeline().addLast("flush-batcher", new FlushBatchingHandler(Config.PACKET_FLUSH_MAX_BYTES, Config.PACKET_FLUSH_DELAY));
+		}
 		ch.pipeline().addLast("packet-encoder", PACKET_ENCODER);
 		ch.pipeline().addLast(client);
 	}
@@ -187,7 +187,7 @@ import org.l2jmobius.gameserver.network.serverpackets.variation.RequestConfirmGe
  */
 public enum ExIncomingPackets implements IIncomingPackets<GameClient>
 {
-	REQUEST_GOTO_LOBBY(0x33, RequestGotoLobby::new, ConnectionState.AUTHENTICATED),
+	REQUEST_GOTO_LOBBY(0x33, RequestGotoLobby::new, true, ConnectionState.AUTHENTICATED),
 	REQUEST_EX_2ND_PASSWORD_CHECK(0xA6, RequestEx2ndPasswordCheck::new, ConnectionState.AUTHENTICATED),
 	REQUEST_EX_2ND_PASSWORD_VERIFY(0xA7, RequestEx2ndPasswordVerify::new, ConnectionState.AUTHENTICATED),
 	REQUEST_EX_2ND_PASSWORD_REQ(0xA8, RequestEx2ndPasswordReq::new, ConnectionState.AUTHENTICATED),
@@ -289,16 +289,16 @@ public enum ExIncomingPackets implements IIncomingPackets<GameClient>
 	REQUEST_SEED_PHASE(0x60, RequestSeedPhase::new, ConnectionState.IN_GAME),
 	REQUEST_EX_MPCC_PARTYMASTER_LIST(0x61, RequestExMpccPartymasterList::new, ConnectionState.IN_GAME),
 	REQUEST_POST_ITEM_LIST(0x62, RequestPostItemList::new, ConnectionState.IN_GAME),
-	REQUEST_SEND_POST(0x63, RequestSendPost::new, ConnectionState.IN_GAME),
+	REQUEST_SEND_POST(0x63, RequestSendPost::new, true, ConnectionState.IN_GAME),
 	REQUEST_RECEIVED_POST_LIST(0x64, RequestReceivedPostList::new, ConnectionState.IN_GAME),
-	REQUEST_DELETE_RECEIVED_POST(0x65, RequestDeleteReceivedPost::new, ConnectionState.IN_GAME),
+	REQUEST_DELETE_RECEIVED_POST(0x65, RequestDeleteReceivedPost::new, true, ConnectionState.IN_GAME),
 	REQUEST_RECEIVED_POST(0x66, RequestReceivedPost::new, ConnectionState.IN_GAME),
-	REQUEST_POST_ATTACHMENT(0x67, RequestPostAttachment::new, ConnectionState.IN_GAME),
-	REQUEST_REJECT_POST_ATTACHMENT(0x68, RequestRejectPostAttachment::new, ConnectionState.IN_GAME),
+	REQUEST_POST_ATTACHMENT(0x67, RequestPostAttachment::new, true, ConnectionState.IN_GAME),
+	REQUEST_REJECT_POST_ATTACHMENT(0x68, RequestRejectPostAttachment::new, true, ConnectionState.IN_GAME),
 	REQUEST_SENT_POST_LIST(0x69, RequestSentPostList::new, ConnectionState.IN_GAME),
-	REQUEST_DELETE_SENT_POST(0x6A, RequestDeleteSentPost::new, ConnectionState.IN_GAME),
+	REQUEST_DELETE_SENT_POST(0x6A, RequestDeleteSentPost::new, true, ConnectionState.IN_GAME),
 	REQUEST_SENT_POST(0x6B, RequestSentPost::new, ConnectionState.IN_GAME),
-	REQUEST_CANCEL_POST_ATTACHMENT(0x6C, RequestCancelPostAttachment::new, ConnectionState.IN_GAME),
+	REQUEST_CANCEL_POST_ATTACHMENT(0x6C, RequestCancelPostAttachment::new, true, ConnectionState.IN_GAME),
 	REQUEST_SHOW_NEW_USER_PETITION(0x6D, null, ConnectionState.IN_GAME),
 	REQUEST_SHOW_STEP_TWO(0x6E, null, ConnectionState.IN_GAME),
 	REQUEST_SHOW_STEP_THREE(0x6F, null, ConnectionState.IN_GAME),
@@ -344,12 +344,12 @@ public enum ExIncomingPackets implements IIncomingPackets<GameClient>
 	REQUEST_INZONE_PARTY_INFO_HISTORY(0x97, null, ConnectionState.IN_GAME),
 	REQUEST_COMMISSION_REGISTRABLE_ITEM_LIST(0x98, RequestCommissionRegistrableItemList::new, ConnectionState.IN_GAME),
 	REQUEST_COMMISSION_INFO(0x99, RequestCommissionInfo::new, ConnectionState.IN_GAME),
-	REQUEST_COMMISSION_REGISTER(0x9A, RequestCommissionRegister::new, ConnectionState.IN_GAME),
-	REQUEST_COMMISSION_CANCEL(0x9B, RequestCommissionCancel::new, ConnectionState.IN_GAME),
-	REQUEST_COMMISSION_DELETE(0x9C, RequestCommissionDelete::new, ConnectionState.IN_GAME),
+	REQUEST_COMMISSION_REGISTER(0x9A, RequestCommissionRegister::new, true, ConnectionState.IN_GAME),
+	REQUEST_COMMISSION_CANCEL(0x9B, RequestCommissionCancel::new, true, ConnectionState.IN_GAME),
+	REQUEST_COMMISSION_DELETE(0x9C, RequestCommissionDelete::new, true, ConnectionState.IN_GAME),
 	REQUEST_COMMISSION_LIST(0x9D, RequestCommissionList::new, ConnectionState.IN_GAME),
 	REQUEST_COMMISSION_BUY_INFO(0x9E, RequestCommissionBuyInfo::new, ConnectionState.IN_GAME),
-	REQUEST_COMMISSION_BUY_ITEM(0x9F, RequestCommissionBuyItem::new, ConnectionState.IN_GAME),
+	REQUEST_COMMISSION_BUY_ITEM(0x9F, RequestCommissionBuyItem::new, true, ConnectionState.IN_GAME),
 	REQUEST_COMMISSION_REGISTERED_ITEM(0xA0, RequestCommissionRegisteredItem::new, ConnectionState.IN_GAME),
 	REQUEST_CALL_TO_CHANGE_CLASS(0xA1, RequestCallToChangeClass::new, ConnectionState.IN_GAME),
 	REQUEST_CHANGE_TO_AWAKENED_CLASS(0xA2, RequestChangeToAwakenedClass::new, ConnectionState.IN_GAME),
@@ -366,7 +366,7 @@ public enum ExIncomingPackets implements IIncomingPackets<GameClient>
 	REQUEST_CHANGE_ATTRIBUTE_ITEM(0xB1, RequestChangeAttributeItem::new, ConnectionState.IN_GAME),
 	REQUEST_CHANGE_ATTRIBUTE_CANCEL(0xB2, RequestChangeAttributeCancel::new, ConnectionState.IN_GAME),
 	REQUEST_BR_PRESENT_BUY_PRODUCT(0xB3, RequestBRPresentBuyProduct::new, ConnectionState.IN_GAME),
-	CONFIRM_MENTEE_ADD(0xB4, ConfirmMenteeAdd::new, ConnectionState.IN_GAME),
+	CONFIRM_MENTEE_ADD(0xB4, ConfirmMenteeAdd::new, true, ConnectionState.IN_GAME),
 	REQUEST_MENTOR_CANCEL(0xB5, RequestMentorCancel::new, ConnectionState.IN_GAME),
 	REQUEST_MENTOR_LIST(0xB6, RequestMentorList::new, ConnectionState.IN_GAME),
 	REQUEST_MENTEE_ADD(0xB7, RequestMenteeAdd::new, ConnectionState.IN_GAME),
@@ -385,7 +385,7 @@ public enum ExIncomingPackets implements IIncomingPackets<GameClient>
 	REQUEST_EX_TRY_TO_PUT_SHAPE_SHIFTING_TARGET_ITEM(0xC4, RequestExTryToPutShapeShiftingTargetItem::new, ConnectionState.IN_GAME),
 	REQUEST_EX_TRY_TO_PUT_SHAPE_SHIFTING_ENCHANT_SUPPORT_ITEM(0xC5, RequestExTryToPutShapeShiftingEnchantSupportItem::new, ConnectionState.IN_GAME),
 	REQUEST_EX_CANCEL_SHAPE_SHIFTING_ITEM(0xC6, RequestExCancelShape_Shifting_Item::new, ConnectionState.IN_GAME),
-	REQUEST_SHAPE_SHIFTING_ITEM(0xC7, RequestShapeShiftingItem::new, ConnectionState.IN_GAME),
+	REQUEST_SHAPE_SHIFTING_ITEM(0xC7, RequestShapeShiftingItem::new, true, ConnectionState.IN_GAME),
 	NC_GUARD_SEND_DATA_TO_SERVER(0xC8, null, ConnectionState.IN_GAME),
 	REQUEST_EVENT_KALIE_TOKEN(0xC9, null, ConnectionState.IN_GAME),
 	REQUEST_SHOW_BEAUTY_LIST(0xCA, RequestShowBeautyList::new, ConnectionState.IN_GAME),
@@ -495,7 +495,7 @@ public enum ExIncomingPackets implements IIncomingPackets<GameClient>
 	EXREQUEST_MATCH_GROUP_WITHDRAW(0x132, null, ConnectionState.IN_GAME),
 	EXREQUEST_MATCH_GROUP_OUST(0x133, null, ConnectionState.IN_GAME),
 	EXREQUEST_MATCH_GROUP_CHANGE_MASTER(0x134, null, ConnectionState.IN_GAME),
-	REQUEST_UPGRADE_SYSTEM_RESULT(0x135, RequestUpgradeSystemResult::new, ConnectionState.IN_GAME),
+	REQUEST_UPGRADE_SYSTEM_RESULT(0x135, RequestUpgradeSystemResult::new, true, ConnectionState.IN_GAME),
 	EX_CARD_UPDOWN_PICK_NUMB(0x136, null, ConnectionState.IN_GAME),
 	EX_CARD_UPDOWN_GAME_REWARD_REQUEST(0x137, null, ConnectionState.IN_GAME),
 	EX_CARD_UPDOWN_GAME_RETRY(0x138, null, ConnectionState.IN_GAME),
@@ -794,8 +794,20 @@ public enum ExIncomingPackets implements IIncomingPackets<GameClient>
 	private int _packetId;
 	private Supplier<IIncomingPacket<GameClient>> _incomingPacketFactory;
 	private Set<IConnectionState> _connectionStates;
+	private boolean _blocking;
 	
 	ExIncomingPackets(int packetId, Supplier<IIncomingPacket<GameClient>> incomingPacketFactory, IConnectionState... connectionStates)
+	{
+		this(packetId, incomingPacketFactory, false, connectionStates);
+	}
+	
+	/**
+	 * @param packetId the packet id
+	 * @param incomingPacketFactory the packet factory
+	 * @param blocking {@code true} if the packet accesses the database and must run off the network thread
+	 * @param connectionStates the allowed connection states
+	 */
+	ExIncomingPackets(int packetId, Supplier<IIncomingPacket<GameClient>> incomingPacketFactory, boolean blocking, IConnectionState... connectionStates)
 	{
 		// packetId is an unsigned short
 		if (packetId > 0xFFFF)
@@ -805,6 +817,7 @@ public enum ExIncomingPackets implements IIncomingPackets<GameClient>
 		_packetId = packetId;
 		_incomingPacketFactory = incomingPacketFactory != null ? incomingPacketFactory : () -> null;
 		_connectionStates = new HashSet<>(Arrays.asList(connectionStates));
+		_blocking = blocking;
 	}
 	
 	@Override
@@ -840,4 +853,10 @@ public enum ExIncomingPackets implements IIncomingPackets<GameClient>
 	{
 		return _connectionStates;
 	}
+	
+	@Override
+	public boolean isBlocking()
+	{
+		return _blocking;
+	}
 }
@@ -22,6 +22,9 @@ import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.SQLException;
 import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.locks.ReentrantLock;
 import java.util.logging.Level;
 import java.util.logging.Logger;
@@ -31,6 +34,8 @@ import org.l2jmobius.commons.database.DatabaseFactory;
 import org.l2jmobius.commons.network.ChannelInboundHandler;
 import org.l2jmobius.commons.network.ICrypt;
 import org.l2jmobius.commons.network.IIncomingPacket;
+import org.l2jmobius.commons.network.IIncomingPackets;
+import org.l2jmobius.commons.network.SharedPacket;
 import org.l2jmobius.gameserver.LoginServerThread;
 import org.l2jmobius.gameserver.LoginServerThread.SessionKey;
 import org.l2jmobius.gameserver.data.sql.CharNameTable;
@@ -74,6 +79,8 @@ public class GameClient extends ChannelInboundHandler<GameClient>
 	private final FloodProtectors _floodProtectors = new FloodProtectors(this);
 	private final ReentrantLock _playerLock = new ReentrantLock();
 	private final Crypt _crypt = new Crypt();
+	private final Queue<Runnable> _taskQueue = new ConcurrentLinkedQueue<>();
+	private final AtomicInteger _queuedTasks = new AtomicInteger();
 	private InetAddress _addr;
 	private Channel _channel;
 	private String _accountName;
@@ -106,6 +113,19 @@ public class GameClient extends ChannelInboundHandler<GameClient>
 		LOGGER_ACCOUNTING.finer("Client Disconnected: " + ctx.channel());
 		LoginServerThread.getInstance().sendLogout(getAccountName());
 		
+		// Let queued packets finish before the disconnection.
+		if (_queuedTasks.get() == 0)
+		{
+			onDisconnection();
+		}
+		else
+		{
+			queueTask(this::onDisconnection);
+		}
+	}
+	
+	private void onDisconnection()
+	{
 		if ((_player == null) || !_player.isInOfflineMode())
 		{
 			Disconnection.of(this).onDisconnection();
@@ -115,6 +135,22 @@ public class GameClient extends ChannelInboundHandler<GameClient>
 	@Override
 	protected void channelRead0(ChannelHandlerContext ctx, IIncomingPacket<GameClient> packet)
 	{
+		final IIncomingPackets<GameClient> packetType = IncomingPackets.getIncomingPackets(packet);
+		
+		// Packets run on the network thread, unless they may block or earlier packets are still queued.
+		if ((_queuedTasks.get() == 0) && ((packetType == null) || !packetType.isBlocking()))
+		{
+			runPacket(packet, packetType);
+		}
+		else
+		{
+			queueTask(() -> runPacket(packet, packetType));
+		}
+	}
+	
+	private void runPacket(IIncomingPacket<GameClient> packet, IIncomingPackets<GameClient> packetType)
+	{
+		final long start = System.nanoTime();
 		try
 		{
 			packet.run(this);
@@ -123,6 +159,37 @@ public class GameClient extends ChannelInboundHandler<GameClient>
 		{
 			LOGGER.log(Level.WARNING, "Exception for: " + toString() + " on packet.run: " + packet.getClass().getSimpleName(), e);
 		}
+		PacketExecutor.getInstance().record(packetType, System.nanoTime() - start);
+	}
+	
+	/**
+	 * Queues a task on the serial execution lane of this client.<br>
+	 * Must be called from the network thread of the client.
+	 * @param task the task to run
+	 */
+	private void queueTask(Runnable task)
+	{
+		_taskQueue.offer(task);
+		if (_queuedTasks.getAndIncrement() == 0)
+		{
+			PacketExecutor.getInstance().execute(this::runQueuedTasks);
+		}
+	}
+	
+	private void runQueuedTasks()
+	{
+		do
+		{
+			try
+			{
+				_taskQueue.poll().run();
+			}
+			catch (Exception e)
+			{
+				LOGGER.log(Level.WARNING, "Exception for: " + toString() + " on queued task.", e);
+			}
+		}
+		while (_queuedTasks.decrementAndGet() > 0);
 	}
 	
 	@Override
@@ -134,6 +201,8 @@ public class GameClient extends ChannelInboundHandler<GameClient>
 	{
 		if (_channel != null)
 		{
+			// Make sure batched packets are sent before closing.
+			_channel.flush();
 			_channel.close();
 		}
 	}
@@ -219,7 +288,29 @@ public class GameClient extends ChannelInboundHandler<GameClient>
 		return _sessionId;
 	}
 	
+	/**
+	 * @param packet the packet about to be broadcast
+	 * @return a shared packet that encodes the packet once for all receivers, or {@code null} if it must be encoded for each client.
+	 */
+	public static SharedPacket share(IClientOutgoingPacket packet)
+	{
+		if (!Config.SHARED_BROADCAST_ENCODING || (packet == null) || !packet.isSharable())
+		{
+			return null;
+		}
+		return new SharedPacket(packet, ClientInitializer.PACKET_ENCODER);
+	}
+	
 	public void sendPacket(IClientOutgoingPacket packet)
+	{
+		sendPacket(packet, null);
+	}
+	
+	/**
+	 * @param packet the packet to send
+	 * @param shared the shared encoding of the packet, or {@code null} to encode it for this client only
+	 */
+	public void sendPacket(IClientOutgoingPacket packet, SharedPacket shared)
 	{
 		if (_isDetached || (packet == null))
 		{
@@ -270,7 +361,18 @@ public class GameClient extends ChannelInboundHandler<GameClient>
 		}
 		
 		// Write into the channel.
-		_channel.writeAndFlush(packet);
+		final Object message = shared != null ? shared.retainedSlice() : packet;
+		if (message != null)
+		{
+			if (Config.PACKET_FLUSH_BATCHING && !packet.isUrgent())
+			{
+				_channel.write(message);
+			}
+			else
+			{
+				_channel.writeAndFlush(message);
+			}
+		}
 		
 		// Run packet implementation.
 		packet.runImpl(_player);
@@ -17,7 +17,9 @@
 package org.l2jmobius.gameserver.network;
 
 import java.util.Arrays;
+import java.util.HashMap;
 import java.util.HashSet;
+import java.util.Map;
 import java.util.Set;
 import java.util.function.Supplier;
 
@@ -38,7 +40,7 @@ import org.l2jmobius.gameserver.network.clientpackets.friend.RequestSendFriendMs
  */
 public enum IncomingPackets implements IIncomingPackets<GameClient>
 {
-	LOGOUT(0x00, Logout::new, ConnectionState.AUTHENTICATED, ConnectionState.IN_GAME),
+	LOGOUT(0x00, Logout::new, true, ConnectionState.AUTHENTICATED, ConnectionState.IN_GAME),
 	ATTACK(0x01, AttackRequest::new, ConnectionState.IN_GAME),
 	REQUEST_START_PLEDGE_WAR(0x03, RequestStartPledgeWar::new, ConnectionState.IN_GAME),
 	REQUEST_REPLY_START_PLEDGE(0x04, RequestReplyStartPledgeWar::new, ConnectionState.IN_GAME),
@@ -48,12 +50,12 @@ public enum IncomingPackets implements IIncomingPackets<GameClient>
 	REQUEST_REPLY_SURRENDER_PLEDGE_WAR(0x08, RequestReplySurrenderPledgeWar::new, ConnectionState.IN_GAME),
 	REQUEST_SET_PLEDGE_CREST(0x09, RequestSetPledgeCrest::new, ConnectionState.IN_GAME),
 	REQUEST_GIVE_NICK_NAME(0x0B, RequestGiveNickName::new, ConnectionState.IN_GAME),
-	CHARACTER_CREATE(0x0C, CharacterCreate::new, ConnectionState.AUTHENTICATED),
-	CHARACTER_DELETE(0x0D, CharacterDelete::new, ConnectionState.AUTHENTICATED),
+	CHARACTER_CREATE(0x0C, CharacterCreate::new, true, ConnectionState.AUTHENTICATED),
+	CHARACTER_DELETE(0x0D, CharacterDelete::new, true, ConnectionState.AUTHENTICATED),
 	PROTOCOL_VERSION(0x0E, ProtocolVersion::new, ConnectionState.CONNECTED),
 	MOVE_BACKWARD_TO_LOCATION(0x0F, MoveBackwardToLocation::new, ConnectionState.IN_GAME),
-	ENTER_WORLD(0x11, EnterWorld::new, ConnectionState.ENTERING),
-	CHARACTER_SELECT(0x12, CharacterSelect::new, ConnectionState.AUTHENTICATED),
+	ENTER_WORLD(0x11, EnterWorld::new, true, ConnectionState.ENTERING),
+	CHARACTER_SELECT(0x12, CharacterSelect::new, true, ConnectionState.AUTHENTICATED),
 	NEW_CHARACTER(0x13, NewCharacter::new, ConnectionState.AUTHENTICATED),
 	REQUEST_ITEM_LIST(0x14, RequestItemList::new, ConnectionState.IN_GAME),
 	REQUEST_UN_EQUIP_ITEM(0x16, RequestUnEquipItem::new, ConnectionState.IN_GAME),
@@ -85,8 +87,8 @@ public enum IncomingPackets implements IIncomingPackets<GameClient>
 	REQUEST_MAGIC_SKILL_LIST(0x38, RequestMagicSkillList::new, ConnectionState.IN_GAME),
 	REQUEST_MAGIC_SKILL_USE(0x39, RequestMagicSkillUse::new, ConnectionState.IN_GAME),
 	APPEARING(0x3A, Appearing::new, ConnectionState.IN_GAME),
-	SEND_WARE_HOUSE_DEPOSIT_LIST(0x3B, SendWareHouseDepositList::new, ConnectionState.IN_GAME),
-	SEND_WARE_HOUSE_WITH_DRAW_LIST(0x3C, SendWareHouseWithDrawList::new, ConnectionState.IN_GAME),
+	SEND_WARE_HOUSE_DEPOSIT_LIST(0x3B, SendWareHouseDepositList::new, true, ConnectionState.IN_GAME),
+	SEND_WARE_HOUSE_WITH_DRAW_LIST(0x3C, SendWareHouseWithDrawList::new, true, ConnectionState.IN_GAME),
 	REQUEST_SHORT_CUT_REG(0x3D, RequestShortCutReg::new, ConnectionState.IN_GAME),
 	REQUEST_SHORT_CUT_DEL(0x3F, RequestShortCutDel::new, ConnectionState.IN_GAME),
 	REQUEST_BUY_ITEM(0x40, RequestBuyItem::new, ConnectionState.IN_GAME),
@@ -105,13 +107,13 @@ public enum IncomingPackets implements IIncomingPackets<GameClient>
 	REQUEST_GET_OFF_VEHICLE(0x54, RequestGetOffVehicle::new, ConnectionState.IN_GAME),
 	ANSWER_TRADE_REQUEST(0x55, AnswerTradeRequest::new, ConnectionState.IN_GAME),
 	REQUEST_ACTION_USE(0x56, RequestActionUse::new, ConnectionState.IN_GAME),
-	REQUEST_RESTART(0x57, RequestRestart::new, ConnectionState.IN_GAME),
+	REQUEST_RESTART(0x57, RequestRestart::new, true, ConnectionState.IN_GAME),
 	VALIDATE_POSITION(0x59, ValidatePosition::new, ConnectionState.IN_GAME),
 	START_ROTATING(0x5B, StartRotating::new, ConnectionState.IN_GAME),
 	FINISH_ROTATING(0x5C, FinishRotating::new, ConnectionState.IN_GAME),
 	REQUEST_SHOW_BOARD(0x5E, RequestShowBoard::new, ConnectionState.IN_GAME),
 	REQUEST_ENCHANT_ITEM(0x5F, RequestEnchantItem::new, ConnectionState.IN_GAME),
-	REQUEST_DESTROY_ITEM(0x60, RequestDestroyItem::new, ConnectionState.IN_GAME),
+	REQUEST_DESTROY_ITEM(0x60, RequestDestroyItem::new, true, ConnectionState.IN_GAME),
 	REQUEST_QUEST_LIST(0x62, RequestQuestList::new, ConnectionState.IN_GAME),
 	REQUEST_QUEST_ABORT(0x63, RequestQuestAbort::new, ConnectionState.IN_GAME),
 	REQUEST_PLEDGE_INFO(0x65, RequestPledgeInfo::new, ConnectionState.IN_GAME),
@@ -129,10 +131,10 @@ public enum IncomingPackets implements IIncomingPackets<GameClient>
 	REQUEST_MOVE_TO_LOCATION_IN_VEHICLE(0x75, RequestMoveToLocationInVehicle::new, ConnectionState.IN_GAME),
 	CANNOT_MOVE_ANYMORE_IN_VEHICLE(0x76, CannotMoveAnymoreInVehicle::new, ConnectionState.IN_GAME),
 	REQUEST_FRIEND_INVITE(0x77, RequestFriendInvite::new, ConnectionState.IN_GAME),
-	REQUEST_ANSWER_FRIEND_INVITE(0x78, RequestAnswerFriendInvite::new, ConnectionState.IN_GAME),
+	REQUEST_ANSWER_FRIEND_INVITE(0x78, RequestAnswerFriendInvite::new, true, ConnectionState.IN_GAME),
 	REQUEST_FRIEND_LIST(0x79, RequestFriendList::new, ConnectionState.IN_GAME),
-	REQUEST_FRIEND_DEL(0x7A, RequestFriendDel::new, ConnectionState.IN_GAME),
-	CHARACTER_RESTORE(0x7B, CharacterRestore::new, ConnectionState.AUTHENTICATED),
+	REQUEST_FRIEND_DEL(0x7A, RequestFriendDel::new, true, ConnectionState.IN_GAME),
+	CHARACTER_RESTORE(0x7B, CharacterRestore::new, true, ConnectionState.AUTHENTICATED),
 	REQUEST_ACQUIRE_SKILL(0x7C, RequestAcquireSkill::new, ConnectionState.IN_GAME),
 	REQUEST_RESTART_POINT(0x7D, RequestRestartPoint::new, ConnectionState.IN_GAME),
 	REQUEST_GM_COMMAND(0x7E, RequestGMCommand::new, ConnectionState.IN_GAME),
@@ -168,7 +170,7 @@ public enum IncomingPackets implements IIncomingPackets<GameClient>
 	SEND_TIME_CHECK_PACKET(0xA0, null, ConnectionState.IN_GAME),
 	REQUEST_SKILL_COOL_TIME(0xA6, null, ConnectionState.IN_GAME),
 	REQUEST_PACKAGE_SENDABLE_ITEM_LIST(0xA7, RequestPackageSendableItemList::new, ConnectionState.IN_GAME),
-	REQUEST_PACKAGE_SEND(0xA8, RequestPackageSend::new, ConnectionState.IN_GAME),
+	REQUEST_PACKAGE_SEND(0xA8, RequestPackageSend::new, true, ConnectionState.IN_GAME),
 	REQUEST_BLOCK(0xA9, RequestBlock::new, ConnectionState.IN_GAME),
 	REQUEST_SIEGE_INFO(0xAA, RequestSiegeInfo::new, ConnectionState.IN_GAME),
 	REQUEST_SIEGE_ATTACKER_LIST(0xAB, RequestSiegeAttackerList::new, ConnectionState.IN_GAME),
@@ -201,7 +203,7 @@ public enum IncomingPackets implements IIncomingPackets<GameClient>
 	DLG_ANSWER(0xC6, DlgAnswer::new, ConnectionState.IN_GAME),
 	REQUEST_PREVIEW_ITEM(0xC7, RequestPreviewItem::new, ConnectionState.IN_GAME),
 	REQUEST_SSQ_STATUS(0xC8, null, ConnectionState.IN_GAME),
-	REQUEST_PETITION_FEEDBACK(0xC9, RequestPetitionFeedback::new, ConnectionState.IN_GAME),
+	REQUEST_PETITION_FEEDBACK(0xC9, RequestPetitionFeedback::new, true, ConnectionState.IN_GAME),
 	GAME_GUARD_REPLY(0xCB, GameGuardReply::new, ConnectionState.IN_GAME),
 	REQUEST_PLEDGE_POWER(0xCC, RequestPledgePower::new, ConnectionState.IN_GAME),
 	REQUEST_MAKE_MACRO(0xCD, RequestMakeMacro::new, ConnectionState.IN_GAME),
@@ -210,6 +212,7 @@ public enum IncomingPackets implements IIncomingPackets<GameClient>
 	EX_PACKET(0xD0, ExPacket::new, ConnectionState.values()); // This packet has its own connection state checking so we allow all of them
 	
 	public static final IncomingPackets[] PACKET_ARRAY;
+	private static final Map<Class<?>, IncomingPackets> PACKET_TYPES = new HashMap<>();
 	static
 	{
 		final short maxPacketId = (short) Arrays.stream(values()).mapToInt(IIncomingPackets::getPacketId).max().orElse(0);
@@ -217,14 +220,32 @@ public enum IncomingPackets implements IIncomingPackets<GameClient>
 		for (IncomingPackets incomingPacket : values())
 		{
 			PACKET_ARRAY[incomingPacket.getPacketId()] = incomingPacket;
+			
+			final IIncomingPacket<GameClient> packet = incomingPacket._incomingPacketFactory.get();
+			if (packet != null)
+			{
+				PACKET_TYPES.putIfAbsent(packet.getClass(), incomingPacket);
+			}
 		}
 	}
 	
 	private short _packetId;
 	private Supplier<IIncomingPacket<GameClient>> _incomingPacketFactory;
 	private Set<IConnectionState> _connectionStates;
+	private boolean _blocking;
 	
 	IncomingPackets(int packetId, Supplier<IIncomingPacket<GameClient>> incomingPacketFactory, IConnectionState... connectionStates)
+	{
+		this(packetId, incomingPacketFactory, false, connectionStates);
+	}
+	
+	/**
+	 * @param packetId the packet id
+	 * @param incomingPacketFactory the packet factory
+	 * @param blocking {@code true} if the packet accesses the database and must run off the network thread
+	 * @param connectionStates the allowed connection states
+	 */
+	IncomingPackets(int packetId, Supplier<IIncomingPacket<GameClient>> incomingPacketFactory, boolean blocking, IConnectionState... connectionStates)
 	{
 		// packetId is an unsigned byte
 		if (packetId > 0xFF)
@@ -235,6 +256,7 @@ public enum IncomingPackets implements IIncomingPackets<GameClient>
 		_packetId = (short) packetId;
 		_incomingPacketFactory = incomingPacketFactory != null ? incomingPacketFactory : () -> null;
 		_connectionStates = new HashSet<>(Arrays.asList(connectionStates));
+		_blocking = blocking;
 	}
 	
 	@Override
@@ -270,4 +292,23 @@ public enum IncomingPackets implements IIncomingPackets<GameClient>
 	{
 		return _connectionStates;
 	}
+	
+	/**
+	 * @param packet the received packet
+	 * @return the packet type of the given packet, {@code null} if unknown
+	 */
+	public static IIncomingPackets<GameClient> getIncomingPackets(IIncomingPacket<GameClient> packet)
+	{
+		if (packet instanceof ExPacket)
+		{
+			return ((ExPacket) packet).getExIncomingPacket();
+		}
+		return PACKET_TYPES.get(packet.getClass());
+	}
+	
+	@Override
+	public boolean isBlocking()
+	{
+		return _blocking;
+	}
 }
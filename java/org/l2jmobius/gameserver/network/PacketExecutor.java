@@ -0,0 +1,103 @@
+/*
+ * This file is part of the L2J Mobius project.
+ * 
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.l2jmobius.gameserver.network;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import org.l2jmobius.Config;
+import org.l2jmobius.commons.network.IIncomingPackets;
+import org.l2jmobius.commons.threads.NamedThreadFactory;
+import org.l2jmobius.commons.threads.RejectedExecutionHandlerImpl;
+import org.l2jmobius.commons.util.LatencyHistogram;
+
+/**
+ * Runs the client packets that may block off the network threads and keeps a latency histogram per packet type.
+ */
+public class PacketExecutor
+{
+	private static final int MAX_STATS_LINES = 30;
+	
+	private final ThreadPoolExecutor _executor = new ThreadPoolExecutor(Config.CLIENT_PACKET_THREAD_POOL_SIZE, Config.CLIENT_PACKET_THREAD_POOL_SIZE, 0, TimeUnit.SECONDS, new LinkedBlockingQueue<>(), new NamedThreadFactory("PacketExecutor"));
+	private final Map<IIncomingPackets<?>, LatencyHistogram> _latencies = new ConcurrentHashMap<>();
+	
+	protected PacketExecutor()
+	{
+		_executor.setRejectedExecutionHandler(new RejectedExecutionHandlerImpl());
+		_executor.prestartAllCoreThreads();
+	}
+	
+	public void execute(Runnable runnable)
+	{
+		_executor.execute(runnable);
+	}
+	
+	/**
+	 * @param packetType the type of the packet that was run, can be {@code null}
+	 * @param nanos the time spent running the packet
+	 */
+	public void record(IIncomingPackets<?> packetType, long nanos)
+	{
+		if (packetType != null)
+		{
+			_latencies.computeIfAbsent(packetType, k -> new LatencyHistogram()).record(nanos);
+		}
+	}
+	
+	public String[] getStats()
+	{
+		final List<Entry<IIncomingPackets<?>, LatencyHistogram>> latencies = new ArrayList<>(_latencies.entrySet());
+		latencies.sort(Comparator.comparingLong(e -> -e.getValue().getTotalNanos()));
+		
+		final List<String> stats = new ArrayList<>();
+		stats.add("Client packet pool:");
+		stats.add(" |- ActiveCount: ...... " + _executor.getActiveCount());
+		stats.add(" |- PoolSize: ......... " + _executor.getPoolSize());
+		stats.add(" |- CompletedTaskCount: " + _executor.getCompletedTaskCount());
+		stats.add(" |- QueuedTaskCount: .. " + _executor.getQueue().size());
+		stats.add("Client packet latency (by total time):");
+		for (int i = 0; i < Math.min(MAX_STATS_LINES, latencies.size()); i++)
+		{
+			final Entry<IIncomingPackets<?>, LatencyHistogram> entry = latencies.get(i);
+			final IIncomingPackets<?> packetType = entry.getKey();
+			stats.add(" |- " + (packetType instanceof ExIncomingPackets ? "[C EX] " : "[C] ") + packetType + (packetType.isBlocking() ? " (offloaded)" : "") + ": " + entry.getValue());
+		}
+		return stats.toArray(new String[stats.size()]);
+	}
+	
+	public void shutdown()
+	{
+		_executor.shutdown();
+	}
+	
+	public static PacketExecutor getInstance()
+	{
+		return SingletonHolder.INSTANCE;
+	}
+	
+	private static class SingletonHolder
+	{
+		protected static final PacketExecutor INSTANCE = new PacketExecutor();
+	}
+}
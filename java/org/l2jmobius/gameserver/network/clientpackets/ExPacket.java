@@ -51,6 +51,11 @@ public class ExPacket implements IClientIncomingPacket
 		return (_exPacket != null) && _exPacket.read(client, packet);
 	}
 	
+	public ExIncomingPackets getExIncomingPacket()
+	{
+		return _exIncomingPacket;
+	}
+	
 	@Override
 	public void run(GameClient client) throws Exception
 	{
@@ -16,7 +16,10 @@
  */
 package org.l2jmobius.gameserver.network.serverpackets;
 
+import java.util.regex.Matcher;
+
 import org.l2jmobius.gameserver.cache.HtmCache;
+import org.l2jmobius.gameserver.cache.HtmlTemplate;
 import org.l2jmobius.gameserver.enums.HtmlActionScope;
 import org.l2jmobius.gameserver.model.actor.Player;
 import org.l2jmobius.gameserver.network.PacketLogger;
@@ -31,6 +34,8 @@ public abstract class AbstractHtmlPacket implements IClientOutgoingPacket
 	
 	private final int _npcObjId;
 	private String _html = null;
+	private HtmlTemplate _template = null;
+	private String[] _values = null;
 	private boolean _disabledValidation = false;
 	
 	protected AbstractHtmlPacket()
@@ -70,6 +75,8 @@ public abstract class AbstractHtmlPacket implements IClientOutgoingPacket
 	
 	public void setHtml(String html)
 	{
+		_template = null;
+		_values = null;
 		if (html.length() > 17200)
 		{
 			PacketLogger.warning(getClass().getSimpleName() + ": Html is too long! this will crash the client!");
@@ -85,20 +92,80 @@ public abstract class AbstractHtmlPacket implements IClientOutgoingPacket
 	
 	public boolean setFile(Player player, String path)
 	{
-		final String content = HtmCache.getInstance().getHtm(player, path);
-		if (content == null)
+		final HtmlTemplate template = HtmCache.getInstance().getTemplate(player, path);
+		if (template == null)
 		{
 			setHtml("<html><body>My Text is missing:<br>" + path + "</body></html>");
 			PacketLogger.warning(getClass().getSimpleName() + ": Missing html page " + path);
 			return false;
 		}
-		setHtml(content);
+		setHtml(template.getContent());
+		
+		// Fill the placeholders in place, unless the page had to be wrapped.
+		if ((template.getSlotCount() > 0) && (_html == template.getContent()))
+		{
+			_template = template;
+			_values = new String[template.getSlotCount()];
+		}
 		return true;
 	}
 	
+	/**
+	 * Replaces all occurrences of a pattern, the value is inserted as is.<br>
+	 * A placeholder of a cached page is only stored in its slot and the page is rendered once when it is needed, other patterns are replaced as plain text or, when they contain regular expression characters, as a regular expression.
+	 * @param pattern the pattern
+	 * @param value the value
+	 */
 	public void replace(String pattern, String value)
 	{
-		_html = _html.replaceAll(pattern, value.replaceAll("\\$", "\\\\\\$"));
+		if (_template != null)
+		{
+			final int slot = _template.getSlot(pattern);
+			if ((slot >= 0) && (value.indexOf('%') < 0))
+			{
+				// Once a slot is filled the placeholder is gone, so a later replace has nothing to match.
+				if (_values[slot] == null)
+				{
+					_values[slot] = value;
+				}
+				return;
+			}
+			
+			if ((slot < 0) && HtmlTemplate.isPlaceholder(pattern) && !_template.getContent().contains(pattern))
+			{
+				return;
+			}
+			
+			render();
+		}
+		
+		if (isRegex(pattern))
+		{
+			_html = _html.replaceAll(pattern, Matcher.quoteReplacement(value));
+		}
+		else
+		{
+			_html = _html.replace(pattern, value);
+		}
+	}
+	
+	private static boolean isRegex(String pattern)
+	{
+		for (int i = 0; i < pattern.length(); i++)
+		{
+			if ("\\^$.|?*+()[]{}".indexOf(pattern.charAt(i)) >= 0)
+			{
+				return true;
+			}
+		}
+		return false;
+	}
+	
+	private void render()
+	{
+		_html = _template.render(_values);
+		_template = null;
+		_values = null;
 	}
 	
 	public void replace(String pattern, CharSequence value)
@@ -139,7 +206,7 @@ public abstract class AbstractHtmlPacket implements IClientOutgoingPacket
 		}
 		if (player != null)
 		{
-			Util.buildHtmlActionCache(player, getScope(), _npcObjId, _html);
+			Util.buildHtmlActionCache(player, getScope(), _npcObjId, getHtml());
 		}
 	}
 	
@@ -150,6 +217,10 @@ public abstract class AbstractHtmlPacket implements IClientOutgoingPacket
 	
 	public String getHtml()
 	{
+		if (_template != null)
+		{
+			render();
+		}
 		return _html;
 	}
 	
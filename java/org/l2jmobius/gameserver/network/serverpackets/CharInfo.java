@@ -117,6 +117,13 @@ public class CharInfo implements IClientOutgoingPacket
 		_heading = decoy.getHeading();
 	}
 	
+	@Override
+	public boolean isSharable()
+	{
+		// Followed by receiver dependent relation updates.
+		return false;
+	}
+	
 	@Override
 	public boolean write(PacketWriter packet)
 	{
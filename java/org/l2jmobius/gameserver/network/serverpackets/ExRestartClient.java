@@ -30,6 +30,12 @@ public class ExRestartClient implements IClientOutgoingPacket
 	{
 	}
 	
+	@Override
+	public boolean isUrgent()
+	{
+		return true;
+	}
+	
 	@Override
 	public boolean write(PacketWriter packet)
 	{
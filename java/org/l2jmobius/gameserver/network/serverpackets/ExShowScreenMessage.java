@@ -20,6 +20,7 @@ import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
 
+import org.l2jmobius.Config;
 import org.l2jmobius.commons.network.PacketWriter;
 import org.l2jmobius.gameserver.network.NpcStringId;
 import org.l2jmobius.gameserver.network.NpcStringId.NSLocalisation;
@@ -262,6 +263,13 @@ public class ExShowScreenMessage implements IClientOutgoingPacket
 		}
 	}
 	
+	@Override
+	public boolean isSharable()
+	{
+		// Localised per receiver.
+		return !Config.MULTILANG_ENABLE;
+	}
+	
 	@Override
 	public boolean write(PacketWriter packet)
 	{
@@ -127,6 +127,22 @@ public interface IClientOutgoingPacket extends IOutgoingPacket
 	{
 	}
 	
+	/**
+	 * @return {@code true} if the written packet is the same for every receiver and can be encoded once per broadcast, {@code false} if it must be encoded for each client.
+	 */
+	default boolean isSharable()
+	{
+		return true;
+	}
+	
+	/**
+	 * @return {@code true} if the packet must be flushed to the client immediately instead of being batched with other packets.
+	 */
+	default boolean isUrgent()
+	{
+		return false;
+	}
+	
 	default void writeOptionalD(PacketWriter packet, int value)
 	{
 		if (value >= Short.MAX_VALUE)
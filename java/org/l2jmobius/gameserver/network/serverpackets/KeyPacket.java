@@ -31,6 +31,12 @@ public class KeyPacket implements IClientOutgoingPacket
 		_result = result;
 	}
 	
+	@Override
+	public boolean isUrgent()
+	{
+		return true;
+	}
+	
 	@Override
 	public boolean write(PacketWriter packet)
 	{
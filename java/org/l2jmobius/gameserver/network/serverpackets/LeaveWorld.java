@@ -27,6 +27,12 @@ public class LeaveWorld implements IClientOutgoingPacket
 	{
 	}
 	
+	@Override
+	public boolean isUrgent()
+	{
+		return true;
+	}
+	
 	@Override
 	public boolean write(PacketWriter packet)
 	{
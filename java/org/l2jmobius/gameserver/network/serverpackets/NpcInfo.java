@@ -263,6 +263,13 @@ public class NpcInfo extends AbstractMaskPacket<NpcInfoType>
 		}
 	}
 	
+	@Override
+	public boolean isSharable()
+	{
+		// Localised per receiver.
+		return !Config.MULTILANG_ENABLE;
+	}
+	
 	@Override
 	public boolean write(PacketWriter packet)
 	{
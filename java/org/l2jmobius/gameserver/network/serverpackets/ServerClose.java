@@ -30,6 +30,12 @@ public class ServerClose implements IClientOutgoingPacket
 	{
 	}
 	
+	@Override
+	public boolean isUrgent()
+	{
+		return true;
+	}
+	
 	@Override
 	public boolean write(PacketWriter packet)
 	{
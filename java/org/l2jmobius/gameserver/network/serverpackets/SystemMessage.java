@@ -18,6 +18,7 @@ package org.l2jmobius.gameserver.network.serverpackets;
 
 import java.util.Arrays;
 
+import org.l2jmobius.Config;
 import org.l2jmobius.commons.network.PacketWriter;
 import org.l2jmobius.gameserver.data.ItemTable;
 import org.l2jmobius.gameserver.model.actor.Npc;
@@ -383,6 +384,13 @@ public class SystemMessage implements IClientOutgoingPacket
 		_lang = lang;
 	}
 	
+	@Override
+	public boolean isSharable()
+	{
+		// Localised per receiver.
+		return !Config.MULTILANG_ENABLE;
+	}
+	
 	@Override
 	public boolean write(PacketWriter packet)
 	{
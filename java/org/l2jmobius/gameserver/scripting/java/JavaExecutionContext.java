@@ -16,24 +16,35 @@
  */
 package org.l2jmobius.gameserver.scripting.java;
 
+import java.io.File;
+import java.io.IOException;
 import java.io.PrintWriter;
 import java.io.StringWriter;
+import java.io.UncheckedIOException;
 import java.lang.reflect.Method;
 import java.lang.reflect.Modifier;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.Path;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import java.util.logging.Logger;
 
 import javax.tools.Diagnostic;
 import javax.tools.DiagnosticCollector;
 import javax.tools.JavaFileObject;
 
+import org.l2jmobius.commons.threads.NamedThreadFactory;
 import org.l2jmobius.gameserver.scripting.annotations.Disabled;
 
 /**
@@ -43,8 +54,11 @@ public class JavaExecutionContext extends JavaScriptingEngine
 {
 	private static final Logger LOGGER = Logger.getLogger(JavaExecutionContext.class.getName());
 	
+	private static final int MIN_BATCH_SIZE = 150;
+	
 	private static final List<String> _options = new ArrayList<>();
 	private static Path _currentExecutingScript;
+	private ScriptingClassCache _cache;
 	
 	JavaExecutionContext()
 	{
@@ -73,6 +87,12 @@ public class JavaExecutionContext extends JavaScriptingEngine
 				throw new RuntimeException("Could not determine target version!");
 			}
 		}
+		
+		final String cache = getProperty("cache");
+		if ((cache != null) && !cache.isEmpty())
+		{
+			_cache = new ScriptingClassCache(new File(cache), _options);
+		}
 	}
 	
 	private boolean addOptionIfNotNull(List<String> list, String nullChecked, String before)
@@ -128,11 +148,174 @@ public class JavaExecutionContext extends JavaScriptingEngine
 	}
 	
 	public Map<Path, Throwable> executeScripts(Iterable<Path> sourcePaths) throws Exception
+	{
+		final List<Path> sources = new ArrayList<>();
+		sourcePaths.forEach(sources::add);
+		final Map<String, ScriptingOutputFileObject> compiledClasses = compile(sources);
+		
+		// The first top level class of every source file is the one to execute.
+		final Map<Path, ScriptingOutputFileObject> mainClasses = new HashMap<>();
+		for (ScriptingOutputFileObject compiledClass : compiledClasses.values())
+		{
+			if ((compiledClass.getSourcePath() != null) && (compiledClass.getJavaName().indexOf('$') == -1))
+			{
+				mainClasses.putIfAbsent(compiledClass.getSourcePath().toAbsolutePath().normalize(), compiledClass);
+			}
+		}
+		
+		final ClassLoader parentClassLoader = determineScriptParentClassloader();
+		final Map<Path, Throwable> executionFailures = new HashMap<>();
+		for (Path sourcePath : sources)
+		{
+			// Scripts always see their absolute path, whatever path they were requested with.
+			final Path scriptPath = sourcePath.toAbsolutePath().normalize();
+			final ScriptingOutputFileObject compiledClass = mainClasses.get(scriptPath);
+			if (compiledClass == null)
+			{
+				LOGGER.severe("Compilation successfull, but class coresponding to " + sourcePath.toString() + " not found!");
+				continue;
+			}
+			
+			_currentExecutingScript = scriptPath;
+			try
+			{
+				final ScriptingClassLoader loader = new ScriptingClassLoader(parentClassLoader, compiledClasses);
+				final Class<?> javaClass = loader.loadClass(compiledClass.getJavaName());
+				Method mainMethod = null;
+				for (Method m : javaClass.getMethods())
+				{
+					if (m.getName().equals("main") && Modifier.isStatic(m.getModifiers()) && (m.getParameterCount() == 1) && (m.getParameterTypes()[0] == String[].class))
+					{
+						mainMethod = m;
+						break;
+					}
+				}
+				if ((mainMethod != null) && !javaClass.isAnnotationPresent(Disabled.class))
+				{
+					mainMethod.invoke(null, (Object) new String[]
+					{
+						scriptPath.toString()
+					});
+				}
+			}
+			catch (Exception e)
+			{
+				executionFailures.put(scriptPath, e);
+			}
+			finally
+			{
+				_currentExecutingScript = null;
+			}
+		}
+		
+		return executionFailures;
+	}
+	
+	/**
+	 * Compiles the given sources, taking unchanged classes from the class cache when it is enabled.
+	 * @param sourcePaths the sources to compile
+	 * @return the compiled classes of the sources and of everything they depend on, by binary name
+	 */
+	private Map<String, ScriptingOutputFileObject> compile(List<Path> sourcePaths)
+	{
+		final Map<String, ScriptingOutputFileObject> compiledClasses = new LinkedHashMap<>();
+		if (_cache == null)
+		{
+			for (ScriptingOutputFileObject compiledClass : compileBatches(sourcePaths, Collections.emptyList()))
+			{
+				compiledClasses.putIfAbsent(compiledClass.getJavaName(), compiledClass);
+			}
+			return compiledClasses;
+		}
+		
+		synchronized (_cache)
+		{
+			final Set<Path> staleSources = _cache.getStaleSources(sourcePaths);
+			if (!staleSources.isEmpty())
+			{
+				final long start = System.currentTimeMillis();
+				_cache.update(compileBatches(new ArrayList<>(staleSources), _cache.getClasses()));
+				_cache.save();
+				LOGGER.info("Compiled " + staleSources.size() + " changed scripts in " + (System.currentTimeMillis() - start) + " ms.");
+			}
+			
+			for (ScriptingOutputFileObject compiledClass : _cache.getClasses(sourcePaths))
+			{
+				compiledClasses.putIfAbsent(compiledClass.getJavaName(), compiledClass);
+			}
+		}
+		return compiledClasses;
+	}
+	
+	/**
+	 * Large source sets are split into batches compiled in parallel.<br>
+	 * Every batch resolves the sources of other batches through the source path, so a class may be compiled by more than one batch.
+	 * @param sourcePaths the sources to compile
+	 * @param cachedClasses previously compiled classes the sources may depend on
+	 * @return the output of all batches
+	 */
+	private List<ScriptingOutputFileObject> compileBatches(List<Path> sourcePaths, List<ScriptingOutputFileObject> cachedClasses)
+	{
+		// Sorted batches keep the scripts of a directory together, they mostly share their dependencies.
+		final List<Path> sources = new ArrayList<>(sourcePaths);
+		Collections.sort(sources);
+		
+		final int batchCount = Math.max(1, Math.min(Runtime.getRuntime().availableProcessors(), sources.size() / MIN_BATCH_SIZE));
+		if (batchCount == 1)
+		{
+			return compileBatch(sources, cachedClasses);
+		}
+		
+		final ExecutorService executor = Executors.newFixedThreadPool(batchCount, new NamedThreadFactory("ScriptCompiler"));
+		try
+		{
+			final List<Future<List<ScriptingOutputFileObject>>> batches = new ArrayList<>(batchCount);
+			for (int i = 0; i < batchCount; i++)
+			{
+				final List<Path> batch = sources.subList((sources.size() * i) / batchCount, (sources.size() * (i + 1)) / batchCount);
+				batches.add(executor.submit(() -> compileBatch(batch, cachedClasses)));
+			}
+			
+			final List<ScriptingOutputFileObject> compiledClasses = new ArrayList<>();
+			RuntimeException failure = null;
+			for (Future<List<ScriptingOutputFileObject>> batch : batches)
+			{
+				try
+				{
+					compiledClasses.addAll(batch.get());
+				}
+				catch (ExecutionException e)
+				{
+					if (failure == null)
+					{
+						failure = e.getCause() instanceof RuntimeException ? (RuntimeException) e.getCause() : new RuntimeException(e.getCause());
+					}
+				}
+				catch (InterruptedException e)
+				{
+					Thread.currentThread().interrupt();
+					throw new RuntimeException(e);
+				}
+			}
+			
+			if (failure != null)
+			{
+				throw failure;
+			}
+			return compiledClasses;
+		}
+		finally
+		{
+			executor.shutdown();
+		}
+	}
+	
+	private List<ScriptingOutputFileObject> compileBatch(List<Path> sourcePaths, List<ScriptingOutputFileObject> cachedClasses)
 	{
 		final DiagnosticCollector<JavaFileObject> fileManagerDiagnostics = new DiagnosticCollector<>();
 		final DiagnosticCollector<JavaFileObject> compilationDiagnostics = new DiagnosticCollector<>();
 		
-		try (ScriptingFileManager fileManager = new ScriptingFileManager(getCompiler().getStandardFileManager(fileManagerDiagnostics, null, StandardCharsets.UTF_8)))
+		try (ScriptingFileManager fileManager = new ScriptingFileManager(getCompiler().getStandardFileManager(fileManagerDiagnostics, null, StandardCharsets.UTF_8), cachedClasses))
 		{
 			// We really need an iterable of files or strings.
 			final List<String> sourcePathStrings = new ArrayList<>();
@@ -171,66 +354,13 @@ public class JavaExecutionContext extends JavaScriptingEngine
 				throw new RuntimeException(strOut.toString());
 			}
 			
-			final ClassLoader parentClassLoader = determineScriptParentClassloader();
-			final Map<Path, Throwable> executionFailures = new HashMap<>();
-			final Iterable<ScriptingOutputFileObject> compiledClasses = fileManager.getCompiledClasses();
-			for (Path sourcePath : sourcePaths)
-			{
-				boolean found = false;
-				for (ScriptingOutputFileObject compiledClass : compiledClasses)
-				{
-					final Path compiledSourcePath = compiledClass.getSourcePath();
-					// sourePath can be relative, so we have to use endsWith
-					if ((compiledSourcePath != null) && (compiledSourcePath.equals(sourcePath) || compiledSourcePath.endsWith(sourcePath)))
-					{
-						final String javaName = compiledClass.getJavaName();
-						if (javaName.indexOf('$') != -1)
-						{
-							continue;
-						}
-						
-						found = true;
-						_currentExecutingScript = compiledSourcePath;
-						try
-						{
-							final ScriptingClassLoader loader = new ScriptingClassLoader(parentClassLoader, compiledClasses);
-							final Class<?> javaClass = loader.loadClass(javaName);
-							Method mainMethod = null;
-							for (Method m : javaClass.getMethods())
-							{
-								if (m.getName().equals("main") && Modifier.isStatic(m.getModifiers()) && (m.getParameterCount() == 1) && (m.getParameterTypes()[0] == String[].class))
-								{
-									mainMethod = m;
-									break;
-								}
-							}
-							if ((mainMethod != null) && !javaClass.isAnnotationPresent(Disabled.class))
-							{
-								mainMethod.invoke(null, (Object) new String[]
-								{
-									compiledSourcePath.toString()
-								});
-							}
-						}
-						catch (Exception e)
-						{
-							executionFailures.put(compiledSourcePath, e);
-						}
-						finally
-						{
-							_currentExecutingScript = null;
-						}
-						break;
-					}
-				}
-				
-				if (!found)
-				{
-					LOGGER.severe("Compilation successfull, but class coresponding to " + sourcePath.toString() + " not found!");
-				}
-			}
-			
-			return executionFailures;
+			final List<ScriptingOutputFileObject> compiledClasses = new ArrayList<>();
+			fileManager.getCompiledClasses().forEach(compiledClasses::add);
+			return compiledClasses;
+		}
+		catch (IOException e)
+		{
+			throw new UncheckedIOException(e);
 		}
 	}
 	
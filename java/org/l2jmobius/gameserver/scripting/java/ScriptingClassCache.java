@@ -0,0 +1,658 @@
+/*
+ * This file is part of the L2J Mobius project.
+ * 
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.l2jmobius.gameserver.scripting.java;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Set;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import java.util.stream.Stream;
+
+/**
+ * On-disk cache of compiled script classes.<br>
+ * Every source file is keyed by a digest of its contents and the whole cache by the JDK version, the class path and the compiler options, so scripts whose sources did not change are loaded straight from their stored bytecode.<br>
+ * A changed source is recompiled together with every cached source that references one of its classes, while the classes of all other sources are offered to the compiler from the cache.<br>
+ * Compile time constants are inlined by the compiler without leaving a reference behind, so a changed source declaring a non private constant invalidates the whole cache.
+ */
+final class ScriptingClassCache
+{
+	private static final Logger LOGGER = Logger.getLogger(ScriptingClassCache.class.getName());
+	
+	private static final int MAGIC = 0x4C325343;
+	private static final int VERSION = 1;
+	
+	private static final int ACC_PRIVATE = 0x0002;
+	private static final int ACC_STATIC = 0x0008;
+	private static final int ACC_FINAL = 0x0010;
+	
+	private final File _file;
+	private final byte[] _key;
+	private final Map<Path, SourceEntry> _sources = new HashMap<>();
+	private final Map<String, Path> _classSources = new HashMap<>();
+	private boolean _changed;
+	
+	ScriptingClassCache(File file, List<String> options)
+	{
+		_file = file;
+		_key = createKey(options);
+		load();
+	}
+	
+	/**
+	 * @param roots the source files requested for execution
+	 * @return the sources that have to be compiled before the classes of {@code roots} can be taken from the cache
+	 */
+	synchronized Set<Path> getStaleSources(Collection<Path> roots)
+	{
+		final Set<Path> closure = getClosure(roots);
+		final Set<Path> dirty = new HashSet<>();
+		for (Path source : closure)
+		{
+			final SourceEntry entry = _sources.get(source);
+			if ((entry == null) || !Arrays.equals(entry._digest, digest(source)))
+			{
+				dirty.add(source);
+			}
+		}
+		
+		if (dirty.isEmpty())
+		{
+			return dirty;
+		}
+		
+		final Set<Path> stale = new HashSet<>();
+		for (Path source : dirty)
+		{
+			final SourceEntry entry = _sources.get(source);
+			if ((entry != null) && entry._constants)
+			{
+				LOGGER.info(getClass().getSimpleName() + ": " + source.getFileName() + " declares constants, dropping " + _sources.size() + " cached sources.");
+				_sources.clear();
+				_classSources.clear();
+				_changed = true;
+				for (Path root : roots)
+				{
+					stale.add(normalize(root));
+				}
+				return stale;
+			}
+		}
+		
+		// Everything referencing a dirty source has to be compiled again, sources outside of this request are dropped and compiled on demand.
+		final Set<Path> invalid = getDependents(dirty);
+		for (Path source : invalid)
+		{
+			remove(source);
+			if (closure.contains(source) && Files.isRegularFile(source))
+			{
+				stale.add(source);
+			}
+		}
+		return stale;
+	}
+	
+	/**
+	 * @param roots the source files requested for execution
+	 * @return the cached classes of {@code roots} and of every source they depend on
+	 */
+	synchronized List<ScriptingOutputFileObject> getClasses(Collection<Path> roots)
+	{
+		final List<ScriptingOutputFileObject> classes = new ArrayList<>();
+		for (Path source : getClosure(roots))
+		{
+			final SourceEntry entry = _sources.get(source);
+			if (entry != null)
+			{
+				for (Entry<String, byte[]> compiledClass : entry._classes.entrySet())
+				{
+					classes.add(new ScriptingOutputFileObject(source, compiledClass.getKey(), compiledClass.getValue()));
+				}
+			}
+		}
+		return classes;
+	}
+	
+	/**
+	 * @return every cached class, offered to the compiler in place of its source
+	 */
+	synchronized List<ScriptingOutputFileObject> getClasses()
+	{
+		return getClasses(_sources.keySet());
+	}
+	
+	/**
+	 * Stores freshly compiled classes, grouped by the source file they were compiled from.
+	 * @param compiledClasses the output of the compiler
+	 */
+	synchronized void update(Collection<ScriptingOutputFileObject> compiledClasses)
+	{
+		final Map<Path, SourceEntry> compiled = new HashMap<>();
+		for (ScriptingOutputFileObject compiledClass : compiledClasses)
+		{
+			if (compiledClass.getSourcePath() == null)
+			{
+				continue;
+			}
+			
+			final Path source = normalize(compiledClass.getSourcePath());
+			SourceEntry entry = compiled.get(source);
+			if (entry == null)
+			{
+				final byte[] digest = digest(source);
+				if (digest == null)
+				{
+					continue;
+				}
+				
+				entry = new SourceEntry(digest);
+				compiled.put(source, entry);
+			}
+			
+			final byte[] data = compiledClass.getJavaData();
+			entry._classes.put(compiledClass.getJavaName(), data);
+			try
+			{
+				entry._constants |= readClass(data, entry._references);
+			}
+			catch (IOException e)
+			{
+				LOGGER.log(Level.WARNING, getClass().getSimpleName() + ": Could not read class " + compiledClass.getJavaName() + ".", e);
+				entry._constants = true;
+			}
+		}
+		
+		for (Entry<Path, SourceEntry> entry : compiled.entrySet())
+		{
+			remove(entry.getKey());
+			_sources.put(entry.getKey(), entry.getValue());
+			for (String className : entry.getValue()._classes.keySet())
+			{
+				_classSources.put(className, entry.getKey());
+			}
+			_changed = true;
+		}
+	}
+	
+	/**
+	 * Writes the cache to disk when it changed since it was loaded.
+	 */
+	synchronized void save()
+	{
+		if (!_changed)
+		{
+			return;
+		}
+		
+		final File parent = _file.getAbsoluteFile().getParentFile();
+		if ((parent != null) && !parent.isDirectory() && !parent.mkdirs())
+		{
+			LOGGER.warning(getClass().getSimpleName() + ": Could not create directory " + parent + ".");
+			return;
+		}
+		
+		int classCount = 0;
+		final File temp = new File(_file.getPath() + ".tmp");
+		try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(temp), 1 << 16)))
+		{
+			out.writeInt(MAGIC);
+			out.writeInt(VERSION);
+			out.write(_key);
+			out.writeInt(_sources.size());
+			for (Entry<Path, SourceEntry> source : _sources.entrySet())
+			{
+				final SourceEntry entry = source.getValue();
+				out.writeUTF(source.getKey().toString());
+				out.write(entry._digest);
+				out.writeBoolean(entry._constants);
+				
+				// Only references to other script classes matter for invalidation.
+				final List<String> references = new ArrayList<>();
+				for (String reference : entry._references)
+				{
+					if (_classSources.containsKey(reference))
+					{
+						references.add(reference);
+					}
+				}
+				out.writeInt(references.size());
+				for (String reference : references)
+				{
+					out.writeUTF(reference);
+				}
+				
+				out.writeInt(entry._classes.size());
+				for (Entry<String, byte[]> compiledClass : entry._classes.entrySet())
+				{
+					out.writeUTF(compiledClass.getKey());
+					out.writeInt(compiledClass.getValue().length);
+					out.write(compiledClass.getValue());
+					classCount++;
+				}
+			}
+		}
+		catch (IOException e)
+		{
+			LOGGER.log(Level.WARNING, getClass().getSimpleName() + ": Could not write " + temp + ".", e);
+			temp.delete();
+			return;
+		}
+		
+		try
+		{
+			Files.move(temp.toPath(), _file.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+			_changed = false;
+			LOGGER.info(getClass().getSimpleName() + ": Stored " + classCount + " classes of " + _sources.size() + " sources.");
+		}
+		catch (IOException e)
+		{
+			LOGGER.log(Level.WARNING, getClass().getSimpleName() + ": Could not replace " + _file + ".", e);
+		}
+	}
+	
+	private void load()
+	{
+		if (!_file.isFile())
+		{
+			return;
+		}
+		
+		try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(_file), 1 << 16)))
+		{
+			if ((in.readInt() != MAGIC) || (in.readInt() != VERSION))
+			{
+				LOGGER.info(getClass().getSimpleName() + ": Ignoring cache of an older version.");
+				return;
+			}
+			
+			final byte[] key = new byte[_key.length];
+			in.readFully(key);
+			if (!Arrays.equals(key, _key))
+			{
+				LOGGER.info(getClass().getSimpleName() + ": Compiler, options or class path changed, scripts will be compiled again.");
+				return;
+			}
+			
+			for (int i = in.readInt(); i > 0; i--)
+			{
+				final Path source = Paths.get(in.readUTF());
+				final byte[] digest = new byte[key.length];
+				in.readFully(digest);
+				final SourceEntry entry = new SourceEntry(digest);
+				entry._constants = in.readBoolean();
+				for (int j = in.readInt(); j > 0; j--)
+				{
+					entry._references.add(in.readUTF());
+				}
+				for (int j = in.readInt(); j > 0; j--)
+				{
+					final String className = in.readUTF();
+					final byte[] data = new byte[in.readInt()];
+					in.readFully(data);
+					entry._classes.put(className, data);
+				}
+				
+				// Classes of deleted sources must not be offered to the compiler.
+				if (Files.isRegularFile(source))
+				{
+					_sources.put(source, entry);
+					for (String className : entry._classes.keySet())
+					{
+						_classSources.put(className, source);
+					}
+				}
+				else
+				{
+					_changed = true;
+				}
+			}
+		}
+		catch (IOException e)
+		{
+			LOGGER.log(Level.WARNING, getClass().getSimpleName() + ": Could not read " + _file + ", scripts will be compiled again.", e);
+			_sources.clear();
+			_classSources.clear();
+		}
+	}
+	
+	private void remove(Path source)
+	{
+		final SourceEntry entry = _sources.remove(source);
+		if (entry != null)
+		{
+			for (String className : entry._classes.keySet())
+			{
+				_classSources.remove(className);
+			}
+			_changed = true;
+		}
+	}
+	
+	/**
+	 * @param roots the requested sources
+	 * @return the requested sources and every cached source they reference, directly or indirectly
+	 */
+	private Set<Path> getClosure(Collection<Path> roots)
+	{
+		final Set<Path> closure = new HashSet<>();
+		final Deque<Path> pending = new ArrayDeque<>();
+		for (Path root : roots)
+		{
+			final Path source = normalize(root);
+			if (closure.add(source))
+			{
+				pending.add(source);
+			}
+		}
+		
+		while (!pending.isEmpty())
+		{
+			final SourceEntry entry = _sources.get(pending.poll());
+			if (entry == null)
+			{
+				continue;
+			}
+			
+			for (String reference : entry._references)
+			{
+				final Path source = _classSources.get(reference);
+				if ((source != null) && closure.add(source))
+				{
+					pending.add(source);
+				}
+			}
+		}
+		return closure;
+	}
+	
+	/**
+	 * @param sources the changed sources
+	 * @return the changed sources and every cached source referencing them, directly or indirectly
+	 */
+	private Set<Path> getDependents(Set<Path> sources)
+	{
+		final Map<Path, Set<Path>> dependents = new HashMap<>();
+		for (Entry<Path, SourceEntry> entry : _sources.entrySet())
+		{
+			for (String reference : entry.getValue()._references)
+			{
+				final Path source = _classSources.get(reference);
+				if ((source != null) && !source.equals(entry.getKey()))
+				{
+					dependents.computeIfAbsent(source, k -> new HashSet<>()).add(entry.getKey());
+				}
+			}
+		}
+		
+		final Set<Path> result = new HashSet<>(sources);
+		final Deque<Path> pending = new ArrayDeque<>(sources);
+		while (!pending.isEmpty())
+		{
+			final Set<Path> referencing = dependents.get(pending.poll());
+			if (referencing == null)
+			{
+				continue;
+			}
+			
+			for (Path source : referencing)
+			{
+				if (result.add(source))
+				{
+					pending.add(source);
+				}
+			}
+		}
+		return result;
+	}
+	
+	private static Path normalize(Path path)
+	{
+		return path.toAbsolutePath().normalize();
+	}
+	
+	private static byte[] digest(Path source)
+	{
+		try
+		{
+			return MessageDigest.getInstance("SHA-256").digest(Files.readAllBytes(source));
+		}
+		catch (IOException | NoSuchAlgorithmException e)
+		{
+			return null;
+		}
+	}
+	
+	private static byte[] createKey(List<String> options)
+	{
+		final StringBuilder sb = new StringBuilder();
+		sb.append(VERSION).append('\n');
+		sb.append(Runtime.version()).append('\n');
+		sb.append(System.getProperty("java.vendor")).append('\n');
+		sb.append(options).append('\n');
+		for (String entry : System.getProperty("java.class.path").split(File.pathSeparator))
+		{
+			final File file = new File(entry);
+			sb.append(file.getAbsolutePath()).append(':').append(file.length()).append(':').append(getLastModified(file)).append('\n');
+		}
+		
+		try
+		{
+			return MessageDigest.getInstance("SHA-256").digest(sb.toString().getBytes(StandardCharsets.UTF_8));
+		}
+		catch (NoSuchAlgorithmException e)
+		{
+			throw new IllegalStateException(e);
+		}
+	}
+	
+	/**
+	 * @param file a class path entry
+	 * @return the modification time of a jar, or the latest modification time of the files of a class directory
+	 */
+	private static long getLastModified(File file)
+	{
+		if (!file.isDirectory())
+		{
+			return file.lastModified();
+		}
+		
+		long lastModified = 0;
+		try (Stream<Path> files = Files.walk(file.toPath()))
+		{
+			final Iterator<Path> iterator = files.filter(Files::isRegularFile).iterator();
+			while (iterator.hasNext())
+			{
+				lastModified = Math.max(lastModified, iterator.next().toFile().lastModified());
+			}
+		}
+		catch (IOException | UncheckedIOException e)
+		{
+			lastModified = System.currentTimeMillis();
+		}
+		return lastModified;
+	}
+	
+	/**
+	 * Collects the names of all classes a class file refers to, from its class constants and from the type descriptors of its signatures.
+	 * @param data the class file
+	 * @param references receives the binary names of the referenced classes
+	 * @return {@code true} if the class declares a non private compile time constant
+	 * @throws IOException if the class file is malformed
+	 */
+	private static boolean readClass(byte[] data, Set<String> references) throws IOException
+	{
+		final DataInputStream in = new DataInputStream(new ByteArrayInputStream(data));
+		in.skipBytes(8); // magic, minor and major version
+		
+		final int count = in.readUnsignedShort();
+		final String[] utf8 = new String[count];
+		final int[] classes = new int[count];
+		int classCount = 0;
+		for (int i = 1; i < count; i++)
+		{
+			final int tag = in.readUnsignedByte();
+			switch (tag)
+			{
+				case 1: // Utf8
+				{
+					utf8[i] = in.readUTF();
+					break;
+				}
+				case 7: // Class
+				{
+					classes[classCount++] = in.readUnsignedShort();
+					break;
+				}
+				case 8: // String
+				case 16: // MethodType
+				case 19: // Module
+				case 20: // Package
+				{
+					in.skipBytes(2);
+					break;
+				}
+				case 15: // MethodHandle
+				{
+					in.skipBytes(3);
+					break;
+				}
+				case 3: // Integer
+				case 4: // Float
+				case 9: // Fieldref
+				case 10: // Methodref
+				case 11: // InterfaceMethodref
+				case 12: // NameAndType
+				case 17: // Dynamic
+				case 18: // InvokeDynamic
+				{
+					in.skipBytes(4);
+					break;
+				}
+				case 5: // Long
+				case 6: // Double
+				{
+					in.skipBytes(8);
+					i++;
+					break;
+				}
+				default:
+				{
+					throw new IOException("Unknown constant pool tag " + tag);
+				}
+			}
+		}
+		
+		for (int i = 0; i < classCount; i++)
+		{
+			String name = utf8[classes[i]];
+			while (name.startsWith("["))
+			{
+				name = name.substring(1);
+			}
+			if (!name.startsWith("L") || !name.endsWith(";"))
+			{
+				references.add(name.replace('/', '.'));
+			}
+		}
+		
+		// Descriptors and signatures, a class only used as a parameter or field type has no class constant.
+		for (String value : utf8)
+		{
+			if (value == null)
+			{
+				continue;
+			}
+			
+			int start = value.indexOf('L');
+			while (start != -1)
+			{
+				int end = start + 1;
+				while ((end < value.length()) && (value.charAt(end) != ';') && (value.charAt(end) != '<'))
+				{
+					end++;
+				}
+				if (end == value.length())
+				{
+					break;
+				}
+				
+				references.add(value.substring(start + 1, end).replace('/', '.'));
+				start = value.indexOf('L', end);
+			}
+		}
+		
+		in.skipBytes(6); // access flags, this and super class
+		in.skipBytes(in.readUnsignedShort() * 2); // interfaces
+		
+		final String constantValue = "ConstantValue";
+		for (int i = in.readUnsignedShort(); i > 0; i--)
+		{
+			final int accessFlags = in.readUnsignedShort();
+			in.skipBytes(4); // name and descriptor
+			for (int j = in.readUnsignedShort(); j > 0; j--)
+			{
+				final String attribute = utf8[in.readUnsignedShort()];
+				if (((accessFlags & (ACC_STATIC | ACC_FINAL | ACC_PRIVATE)) == (ACC_STATIC | ACC_FINAL)) && constantValue.equals(attribute))
+				{
+					return true;
+				}
+				in.skipBytes(in.readInt());
+			}
+		}
+		return false;
+	}
+	
+	private static class SourceEntry
+	{
+		final byte[] _digest;
+		final Map<String, byte[]> _classes = new LinkedHashMap<>();
+		final Set<String> _references = new HashSet<>();
+		boolean _constants;
+		
+		SourceEntry(byte[] digest)
+		{
+			_digest = digest;
+		}
+	}
+}
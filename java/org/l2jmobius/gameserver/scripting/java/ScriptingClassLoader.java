@@ -16,6 +16,11 @@
  */
 package org.l2jmobius.gameserver.scripting.java;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.invoke.MethodHandles.Lookup;
+import java.util.Map;
+import java.util.function.Supplier;
 import java.util.logging.Logger;
 
 /**
@@ -25,9 +30,10 @@ public class ScriptingClassLoader extends ClassLoader
 {
 	public static final Logger LOGGER = Logger.getLogger(ScriptingClassLoader.class.getName());
 	
-	private Iterable<ScriptingOutputFileObject> _compiledClasses;
+	private Map<String, ScriptingOutputFileObject> _compiledClasses;
+	private Lookup _lookup;
 	
-	ScriptingClassLoader(ClassLoader parent, Iterable<ScriptingOutputFileObject> compiledClasses)
+	ScriptingClassLoader(ClassLoader parent, Map<String, ScriptingOutputFileObject> compiledClasses)
 	{
 		super(parent);
 		_compiledClasses = compiledClasses;
@@ -38,17 +44,39 @@ public class ScriptingClassLoader extends ClassLoader
 		_compiledClasses = null;
 	}
 	
-	@Override
-	protected Class<?> findClass(String name) throws ClassNotFoundException
+	/**
+	 * @return a lookup with full privilege access to the classes of this loader
+	 * @throws ReflectiveOperationException if the lookup class cannot be defined
+	 */
+	@SuppressWarnings("unchecked")
+	public synchronized Lookup getLookup() throws ReflectiveOperationException
 	{
-		for (ScriptingOutputFileObject compiledClass : _compiledClasses)
+		if (_lookup == null)
 		{
-			if (compiledClass.getJavaName().equals(name))
+			final String name = ScriptingLookup.class.getName();
+			try (InputStream in = ScriptingLookup.class.getResourceAsStream(ScriptingLookup.class.getSimpleName() + ".class"))
+			{
+				final byte[] classBytes = in.readAllBytes();
+				final Class<?> lookupClass = defineClass(name, classBytes, 0, classBytes.length);
+				_lookup = ((Supplier<Lookup>) lookupClass.getConstructor().newInstance()).get();
+			}
+			catch (IOException e)
 			{
-				final byte[] classBytes = compiledClass.getJavaData();
-				return defineClass(name, classBytes, 0, classBytes.length);
+				throw new ClassNotFoundException(name, e);
 			}
 		}
+		return _lookup;
+	}
+	
+	@Override
+	protected Class<?> findClass(String name) throws ClassNotFoundException
+	{
+		final ScriptingOutputFileObject compiledClass = _compiledClasses.get(name);
+		if (compiledClass != null)
+		{
+			final byte[] classBytes = compiledClass.getJavaData();
+			return defineClass(name, classBytes, 0, classBytes.length);
+		}
 		return super.findClass(name);
 	}
 }
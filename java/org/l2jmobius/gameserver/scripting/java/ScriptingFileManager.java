@@ -19,15 +19,21 @@ package org.l2jmobius.gameserver.scripting.java;
 import java.io.File;
 import java.io.IOException;
 import java.nio.file.Paths;
+import java.util.ArrayList;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.Iterator;
 import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
 import java.util.Set;
 
 import javax.tools.FileObject;
 import javax.tools.JavaFileObject;
 import javax.tools.JavaFileObject.Kind;
 import javax.tools.StandardJavaFileManager;
+import javax.tools.StandardLocation;
 
 /**
  * @author HorridoJoho
@@ -36,10 +42,26 @@ final class ScriptingFileManager implements StandardJavaFileManager
 {
 	private final StandardJavaFileManager _wrapped;
 	private final LinkedList<ScriptingOutputFileObject> _classOutputs = new LinkedList<>();
+	private final Map<String, List<JavaFileObject>> _cachedClasses = new HashMap<>();
 	
 	public ScriptingFileManager(StandardJavaFileManager wrapped)
+	{
+		this(wrapped, Collections.emptyList());
+	}
+	
+	/**
+	 * @param wrapped the standard file manager
+	 * @param cachedClasses previously compiled classes, listed on the class path so that the compiler uses them instead of their sources
+	 */
+	public ScriptingFileManager(StandardJavaFileManager wrapped, Iterable<ScriptingOutputFileObject> cachedClasses)
 	{
 		_wrapped = wrapped;
+		for (ScriptingOutputFileObject cachedClass : cachedClasses)
+		{
+			final String javaName = cachedClass.getJavaName();
+			final int lastDot = javaName.lastIndexOf('.');
+			_cachedClasses.computeIfAbsent(lastDot == -1 ? "" : javaName.substring(0, lastDot), k -> new ArrayList<>()).add(cachedClass);
+		}
 	}
 	
 	Iterable<ScriptingOutputFileObject> getCompiledClasses()
@@ -62,18 +84,48 @@ final class ScriptingFileManager implements StandardJavaFileManager
 	@Override
 	public Iterable<JavaFileObject> list(Location location, String packageName, Set<Kind> kinds, boolean recurse) throws IOException
 	{
-		return _wrapped.list(location, packageName, kinds, recurse);
+		final Iterable<JavaFileObject> files = _wrapped.list(location, packageName, kinds, recurse);
+		if (_cachedClasses.isEmpty() || (location != StandardLocation.CLASS_PATH) || !kinds.contains(Kind.CLASS))
+		{
+			return files;
+		}
+		
+		final List<JavaFileObject> result = new ArrayList<>();
+		files.forEach(result::add);
+		if (recurse)
+		{
+			for (Entry<String, List<JavaFileObject>> entry : _cachedClasses.entrySet())
+			{
+				if (entry.getKey().equals(packageName) || packageName.isEmpty() || entry.getKey().startsWith(packageName + "."))
+				{
+					result.addAll(entry.getValue());
+				}
+			}
+		}
+		else
+		{
+			result.addAll(_cachedClasses.getOrDefault(packageName, Collections.emptyList()));
+		}
+		return result;
 	}
 	
 	@Override
 	public String inferBinaryName(Location location, JavaFileObject file)
 	{
+		if (file instanceof ScriptingOutputFileObject)
+		{
+			return ((ScriptingOutputFileObject) file).getJavaName();
+		}
 		return _wrapped.inferBinaryName(location, file);
 	}
 	
 	@Override
 	public boolean isSameFile(FileObject a, FileObject b)
 	{
+		if ((a instanceof ScriptingOutputFileObject) || (b instanceof ScriptingOutputFileObject))
+		{
+			return a == b;
+		}
 		return _wrapped.isSameFile(a, b);
 	}
 	
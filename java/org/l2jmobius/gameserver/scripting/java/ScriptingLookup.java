@@ -0,0 +1,34 @@
+/*
+ * This file is part of the L2J Mobius project.
+ * 
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.l2jmobius.gameserver.scripting.java;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodHandles.Lookup;
+import java.util.function.Supplier;
+
+/**
+ * Defined again inside every {@link ScriptingClassLoader} that needs it, so that its lookup belongs to the module of the script classes.<br>
+ * Only such a lookup has full privilege access to them, as required to bind script methods through {@link java.lang.invoke.LambdaMetafactory}.
+ */
+public final class ScriptingLookup implements Supplier<Lookup>
+{
+	@Override
+	public Lookup get()
+	{
+		return MethodHandles.lookup();
+	}
+}
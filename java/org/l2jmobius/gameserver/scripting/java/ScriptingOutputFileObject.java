@@ -16,6 +16,7 @@
  */
 package org.l2jmobius.gameserver.scripting.java;
 
+import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
 import java.io.InputStream;
 import java.io.OutputStream;
@@ -37,6 +38,7 @@ final class ScriptingOutputFileObject implements JavaFileObject
 	private final String _javaName;
 	private final String _javaSimpleName;
 	private final ByteArrayOutputStream _out;
+	private final long _lastModified;
 	
 	public ScriptingOutputFileObject(Path sourcePath, String javaName, String javaSimpleName)
 	{
@@ -44,6 +46,24 @@ final class ScriptingOutputFileObject implements JavaFileObject
 		_javaName = javaName;
 		_javaSimpleName = javaSimpleName;
 		_out = new ByteArrayOutputStream();
+		_lastModified = 0;
+	}
+	
+	/**
+	 * Creates a class loaded from the {@link ScriptingClassCache}.<br>
+	 * It reports itself as newer than any source file, so the compiler prefers it over compiling its source again.
+	 * @param sourcePath the source file the class was compiled from
+	 * @param javaName the binary name of the class
+	 * @param data the class file
+	 */
+	public ScriptingOutputFileObject(Path sourcePath, String javaName, byte[] data)
+	{
+		_sourcePath = sourcePath;
+		_javaName = javaName;
+		_javaSimpleName = javaName.substring(javaName.lastIndexOf('.') + 1);
+		_out = new ByteArrayOutputStream(data.length);
+		_out.writeBytes(data);
+		_lastModified = Long.MAX_VALUE;
 	}
 	
 	public Path getSourcePath()
@@ -69,19 +89,19 @@ final class ScriptingOutputFileObject implements JavaFileObject
 	@Override
 	public URI toUri()
 	{
-		return null;
+		return URI.create("class:///" + _javaName.replace('.', '/') + Kind.CLASS.extension);
 	}
 	
 	@Override
 	public String getName()
 	{
-		return null;
+		return _javaName.replace('.', '/') + Kind.CLASS.extension;
 	}
 	
 	@Override
 	public InputStream openInputStream()
 	{
-		return null;
+		return new ByteArrayInputStream(_out.toByteArray());
 	}
 	
 	@Override
@@ -111,7 +131,7 @@ final class ScriptingOutputFileObject implements JavaFileObject
 	@Override
 	public long getLastModified()
 	{
-		return 0;
+		return _lastModified;
 	}
 	
 	@Override
@@ -18,68 +18,135 @@ package org.l2jmobius.gameserver.taskmanager;
 
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
 
-import org.l2jmobius.commons.threads.ThreadPool;
+import org.l2jmobius.commons.threads.NamedThreadFactory;
+import org.l2jmobius.commons.threads.RejectedExecutionHandlerImpl;
+import org.l2jmobius.commons.threads.RunnableWrapper;
+import org.l2jmobius.commons.util.LatencyHistogram;
 import org.l2jmobius.gameserver.ai.CreatureAI;
 import org.l2jmobius.gameserver.model.actor.Attackable;
 
 /**
+ * Attackables are hashed by object id into shards that think in parallel on a dedicated pool.<br>
+ * Shard ticks are staggered across the task delay, so the load is spread instead of peaking once per second.
  * @author Mobius
  */
-public class AttackableThinkTaskManager implements Runnable
+public class AttackableThinkTaskManager
 {
-	private static final Set<Attackable> ATTACKABLES = ConcurrentHashMap.newKeySet();
-	private static boolean _working = false;
+	private static final int TASK_DELAY = 1000;
+	private static final int SHARD_COUNT = Math.max(4, Runtime.getRuntime().availableProcessors() * 2);
+	
+	private final AttackableThink[] _shards = new AttackableThink[SHARD_COUNT];
+	private final ScheduledThreadPoolExecutor _executor = new ScheduledThreadPoolExecutor(Runtime.getRuntime().availableProcessors(), new NamedThreadFactory("AttackableThink"));
+	private final LatencyHistogram _tickTimes = new LatencyHistogram();
+	private final LongAdder _overruns = new LongAdder();
+	private final LongAdder _skippedTicks = new LongAdder();
 	
 	protected AttackableThinkTaskManager()
 	{
-		ThreadPool.scheduleAtFixedRate(this, 1000, 1000);
+		_executor.setRejectedExecutionHandler(new RejectedExecutionHandlerImpl());
+		for (int i = 0; i < SHARD_COUNT; i++)
+		{
+			_shards[i] = new AttackableThink();
+			_executor.scheduleAtFixedRate(new RunnableWrapper(_shards[i]), TASK_DELAY + ((TASK_DELAY * i) / SHARD_COUNT), TASK_DELAY, TimeUnit.MILLISECONDS);
+		}
 	}
 	
-	@Override
-	public void run()
+	private class AttackableThink implements Runnable
 	{
-		if (_working)
+		private final Set<Attackable> _attackables = ConcurrentHashMap.newKeySet();
+		private long _lastTick;
+		
+		public AttackableThink()
 		{
-			return;
+			// The origin of System.nanoTime() is arbitrary and can be negative, start one period back so the first tick is never skipped.
+			_lastTick = System.nanoTime() - TimeUnit.MILLISECONDS.toNanos(TASK_DELAY);
 		}
-		_working = true;
 		
-		CreatureAI ai;
-		for (Attackable attackable : ATTACKABLES)
+		@Override
+		public void run()
 		{
-			if (attackable.hasAI())
+			// A late tick is run right after the previous one by the executor, skip it instead of thinking twice in a row.
+			final long start = System.nanoTime();
+			if ((start - _lastTick) < TimeUnit.MILLISECONDS.toNanos(TASK_DELAY / 2))
+			{
+				_skippedTicks.increment();
+				return;
+			}
+			_lastTick = start;
+			
+			CreatureAI ai;
+			for (Attackable attackable : _attackables)
 			{
-				ai = attackable.getAI();
-				if (ai != null)
+				if (attackable.hasAI())
 				{
-					ai.onEvtThink();
+					ai = attackable.getAI();
+					if (ai != null)
+					{
+						ai.onEvtThink();
+					}
+					else
+					{
+						_attackables.remove(attackable);
+					}
 				}
 				else
 				{
-					remove(attackable);
+					_attackables.remove(attackable);
 				}
 			}
-			else
+			
+			final long duration = System.nanoTime() - start;
+			_tickTimes.record(duration);
+			if (duration > TimeUnit.MILLISECONDS.toNanos(TASK_DELAY))
 			{
-				remove(attackable);
+				_overruns.increment();
 			}
 		}
-		
-		_working = false;
+	}
+	
+	private AttackableThink getShard(Attackable attackable)
+	{
+		return _shards[attackable.getObjectId() % SHARD_COUNT];
 	}
 	
 	public void add(Attackable attackable)
 	{
-		if (!ATTACKABLES.contains(attackable))
-		{
-			ATTACKABLES.add(attackable);
-		}
+		getShard(attackable)._attackables.add(attackable);
 	}
 	
 	public void remove(Attackable attackable)
 	{
-		ATTACKABLES.remove(attackable);
+		getShard(attackable)._attackables.remove(attackable);
+	}
+	
+	/**
+	 * Stops the shard ticks.
+	 */
+	public void shutdown()
+	{
+		_executor.shutdownNow();
+	}
+	
+	public String[] getStats()
+	{
+		int attackables = 0;
+		for (AttackableThink shard : _shards)
+		{
+			attackables += shard._attackables.size();
+		}
+		
+		final String[] stats = new String[6];
+		stats[0] = "Attackable think:";
+		stats[1] = " |- Shards: .......... " + SHARD_COUNT;
+		stats[2] = " |- Attackables: ..... " + attackables;
+		stats[3] = " |- ShardTick: ....... " + _tickTimes;
+		stats[4] = " |- Overruns: ........ " + _overruns.sum();
+		stats[5] = " |- SkippedTicks: .... " + _skippedTicks.sum();
+		return stats;
 	}
 	
 	public static AttackableThinkTaskManager getInstance()
@@ -16,12 +16,8 @@
  */
 package org.l2jmobius.gameserver.taskmanager;
 
-import java.util.Map;
-import java.util.Map.Entry;
-import java.util.concurrent.ConcurrentHashMap;
-
 import org.l2jmobius.Config;
-import org.l2jmobius.commons.threads.ThreadPool;
+import org.l2jmobius.commons.threads.TimingWheel;
 import org.l2jmobius.gameserver.model.actor.Attackable;
 import org.l2jmobius.gameserver.model.actor.Creature;
 import org.l2jmobius.gameserver.model.actor.templates.NpcTemplate;
@@ -29,37 +25,13 @@ import org.l2jmobius.gameserver.model.actor.templates.NpcTemplate;
 /**
  * @author Mobius
  */
-public class DecayTaskManager implements Runnable
+public class DecayTaskManager
 {
-	private static final Map<Creature, Long> DECAY_SCHEDULES = new ConcurrentHashMap<>();
-	private static boolean _working = false;
+	private static final TimingWheel<Creature> DECAY_SCHEDULES = new TimingWheel<>(1000, 512, Creature::onDecay);
 	
 	protected DecayTaskManager()
 	{
-		ThreadPool.scheduleAtFixedRate(this, 0, 1000);
-	}
-	
-	@Override
-	public void run()
-	{
-		if (_working)
-		{
-			return;
-		}
-		_working = true;
-		
-		final long time = System.currentTimeMillis();
-		for (Entry<Creature, Long> entry : DECAY_SCHEDULES.entrySet())
-		{
-			if (time > entry.getValue().longValue())
-			{
-				final Creature creature = entry.getKey();
-				DECAY_SCHEDULES.remove(creature);
-				creature.onDecay();
-			}
-		}
-		
-		_working = false;
+		DECAY_SCHEDULES.start();
 	}
 	
 	/**
@@ -102,7 +74,7 @@ public class DecayTaskManager implements Runnable
 		}
 		
 		// Add to decay schedules.
-		DECAY_SCHEDULES.put(creature, System.currentTimeMillis() + (delay * 1000));
+		DECAY_SCHEDULES.schedule(creature, System.currentTimeMillis() + (delay * 1000));
 	}
 	
 	/**
@@ -111,7 +83,7 @@ public class DecayTaskManager implements Runnable
 	 */
 	public void cancel(Creature creature)
 	{
-		DECAY_SCHEDULES.remove(creature);
+		DECAY_SCHEDULES.cancel(creature);
 	}
 	
 	/**
@@ -121,8 +93,8 @@ public class DecayTaskManager implements Runnable
 	 */
 	public long getRemainingTime(Creature creature)
 	{
-		final Long time = DECAY_SCHEDULES.get(creature);
-		return time != null ? time.longValue() - System.currentTimeMillis() : Long.MAX_VALUE;
+		final long time = DECAY_SCHEDULES.getDeadline(creature);
+		return time != -1 ? time - System.currentTimeMillis() : Long.MAX_VALUE;
 	}
 	
 	@Override
@@ -138,16 +110,16 @@ public class DecayTaskManager implements Runnable
 		ret.append(Config.EOL);
 		
 		final long time = System.currentTimeMillis();
-		for (Entry<Creature, Long> entry : DECAY_SCHEDULES.entrySet())
+		DECAY_SCHEDULES.forEach((creature, deadline) ->
 		{
 			ret.append("Class/Name: ");
-			ret.append(entry.getKey().getClass().getSimpleName());
+			ret.append(creature.getClass().getSimpleName());
 			ret.append('/');
-			ret.append(entry.getKey().getName());
+			ret.append(creature.getName());
 			ret.append(" decay timer: ");
-			ret.append(entry.getValue().longValue() - time);
+			ret.append(deadline.longValue() - time);
 			ret.append(Config.EOL);
-		}
+		});
 		
 		return ret.toString();
 	}
@@ -16,60 +16,29 @@
  */
 package org.l2jmobius.gameserver.taskmanager;
 
-import java.util.Map;
-import java.util.Map.Entry;
-import java.util.concurrent.ConcurrentHashMap;
-
-import org.l2jmobius.commons.threads.ThreadPool;
+import org.l2jmobius.commons.threads.TimingWheel;
 import org.l2jmobius.gameserver.model.item.instance.Item;
 
 /**
  * @author Mobius
  */
-public class ItemLifeTimeTaskManager implements Runnable
+public class ItemLifeTimeTaskManager
 {
-	private static final Map<Item, Long> ITEMS = new ConcurrentHashMap<>();
-	private static boolean _working = false;
+	private static final TimingWheel<Item> ITEMS = new TimingWheel<>(1000, 512, Item::endOfLife);
 	
 	protected ItemLifeTimeTaskManager()
 	{
-		ThreadPool.scheduleAtFixedRate(this, 1000, 1000);
-	}
-	
-	@Override
-	public void run()
-	{
-		if (_working)
-		{
-			return;
-		}
-		_working = true;
-		
-		final long currentTime = System.currentTimeMillis();
-		for (Entry<Item, Long> entry : ITEMS.entrySet())
-		{
-			if (currentTime > entry.getValue().longValue())
-			{
-				final Item item = entry.getKey();
-				ITEMS.remove(item);
-				item.endOfLife();
-			}
-		}
-		
-		_working = false;
+		ITEMS.start();
 	}
 	
 	public void add(Item item, long endTime)
 	{
-		if (!ITEMS.containsKey(item))
-		{
-			ITEMS.put(item, endTime);
-		}
+		ITEMS.scheduleIfAbsent(item, endTime);
 	}
 	
 	public void remove(Item item)
 	{
-		ITEMS.remove(item);
+		ITEMS.cancel(item);
 	}
 	
 	public static ItemLifeTimeTaskManager getInstance()
@@ -16,11 +16,7 @@
  */
 package org.l2jmobius.gameserver.taskmanager;
 
-import java.util.Map;
-import java.util.Map.Entry;
-import java.util.concurrent.ConcurrentHashMap;
-
-import org.l2jmobius.commons.threads.ThreadPool;
+import org.l2jmobius.commons.threads.TimingWheel;
 import org.l2jmobius.gameserver.instancemanager.MailManager;
 import org.l2jmobius.gameserver.model.Message;
 import org.l2jmobius.gameserver.model.World;
@@ -31,73 +27,51 @@ import org.l2jmobius.gameserver.network.serverpackets.SystemMessage;
 /**
  * @author Mobius
  */
-public class MessageDeletionTaskManager implements Runnable
+public class MessageDeletionTaskManager
 {
-	private static final Map<Integer, Long> PENDING_MESSAGES = new ConcurrentHashMap<>();
-	private static boolean _working = false;
+	private static final TimingWheel<Integer> PENDING_MESSAGES = new TimingWheel<>(10000, 512, MessageDeletionTaskManager::deleteMessage);
 	
 	protected MessageDeletionTaskManager()
 	{
-		ThreadPool.scheduleAtFixedRate(this, 10000, 10000);
+		PENDING_MESSAGES.start();
 	}
 	
-	@Override
-	public void run()
+	private static void deleteMessage(Integer msgId)
 	{
-		if (_working)
+		final Message msg = MailManager.getInstance().getMessage(msgId.intValue());
+		if (msg == null)
 		{
 			return;
 		}
-		_working = true;
 		
-		Integer msgId;
-		Message msg;
-		final long time = System.currentTimeMillis();
-		for (Entry<Integer, Long> entry : PENDING_MESSAGES.entrySet())
+		if (msg.hasAttachments())
 		{
-			if (time > entry.getValue().longValue())
+			final Player sender = World.getInstance().getPlayer(msg.getSenderId());
+			if (sender != null)
+			{
+				msg.getAttachments().returnToWh(sender.getWarehouse());
+				sender.sendPacket(SystemMessageId.THE_MAIL_WAS_RETURNED_DUE_TO_THE_EXCEEDED_WAITING_TIME);
+			}
+			else
+			{
+				msg.getAttachments().returnToWh(null);
+			}
+			msg.getAttachments().deleteMe();
+			msg.removeAttachments();
+			
+			final Player receiver = World.getInstance().getPlayer(msg.getReceiverId());
+			if (receiver != null)
 			{
-				msgId = entry.getKey();
-				msg = MailManager.getInstance().getMessage(msgId.intValue());
-				if (msg == null)
-				{
-					PENDING_MESSAGES.remove(msgId);
-					return;
-				}
-				
-				if (msg.hasAttachments())
-				{
-					final Player sender = World.getInstance().getPlayer(msg.getSenderId());
-					if (sender != null)
-					{
-						msg.getAttachments().returnToWh(sender.getWarehouse());
-						sender.sendPacket(SystemMessageId.THE_MAIL_WAS_RETURNED_DUE_TO_THE_EXCEEDED_WAITING_TIME);
-					}
-					else
-					{
-						msg.getAttachments().returnToWh(null);
-					}
-					msg.getAttachments().deleteMe();
-					msg.removeAttachments();
-					
-					final Player receiver = World.getInstance().getPlayer(msg.getReceiverId());
-					if (receiver != null)
-					{
-						receiver.sendPacket(new SystemMessage(SystemMessageId.THE_MAIL_WAS_RETURNED_DUE_TO_THE_EXCEEDED_WAITING_TIME));
-					}
-				}
-				
-				MailManager.getInstance().deleteMessageInDb(msgId.intValue());
-				PENDING_MESSAGES.remove(msgId);
+				receiver.sendPacket(new SystemMessage(SystemMessageId.THE_MAIL_WAS_RETURNED_DUE_TO_THE_EXCEEDED_WAITING_TIME));
 			}
 		}
 		
-		_working = false;
+		MailManager.getInstance().deleteMessageInDb(msgId.intValue());
 	}
 	
 	public void add(int msgId, long deletionTime)
 	{
-		PENDING_MESSAGES.put(msgId, deletionTime);
+		PENDING_MESSAGES.schedule(msgId, deletionTime);
 	}
 	
 	public static MessageDeletionTaskManager getInstance()
@@ -16,24 +16,60 @@
  */
 package org.l2jmobius.gameserver.taskmanager;
 
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.logging.Level;
+import java.util.logging.Logger;
 
+import org.l2jmobius.commons.threads.NamedThreadFactory;
+import org.l2jmobius.commons.threads.ThreadPool;
+import org.l2jmobius.commons.util.LatencyHistogram;
+import org.l2jmobius.gameserver.ai.CtrlEvent;
+import org.l2jmobius.gameserver.model.WorldRegion;
 import org.l2jmobius.gameserver.model.actor.Creature;
 
 /**
- * Movement task manager class.
+ * Movement task manager class.<br>
+ * Every tick, moving creatures are grouped by world region and the regions are stepped in parallel by a fixed set of workers.<br>
+ * Ticks follow a fixed-rate clock and the arrivals of a tick are notified in batches once all regions are done.
  * @author Forsaiken, Mobius
  */
 public class MovementTaskManager extends Thread
 {
+	private static final Logger LOGGER = Logger.getLogger(MovementTaskManager.class.getName());
+	
 	private static final Set<Creature> MOVING_OBJECTS = ConcurrentHashMap.newKeySet();
+	private static final int TICK_DELAY = 100;
+	private static final int WORKER_COUNT = Runtime.getRuntime().availableProcessors();
+	private static final int PARALLEL_THRESHOLD = 64; // Fewer moving objects are stepped by the clock thread alone.
+	private static final int ARRIVAL_BATCH_SIZE = 64;
+	
+	private final ThreadPoolExecutor _workers = new ThreadPoolExecutor(Math.max(1, WORKER_COUNT - 1), Math.max(1, WORKER_COUNT - 1), 0, TimeUnit.SECONDS, new LinkedBlockingQueue<>(), new NamedThreadFactory("MovementWorker", MAX_PRIORITY));
+	private final Queue<Creature> _arrived = new ConcurrentLinkedQueue<>();
+	private final LatencyHistogram _tickTimes = new LatencyHistogram();
+	private final LongAdder _overruns = new LongAdder();
+	private final LongAdder _arrivals = new LongAdder();
+	private final LongAdder _arrivalBatches = new LongAdder();
+	private volatile int _lastRegionCount;
 	
 	protected MovementTaskManager()
 	{
 		super("MovementTaskManager");
 		super.setDaemon(true);
 		super.setPriority(MAX_PRIORITY);
+		_workers.prestartAllCoreThreads();
 		super.start();
 	}
 	
@@ -51,23 +87,192 @@ public class MovementTaskManager extends Thread
 		MOVING_OBJECTS.add(creature);
 	}
 	
+	/**
+	 * Queues the EVT_ARRIVED notification of a creature that reached its destination during the current tick.
+	 * @param creature the creature that arrived
+	 */
+	public void notifyArrived(Creature creature)
+	{
+		_arrived.add(creature);
+	}
+	
 	@Override
 	public void run()
 	{
+		final long tickNanos = TimeUnit.MILLISECONDS.toNanos(TICK_DELAY);
+		long nextTick = System.nanoTime();
 		while (true)
 		{
 			try
 			{
-				MOVING_OBJECTS.removeIf(Creature::updatePosition);
-				Thread.sleep(100);
+				final long start = System.nanoTime();
+				tick();
+				final long duration = System.nanoTime() - start;
+				_tickTimes.record(duration);
+				
+				// Sleep until the next tick is due, instead of a fixed delay after the work that lets the cadence drift.
+				nextTick += tickNanos;
+				final long wait = nextTick - System.nanoTime();
+				if (wait > 0)
+				{
+					Thread.sleep(wait / 1000000, (int) (wait % 1000000));
+				}
+				else
+				{
+					// Behind schedule, start counting again from now rather than running the missed ticks back to back.
+					_overruns.increment();
+					nextTick = System.nanoTime();
+				}
 			}
 			catch (InterruptedException e)
 			{
-				// Ingore.
+				_workers.shutdownNow();
+				return;
+			}
+			catch (Exception e)
+			{
+				LOGGER.log(Level.WARNING, getClass().getSimpleName() + ": Tick failed.", e);
 			}
 		}
 	}
 	
+	/**
+	 * Stops the clock thread and the workers.
+	 */
+	public void shutdown()
+	{
+		interrupt();
+		_workers.shutdownNow();
+	}
+	
+	private void tick() throws InterruptedException
+	{
+		final int count = MOVING_OBJECTS.size();
+		if ((count < PARALLEL_THRESHOLD) || (WORKER_COUNT < 2))
+		{
+			step(MOVING_OBJECTS);
+			_lastRegionCount = 0;
+		}
+		else
+		{
+			// Creatures of a region are stepped by one worker, so neighbours are updated in the same order every tick.
+			final Map<WorldRegion, List<Creature>> regions = new HashMap<>();
+			for (Creature creature : MOVING_OBJECTS)
+			{
+				regions.computeIfAbsent(creature.getWorldRegion(), region -> new ArrayList<>()).add(creature);
+			}
+			_lastRegionCount = regions.size();
+			
+			final List<List<Creature>> partitions = new ArrayList<>(regions.values());
+			final AtomicInteger nextPartition = new AtomicInteger();
+			final Runnable worker = () ->
+			{
+				int index;
+				while ((index = nextPartition.getAndIncrement()) < partitions.size())
+				{
+					step(partitions.get(index));
+				}
+			};
+			
+			final int helpers = Math.min(WORKER_COUNT - 1, partitions.size() - 1);
+			final CountDownLatch latch = new CountDownLatch(helpers);
+			for (int i = 0; i < helpers; i++)
+			{
+				_workers.execute(() ->
+				{
+					try
+					{
+						worker.run();
+					}
+					finally
+					{
+						latch.countDown();
+					}
+				});
+			}
+			worker.run();
+			latch.await();
+		}
+		
+		notifyArrivals();
+	}
+	
+	private void step(Iterable<Creature> creatures)
+	{
+		for (Creature creature : creatures)
+		{
+			try
+			{
+				if (creature.updatePosition())
+				{
+					MOVING_OBJECTS.remove(creature);
+				}
+			}
+			catch (Exception e)
+			{
+				MOVING_OBJECTS.remove(creature);
+				LOGGER.log(Level.WARNING, getClass().getSimpleName() + ": Could not update position of " + creature + ".", e);
+			}
+		}
+	}
+	
+	private void notifyArrivals()
+	{
+		List<Creature> batch = null;
+		Creature creature;
+		while ((creature = _arrived.poll()) != null)
+		{
+			if (batch == null)
+			{
+				batch = new ArrayList<>(ARRIVAL_BATCH_SIZE);
+			}
+			batch.add(creature);
+			if (batch.size() == ARRIVAL_BATCH_SIZE)
+			{
+				executeArrivals(batch);
+				batch = null;
+			}
+		}
+		if (batch != null)
+		{
+			executeArrivals(batch);
+		}
+	}
+	
+	private void executeArrivals(List<Creature> batch)
+	{
+		_arrivals.add(batch.size());
+		_arrivalBatches.increment();
+		ThreadPool.execute(() ->
+		{
+			for (Creature creature : batch)
+			{
+				try
+				{
+					creature.getAI().notifyEvent(CtrlEvent.EVT_ARRIVED);
+				}
+				catch (Exception e)
+				{
+					LOGGER.log(Level.WARNING, getClass().getSimpleName() + ": Could not notify arrival of " + creature + ".", e);
+				}
+			}
+		});
+	}
+	
+	public String[] getStats()
+	{
+		final String[] stats = new String[8];
+		stats[0] = "Movement:";
+		stats[1] = " |- Workers: ......... " + WORKER_COUNT;
+		stats[2] = " |- MovingObjects: ... " + MOVING_OBJECTS.size();
+		stats[3] = " |- Regions: ......... " + _lastRegionCount;
+		stats[4] = " |- Tick: ............ " + _tickTimes;
+		stats[5] = " |- Overruns: ........ " + _overruns.sum();
+		stats[6] = " |- Arrivals: ........ " + _arrivals.sum();
+		stats[7] = " |- ArrivalBatches: .. " + _arrivalBatches.sum();
+		return stats;
+	}
+	
 	public static final MovementTaskManager getInstance()
 	{
 		return SingletonHolder.INSTANCE;
@@ -0,0 +1,304 @@
+/*
+ * This file is part of the L2J Mobius project.
+ * 
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.l2jmobius.gameserver.taskmanager;
+
+import java.sql.Connection;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import org.l2jmobius.Config;
+import org.l2jmobius.commons.database.DatabaseBatch;
+import org.l2jmobius.commons.database.DatabaseFactory;
+import org.l2jmobius.commons.threads.NamedThreadFactory;
+import org.l2jmobius.commons.util.LatencyHistogram;
+import org.l2jmobius.gameserver.model.actor.Player;
+
+/**
+ * Write-behind stage of the periodic player saves.<br>
+ * Queued players are collected into a single {@link DatabaseBatch} per group and written in one transaction on a small dedicated pool, so a save costs a few round-trips per group instead of dozens per player.<br>
+ * The queue is bounded, {@link #add(Player)} fails when it is full and the caller is expected to retry later.
+ */
+public class PersistenceTaskManager
+{
+	private static final Logger LOGGER = Logger.getLogger(PersistenceTaskManager.class.getName());
+	
+	private final Map<Integer, Player> _pending = new LinkedHashMap<>();
+	private final Set<Integer> _inFlight = new HashSet<>();
+	private final ThreadPoolExecutor _executor = new ThreadPoolExecutor(Config.CHAR_STORE_THREADS, Config.CHAR_STORE_THREADS, 0, TimeUnit.SECONDS, new LinkedBlockingQueue<>(), new NamedThreadFactory("PersistenceWriter"));
+	private boolean _shutdown = false;
+	
+	private final LongAdder _queued = new LongAdder();
+	private final LongAdder _rejected = new LongAdder();
+	private final LongAdder _written = new LongAdder();
+	private final LongAdder _failed = new LongAdder();
+	private final LongAdder _rows = new LongAdder();
+	private final LongAdder _statements = new LongAdder();
+	private final LatencyHistogram _writeTimes = new LatencyHistogram();
+	
+	protected PersistenceTaskManager()
+	{
+		for (int i = 0; i < Config.CHAR_STORE_THREADS; i++)
+		{
+			_executor.execute(this::work);
+		}
+	}
+	
+	/**
+	 * Queues a periodic save of the player, a player that is already queued is saved only once.
+	 * @param player the player
+	 * @return {@code true} if the player is queued, {@code false} if the queue is full
+	 */
+	public synchronized boolean add(Player player)
+	{
+		if (_shutdown)
+		{
+			return false;
+		}
+		
+		if (!_pending.containsKey(player.getObjectId()))
+		{
+			if (_pending.size() >= Config.CHAR_STORE_QUEUE_SIZE)
+			{
+				_rejected.increment();
+				return false;
+			}
+			
+			_pending.put(player.getObjectId(), player);
+			_queued.increment();
+			notifyAll();
+		}
+		return true;
+	}
+	
+	/**
+	 * Drops the queued save of the player and waits for a save that is being written.<br>
+	 * Called before a direct save, so older data can never be written after it.
+	 * @param player the player
+	 */
+	public synchronized void remove(Player player)
+	{
+		_pending.remove(player.getObjectId());
+		while (_inFlight.contains(player.getObjectId()))
+		{
+			try
+			{
+				wait();
+			}
+			catch (InterruptedException e)
+			{
+				Thread.currentThread().interrupt();
+				return;
+			}
+		}
+	}
+	
+	public synchronized int getQueueSize()
+	{
+		return _pending.size();
+	}
+	
+	private void work()
+	{
+		while (true)
+		{
+			final List<Player> players = new ArrayList<>(Config.CHAR_STORE_BATCH_SIZE);
+			synchronized (this)
+			{
+				while (_pending.isEmpty())
+				{
+					if (_shutdown)
+					{
+						return;
+					}
+					
+					try
+					{
+						wait();
+					}
+					catch (InterruptedException e)
+					{
+						return;
+					}
+				}
+				
+				final Iterator<Player> iterator = _pending.values().iterator();
+				while (iterator.hasNext() && (players.size() < Config.CHAR_STORE_BATCH_SIZE))
+				{
+					final Player player = iterator.next();
+					iterator.remove();
+					_inFlight.add(player.getObjectId());
+					players.add(player);
+				}
+			}
+			
+			try
+			{
+				write(players);
+			}
+			finally
+			{
+				synchronized (this)
+				{
+					for (Player player : players)
+					{
+						_inFlight.remove(player.getObjectId());
+					}
+					notifyAll();
+				}
+			}
+		}
+	}
+	
+	private void write(List<Player> players)
+	{
+		final long start = System.nanoTime();
+		final List<DatabaseBatch> batches = new ArrayList<>(players.size());
+		final DatabaseBatch group = new DatabaseBatch();
+		for (Player player : players)
+		{
+			final DatabaseBatch batch = new DatabaseBatch();
+			try
+			{
+				player.autoSave(batch);
+			}
+			catch (Exception e)
+			{
+				LOGGER.log(Level.WARNING, getClass().getSimpleName() + ": Could not collect data of " + player + ".", e);
+			}
+			batches.add(batch);
+			group.addAll(batch);
+		}
+		
+		if (execute(group))
+		{
+			group.committed();
+		}
+		else
+		{
+			// Retry one player at a time, so a single bad row does not drop the whole group.
+			for (int i = 0; i < players.size(); i++)
+			{
+				if (execute(batches.get(i)))
+				{
+					batches.get(i).committed();
+				}
+				else
+				{
+					_failed.increment();
+					LOGGER.warning(getClass().getSimpleName() + ": Could not store data of " + players.get(i) + ".");
+				}
+			}
+		}
+		
+		_written.add(players.size());
+		_rows.add(group.getRowCount());
+		_statements.add(group.getStatementCount());
+		_writeTimes.record(System.nanoTime() - start);
+	}
+	
+	private boolean execute(DatabaseBatch batch)
+	{
+		if (batch.isEmpty())
+		{
+			return true;
+		}
+		
+		try (Connection con = DatabaseFactory.getConnection())
+		{
+			con.setAutoCommit(false);
+			try
+			{
+				batch.execute(con);
+				con.commit();
+				return true;
+			}
+			catch (Exception e)
+			{
+				con.rollback();
+				LOGGER.log(Level.WARNING, getClass().getSimpleName() + ": " + e.getMessage(), e);
+				return false;
+			}
+			finally
+			{
+				con.setAutoCommit(true);
+			}
+		}
+		catch (Exception e)
+		{
+			LOGGER.log(Level.WARNING, getClass().getSimpleName() + ": " + e.getMessage(), e);
+			return false;
+		}
+	}
+	
+	/**
+	 * Writes the remaining queued saves and stops the pool.
+	 */
+	public void shutdown()
+	{
+		synchronized (this)
+		{
+			_shutdown = true;
+			notifyAll();
+		}
+		
+		_executor.shutdown();
+		try
+		{
+			_executor.awaitTermination(1, TimeUnit.MINUTES);
+		}
+		catch (InterruptedException e)
+		{
+			Thread.currentThread().interrupt();
+		}
+	}
+	
+	public String[] getStats()
+	{
+		final List<String> stats = new ArrayList<>();
+		stats.add("Player save write-behind:");
+		stats.add(" |- Queued: ........... " + getQueueSize());
+		stats.add(" |- TotalQueued: ...... " + _queued.sum());
+		stats.add(" |- Rejected: ......... " + _rejected.sum());
+		stats.add(" |- Written: .......... " + _written.sum());
+		stats.add(" |- Failed: ........... " + _failed.sum());
+		stats.add(" |- Rows: ............. " + _rows.sum());
+		stats.add(" |- RoundTrips: ....... " + _statements.sum());
+		stats.add(" |- GroupWriteTime: ... " + _writeTimes);
+		return stats.toArray(new String[stats.size()]);
+	}
+	
+	public static PersistenceTaskManager getInstance()
+	{
+		return SingletonHolder.INSTANCE;
+	}
+	
+	private static class SingletonHolder
+	{
+		protected static final PersistenceTaskManager INSTANCE = new PersistenceTaskManager();
+	}
+}
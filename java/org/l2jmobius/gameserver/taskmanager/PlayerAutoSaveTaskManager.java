@@ -16,62 +16,60 @@
  */
 package org.l2jmobius.gameserver.taskmanager;
 
-import java.util.Map;
-import java.util.Map.Entry;
-import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
 
 import org.l2jmobius.Config;
-import org.l2jmobius.commons.threads.ThreadPool;
+import org.l2jmobius.commons.threads.TimingWheel;
 import org.l2jmobius.gameserver.model.actor.Player;
 
 /**
  * @author Mobius
  */
-public class PlayerAutoSaveTaskManager implements Runnable
+public class PlayerAutoSaveTaskManager
 {
-	private static final Map<Player, Long> PLAYER_TIMES = new ConcurrentHashMap<>();
-	private static boolean _working = false;
+	private static final TimingWheel<Player> PLAYER_TIMES = new TimingWheel<>(1000, 512, PlayerAutoSaveTaskManager::save);
+	private static final AtomicLong LAST_SAVE = new AtomicLong();
 	
 	protected PlayerAutoSaveTaskManager()
 	{
-		ThreadPool.scheduleAtFixedRate(this, 1000, 1000);
+		PLAYER_TIMES.start();
 	}
 	
-	@Override
-	public void run()
+	private static void save(Player player)
 	{
-		if (_working)
+		if (!player.isOnline())
 		{
 			return;
 		}
-		_working = true;
 		
 		final long time = System.currentTimeMillis();
-		SEARCH: for (Entry<Player, Long> entry : PLAYER_TIMES.entrySet())
+		if (Config.CHAR_STORE_WRITE_BEHIND)
 		{
-			if (time > entry.getValue().longValue())
-			{
-				final Player player = entry.getKey();
-				if ((player != null) && player.isOnline())
-				{
-					player.autoSave();
-					PLAYER_TIMES.put(entry.getKey(), time + Config.CHAR_DATA_STORE_INTERVAL);
-					break SEARCH; // Prevent SQL flood.
-				}
-			}
+			// Postpone the save while the write-behind queue is full.
+			PLAYER_TIMES.schedule(player, time + (PersistenceTaskManager.getInstance().add(player) ? Config.CHAR_DATA_STORE_INTERVAL : 1000));
+			return;
+		}
+		
+		// Prevent SQL flood, save one player per second and postpone the others.
+		final long lastSave = LAST_SAVE.get();
+		if (((time - lastSave) < 1000) || !LAST_SAVE.compareAndSet(lastSave, time))
+		{
+			PLAYER_TIMES.schedule(player, time + 1000);
+			return;
 		}
 		
-		_working = false;
+		player.autoSave();
+		PLAYER_TIMES.schedule(player, time + Config.CHAR_DATA_STORE_INTERVAL);
 	}
 	
 	public void add(Player player)
 	{
-		PLAYER_TIMES.put(player, System.currentTimeMillis() + Config.CHAR_DATA_STORE_INTERVAL);
+		PLAYER_TIMES.schedule(player, System.currentTimeMillis() + Config.CHAR_DATA_STORE_INTERVAL);
 	}
 	
 	public void remove(Player player)
 	{
-		PLAYER_TIMES.remove(player);
+		PLAYER_TIMES.cancel(player);
 	}
 	
 	public static PlayerAutoSaveTaskManager getInstance()
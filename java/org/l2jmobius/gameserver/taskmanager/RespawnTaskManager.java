@@ -16,58 +16,35 @@
  */
 package org.l2jmobius.gameserver.taskmanager;
 
-import java.util.Map;
-import java.util.Map.Entry;
-import java.util.concurrent.ConcurrentHashMap;
-
-import org.l2jmobius.commons.threads.ThreadPool;
+import org.l2jmobius.commons.threads.TimingWheel;
 import org.l2jmobius.gameserver.model.Spawn;
 import org.l2jmobius.gameserver.model.actor.Npc;
 
 /**
  * @author Mobius
  */
-public class RespawnTaskManager implements Runnable
+public class RespawnTaskManager
 {
-	private static final Map<Npc, Long> PENDING_RESPAWNS = new ConcurrentHashMap<>();
-	private static boolean _working = false;
+	private static final TimingWheel<Npc> PENDING_RESPAWNS = new TimingWheel<>(1000, 512, RespawnTaskManager::respawn);
 	
 	protected RespawnTaskManager()
 	{
-		ThreadPool.scheduleAtFixedRate(this, 0, 1000);
+		PENDING_RESPAWNS.start();
 	}
 	
-	@Override
-	public void run()
+	private static void respawn(Npc npc)
 	{
-		if (_working)
-		{
-			return;
-		}
-		_working = true;
-		
-		final long time = System.currentTimeMillis();
-		for (Entry<Npc, Long> entry : PENDING_RESPAWNS.entrySet())
+		final Spawn spawn = npc.getSpawn();
+		if (spawn != null)
 		{
-			if (time > entry.getValue().longValue())
-			{
-				final Npc npc = entry.getKey();
-				PENDING_RESPAWNS.remove(npc);
-				final Spawn spawn = npc.getSpawn();
-				if (spawn != null)
-				{
-					spawn.respawnNpc(npc);
-					spawn._scheduledCount--;
-				}
-			}
+			spawn.respawnNpc(npc);
+			spawn._scheduledCount--;
 		}
-		
-		_working = false;
 	}
 	
 	public void add(Npc npc, long time)
 	{
-		PENDING_RESPAWNS.put(npc, time);
+		PENDING_RESPAWNS.schedule(npc, time);
 	}
 	
 	public static RespawnTaskManager getInstance()
@@ -19,6 +19,7 @@ package org.l2jmobius.gameserver.util;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
+import org.l2jmobius.commons.network.SharedPacket;
 import org.l2jmobius.gameserver.cache.RelationCache;
 import org.l2jmobius.gameserver.enums.ChatType;
 import org.l2jmobius.gameserver.instancemanager.ZoneManager;
@@ -27,6 +28,7 @@ import org.l2jmobius.gameserver.model.actor.Creature;
 import org.l2jmobius.gameserver.model.actor.Player;
 import org.l2jmobius.gameserver.model.actor.Summon;
 import org.l2jmobius.gameserver.model.zone.ZoneType;
+import org.l2jmobius.gameserver.network.GameClient;
 import org.l2jmobius.gameserver.network.serverpackets.CharInfo;
 import org.l2jmobius.gameserver.network.serverpackets.CreatureSay;
 import org.l2jmobius.gameserver.network.serverpackets.ExShowScreenMessage;
@@ -53,13 +55,18 @@ public class Broadcast
 	 */
 	public static void toPlayersTargettingMyself(Creature creature, IClientOutgoingPacket mov)
 	{
+		final SharedPacket shared = GameClient.share(mov);
 		World.getInstance().forEachVisibleObject(creature, Player.class, player ->
 		{
 			if (player.getTarget() == creature)
 			{
-				player.sendPacket(mov);
+				player.sendPacket(mov, shared);
 			}
 		});
+		if (shared != null)
+		{
+			shared.release();
+		}
 	}
 	
 	/**
@@ -75,11 +82,12 @@ public class Broadcast
 	 */
 	public static void toKnownPlayers(Creature creature, IClientOutgoingPacket mov)
 	{
+		final SharedPacket shared = GameClient.share(mov);
 		World.getInstance().forEachVisibleObject(creature, Player.class, player ->
 		{
 			try
 			{
-				player.sendPacket(mov);
+				player.sendPacket(mov, shared);
 				if ((mov instanceof CharInfo) && (creature.isPlayer()))
 				{
 					final long relation = ((Player) creature).getRelation(player);
@@ -111,6 +119,10 @@ public class Broadcast
 				LOGGER.log(Level.WARNING, e.getMessage(), e);
 			}
 		});
+		if (shared != null)
+		{
+			shared.release();
+		}
 	}
 	
 	/**
@@ -133,7 +145,12 @@ public class Broadcast
 			radius = 1500;
 		}
 		
-		World.getInstance().forEachVisibleObjectInRange(creature, Player.class, radius, player -> player.sendPacket(packet));
+		final SharedPacket shared = GameClient.share(packet);
+		World.getInstance().forEachVisibleObjectInRange(creature, Player.class, radius, player -> player.sendPacket(packet, shared));
+		if (shared != null)
+		{
+			shared.release();
+		}
 	}
 	
 	/**
@@ -170,7 +187,12 @@ public class Broadcast
 			creature.sendPacket(packet);
 		}
 		
-		World.getInstance().forEachVisibleObjectInRange(creature, Player.class, radius, player -> player.sendPacket(packet));
+		final SharedPacket shared = GameClient.share(packet);
+		World.getInstance().forEachVisibleObjectInRange(creature, Player.class, radius, player -> player.sendPacket(packet, shared));
+		if (shared != null)
+		{
+			shared.release();
+		}
 	}
 	
 	/**
@@ -184,13 +206,18 @@ public class Broadcast
 	 */
 	public static void toAllOnlinePlayers(IClientOutgoingPacket packet)
 	{
+		final SharedPacket shared = GameClient.share(packet);
 		for (Player player : World.getInstance().getPlayers())
 		{
 			if (player.isOnline())
 			{
-				player.sendPacket(packet);
+				player.sendPacket(packet, shared);
 			}
 		}
+		if (shared != null)
+		{
+			shared.release();
+		}
 	}
 	
 	public static void toAllOnlinePlayers(String text)
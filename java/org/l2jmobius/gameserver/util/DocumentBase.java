@@ -34,6 +34,7 @@ import org.w3c.dom.Document;
 import org.w3c.dom.NamedNodeMap;
 import org.w3c.dom.Node;
 
+import org.l2jmobius.commons.util.XmlSnapshot;
 import org.l2jmobius.gameserver.data.ItemTable;
 import org.l2jmobius.gameserver.enums.CastleSide;
 import org.l2jmobius.gameserver.enums.CategoryType;
@@ -160,14 +161,20 @@ public abstract class DocumentBase
 	}
 	
 	public Document parse()
+	{
+		return parse(null);
+	}
+	
+	/**
+	 * @param snapshot the snapshot of the data set, or {@code null} to parse the XML file
+	 * @return the parsed document
+	 */
+	public Document parse(XmlSnapshot snapshot)
 	{
 		Document doc = null;
 		try
 		{
-			final DocumentBuilderFactory factory = DocumentBuilderFactory.newInstance();
-			factory.setValidating(false);
-			factory.setIgnoringComments(true);
-			doc = factory.newDocumentBuilder().parse(_file);
+			doc = snapshot == null ? readDocument(_file) : snapshot.getDocument(_file, this::readDocument);
 			parseDocument(doc);
 		}
 		catch (Exception e)
@@ -177,6 +184,14 @@ public abstract class DocumentBase
 		return doc;
 	}
 	
+	private Document readDocument(File file) throws Exception
+	{
+		final DocumentBuilderFactory factory = DocumentBuilderFactory.newInstance();
+		factory.setValidating(false);
+		factory.setIgnoringComments(true);
+		return factory.newDocumentBuilder().parse(file);
+	}
+	
 	protected abstract void parseDocument(Document doc);
 	
 	protected abstract StatSet getStatSet();
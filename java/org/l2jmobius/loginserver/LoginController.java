@@ -22,6 +22,7 @@ import java.nio.charset.StandardCharsets;
 import java.security.GeneralSecurityException;
 import java.security.KeyPairGenerator;
 import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.security.spec.RSAKeyGenParameterSpec;
 import java.sql.Connection;
 import java.sql.PreparedStatement;
@@ -58,6 +59,19 @@ public class LoginController
 	/** Time before kicking the client if he didn't logged yet */
 	public static final int LOGIN_TIMEOUT = 60 * 1000;
 	
+	/** Password digest of each authentication thread */
+	private static final ThreadLocal<MessageDigest> SHA_DIGEST = ThreadLocal.withInitial(() ->
+	{
+		try
+		{
+			return MessageDigest.getInstance("SHA");
+		}
+		catch (NoSuchAlgorithmException e)
+		{
+			throw new IllegalStateException(e);
+		}
+	});
+	
 	/** Authed Clients on LoginServer */
 	protected Map<String, LoginClient> _loginServerClients = new ConcurrentHashMap<>();
 	
@@ -170,7 +184,7 @@ public class LoginController
 	{
 		try
 		{
-			final MessageDigest md = MessageDigest.getInstance("SHA");
+			final MessageDigest md = SHA_DIGEST.get();
 			final byte[] raw = password.getBytes(StandardCharsets.UTF_8);
 			final String hashBase64 = Base64.getEncoder().encodeToString(md.digest(raw));
 			
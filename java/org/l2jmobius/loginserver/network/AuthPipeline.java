@@ -0,0 +1,257 @@
+/*
+ * This file is part of the L2J Mobius project.
+ * 
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.l2jmobius.loginserver.network;
+
+import java.net.InetAddress;
+import java.security.GeneralSecurityException;
+import java.security.Key;
+import java.util.IdentityHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import javax.crypto.Cipher;
+
+import org.l2jmobius.Config;
+import org.l2jmobius.commons.threads.NamedThreadFactory;
+import org.l2jmobius.loginserver.GameServerTable.GameServerInfo;
+import org.l2jmobius.loginserver.LoginController;
+import org.l2jmobius.loginserver.enums.AccountKickedReason;
+import org.l2jmobius.loginserver.enums.LoginFailReason;
+import org.l2jmobius.loginserver.model.data.AccountInfo;
+import org.l2jmobius.loginserver.network.serverpackets.AccountKicked;
+import org.l2jmobius.loginserver.network.serverpackets.LoginOk;
+import org.l2jmobius.loginserver.network.serverpackets.ServerList;
+
+/**
+ * Authenticates login requests off the network threads.<br>
+ * The RSA blocks are decrypted on a CPU pool with ciphers cached per thread, then the account lookup and IP checks run on a database pool.<br>
+ * Both stages have bounded queues, a request that does not fit is refused with {@link LoginFailReason#REASON_SERVER_OVERLOADED}.
+ */
+public class AuthPipeline
+{
+	private static final Logger LOGGER = Logger.getLogger(AuthPipeline.class.getName());
+	
+	private static final int BLOCK_SIZE = 128;
+	private static final ThreadLocal<Map<Key, Cipher>> RSA_CIPHERS = ThreadLocal.withInitial(IdentityHashMap::new);
+	
+	private final ThreadPoolExecutor _decryptExecutor;
+	private final ThreadPoolExecutor _databaseExecutor;
+	private final Set<LoginClient> _pending = ConcurrentHashMap.newKeySet();
+	private final AtomicLong _refused = new AtomicLong();
+	
+	protected AuthPipeline()
+	{
+		_decryptExecutor = createExecutor("AuthDecrypt", Config.LOGIN_AUTH_DECRYPT_THREADS > 0 ? Config.LOGIN_AUTH_DECRYPT_THREADS : Runtime.getRuntime().availableProcessors());
+		_databaseExecutor = createExecutor("AuthDatabase", Config.LOGIN_AUTH_DATABASE_THREADS);
+	}
+	
+	private static ThreadPoolExecutor createExecutor(String name, int threads)
+	{
+		final ThreadPoolExecutor executor = new ThreadPoolExecutor(threads, threads, 0, TimeUnit.SECONDS, new ArrayBlockingQueue<>(Config.LOGIN_AUTH_QUEUE_SIZE), new NamedThreadFactory(name));
+		executor.prestartAllCoreThreads();
+		return executor;
+	}
+	
+	/**
+	 * Queues the login request of a client, a client has at most one request in the pipeline.
+	 * @param client the client
+	 * @param blocks the RSA encrypted blocks of 128 bytes
+	 * @param credentials reads the account name and password from the decrypted blocks
+	 */
+	public void authenticate(LoginClient client, byte[][] blocks, Function<byte[], String[]> credentials)
+	{
+		if (_pending.add(client))
+		{
+			submit(_decryptExecutor, client, () -> decrypt(client, blocks, credentials));
+		}
+	}
+	
+	private void submit(ThreadPoolExecutor executor, LoginClient client, Runnable task)
+	{
+		try
+		{
+			executor.execute(task);
+		}
+		catch (RejectedExecutionException e)
+		{
+			_pending.remove(client);
+			client.close(LoginFailReason.REASON_SERVER_OVERLOADED);
+			if ((_refused.getAndIncrement() % 100) == 0)
+			{
+				LOGGER.warning(getClass().getSimpleName() + ": Queue is full, " + _refused.get() + " login requests refused so far.");
+			}
+		}
+	}
+	
+	private void decrypt(LoginClient client, byte[][] blocks, Function<byte[], String[]> credentials)
+	{
+		final byte[] decrypted = new byte[blocks.length * BLOCK_SIZE];
+		final Key key = client.getScrambledKeyPair().getPrivateKey();
+		try
+		{
+			final Cipher rsaCipher = getCipher(key);
+			for (int i = 0; i < blocks.length; i++)
+			{
+				rsaCipher.doFinal(blocks[i], 0, BLOCK_SIZE, decrypted, i * BLOCK_SIZE);
+			}
+		}
+		catch (GeneralSecurityException e)
+		{
+			RSA_CIPHERS.get().remove(key);
+			_pending.remove(client);
+			LOGGER.log(Level.INFO, "", e);
+			return;
+		}
+		
+		final String[] userAndPassword;
+		try
+		{
+			userAndPassword = credentials.apply(decrypted);
+		}
+		catch (Exception e)
+		{
+			_pending.remove(client);
+			LOGGER.log(Level.WARNING, "", e);
+			return;
+		}
+		
+		submit(_databaseExecutor, client, () -> checkAccount(client, userAndPassword[0], userAndPassword[1]));
+	}
+	
+	private static Cipher getCipher(Key key) throws GeneralSecurityException
+	{
+		// Few key pairs are used, so each thread keeps an initialized cipher per key.
+		final Map<Key, Cipher> ciphers = RSA_CIPHERS.get();
+		Cipher rsaCipher = ciphers.get(key);
+		if (rsaCipher == null)
+		{
+			rsaCipher = Cipher.getInstance("RSA/ECB/nopadding");
+			rsaCipher.init(Cipher.DECRYPT_MODE, key);
+			ciphers.put(key, rsaCipher);
+		}
+		return rsaCipher;
+	}
+	
+	private void checkAccount(LoginClient client, String user, String password)
+	{
+		try
+		{
+			// The client may have given up while the request was queued.
+			if (!client.isConnected())
+			{
+				return;
+			}
+			
+			final InetAddress clientAddr = client.getConnectionAddress();
+			final LoginController lc = LoginController.getInstance();
+			final AccountInfo info = lc.retriveAccountInfo(clientAddr, user, password);
+			if (info == null)
+			{
+				// user or pass wrong
+				// client.close(LoginFailReason.REASON_SYSTEM_ERROR);
+				// above message crashes client
+				// REASON_ACCOUNT_INFO_INCORRECT_CONTACT_SUPPORT seems ok as well
+				client.close(LoginFailReason.REASON_ACCESS_FAILED);
+				return;
+			}
+			
+			switch (lc.tryCheckinAccount(client, clientAddr, info))
+			{
+				case AUTH_SUCCESS:
+				{
+					client.setAccount(info.getLogin());
+					client.setConnectionState(ConnectionState.AUTHED_LOGIN);
+					client.setSessionKey(lc.assignSessionKeyToClient(info.getLogin(), client));
+					lc.getCharactersOnAccount(info.getLogin());
+					if (Config.SHOW_LICENCE)
+					{
+						client.sendPacket(new LoginOk(client.getSessionKey()));
+					}
+					else
+					{
+						client.sendPacket(new ServerList(client));
+					}
+					break;
+				}
+				case INVALID_PASSWORD:
+				{
+					client.close(LoginFailReason.REASON_USER_OR_PASS_WRONG);
+					break;
+				}
+				case ACCOUNT_BANNED:
+				{
+					client.close(new AccountKicked(AccountKickedReason.REASON_PERMANENTLY_BANNED));
+					break;
+				}
+				case ALREADY_ON_LS:
+				{
+					final LoginClient oldClient = lc.getAuthedClient(info.getLogin());
+					if (oldClient != null)
+					{
+						// kick the other client
+						oldClient.close(LoginFailReason.REASON_ACCOUNT_IN_USE);
+						lc.removeAuthedLoginClient(info.getLogin());
+					}
+					// kick also current client
+					client.close(LoginFailReason.REASON_ACCOUNT_IN_USE);
+					break;
+				}
+				case ALREADY_ON_GS:
+				{
+					final GameServerInfo gsi = lc.getAccountOnGameServer(info.getLogin());
+					if (gsi != null)
+					{
+						client.close(LoginFailReason.REASON_ACCOUNT_IN_USE);
+						// kick from there
+						if (gsi.isAuthed())
+						{
+							gsi.getGameServerThread().kickPlayer(info.getLogin());
+						}
+					}
+					break;
+				}
+			}
+		}
+		catch (Exception e)
+		{
+			LOGGER.log(Level.WARNING, getClass().getSimpleName() + ": Could not authenticate " + user + ".", e);
+		}
+		finally
+		{
+			_pending.remove(client);
+		}
+	}
+	
+	public static AuthPipeline getInstance()
+	{
+		return SingletonHolder.INSTANCE;
+	}
+	
+	private static class SingletonHolder
+	{
+		protected static final AuthPipeline INSTANCE = new AuthPipeline();
+	}
+}
@@ -113,6 +113,11 @@ public class LoginClient extends ChannelInboundHandler<LoginClient>
 	{
 	}
 	
+	public boolean isConnected()
+	{
+		return (_channel != null) && _channel.isActive();
+	}
+	
 	public InetAddress getConnectionAddress()
 	{
 		return _addr;
@@ -16,34 +16,17 @@
  */
 package org.l2jmobius.loginserver.network.clientpackets;
 
-import java.net.InetAddress;
-import java.security.GeneralSecurityException;
-import java.util.logging.Level;
-import java.util.logging.Logger;
-
-import javax.crypto.Cipher;
-
 import org.l2jmobius.Config;
 import org.l2jmobius.commons.network.IIncomingPacket;
 import org.l2jmobius.commons.network.PacketReader;
-import org.l2jmobius.loginserver.GameServerTable.GameServerInfo;
-import org.l2jmobius.loginserver.enums.AccountKickedReason;
-import org.l2jmobius.loginserver.enums.LoginFailReason;
-import org.l2jmobius.loginserver.LoginController;
-import org.l2jmobius.loginserver.model.data.AccountInfo;
-import org.l2jmobius.loginserver.network.ConnectionState;
+import org.l2jmobius.loginserver.network.AuthPipeline;
 import org.l2jmobius.loginserver.network.LoginClient;
-import org.l2jmobius.loginserver.network.serverpackets.AccountKicked;
-import org.l2jmobius.loginserver.network.serverpackets.LoginOk;
-import org.l2jmobius.loginserver.network.serverpackets.ServerList;
 
 /**
  * Format: x 0 (a leading null) x: the rsa encrypted block with the login an password.
  */
 public class RequestAuthLogin implements IIncomingPacket<LoginClient>
 {
-	private static final Logger LOGGER = Logger.getLogger(RequestAuthLogin.class.getName());
-	
 	private final byte[] _raw1 = new byte[128];
 	private final byte[] _raw2 = new byte[128];
 	private boolean _newAuthMethod = false;
@@ -74,112 +57,29 @@ public class RequestAuthLogin implements IIncomingPacket<LoginClient>
 			return;
 		}
 		
-		final byte[] decrypted = new byte[_newAuthMethod ? 256 : 128];
-		try
+		final byte[][] blocks = _newAuthMethod ? new byte[][]
 		{
-			final Cipher rsaCipher = Cipher.getInstance("RSA/ECB/nopadding");
-			rsaCipher.init(Cipher.DECRYPT_MODE, client.getScrambledKeyPair().getPrivateKey());
-			rsaCipher.doFinal(_raw1, 0, 128, decrypted, 0);
-			if (_newAuthMethod)
-			{
-				rsaCipher.doFinal(_raw2, 0, 128, decrypted, 128);
-			}
-		}
-		catch (GeneralSecurityException e)
+			_raw1,
+			_raw2
+		} : new byte[][]
 		{
-			LOGGER.log(Level.INFO, "", e);
-			return;
-		}
-		
-		final String user;
-		final String password;
-		try
+			_raw1
+		};
+		AuthPipeline.getInstance().authenticate(client, blocks, decrypted ->
 		{
 			if (_newAuthMethod)
 			{
-				user = new String(decrypted, 0x4E, 50).trim() + new String(decrypted, 0xCE, 14).trim();
-				password = new String(decrypted, 0xDC, 16).trim();
-			}
-			else
-			{
-				user = new String(decrypted, 0x5E, 14).trim();
-				password = new String(decrypted, 0x6C, 16).trim();
-			}
-		}
-		catch (Exception e)
-		{
-			LOGGER.log(Level.WARNING, "", e);
-			return;
-		}
-		
-		final InetAddress clientAddr = client.getConnectionAddress();
-		final LoginController lc = LoginController.getInstance();
-		final AccountInfo info = lc.retriveAccountInfo(clientAddr, user, password);
-		if (info == null)
-		{
-			// user or pass wrong
-			// client.close(LoginFailReason.REASON_SYSTEM_ERROR);
-			// above message crashes client
-			// REASON_ACCOUNT_INFO_INCORRECT_CONTACT_SUPPORT seems ok as well
-			client.close(LoginFailReason.REASON_ACCESS_FAILED);
-			return;
-		}
-		
-		switch (lc.tryCheckinAccount(client, clientAddr, info))
-		{
-			case AUTH_SUCCESS:
-			{
-				client.setAccount(info.getLogin());
-				client.setConnectionState(ConnectionState.AUTHED_LOGIN);
-				client.setSessionKey(lc.assignSessionKeyToClient(info.getLogin(), client));
-				lc.getCharactersOnAccount(info.getLogin());
-				if (Config.SHOW_LICENCE)
-				{
-					client.sendPacket(new LoginOk(client.getSessionKey()));
-				}
-				else
+				return new String[]
 				{
-					client.sendPacket(new ServerList(client));
-				}
-				break;
-			}
-			case INVALID_PASSWORD:
-			{
-				client.close(LoginFailReason.REASON_USER_OR_PASS_WRONG);
-				break;
+					new String(decrypted, 0x4E, 50).trim() + new String(decrypted, 0xCE, 14).trim(),
+					new String(decrypted, 0xDC, 16).trim()
+				};
 			}
-			case ACCOUNT_BANNED:
+			return new String[]
 			{
-				client.close(new AccountKicked(AccountKickedReason.REASON_PERMANENTLY_BANNED));
-				return;
-			}
-			case ALREADY_ON_LS:
-			{
-				final LoginClient oldClient = lc.getAuthedClient(info.getLogin());
-				if (oldClient != null)
-				{
-					// kick the other client
-					oldClient.close(LoginFailReason.REASON_ACCOUNT_IN_USE);
-					lc.removeAuthedLoginClient(info.getLogin());
-				}
-				// kick also current client
-				client.close(LoginFailReason.REASON_ACCOUNT_IN_USE);
-				break;
-			}
-			case ALREADY_ON_GS:
-			{
-				final GameServerInfo gsi = lc.getAccountOnGameServer(info.getLogin());
-				if (gsi != null)
-				{
-					client.close(LoginFailReason.REASON_ACCOUNT_IN_USE);
-					// kick from there
-					if (gsi.isAuthed())
-					{
-						gsi.getGameServerThread().kickPlayer(info.getLogin());
-					}
-				}
-				break;
-			}
-		}
+				new String(decrypted, 0x5E, 14).trim(),
+				new String(decrypted, 0x6C, 16).trim()
+			};
+		});
 	}
 }